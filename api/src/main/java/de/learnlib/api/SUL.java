@@ -16,6 +16,8 @@
 package de.learnlib.api;
 
 import de.learnlib.api.exception.SULException;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 
 /**
  * Interface for a system under learning (SUL) that can make single steps.
@@ -53,6 +55,27 @@ public interface SUL<I, O> {
      */
     O step(I in);
 
+    /**
+     * make multiple steps on the SUL. Semantically, this is equivalent to consecutively calling {@link #step(Object)}
+     * for each symbol of the given word. SULs for which each step is expensive (e.g., due to remote communication) may
+     * override this method to execute the whole word at once.
+     *
+     * @param in
+     *         inputs to the SUL
+     *
+     * @return outputs of SUL, one per input symbol
+     *
+     * @throws SULException
+     *         if an input symbol cannot be executed on the SUL
+     */
+    default Word<O> stepAll(Word<I> in) {
+        final WordBuilder<O> wb = new WordBuilder<>(in.length());
+        for (I sym : in) {
+            wb.add(step(sym));
+        }
+        return wb.toWord();
+    }
+
     /**
      * Returns whether this SUL is capable of {@link #fork() forking}.
      *
@@ -0,0 +1,79 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.api.oracle;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+
+/**
+ * Asynchronous variant of the {@link MembershipOracle} interface. Instead of blocking the calling thread until all
+ * queries have been answered, the processing methods immediately return a {@link CompletableFuture} which is
+ * completed once each of the queries' {@link Query#answer(Object)} method has been called. This allows a caller to
+ * continue its own computations while queries are being processed.
+ * <p>
+ * If the processing of any query fails, the returned future completes exceptionally.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @see MembershipOracle
+ */
+public interface AsyncMembershipOracle<I, D> {
+
+    default CompletableFuture<D> answerQueryAsync(Word<I> input) {
+        return answerQueryAsync(Word.epsilon(), input);
+    }
+
+    default CompletableFuture<D> answerQueryAsync(Word<I> prefix, Word<I> suffix) {
+        DefaultQuery<I, D> query = new DefaultQuery<>(prefix, suffix);
+        return processQueryAsync(query).thenApply(v -> query.getOutput());
+    }
+
+    /**
+     * Asynchronously processes a single query. The default implementation wraps the provided {@link Query} in a
+     * singleton {@link Collection} using {@link Collections#singleton(Object)}.
+     *
+     * @param query
+     *         the query to process
+     *
+     * @return a future which is completed once the query has been answered
+     */
+    default CompletableFuture<Void> processQueryAsync(Query<I, D> query) {
+        return processQueriesAsync(Collections.singleton(query));
+    }
+
+    /**
+     * Asynchronously processes the specified collection of queries. When the returned future completes normally, each
+     * of the contained queries {@link Query#answer(Object)} method has been called with an argument reflecting the SUL
+     * response to the respective query.
+     *
+     * @param queries
+     *         the queries to process
+     *
+     * @return a future which is completed once all queries have been answered
+     *
+     * @see Query#answer(Object)
+     */
+    CompletableFuture<Void> processQueriesAsync(Collection<? extends Query<I, D>> queries);
+
+}
@@ -15,7 +15,12 @@
  */
 package de.learnlib.api.oracle.parallelism;
 
+import java.util.Collection;
+import java.util.function.Predicate;
+
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Basic interface for {@link MembershipOracle}s that can process queries in parallel.
@@ -31,4 +36,37 @@ import de.learnlib.api.oracle.MembershipOracle;
  *
  * @author Malte Isberner
  */
-public interface ParallelOracle<I, D> extends ThreadPool, MembershipOracle<I, D> {}
+public interface ParallelOracle<I, D> extends ThreadPool, MembershipOracle<I, D> {
+
+    /**
+     * Processes the specified collection of queries until a query is answered that satisfies the given abort
+     * condition (e.g., a query that reveals a counterexample to a hypothesis). Implementations may then skip the
+     * remaining (unprocessed) queries of the collection, so that only a query that satisfies the abort condition is
+     * guaranteed to be answered when this method returns.
+     * <p>
+     * The default implementation processes all queries and returns the first query (in iteration order) that
+     * satisfies the abort condition.
+     *
+     * @param queries
+     *         the queries to process
+     * @param abortCondition
+     *         the condition that determines (after a query has been answered) whether the remaining queries may be
+     *         skipped. Note that implementations may evaluate the condition concurrently.
+     * @param <Q>
+     *         (specific) query type
+     *
+     * @return a query that satisfies the abort condition, or {@code null} if no query satisfies it
+     */
+    default <Q extends Query<I, D>> @Nullable Q processQueries(Collection<? extends Q> queries,
+                                                               Predicate<? super Q> abortCondition) {
+        processQueries(queries);
+
+        for (Q q : queries) {
+            if (abortCondition.test(q)) {
+                return q;
+            }
+        }
+
+        return null;
+    }
+}
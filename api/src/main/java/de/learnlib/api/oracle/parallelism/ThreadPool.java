@@ -63,6 +63,16 @@ public interface ThreadPool {
          *
          * @see Executors#newCachedThreadPool()
          */
-        CACHED
+        CACHED,
+        /**
+         * Spawn a new virtual thread for each job, if the runtime supports virtual threads (and a new platform thread
+         * otherwise). This is intended for I/O-bound oracles (e.g. SULs that block on a network connection), where a
+         * large number of queries may be blocked concurrently.
+         * <p>
+         * Since threads are not re-used, (sub-) oracles are bound to jobs rather than to threads. The number of
+         * concurrently processed jobs (and therefore the number of oracle instances) is bounded by the specified pool
+         * size, which may be much larger than the number of available processors.
+         */
+        VIRTUAL
     }
 }
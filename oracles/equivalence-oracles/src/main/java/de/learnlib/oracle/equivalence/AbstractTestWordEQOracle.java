@@ -20,6 +20,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
 import de.learnlib.api.query.DefaultQuery;
 import net.automatalib.automata.concepts.Output;
 import net.automatalib.words.Word;
@@ -28,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -38,6 +40,11 @@ import java.util.stream.Stream;
  * <p>
  * Being {@link Stream stream}-based, this oracle encourages the lazy computation of counterexamples, so that all
  * counterexamples do not have to be computed upfront, but only until the first valid counterexample is found.
+ * <p>
+ * If batching is enabled and the given membership oracle is a {@link ParallelOracle}, each batch is processed via
+ * {@link ParallelOracle#processQueries(Collection, java.util.function.Predicate)}, so that the remaining queries of a
+ * batch can be skipped as soon as a counterexample has been found. In this case, the hypothesis is queried
+ * concurrently by the worker threads of the parallel oracle.
  *
  * @param <A>
  *         hypothesis type
@@ -76,12 +83,15 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
 
         final Stream<Word<I>> testWordStream = generateTestWords(hypothesis, inputs);
         final Stream<DefaultQuery<I, D>> queryStream = testWordStream.map(DefaultQuery::new);
+
+        if (isBatched() && membershipOracle instanceof ParallelOracle) {
+            return findCounterExampleParallel(hypothesis, queryStream, (ParallelOracle<I, D>) membershipOracle);
+        }
+
         final Stream<DefaultQuery<I, D>> answeredQueryStream = answerQueries(queryStream);
 
-        final Stream<DefaultQuery<I, D>> ceStream = answeredQueryStream.filter(query -> {
-            D hypOutput = hypothesis.computeOutput(query.getInput());
-            return !Objects.equals(hypOutput, query.getOutput());
-        });
+        final Stream<DefaultQuery<I, D>> ceStream =
+                answeredQueryStream.filter(query -> isCounterExample(hypothesis, query));
         try {
             return ceStream.findFirst().orElse(null);
         } catch(ArrayIndexOutOfBoundsException eae) {
@@ -104,6 +114,28 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
      */
     protected abstract Stream<Word<I>> generateTestWords(A hypothesis, Collection<? extends I> inputs);
 
+    private @Nullable DefaultQuery<I, D> findCounterExampleParallel(A hypothesis,
+                                                                    Stream<DefaultQuery<I, D>> queryStream,
+                                                                    ParallelOracle<I, D> parallelOracle) {
+        final Iterator<List<DefaultQuery<I, D>>> batchIterator =
+                Iterators.partition(queryStream.iterator(), this.batchSize);
+
+        while (batchIterator.hasNext()) {
+            final DefaultQuery<I, D> ce =
+                    parallelOracle.processQueries(batchIterator.next(), query -> isCounterExample(hypothesis, query));
+            if (ce != null) {
+                return ce;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isCounterExample(A hypothesis, DefaultQuery<I, D> query) {
+        D hypOutput = hypothesis.computeOutput(query.getInput());
+        return !Objects.equals(hypOutput, query.getOutput());
+    }
+
     private Stream<DefaultQuery<I, D>> answerQueries(final Stream<DefaultQuery<I, D>> stream) {
         if (isBatched()) {
             /*
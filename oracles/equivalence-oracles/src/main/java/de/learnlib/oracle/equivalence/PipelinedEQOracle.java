@@ -0,0 +1,256 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
+import de.learnlib.api.oracle.parallelism.ThreadPool;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pipelined variant of an {@link AbstractTestWordEQOracle}. Whereas the batched mode of an {@link
+ * AbstractTestWordEQOracle} alternates between generating a batch of test words and (blocking-ly) answering it, this
+ * oracle generates test words in the calling thread while a pool of worker threads concurrently answers previously
+ * generated test words. Hence, the (potentially CPU-heavy) generation of test words and the execution of queries
+ * overlap.
+ * <p>
+ * The generator runs at most {@code queueCapacity} test words ahead of the workers. As soon as any worker detects a
+ * counterexample, the generation of test words stops and all remaining (unprocessed) test words are discarded.
+ * <p>
+ * Note that the order in which test words are answered is non-deterministic. Hence, the returned counterexample is
+ * not necessarily the first counterexample of the test word stream. Furthermore, the hypothesis is queried
+ * concurrently by the worker threads and therefore needs to support concurrent (read) access.
+ *
+ * @param <A>
+ *         hypothesis type
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output (domain) type
+ */
+public class PipelinedEQOracle<A extends Output<I, D>, I, D> implements EquivalenceOracle<A, I, D>, ThreadPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedEQOracle.class);
+
+    private final AbstractTestWordEQOracle<A, I, D> testWordGenerator;
+    private final List<MembershipOracle<I, D>> oracles;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    /**
+     * Constructor.
+     *
+     * @param testWordGenerator
+     *         the oracle whose {@link AbstractTestWordEQOracle#generateTestWords(Output, Collection) test words} should
+     *         be used for equivalence testing
+     * @param oracles
+     *         the membership oracles used for answering the test words. Each oracle is used by its own worker thread
+     *         (so that the oracles do not need to care about synchronization if they don't share state)
+     * @param batchSize
+     *         the (maximum) number of test words a worker answers at once
+     * @param queueCapacity
+     *         the maximum number of test words that may be generated ahead of the workers
+     */
+    public PipelinedEQOracle(AbstractTestWordEQOracle<A, I, D> testWordGenerator,
+                             Collection<? extends MembershipOracle<I, D>> oracles,
+                             int batchSize,
+                             int queueCapacity) {
+        Preconditions.checkArgument(!oracles.isEmpty(), "No oracles specified");
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+        Preconditions.checkArgument(queueCapacity > 0, "Queue capacity must be positive");
+
+        this.testWordGenerator = testWordGenerator;
+        this.oracles = new ArrayList<>(oracles);
+        this.executor = Executors.newFixedThreadPool(this.oracles.size());
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public @Nullable DefaultQuery<I, D> findCounterExample(A hypothesis, Collection<? extends I> inputs) {
+        // Fail fast on empty inputs
+        if (inputs.isEmpty()) {
+            LOGGER.warn("Passed empty set of inputs to equivalence oracle; no counterexample can be found!");
+            return null;
+        }
+
+        final Pipeline pipeline = new Pipeline(hypothesis);
+        final List<Future<?>> futures = new ArrayList<>(oracles.size());
+
+        for (MembershipOracle<I, D> oracle : oracles) {
+            futures.add(executor.submit(() -> pipeline.consume(oracle)));
+        }
+
+        try (Stream<Word<I>> testWordStream = testWordGenerator.generateTestWords(hypothesis, inputs)) {
+            pipeline.produce(testWordStream.iterator());
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Runnables must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            pipeline.stop();
+            Thread.interrupted();
+            throw new BatchInterruptedException(e);
+        }
+
+        return pipeline.counterexample.get();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The state of a single equivalence check: A queue of pending test words that is bounded by a semaphore, so that
+     * terminal markers (one for each worker) can always be enqueued without blocking.
+     */
+    private final class Pipeline {
+
+        private final A hypothesis;
+        private final BlockingQueue<DefaultQuery<I, D>> queue;
+        private final Semaphore slots;
+        private final DefaultQuery<I, D> endMarker;
+        private final AtomicReference<@Nullable DefaultQuery<I, D>> counterexample;
+
+        private volatile boolean stopped;
+
+        Pipeline(A hypothesis) {
+            this.hypothesis = hypothesis;
+            this.queue = new LinkedBlockingQueue<>();
+            this.slots = new Semaphore(queueCapacity);
+            this.endMarker = new DefaultQuery<>(Word.epsilon());
+            this.counterexample = new AtomicReference<>();
+        }
+
+        void produce(Iterator<Word<I>> testWords) throws InterruptedException {
+            try {
+                while (!stopped && testWords.hasNext()) {
+                    final DefaultQuery<I, D> query = new DefaultQuery<>(testWords.next());
+                    slots.acquire();
+                    queue.add(query);
+                }
+            } finally {
+                for (int i = 0; i < oracles.size(); i++) {
+                    queue.add(endMarker);
+                }
+            }
+        }
+
+        void consume(MembershipOracle<I, D> oracle) {
+            final List<DefaultQuery<I, D>> batch = new ArrayList<>(batchSize);
+            boolean terminated = false;
+
+            try {
+                while (!terminated && !stopped) {
+                    batch.clear();
+                    terminated = take(batch);
+
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+
+                    slots.release(batch.size());
+                    oracle.processQueries(batch);
+
+                    for (DefaultQuery<I, D> query : batch) {
+                        final D hypOutput = hypothesis.computeOutput(query.getInput());
+                        if (!Objects.equals(hypOutput, query.getOutput())) {
+                            counterexample.compareAndSet(null, query);
+                            stop();
+                            break;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                stop();
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                stop();
+                throw e;
+            }
+        }
+
+        /**
+         * Takes up to {@code batchSize} pending queries from the queue and stores them in the given batch.
+         *
+         * @return {@code true} if an end marker has been encountered, {@code false} otherwise
+         */
+        private boolean take(List<DefaultQuery<I, D>> batch) throws InterruptedException {
+            final List<DefaultQuery<I, D>> taken = new ArrayList<>(batchSize);
+            taken.add(queue.take());
+            queue.drainTo(taken, batchSize - 1);
+
+            int markers = 0;
+            for (DefaultQuery<I, D> q : taken) {
+                if (q == endMarker) {
+                    markers++;
+                } else {
+                    batch.add(q);
+                }
+            }
+
+            // return the markers of the other workers
+            for (int i = 1; i < markers; i++) {
+                queue.add(endMarker);
+            }
+
+            return markers > 0;
+        }
+
+        /**
+         * Stops the generation of test words and discards all pending queries.
+         */
+        void stop() {
+            stopped = true;
+            // unblock the producer, if it waits for a free slot
+            slots.release(queueCapacity);
+            queue.removeIf(q -> q != endMarker);
+        }
+    }
+}
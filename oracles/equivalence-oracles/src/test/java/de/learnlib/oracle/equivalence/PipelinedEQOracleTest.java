@@ -0,0 +1,174 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the {@link PipelinedEQOracle}.
+ */
+public class PipelinedEQOracleTest {
+
+    private static final int NUM_ORACLES = 4;
+    private static final int BATCH_SIZE = 5;
+    private static final int QUEUE_CAPACITY = 20;
+    private static final int MAX_QUERIES = 1000;
+
+    @Test
+    public void testNoCounterexample() {
+        final AtomicInteger counter = new AtomicInteger();
+        final PipelinedEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new PipelinedEQOracle<>(new DummyGenerator(), getOracles(counter, -1), BATCH_SIZE, QUEUE_CAPACITY);
+
+        try {
+            final DefaultQuery<Character, Boolean> cex =
+                    oracle.findCounterExample(input -> Boolean.TRUE, Collections.singleton('a'));
+
+            Assert.assertNull(cex);
+            Assert.assertEquals(counter.get(), MAX_QUERIES);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEarlyTermination() {
+        final int cexLength = 42;
+        final AtomicInteger counter = new AtomicInteger();
+        final DummyGenerator generator = new DummyGenerator();
+        final PipelinedEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new PipelinedEQOracle<>(generator, getOracles(counter, cexLength), BATCH_SIZE, QUEUE_CAPACITY);
+
+        try {
+            final DefaultQuery<Character, Boolean> cex =
+                    oracle.findCounterExample(input -> Boolean.TRUE, Collections.singleton('a'));
+
+            Assert.assertNotNull(cex);
+            Assert.assertEquals(cex.getInput().length(), cexLength);
+            Assert.assertEquals(cex.getOutput(), Boolean.FALSE);
+
+            // the generator must not run ahead more than the queue capacity (+ the words currently being processed)
+            final int bound = cexLength + QUEUE_CAPACITY + (NUM_ORACLES + 1) * BATCH_SIZE;
+            Assert.assertTrue(generator.getGeneratedWordsCounter() <= bound);
+            Assert.assertTrue(counter.get() <= bound);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReuse() {
+        final AtomicInteger counter = new AtomicInteger();
+        final PipelinedEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new PipelinedEQOracle<>(new DummyGenerator(), getOracles(counter, 7), BATCH_SIZE, QUEUE_CAPACITY);
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                final DefaultQuery<Character, Boolean> cex =
+                        oracle.findCounterExample(input -> Boolean.TRUE, Collections.singleton('a'));
+                Assert.assertNotNull(cex);
+                Assert.assertEquals(cex.getInput().length(), 7);
+            }
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testExceptionPropagation() {
+        final DFAMembershipOracle<Character> failing = queries -> {
+            throw new IllegalStateException();
+        };
+        final PipelinedEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new PipelinedEQOracle<>(new DummyGenerator(),
+                                        Collections.singleton(failing),
+                                        BATCH_SIZE,
+                                        QUEUE_CAPACITY);
+
+        try {
+            oracle.findCounterExample(input -> Boolean.TRUE, Collections.singleton('a'));
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    private static List<MembershipOracle<Character, Boolean>> getOracles(AtomicInteger counter, int cexLength) {
+        final List<MembershipOracle<Character, Boolean>> result = new ArrayList<>(NUM_ORACLES);
+
+        for (int i = 0; i < NUM_ORACLES; i++) {
+            result.add(new DummyMQOracle(counter, cexLength));
+        }
+
+        return result;
+    }
+
+    private static class DummyMQOracle implements DFAMembershipOracle<Character> {
+
+        private final AtomicInteger counter;
+        private final int cexLength;
+
+        DummyMQOracle(AtomicInteger counter, int cexLength) {
+            this.counter = counter;
+            this.cexLength = cexLength;
+        }
+
+        @Override
+        public void processQueries(Collection<? extends Query<Character, Boolean>> queries) {
+            for (Query<Character, Boolean> q : queries) {
+                counter.incrementAndGet();
+                q.answer(q.getInput().length() != cexLength);
+            }
+        }
+    }
+
+    private static class DummyGenerator
+            extends AbstractTestWordEQOracle<Output<Character, Boolean>, Character, Boolean> {
+
+        private final AtomicInteger generatedWordsCounter = new AtomicInteger();
+
+        DummyGenerator() {
+            super(queries -> { throw new UnsupportedOperationException(); });
+        }
+
+        int getGeneratedWordsCounter() {
+            return generatedWordsCounter.get();
+        }
+
+        @Override
+        protected Stream<Word<Character>> generateTestWords(Output<Character, Boolean> hypothesis,
+                                                            Collection<? extends Character> inputs) {
+            final Character sym = inputs.iterator().next();
+            final AtomicInteger length = new AtomicInteger();
+            return Stream.generate(() -> Word.fromList(Collections.nCopies(length.incrementAndGet(), sym)))
+                         .peek(w -> generatedWordsCounter.incrementAndGet())
+                         .limit(MAX_QUERIES);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link EquivalenceOracle} that incrementally tests hypotheses for consistency with the contents of a cache.
+ * <p>
+ * Instead of traversing the complete cache for every hypothesis, this test only looks up the words that have been
+ * inserted into the cache since the last check (as reported by a {@link CacheJournal}). Words that have been checked
+ * completely are moved to a prefix tree of verified words. If the hypothesis changes, the test computes the pairs of
+ * (old, new) hypothesis states that are reachable by the same word and that are distinguishable, and only re-examines
+ * the branches of the prefix tree that lead through such pairs. Since verified words are consistent with the old
+ * hypothesis, their expected outputs are computed from a snapshot of the old hypothesis, so that this re-check does
+ * not need to access (and lock) the cache at all. Optionally, the checks can be run in parallel.
+ * <p>
+ * The costs of this test are dominated by the construction of the product of the two hypotheses (linear in the size
+ * of the hypotheses and the number of inputs) and the size of the re-examined branches. Note that the prefix tree of
+ * verified words is maintained in addition to the cache. If the journal does not cover the complete cache contents
+ * (e.g. because the test has been created for a non-empty cache) or if the inputs of a check contain symbols that
+ * have not been part of the previous check, a changed hypothesis is checked with the given fallback oracle instead.
+ * <p>
+ * The test registers a {@link CacheJournal.Cursor} at the journal of the cache. Once the test is no longer used, it
+ * should be {@link #close() closed} so that the cache no longer records words for it.
+ *
+ * @param <A>
+ *         hypothesis type
+ * @param <C>
+ *         snapshot type
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public abstract class AbstractIncrementalCacheConsistencyTest<A extends Output<I, D>, C extends Output<I, D>, I, D>
+        implements EquivalenceOracle<A, I, D>, AutoCloseable {
+
+    private final CacheJournal.Cursor<I> cursor;
+    private final Function<Word<I>, @Nullable D> cacheLookup;
+    private final EquivalenceOracle<A, I, D> fallback;
+    private final boolean parallel;
+
+    private final List<Word<I>> pending;
+    private final TrieNode<I> verified;
+    private @Nullable C snapshot;
+    private Set<I> snapshotInputs;
+
+    /**
+     * Constructor.
+     *
+     * @param cursor
+     *         the journal cursor that provides the words inserted into the cache
+     * @param cacheLookup
+     *         the function for looking up the cached output of a word
+     * @param fallback
+     *         the (non-incremental) consistency test for checking changed hypotheses if the incremental check is not
+     *         applicable
+     * @param parallel
+     *         whether words should be checked in parallel
+     */
+    protected AbstractIncrementalCacheConsistencyTest(CacheJournal.Cursor<I> cursor,
+                                                      Function<Word<I>, @Nullable D> cacheLookup,
+                                                      EquivalenceOracle<A, I, D> fallback,
+                                                      boolean parallel) {
+        this.cursor = cursor;
+        this.cacheLookup = cacheLookup;
+        this.fallback = fallback;
+        this.parallel = parallel;
+        this.pending = new ArrayList<>();
+        this.verified = new TrieNode<>();
+        this.snapshotInputs = Collections.emptySet();
+    }
+
+    @Override
+    public synchronized @Nullable DefaultQuery<I, D> findCounterExample(A hypothesis, Collection<? extends I> inputs) {
+        pending.addAll(cursor.drain());
+
+        final Set<I> inputSet = new HashSet<>(inputs);
+        final C oldSnapshot = snapshot;
+        final C newSnapshot = copy(hypothesis, Alphabets.fromList(new ArrayList<>(inputSet)));
+
+        final DefaultQuery<I, D> changedCE;
+
+        if (oldSnapshot == null) {
+            changedCE = cursor.isComplete() ? null : fallback.findCounterExample(hypothesis, inputs);
+        } else if (!snapshotInputs.containsAll(inputSet)) {
+            // verified words and the old snapshot do not cover the new inputs
+            changedCE = fallback.findCounterExample(hypothesis, inputs);
+        } else {
+            final Product product = new Product(oldSnapshot, newSnapshot, inputSet);
+
+            if (!product.isDistinct(getInitialState(oldSnapshot), getInitialState(newSnapshot))) {
+                changedCE = null;
+            } else if (!cursor.isComplete()) {
+                changedCE = fallback.findCounterExample(hypothesis, inputs);
+            } else {
+                changedCE = recheck(product, oldSnapshot, newSnapshot, inputSet);
+            }
+        }
+
+        if (changedCE != null) {
+            return changedCE;
+        }
+
+        snapshot = newSnapshot;
+        snapshotInputs = inputSet;
+
+        return checkPending(hypothesis, inputSet);
+    }
+
+    /**
+     * Unregisters the journal cursor of this test. Afterwards, the test must no longer be used.
+     */
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+    private @Nullable DefaultQuery<I, D> checkPending(A hypothesis, Set<I> inputs) {
+        if (pending.isEmpty()) {
+            return null;
+        }
+
+        final List<Word<I>> restricted = new ArrayList<>(pending.size());
+        for (Word<I> w : pending) {
+            restricted.add(restrict(w, inputs));
+        }
+
+        final Stream<Word<I>> stream = parallel ? restricted.parallelStream() : restricted.stream();
+        final DefaultQuery<I, D> ce = stream.filter(Objects::nonNull)
+                                            .map(w -> checkWord(hypothesis, w))
+                                            .filter(Objects::nonNull)
+                                            .findFirst()
+                                            .orElse(null);
+
+        if (ce != null) {
+            return ce;
+        }
+
+        // only words that have been checked completely are verified, the remaining ones need to be checked again
+        final Iterator<Word<I>> pendingIter = pending.iterator();
+        final Iterator<Word<I>> restrictedIter = restricted.iterator();
+        while (pendingIter.hasNext()) {
+            final Word<I> w = pendingIter.next();
+            final Word<I> r = restrictedIter.next();
+            if (r != null && r.length() == w.length()) {
+                verified.insert(w);
+                pendingIter.remove();
+            }
+        }
+
+        return null;
+    }
+
+    private @Nullable DefaultQuery<I, D> checkWord(A hypothesis, Word<I> word) {
+        final D expected = cacheLookup.apply(word);
+
+        if (expected == null || Objects.equals(expected, hypothesis.computeOutput(word))) {
+            return null;
+        }
+
+        return new DefaultQuery<>(word, expected);
+    }
+
+    private @Nullable DefaultQuery<I, D> recheck(Product product, C oldSnapshot, C newSnapshot, Set<I> inputs) {
+        final Integer oldInit = getInitialState(oldSnapshot);
+        final Integer newInit = getInitialState(newSnapshot);
+        final Rechecker rechecker = new Rechecker(product, oldSnapshot, newSnapshot, inputs);
+
+        if (oldInit == null || newInit == null) {
+            return rechecker.checkExplicitly(verified);
+        }
+
+        final DefaultQuery<I, D> rootCE = rechecker.checkNode(verified, oldInit, newInit, new ArrayList<>());
+
+        if (rootCE != null || verified.children == null) {
+            return rootCE;
+        }
+
+        final Stream<Entry<I, TrieNode<I>>> stream =
+                parallel ? verified.children.entrySet().parallelStream() : verified.children.entrySet().stream();
+
+        return stream.map(e -> rechecker.checkEdge(e.getKey(), e.getValue(), oldInit, newInit))
+                     .filter(Objects::nonNull)
+                     .findFirst()
+                     .orElse(null);
+    }
+
+    /**
+     * Restricts a cached word to the given inputs.
+     *
+     * @param word
+     *         the cached word
+     * @param inputs
+     *         the inputs of the current consistency check
+     *
+     * @return the (part of the) word to check, or {@code null} if the word should not be checked
+     */
+    protected @Nullable Word<I> restrict(Word<I> word, Set<I> inputs) {
+        for (I sym : word) {
+            if (!inputs.contains(sym)) {
+                return null;
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Creates an immutable snapshot of the given hypothesis.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the inputs to consider
+     *
+     * @return the snapshot of the hypothesis
+     */
+    protected abstract C copy(A hypothesis, Alphabet<I> inputs);
+
+    /**
+     * Returns the initial state of a snapshot.
+     *
+     * @param snapshot
+     *         the snapshot
+     *
+     * @return the initial state, or {@code null} if the snapshot has no initial state
+     */
+    protected abstract @Nullable Integer getInitialState(C snapshot);
+
+    /**
+     * Returns the successor of a snapshot state.
+     *
+     * @param snapshot
+     *         the snapshot
+     * @param state
+     *         the source state
+     * @param input
+     *         the input symbol
+     *
+     * @return the successor, or {@code null} if the transition is undefined
+     */
+    protected abstract @Nullable Integer getSuccessor(C snapshot, int state, I input);
+
+    /**
+     * Checks whether the (local) properties of two snapshot states differ, i.e. whether a word that reaches these
+     * states is answered differently by the two snapshots.
+     *
+     * @param oldSnapshot
+     *         the snapshot of the previously verified hypothesis
+     * @param oldState
+     *         the state of the old snapshot
+     * @param newSnapshot
+     *         the snapshot of the current hypothesis
+     * @param newState
+     *         the state of the new snapshot
+     *
+     * @return {@code true} if the state properties differ, {@code false} otherwise
+     */
+    protected abstract boolean isStateDistinct(C oldSnapshot, int oldState, C newSnapshot, int newState);
+
+    /**
+     * Checks whether the (local) properties of two snapshot transitions differ, i.e. whether a word that ends with
+     * these transitions is answered differently by the two snapshots.
+     *
+     * @param oldSnapshot
+     *         the snapshot of the previously verified hypothesis
+     * @param oldState
+     *         the source state of the old snapshot
+     * @param newSnapshot
+     *         the snapshot of the current hypothesis
+     * @param newState
+     *         the source state of the new snapshot
+     * @param input
+     *         the input symbol
+     *
+     * @return {@code true} if the transition properties differ, {@code false} otherwise
+     */
+    protected abstract boolean isTransitionDistinct(C oldSnapshot,
+                                                    int oldState,
+                                                    C newSnapshot,
+                                                    int newState,
+                                                    I input);
+
+    private static long key(int oldState, int newState) {
+        return ((long) oldState << Integer.SIZE) | (newState & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The reachable part of the product of two snapshots, annotated with the pairs of states that are distinguishable
+     * by some (possibly empty) suffix.
+     */
+    private final class Product {
+
+        private final Map<Long, Integer> ids;
+        private final BitSet distinct;
+
+        Product(C oldSnapshot, C newSnapshot, Set<I> inputs) {
+            this.ids = new HashMap<>();
+            this.distinct = new BitSet();
+
+            final Integer oldInit = getInitialState(oldSnapshot);
+            final Integer newInit = getInitialState(newSnapshot);
+
+            if (oldInit == null || newInit == null) {
+                return;
+            }
+
+            final List<int[]> pairs = new ArrayList<>();
+            final List<List<Integer>> predecessors = new ArrayList<>();
+
+            ids.put(key(oldInit, newInit), 0);
+            pairs.add(new int[] {oldInit, newInit});
+            predecessors.add(new ArrayList<>());
+
+            for (int id = 0; id < pairs.size(); id++) {
+                final int oldState = pairs.get(id)[0];
+                final int newState = pairs.get(id)[1];
+
+                if (isStateDistinct(oldSnapshot, oldState, newSnapshot, newState)) {
+                    distinct.set(id);
+                }
+
+                for (I i : inputs) {
+                    final Integer oldSucc = getSuccessor(oldSnapshot, oldState, i);
+                    final Integer newSucc = getSuccessor(newSnapshot, newState, i);
+
+                    if (oldSucc == null || newSucc == null) {
+                        // conservatively treat partially undefined transitions as distinguishing
+                        if (oldSucc != null || newSucc != null) {
+                            distinct.set(id);
+                        }
+                        continue;
+                    }
+
+                    if (isTransitionDistinct(oldSnapshot, oldState, newSnapshot, newState, i)) {
+                        distinct.set(id);
+                    }
+
+                    final long succKey = key(oldSucc, newSucc);
+                    Integer succId = ids.get(succKey);
+                    if (succId == null) {
+                        succId = pairs.size();
+                        ids.put(succKey, succId);
+                        pairs.add(new int[] {oldSucc, newSucc});
+                        predecessors.add(new ArrayList<>());
+                    }
+                    predecessors.get(succId).add(id);
+                }
+            }
+
+            final Deque<Integer> queue = new ArrayDeque<>();
+            distinct.stream().forEach(queue::add);
+
+            Integer curr;
+            while ((curr = queue.poll()) != null) {
+                for (Integer pred : predecessors.get(curr)) {
+                    if (!distinct.get(pred)) {
+                        distinct.set(pred);
+                        queue.add(pred);
+                    }
+                }
+            }
+        }
+
+        boolean isDistinct(@Nullable Integer oldState, @Nullable Integer newState) {
+            if (oldState == null || newState == null) {
+                return oldState != null || newState != null;
+            }
+            final Integer id = ids.get(key(oldState, newState));
+            return id == null || distinct.get(id);
+        }
+    }
+
+    /**
+     * Re-examines the branches of the prefix tree of verified words that lead through distinguishable state pairs.
+     */
+    private final class Rechecker {
+
+        private final Product product;
+        private final C oldSnapshot;
+        private final C newSnapshot;
+        private final Set<I> inputs;
+
+        Rechecker(Product product, C oldSnapshot, C newSnapshot, Set<I> inputs) {
+            this.product = product;
+            this.oldSnapshot = oldSnapshot;
+            this.newSnapshot = newSnapshot;
+            this.inputs = inputs;
+        }
+
+        @Nullable DefaultQuery<I, D> checkNode(TrieNode<I> node, int oldState, int newState, List<I> path) {
+            if (node.terminal && isStateDistinct(oldSnapshot, oldState, newSnapshot, newState)) {
+                return counterExample(path);
+            }
+            return null;
+        }
+
+        @Nullable DefaultQuery<I, D> checkEdge(I input, TrieNode<I> target, int oldState, int newState) {
+            return traverse(new Frame<>(input, target, oldState, newState, 1, false));
+        }
+
+        @Nullable DefaultQuery<I, D> checkExplicitly(TrieNode<I> root) {
+            return traverse(new Frame<>(null, root, -1, -1, 0, true));
+        }
+
+        private @Nullable DefaultQuery<I, D> traverse(Frame<I> start) {
+            final Deque<Frame<I>> stack = new ArrayDeque<>();
+            final List<I> path = new ArrayList<>();
+            stack.push(start);
+
+            // use an explicit stack, because words may be arbitrarily long
+            Frame<I> frame;
+            while ((frame = stack.poll()) != null) {
+                // the path of the previously visited frame extends the path of the parent of the current frame
+                path.subList(Math.max(frame.depth - 1, 0), path.size()).clear();
+                if (frame.depth > 0) {
+                    path.add(frame.input);
+                }
+
+                final DefaultQuery<I, D> ce =
+                        frame.explicit ? visitExplicitly(frame, path, stack) : visitEdge(frame, path, stack);
+
+                if (ce != null) {
+                    return ce;
+                }
+            }
+
+            return null;
+        }
+
+        private @Nullable DefaultQuery<I, D> visitEdge(Frame<I> frame, List<I> path, Deque<Frame<I>> stack) {
+            if (!inputs.contains(frame.input)) {
+                return null;
+            }
+
+            final Integer oldSucc = getSuccessor(oldSnapshot, frame.oldState, frame.input);
+            final Integer newSucc = getSuccessor(newSnapshot, frame.newState, frame.input);
+
+            if (oldSucc == null || newSucc == null) {
+                return oldSucc == null && newSucc == null ? null : visitExplicitly(frame, path, stack);
+            }
+
+            if (isTransitionDistinct(oldSnapshot, frame.oldState, newSnapshot, frame.newState, frame.input)) {
+                return counterExample(path);
+            }
+
+            if (!product.isDistinct(oldSucc, newSucc)) {
+                return null;
+            }
+
+            final TrieNode<I> node = frame.node;
+            final DefaultQuery<I, D> ce = checkNode(node, oldSucc, newSucc, path);
+
+            if (ce == null && node.children != null) {
+                for (Entry<I, TrieNode<I>> e : node.children.entrySet()) {
+                    stack.push(new Frame<>(e.getKey(), e.getValue(), oldSucc, newSucc, frame.depth + 1, false));
+                }
+            }
+
+            return ce;
+        }
+
+        private @Nullable DefaultQuery<I, D> visitExplicitly(Frame<I> frame, List<I> path, Deque<Frame<I>> stack) {
+            final TrieNode<I> node = frame.node;
+
+            if (node.terminal) {
+                final Word<I> word = Word.fromList(path);
+                final D expected = oldSnapshot.computeOutput(word);
+                if (!Objects.equals(expected, newSnapshot.computeOutput(word))) {
+                    return new DefaultQuery<>(word, expected);
+                }
+            }
+
+            if (node.children != null) {
+                for (Entry<I, TrieNode<I>> e : node.children.entrySet()) {
+                    if (inputs.contains(e.getKey())) {
+                        stack.push(new Frame<>(e.getKey(), e.getValue(), -1, -1, frame.depth + 1, true));
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private DefaultQuery<I, D> counterExample(List<I> path) {
+            final Word<I> word = Word.fromList(path);
+            // verified words are consistent with the old snapshot, so it provides their cached outputs
+            return new DefaultQuery<>(word, oldSnapshot.computeOutput(word));
+        }
+    }
+
+    /**
+     * An entry of the traversal stack of the {@link Rechecker}: the node of the prefix tree of verified words that is
+     * reached via the given input (at the given depth), and the pair of (old, new) hypothesis states from which this
+     * input is read. Explicitly checked nodes do not track any hypothesis states.
+     *
+     * @param <I>
+     *         input symbol type
+     */
+    private static final class Frame<I> {
+
+        private final @Nullable I input;
+        private final TrieNode<I> node;
+        private final int oldState;
+        private final int newState;
+        private final int depth;
+        private final boolean explicit;
+
+        Frame(@Nullable I input, TrieNode<I> node, int oldState, int newState, int depth, boolean explicit) {
+            this.input = input;
+            this.node = node;
+            this.oldState = oldState;
+            this.newState = newState;
+            this.depth = depth;
+            this.explicit = explicit;
+        }
+    }
+
+    /**
+     * A node of the prefix tree of verified words.
+     *
+     * @param <I>
+     *         input symbol type
+     */
+    private static final class TrieNode<I> {
+
+        private @Nullable Map<I, TrieNode<I>> children;
+        private boolean terminal;
+
+        void insert(Word<I> word) {
+            TrieNode<I> curr = this;
+            for (I sym : word) {
+                if (curr.children == null) {
+                    curr.children = new HashMap<>();
+                }
+                curr = curr.children.computeIfAbsent(sym, k -> new TrieNode<>());
+            }
+            curr.terminal = true;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, size-bounded storage for the answers of queries, used by the bounded DFA cache. Once the number of
+ * stored entries exceeds the capacity of the cache, entries are evicted according to the configured {@link
+ * EvictionPolicy}.
+ * <p>
+ * Entries can be <i>pinned</i>, in which case they are never evicted. Entries whose input word does not exceed a
+ * configurable length are pinned automatically, as short words (e.g., access sequences) are frequently re-queried by
+ * learners. Additionally, arbitrary words can be pinned explicitly via {@link #pin(Word)}. Note that pinned entries
+ * count towards the capacity of the cache, so that the cache may exceed its capacity if more entries are pinned than
+ * the capacity allows.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public final class BoundedCache<I, D> {
+
+    /**
+     * The default length up to which words are pinned automatically.
+     */
+    public static final int DEFAULT_PINNED_LENGTH = 2;
+
+    private final @NonNegative int capacity;
+    private final @NonNegative int pinnedLength;
+    private final Map<Word<I>, Entry<I, D>> entries;
+    private final TreeSet<Entry<I, D>> evictionOrder;
+    private final Set<Word<I>> pinnedWords;
+    private final BoundedCacheStatistics statistics;
+    private final Lock lock;
+
+    private long clock;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *         the maximum number of (non-pinned) entries
+     * @param policy
+     *         the policy for selecting the entries to evict
+     * @param pinnedLength
+     *         the length up to which words are pinned automatically
+     */
+    public BoundedCache(@NonNegative int capacity, EvictionPolicy policy, @NonNegative int pinnedLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        this.pinnedLength = pinnedLength;
+        this.entries = new HashMap<>();
+        this.evictionOrder = new TreeSet<>(createComparator(policy));
+        this.pinnedWords = new HashSet<>();
+        this.statistics = new BoundedCacheStatistics("Bounded cache (" + policy + ')');
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * Returns the cached answer for the given word and records the access for the eviction policy.
+     *
+     * @param word
+     *         the input word
+     *
+     * @return the cached answer, or {@code null} if no answer is cached for the given word
+     */
+    public @Nullable D get(Word<I> word) {
+        lock.lock();
+        try {
+            final Entry<I, D> entry = entries.get(word);
+
+            if (entry == null) {
+                statistics.recordMiss();
+                return null;
+            }
+
+            statistics.recordHit();
+            touch(entry);
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached answer for the given word without recording the access, i.e., neither the eviction order nor
+     * the statistics of this cache are affected.
+     *
+     * @param word
+     *         the input word
+     *
+     * @return the cached answer, or {@code null} if no answer is cached for the given word
+     */
+    public @Nullable D peek(Word<I> word) {
+        lock.lock();
+        try {
+            final Entry<I, D> entry = entries.get(word);
+            return entry == null ? null : entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the answer for the given word, evicting other entries if necessary. If an (equal) answer is already
+     * stored for the given word, only the access is recorded.
+     *
+     * @param word
+     *         the input word
+     * @param value
+     *         the answer
+     *
+     * @throws ConflictException
+     *         if a different answer is already stored for the given word
+     */
+    public void put(Word<I> word, D value) {
+        lock.lock();
+        try {
+            final Entry<I, D> existing = entries.get(word);
+
+            if (existing != null) {
+                if (!Objects.equals(existing.value, value)) {
+                    throw new ConflictException("Incompatible answers: " + existing.value + " vs " + value);
+                }
+                touch(existing);
+                return;
+            }
+
+            // make room before inserting, so that the new entry itself is never evicted immediately (which would
+            // otherwise always be the case for the LFU policy)
+            while (entries.size() >= capacity && !evictionOrder.isEmpty()) {
+                final Entry<I, D> victim = evictionOrder.pollFirst();
+                entries.remove(victim.word);
+                statistics.recordEviction();
+            }
+
+            final Entry<I, D> entry = new Entry<>(word, value, ++clock);
+            entries.put(word, entry);
+
+            if (word.length() <= pinnedLength || pinnedWords.contains(word)) {
+                entry.pinned = true;
+            } else {
+                evictionOrder.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pins the given word, so that its answer (once cached) is never evicted.
+     *
+     * @param word
+     *         the input word to pin
+     */
+    public void pin(Word<I> word) {
+        lock.lock();
+        try {
+            if (word.length() <= pinnedLength || !pinnedWords.add(word)) {
+                return;
+            }
+
+            final Entry<I, D> entry = entries.get(word);
+            if (entry != null && !entry.pinned) {
+                evictionOrder.remove(entry);
+                entry.pinned = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of currently cached entries.
+     *
+     * @return the number of currently cached entries
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of this cache.
+     *
+     * @return the statistics of this cache
+     */
+    public BoundedCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Checks the cached answers against the given model. Note that the access order is not affected by this check.
+     *
+     * @param model
+     *         a function computing the answer of the model for a given word
+     *
+     * @return a query whose cached answer differs from the answer of the model, or {@code null} if all cached answers
+     * are consistent with the model
+     */
+    public @Nullable DefaultQuery<I, D> findCounterExample(Function<? super Word<I>, ? extends D> model) {
+        lock.lock();
+        try {
+            for (Entry<I, D> entry : entries.values()) {
+                if (!Objects.equals(model.apply(entry.word), entry.value)) {
+                    return new DefaultQuery<>(entry.word, entry.value);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void touch(Entry<I, D> entry) {
+        if (entry.pinned) {
+            return;
+        }
+
+        // the position of the entry depends on its access data, so it has to be re-inserted
+        evictionOrder.remove(entry);
+        entry.lastAccess = ++clock;
+        entry.frequency++;
+        evictionOrder.add(entry);
+    }
+
+    private static <I, D> Comparator<Entry<I, D>> createComparator(EvictionPolicy policy) {
+        final Comparator<Entry<I, D>> lru = Comparator.comparingLong(e -> e.lastAccess);
+
+        switch (policy) {
+            case LRU:
+                return lru;
+            case LFU:
+                return Comparator.<Entry<I, D>>comparingLong(e -> e.frequency).thenComparing(lru);
+            case DEPTH:
+                return Comparator.<Entry<I, D>>comparingInt(e -> -e.word.length()).thenComparing(lru);
+            default:
+                throw new IllegalArgumentException("Unknown eviction policy: " + policy);
+        }
+    }
+
+    private static final class Entry<I, D> {
+
+        private final Word<I> word;
+        private final D value;
+        private long lastAccess;
+        private long frequency;
+        private boolean pinned;
+
+        Entry(Word<I> word, D value, long lastAccess) {
+            this.word = word;
+            this.value = value;
+            this.lastAccess = lastAccess;
+            this.frequency = 1;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import de.learnlib.api.statistic.StatisticData;
+
+/**
+ * Statistical data about the hits, misses and evictions of a size-bounded cache (cf. {@link BoundedCache} and {@link
+ * de.learnlib.filter.cache.mealy.BoundedMealyTree}).
+ */
+public final class BoundedCacheStatistics implements StatisticData {
+
+    private final String name;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public BoundedCacheStatistics(String name) {
+        this.name = name;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Records a cache hit.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a cache miss.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Records the eviction of a cache entry.
+     */
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the ratio of cache lookups that have been answered by the cache.
+     *
+     * @return the hit rate, or {@code 0} if no lookups have been performed yet
+     */
+    public double getHitRate() {
+        final long h = getHits();
+        final long total = h + getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getUnit() {
+        return "queries";
+    }
+
+    @Override
+    public String getSummary() {
+        return getName() + " [" + getUnit() + "]: " + getHits() + " hits, " + getMisses() + " misses, " +
+               getEvictions() + " evictions";
+    }
+
+    @Override
+    public String getDetails() {
+        return getSummary() + String.format(" (hit rate %.2f%%)", getHitRate() * 100);
+    }
+
+    @Override
+    public String toString() {
+        return getDetails();
+    }
+}
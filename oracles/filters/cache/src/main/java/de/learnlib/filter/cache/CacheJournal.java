@@ -0,0 +1,173 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A journal of the words that have been inserted into a cache. Each registered {@link Cursor} receives all words that
+ * are recorded after its registration, which allows consumers (such as incremental cache consistency tests) to only
+ * process the parts of a cache that have changed since they last looked at it.
+ * <p>
+ * Cursors should be {@link Cursor#close() closed} once they are no longer needed. The journal only keeps weak
+ * references to its cursors, so cursors whose consumers have been garbage collected are dropped as well. If no cursor
+ * is registered, recording a word is a no-op (besides marking the journal as used).
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public final class CacheJournal<I> {
+
+    private final List<WeakReference<Cursor<I>>> cursors;
+    private boolean used;
+
+    public CacheJournal() {
+        this.cursors = new ArrayList<>();
+    }
+
+    /**
+     * Registers a new cursor at this journal.
+     *
+     * @return the new cursor, which is {@link Cursor#isComplete() complete} iff no word has been recorded before.
+     */
+    public synchronized Cursor<I> register() {
+        final Cursor<I> cursor = new Cursor<>(this, !used);
+        cursors.add(new WeakReference<>(cursor));
+        return cursor;
+    }
+
+    /**
+     * Records a word that has been inserted into the cache.
+     *
+     * @param word
+     *         the inserted word
+     */
+    public synchronized void record(Word<I> word) {
+        used = true;
+        final Iterator<WeakReference<Cursor<I>>> iter = cursors.iterator();
+        while (iter.hasNext()) {
+            final Cursor<I> c = iter.next().get();
+            if (c == null) {
+                iter.remove();
+            } else {
+                c.pending.add(word);
+            }
+        }
+    }
+
+    /**
+     * Signals that the cache contents have been replaced (e.g. by resuming a previous state). All registered cursors
+     * become incomplete.
+     */
+    public synchronized void invalidate() {
+        used = true;
+        final Iterator<WeakReference<Cursor<I>>> iter = cursors.iterator();
+        while (iter.hasNext()) {
+            final Cursor<I> c = iter.next().get();
+            if (c == null) {
+                iter.remove();
+            } else {
+                c.complete = false;
+            }
+        }
+    }
+
+    synchronized void unregister(Cursor<I> cursor) {
+        final Iterator<WeakReference<Cursor<I>>> iter = cursors.iterator();
+        while (iter.hasNext()) {
+            final Cursor<I> c = iter.next().get();
+            if (c == null || c == cursor) {
+                iter.remove();
+            }
+        }
+        cursor.pending.clear();
+    }
+
+    /**
+     * Returns the number of cursors that are currently registered at this journal.
+     *
+     * @return the number of registered cursors
+     */
+    synchronized int getNumberOfCursors() {
+        cursors.removeIf(ref -> ref.get() == null);
+        return cursors.size();
+    }
+
+    /**
+     * A consumer-specific view on a {@link CacheJournal}.
+     *
+     * @param <I>
+     *         input symbol type
+     */
+    public static final class Cursor<I> implements AutoCloseable {
+
+        private final Queue<Word<I>> pending;
+        private @Nullable CacheJournal<I> journal;
+        private volatile boolean complete;
+
+        Cursor(CacheJournal<I> journal, boolean complete) {
+            this.pending = new ConcurrentLinkedQueue<>();
+            this.journal = journal;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns whether this cursor has observed every word that has ever been inserted into the cache, i.e., whether
+         * the words obtained by {@link #drain()} cover the complete cache contents.
+         *
+         * @return {@code true} if the cursor has observed every cached word, {@code false} otherwise
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Returns (and removes) the words that have been recorded since the last call to this method.
+         *
+         * @return the recorded words
+         */
+        public List<Word<I>> drain() {
+            final List<Word<I>> result = new ArrayList<>();
+            Word<I> w;
+            while ((w = pending.poll()) != null) {
+                result.add(w);
+            }
+            return result;
+        }
+
+        /**
+         * Unregisters this cursor from its journal. Afterwards, the cursor no longer receives any words and is marked
+         * as incomplete. Closing a cursor multiple times has no effect.
+         */
+        @Override
+        public synchronized void close() {
+            final CacheJournal<I> j = journal;
+            if (j != null) {
+                complete = false;
+                j.unregister(this);
+                journal = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.api.query.DefaultQuery;
+
+/**
+ * The result of bulk-loading queries into a cache.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @see CacheLoading
+ */
+public final class CacheLoadResult<I, D> {
+
+    private final int numLoaded;
+    private final List<DefaultQuery<I, D>> conflicts;
+    private final List<DefaultQuery<I, D>> rejected;
+
+    CacheLoadResult(int numLoaded, List<DefaultQuery<I, D>> conflicts, List<DefaultQuery<I, D>> rejected) {
+        this.numLoaded = numLoaded;
+        this.conflicts = Collections.unmodifiableList(conflicts);
+        this.rejected = Collections.unmodifiableList(rejected);
+    }
+
+    /**
+     * Returns the number of queries that have been incorporated into the cache.
+     *
+     * @return the number of loaded queries
+     */
+    public int getNumLoaded() {
+        return numLoaded;
+    }
+
+    /**
+     * Returns the queries that could not be incorporated into the cache, because their outputs contradict the
+     * (previously loaded or cached) outputs of the cache.
+     *
+     * @return the conflicting queries
+     */
+    public List<DefaultQuery<I, D>> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Returns the queries that have not been incorporated into the cache, because the cache cannot represent them
+     * (e.g. queries of a Mealy cache whose outputs do not cover their complete input).
+     *
+     * @return the rejected queries
+     */
+    public List<DefaultQuery<I, D>> getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns whether all queries have been incorporated into the cache.
+     *
+     * @return {@code true} if neither conflicts have occurred nor queries have been rejected, {@code false} otherwise
+     */
+    public boolean isConsistent() {
+        return conflicts.isEmpty() && rejected.isEmpty();
+    }
+}
@@ -0,0 +1,197 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.commons.util.comparison.CmpUtil;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Utility methods for bulk-loading recorded queries (e.g. traces of a real system or passive samples) into a cache.
+ * <p>
+ * Queries are sorted lexicographically before they are inserted, so that queries sharing a common prefix are
+ * incorporated consecutively. Insertion happens in chunks of {@link #CHUNK_SIZE} queries, and the write lock of the
+ * cache is only held for the duration of a single chunk, so that the cache remains usable while loading. Queries that
+ * cannot be incorporated into a cache at all (e.g. queries whose outputs do not cover their complete input) are
+ * rejected before any query is inserted.
+ */
+public final class CacheLoading {
+
+    /**
+     * The number of queries that are inserted while holding the write lock of a cache.
+     */
+    public static final int CHUNK_SIZE = 1024;
+
+    private CacheLoading() {
+        // prevent instantiation
+    }
+
+    /**
+     * Parses the given file of recorded queries. Lines are parsed in parallel. Lines for which the parser returns
+     * {@code null} (e.g. comments) are skipped.
+     *
+     * @param file
+     *         the (UTF-8 encoded) file containing one query per line
+     * @param parser
+     *         the parser for a single line
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the parsed queries
+     *
+     * @throws IOException
+     *         if reading the file fails
+     */
+    public static <I, D> List<DefaultQuery<I, D>> parse(Path file,
+                                                        Function<String, @Nullable DefaultQuery<I, D>> parser)
+            throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.parallel().map(parser).filter(Objects::nonNull).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Loads the given queries into a cache. Convenience method for {@link #load(Collection, boolean, Lock, Predicate,
+     * BiConsumer)} that accepts every query.
+     *
+     * @param queries
+     *         the queries to load
+     * @param longestFirst
+     *         whether longer words should be inserted before their prefixes
+     * @param writeLock
+     *         the write lock of the cache
+     * @param inserter
+     *         the function inserting a single input/output pair into the cache, which may throw a {@link
+     *         ConflictException}
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the result of the loading process
+     */
+    public static <I, D> CacheLoadResult<I, D> load(Collection<? extends DefaultQuery<I, D>> queries,
+                                                    boolean longestFirst,
+                                                    Lock writeLock,
+                                                    BiConsumer<Word<I>, D> inserter) {
+        return load(queries, longestFirst, writeLock, q -> true, inserter);
+    }
+
+    /**
+     * Loads the given queries into a cache.
+     *
+     * @param queries
+     *         the queries to load
+     * @param longestFirst
+     *         whether longer words should be inserted before their prefixes (beneficial for prefix-closed caches,
+     *         where inserting a prefix of an already cached word is a mere lookup)
+     * @param writeLock
+     *         the write lock of the cache
+     * @param validator
+     *         the predicate determining whether a query can be incorporated into the cache at all. Queries that do not
+     *         satisfy the predicate are not inserted but reported as {@link CacheLoadResult#getRejected() rejected}
+     * @param inserter
+     *         the function inserting the complete input ({@link DefaultQuery#getInput()}) and output of a single valid
+     *         query into the cache, which may throw a {@link ConflictException}
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the result of the loading process
+     */
+    public static <I, D> CacheLoadResult<I, D> load(Collection<? extends DefaultQuery<I, D>> queries,
+                                                    boolean longestFirst,
+                                                    Lock writeLock,
+                                                    Predicate<? super DefaultQuery<I, D>> validator,
+                                                    BiConsumer<Word<I>, D> inserter) {
+
+        final List<DefaultQuery<I, D>> sorted = new ArrayList<>(queries.size());
+        final List<DefaultQuery<I, D>> rejected = new ArrayList<>();
+
+        for (DefaultQuery<I, D> q : queries) {
+            if (validator.test(q)) {
+                sorted.add(q);
+            } else {
+                rejected.add(q);
+            }
+        }
+
+        sorted.sort(createComparator(sorted, longestFirst));
+
+        final List<DefaultQuery<I, D>> conflicts = new ArrayList<>();
+        int loaded = 0;
+
+        for (int low = 0; low < sorted.size(); low += CHUNK_SIZE) {
+            final int high = Math.min(sorted.size(), low + CHUNK_SIZE);
+
+            writeLock.lock();
+            try {
+                for (DefaultQuery<I, D> q : sorted.subList(low, high)) {
+                    try {
+                        inserter.accept(q.getInput(), q.getOutput());
+                        loaded++;
+                    } catch (ConflictException e) {
+                        conflicts.add(q);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        return new CacheLoadResult<>(loaded, conflicts, rejected);
+    }
+
+    private static <I> Comparator<DefaultQuery<I, ?>> createComparator(List<? extends DefaultQuery<I, ?>> queries,
+                                                                      boolean longestFirst) {
+        // any fixed symbol order is fine for grouping common prefixes, so simply use the order of appearance
+        final Map<I, Integer> symbolIndices = new HashMap<>();
+        for (DefaultQuery<I, ?> q : queries) {
+            for (I sym : q.getInput()) {
+                symbolIndices.putIfAbsent(sym, symbolIndices.size());
+            }
+        }
+
+        final Comparator<I> symbolCmp = Comparator.comparingInt(symbolIndices::get);
+        final Comparator<DefaultQuery<I, ?>> cmp =
+                (q1, q2) -> CmpUtil.lexCompare(q1.getInput(), q2.getInput(), symbolCmp);
+
+        return longestFirst ? cmp.reversed() : cmp;
+    }
+}
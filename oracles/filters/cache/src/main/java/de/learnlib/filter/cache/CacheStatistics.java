@@ -0,0 +1,184 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+import de.learnlib.api.statistic.StatisticData;
+
+/**
+ * Statistical data about the effectiveness of a cache.
+ * <p>
+ * For each query posed to the cache, exactly one of the following events is recorded:
+ * <ul>
+ * <li>a <i>hit</i>, if the query has been answered without consulting the delegate,</li>
+ * <li>a <i>partial hit</i>, if the query had to be delegated, but a non-empty prefix of it was already cached, or</li>
+ * <li>a <i>miss</i>, otherwise.</li>
+ * </ul>
+ * Additionally, the number of input symbols answered by hits, the time spent waiting for the cache lock, and the time
+ * the write lock of the cache has been held are tracked. Comparing these values for different cache implementations
+ * (e.g. DAG- vs. tree-based caches) helps to determine which implementation pays off for a given workload.
+ */
+public final class CacheStatistics implements StatisticData {
+
+    private final String name;
+    private final LongAdder hits;
+    private final LongAdder partialHits;
+    private final LongAdder misses;
+    private final LongAdder savedSymbols;
+    private final LongAdder lockWaitNanos;
+    private final LongAdder writeLockHoldNanos;
+
+    public CacheStatistics(String name) {
+        this.name = name;
+        this.hits = new LongAdder();
+        this.partialHits = new LongAdder();
+        this.misses = new LongAdder();
+        this.savedSymbols = new LongAdder();
+        this.lockWaitNanos = new LongAdder();
+        this.writeLockHoldNanos = new LongAdder();
+    }
+
+    /**
+     * Records a cache hit.
+     *
+     * @param numSymbols
+     *         the number of input symbols of the answered query
+     */
+    public void recordHit(int numSymbols) {
+        hits.increment();
+        savedSymbols.add(numSymbols);
+    }
+
+    /**
+     * Records a query whose prefix has been cached, but which had to be delegated nonetheless.
+     */
+    public void recordPartialHit() {
+        partialHits.increment();
+    }
+
+    /**
+     * Records a cache miss.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Acquires the given lock and records the time spent waiting for it.
+     *
+     * @param lock
+     *         the lock to acquire
+     */
+    public void lock(Lock lock) {
+        final long start = System.nanoTime();
+        lock.lock();
+        lockWaitNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Acquires the given write lock and records the time spent waiting for it.
+     *
+     * @param lock
+     *         the write lock to acquire
+     *
+     * @return the timestamp of the acquisition, which has to be passed to {@link #unlockWrite(Lock, long)}
+     */
+    public long lockWrite(Lock lock) {
+        lock(lock);
+        return System.nanoTime();
+    }
+
+    /**
+     * Releases the given write lock and records the time it has been held.
+     *
+     * @param lock
+     *         the write lock to release
+     * @param lockedAt
+     *         the timestamp returned by {@link #lockWrite(Lock)}
+     */
+    public void unlockWrite(Lock lock, long lockedAt) {
+        writeLockHoldNanos.add(System.nanoTime() - lockedAt);
+        lock.unlock();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getPartialHits() {
+        return partialHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getSavedSymbols() {
+        return savedSymbols.sum();
+    }
+
+    public long getLockWaitTime(TimeUnit unit) {
+        return unit.convert(lockWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getWriteLockHoldTime(TimeUnit unit) {
+        return unit.convert(writeLockHoldNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the ratio of queries that have been answered by the cache.
+     *
+     * @return the hit rate, or {@code 0} if no queries have been posed yet
+     */
+    public double getHitRate() {
+        final long h = getHits();
+        final long total = h + getPartialHits() + getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getUnit() {
+        return "queries";
+    }
+
+    @Override
+    public String getSummary() {
+        return getName() + " [" + getUnit() + "]: " + getHits() + " hits, " + getPartialHits() + " partial hits, " +
+               getMisses() + " misses";
+    }
+
+    @Override
+    public String getDetails() {
+        return getSummary() + String.format(" (hit rate %.2f%%, %d symbols saved, %dms lock wait, %dms lock hold)",
+                                            getHitRate() * 100,
+                                            getSavedSymbols(),
+                                            getLockWaitTime(TimeUnit.MILLISECONDS),
+                                            getWriteLockHoldTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public String toString() {
+        return getDetails();
+    }
+}
@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+/**
+ * The policies according to which a {@link BoundedCache} (or a {@link de.learnlib.filter.cache.mealy.BoundedMealyTree})
+ * selects the entries (or leaves) to evict once its capacity is exceeded.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Evicts the least recently used entry first.
+     */
+    LRU,
+
+    /**
+     * Evicts the least frequently used entry first. Among entries with equal frequency, the least recently used one is
+     * evicted first.
+     */
+    LFU,
+
+    /**
+     * Evicts the entry with the longest input word (i.e., the deepest entry in the query tree) first. For the
+     * tree-based {@link de.learnlib.filter.cache.mealy.BoundedMealyTree}, the leaf with the deepest unshared subtree
+     * (i.e., the longest path of single-child nodes above the leaf) is evicted first. Among entries of equal depth, the
+     * least recently used one is evicted first. Long (e.g., randomly generated) words are rarely queried twice, whereas
+     * short words are frequently re-queried as prefixes of other queries.
+     */
+    DEPTH
+}
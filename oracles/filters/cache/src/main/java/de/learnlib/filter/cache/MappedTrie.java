@@ -0,0 +1,309 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A trie over symbol indices whose nodes are stored in a memory-mapped file. Each node carries a single non-negative
+ * {@code int} value (e.g., an acceptance or the index of an output symbol), whose interpretation is up to the user of
+ * the trie.
+ * <p>
+ * The trie is stored sparsely in a first-child/next-sibling representation: Each node is a record of {@code 16} bytes
+ * (the index of the symbol of its incoming edge, its value, its first child and its next sibling), independent of the
+ * size of the alphabet. Hence, the size of the file scales with the number of edges of the trie. Looking up a successor
+ * requires a scan of the (unsorted) children of a node.
+ * <p>
+ * Existing data is never moved or overwritten: New nodes are appended to the end of the file and linked to the trie by
+ * a single write to a previously empty slot, i.e. the first child slot of the parent or the next sibling slot of its
+ * last child. The only other in-place write sets the value of a node that has no value yet. Hence, every slot of a
+ * node is written at most once after the node has been appended. The number of valid nodes is stored in the file
+ * header and is updated <i>before</i> the new node is linked, so that a file that has been abandoned mid-update (e.g.,
+ * due to a crash of the JVM) never references uninitialized nodes. Since the operating system writes back modified
+ * pages of the mapping on its own, the file remains consistent after a crash of the JVM even without explicit {@link
+ * #flush() flushes}.
+ * <p>
+ * Re-opening an existing file does not require any deserialization: The nodes are read directly from the mapping, and
+ * the operating system only loads those pages of the file that are actually accessed.
+ * <p>
+ * This class is not thread-safe. Concurrent accesses have to be synchronized externally.
+ */
+public final class MappedTrie implements Closeable, Flushable {
+
+    /**
+     * The value returned by {@link #getSuccessor(int, int)} if a node has no successor for the given symbol.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * The value returned by {@link #getValue(int)} if no value has been set for the given node.
+     */
+    public static final int NO_VALUE = -1;
+
+    private static final int MAGIC = 0x4C4C5452; // "LLTR"
+    private static final int VERSION = 2;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int ALPHABET_SIZE_OFFSET = 8;
+    private static final int NUM_NODES_OFFSET = 12;
+    private static final int HEADER_SIZE = 16;
+
+    private static final int SYMBOL_OFFSET = 0;
+    private static final int VALUE_OFFSET = 4;
+    private static final int FIRST_CHILD_OFFSET = 8;
+    private static final int NEXT_SIBLING_OFFSET = 12;
+    private static final int NODE_SIZE = 16;
+
+    private static final int SEGMENT_SIZE = 1 << 26; // 64 MiB
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments;
+
+    private final int alphabetSize;
+    private final int nodesPerSegment;
+
+    private int numNodes;
+
+    /**
+     * Opens the trie stored in the given file. If the file does not exist (or is empty), a new trie that consists of
+     * only the root node is created.
+     *
+     * @param file
+     *         the file storing the trie
+     * @param alphabetSize
+     *         the number of symbols, i.e., the maximum number of successors per node
+     *
+     * @throws IOException
+     *         if the file cannot be opened or has not been created for a trie over the given number of symbols
+     */
+    public MappedTrie(Path file, @NonNegative int alphabetSize) throws IOException {
+        this.channel = FileChannel.open(file,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+
+        try {
+            final boolean exists = channel.size() > 0;
+
+            this.header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+            this.segments = new ArrayList<>();
+            this.alphabetSize = alphabetSize;
+            this.nodesPerSegment = SEGMENT_SIZE / NODE_SIZE;
+
+            if (exists) {
+                validateHeader(file);
+                this.numNodes = header.getInt(NUM_NODES_OFFSET);
+                ensureCapacity(numNodes);
+            } else {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(ALPHABET_SIZE_OFFSET, alphabetSize);
+                // the root has no incoming edge, so its symbol is irrelevant
+                appendNode(0, NO_VALUE);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void validateHeader(Path file) throws IOException {
+        if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("File '" + file + "' does not contain a (compatible) trie");
+        }
+
+        final int storedSize = header.getInt(ALPHABET_SIZE_OFFSET);
+        if (storedSize != alphabetSize) {
+            throw new IOException("File '" + file + "' stores a trie over " + storedSize + " symbols, but " +
+                                  alphabetSize + " were requested");
+        }
+    }
+
+    /**
+     * Returns the root node of the trie.
+     *
+     * @return the root node
+     */
+    public int getRoot() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of nodes of the trie.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return numNodes;
+    }
+
+    /**
+     * Returns the successor of the given node for the given symbol.
+     *
+     * @param node
+     *         the node
+     * @param symbol
+     *         the index of the symbol
+     *
+     * @return the successor, or {@link #NO_NODE} if no such successor exists
+     */
+    public int getSuccessor(int node, int symbol) {
+        // the root node is never a child, hence 0 denotes an empty slot
+        for (int child = getInt(node, FIRST_CHILD_OFFSET); child != 0; child = getInt(child, NEXT_SIBLING_OFFSET)) {
+            if (getInt(child, SYMBOL_OFFSET) == symbol) {
+                return child;
+            }
+        }
+
+        return NO_NODE;
+    }
+
+    /**
+     * Returns the successor of the given node for the given symbol, creating a new node if no such successor exists.
+     *
+     * @param node
+     *         the node
+     * @param symbol
+     *         the index of the symbol
+     * @param value
+     *         the value of the new node, if a node needs to be created
+     *
+     * @return the (potentially new) successor
+     *
+     * @throws IOException
+     *         if the file cannot be extended
+     */
+    public int getOrAddSuccessor(int node, int symbol, int value) throws IOException {
+        int last = 0;
+
+        for (int child = getInt(node, FIRST_CHILD_OFFSET); child != 0; child = getInt(child, NEXT_SIBLING_OFFSET)) {
+            if (getInt(child, SYMBOL_OFFSET) == symbol) {
+                return child;
+            }
+            last = child;
+        }
+
+        final int newNode = appendNode(symbol, value);
+
+        // link the new node via a previously empty slot
+        if (last == 0) {
+            putInt(node, FIRST_CHILD_OFFSET, newNode);
+        } else {
+            putInt(last, NEXT_SIBLING_OFFSET, newNode);
+        }
+
+        return newNode;
+    }
+
+    /**
+     * Returns the value of the given node.
+     *
+     * @param node
+     *         the node
+     *
+     * @return the value of the node, or {@link #NO_VALUE} if no value has been set
+     */
+    public int getValue(int node) {
+        // values are stored with an offset of one, so that the (zero-initialized) new nodes have no value
+        return getInt(node, VALUE_OFFSET) - 1;
+    }
+
+    /**
+     * Sets the value of the given node. The value of a node can only be set once, i.e. the node must not have a value
+     * yet.
+     *
+     * @param node
+     *         the node
+     * @param value
+     *         the (non-negative) value
+     *
+     * @throws IllegalStateException
+     *         if the node already has a value
+     */
+    public void setValue(int node, int value) {
+        if (getValue(node) != NO_VALUE) {
+            throw new IllegalStateException("The value of node " + node + " has already been set");
+        }
+        putInt(node, VALUE_OFFSET, value + 1);
+    }
+
+    private int appendNode(int symbol, int value) throws IOException {
+        final int node = numNodes;
+        ensureCapacity(node + 1);
+        putInt(node, SYMBOL_OFFSET, symbol);
+        putInt(node, VALUE_OFFSET, value + 1);
+
+        numNodes = node + 1;
+        header.putInt(NUM_NODES_OFFSET, numNodes);
+
+        return node;
+    }
+
+    private void ensureCapacity(int nodes) throws IOException {
+        final long segmentBytes = (long) nodesPerSegment * NODE_SIZE;
+
+        while ((long) segments.size() * nodesPerSegment < nodes) {
+            final long position = HEADER_SIZE + segments.size() * segmentBytes;
+            // mapping a region beyond the end of the file implicitly extends the file
+            segments.add(channel.map(MapMode.READ_WRITE, position, segmentBytes));
+        }
+    }
+
+    private int getInt(int node, int field) {
+        return segments.get(node / nodesPerSegment).getInt((node % nodesPerSegment) * NODE_SIZE + field);
+    }
+
+    private void putInt(int node, int field, int value) {
+        segments.get(node / nodesPerSegment).putInt((node % nodesPerSegment) * NODE_SIZE + field, value);
+    }
+
+    /**
+     * Forces all modifications of the trie to be written to the underlying storage device.
+     */
+    @Override
+    public void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    /**
+     * Flushes and closes the trie. Note that the mapped regions of the file are only released once they are garbage
+     * collected.
+     *
+     * @throws IOException
+     *         if the underlying file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,108 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.BoundedCache;
+import de.learnlib.filter.cache.BoundedCacheStatistics;
+import de.learnlib.filter.cache.EvictionPolicy;
+import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
+import net.automatalib.words.Word;
+
+/**
+ * A DFA cache that stores at most a fixed number of answers and evicts entries according to an {@link EvictionPolicy}
+ * once its capacity is exceeded (see {@link BoundedCache}). Like the {@link DFAHashCacheOracle}, concurrent cache
+ * misses on the same word are coalesced.
+ * <p>
+ * Note that the {@link #createCacheConsistencyTest() cache consistency test} of this cache only covers the currently
+ * cached (i.e., non-evicted) answers.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class BoundedDFACacheOracle<I> implements DFALearningCacheOracle<I>, StatisticCollector {
+
+    private final BoundedCache<I, Boolean> cache;
+    private final MembershipOracle<I, Boolean> delegate;
+    private final InFlightQueries<I> inFlightQueries;
+
+    public BoundedDFACacheOracle(MembershipOracle<I, Boolean> delegate, int capacity, EvictionPolicy policy) {
+        this(delegate, capacity, policy, BoundedCache.DEFAULT_PINNED_LENGTH);
+    }
+
+    public BoundedDFACacheOracle(MembershipOracle<I, Boolean> delegate,
+                                 int capacity,
+                                 EvictionPolicy policy,
+                                 int pinnedLength) {
+        this.cache = new BoundedCache<>(capacity, policy, pinnedLength);
+        this.delegate = delegate;
+        this.inFlightQueries = new InFlightQueries<>();
+    }
+
+    /**
+     * Pins the given word, so that its answer (once cached) is never evicted. This is useful for, e.g., the access
+     * sequences of a hypothesis.
+     *
+     * @param word
+     *         the word to pin
+     */
+    public void pin(Word<I> word) {
+        cache.pin(word);
+    }
+
+    @Override
+    public DFAEquivalenceOracle<I> createCacheConsistencyTest() {
+        return (hypothesis, inputs) -> cache.findCounterExample(hypothesis::computeOutput);
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
+        List<Query<I, Boolean>> misses = new ArrayList<>();
+
+        for (Query<I, Boolean> qry : queries) {
+            Boolean answer = cache.get(qry.getInput());
+            if (answer != null) {
+                qry.answer(answer);
+            } else {
+                misses.add(qry);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            inFlightQueries.process(misses, cache::peek, this::forward);
+        }
+    }
+
+    private void forward(List<ProxyQuery<I>> misses) {
+        delegate.processQueries(misses);
+
+        for (ProxyQuery<I> miss : misses) {
+            cache.put(miss.getInput(), miss.getAnswer());
+        }
+    }
+
+    @Override
+    public BoundedCacheStatistics getStatisticalData() {
+        return cache.getStatistics();
+    }
+}
@@ -0,0 +1,200 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.learnlib.api.Resumable;
+import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheStatistics;
+import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
+import de.learnlib.filter.cache.dfa.CompactDFACacheOracle.CompactDFACacheOracleState;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A memory-efficient alternative to the {@link DFAHashCacheOracle}. Instead of storing a (boxed) answer per {@link
+ * Word} in a hash map, this cache maps input symbols to their alphabet indices and stores the answers in a sparse
+ * {@code int} array trie that requires {@code 12} bytes per node (see {@link IntArrayDFATrie}). Hence, the cache does
+ * not retain any {@link Word} objects, words with common prefixes share their storage, and lookups are performed
+ * without hashing. Note that words that (mostly) do not share prefixes with other cached words require about {@code
+ * 12} bytes per symbol, which may exceed the memory consumption of a hash cache for such words.
+ * <p>
+ * Like the {@link DFAHashCacheOracle}, concurrent cache misses on the same word are coalesced. Note that (unlike the
+ * {@link DFACacheOracle}) this cache does not support growing alphabets.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class CompactDFACacheOracle<I>
+        implements DFALearningCacheOracle<I>, Resumable<CompactDFACacheOracleState>, StatisticCollector {
+
+    private final IntArrayDFATrie<I> trie;
+    private final ReadWriteLock trieLock;
+    private final MembershipOracle<I, Boolean> delegate;
+    private final InFlightQueries<I> inFlightQueries;
+    private final CacheStatistics statistics;
+
+    public CompactDFACacheOracle(Alphabet<I> alphabet, MembershipOracle<I, Boolean> delegate) {
+        this.trie = new IntArrayDFATrie<>(alphabet);
+        this.trieLock = new ReentrantReadWriteLock();
+        this.delegate = delegate;
+        this.inFlightQueries = new InFlightQueries<>();
+        this.statistics = new CacheStatistics("Compact DFA cache");
+    }
+
+    @Override
+    public DFAEquivalenceOracle<I> createCacheConsistencyTest() {
+        return (hypothesis, inputs) -> {
+            trieLock.readLock().lock();
+            try {
+                final Word<I> w = trie.findSeparatingWord(hypothesis, inputs);
+                if (w == null) {
+                    return null;
+                }
+
+                final Acceptance acc = trie.lookup(w);
+                assert (acc != Acceptance.DONT_KNOW);
+
+                return new DefaultQuery<>(w, acc.toBoolean());
+            } finally {
+                trieLock.readLock().unlock();
+            }
+        };
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
+        List<Query<I, Boolean>> unanswered = new ArrayList<>();
+
+        statistics.lock(trieLock.readLock());
+        try {
+            for (Query<I, Boolean> q : queries) {
+                Acceptance acc = trie.lookup(q.getInput());
+                if (acc != Acceptance.DONT_KNOW) {
+                    q.answer(acc.toBoolean());
+                    statistics.recordHit(q.getInput().length());
+                } else {
+                    unanswered.add(q);
+                    statistics.recordMiss();
+                }
+            }
+        } finally {
+            trieLock.readLock().unlock();
+        }
+
+        if (!unanswered.isEmpty()) {
+            inFlightQueries.process(unanswered, this::lookup, this::forward);
+        }
+    }
+
+    private @Nullable Boolean lookup(Word<I> word) {
+        statistics.lock(trieLock.readLock());
+        try {
+            Acceptance acc = trie.lookup(word);
+            return acc == Acceptance.DONT_KNOW ? null : acc.toBoolean();
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    private void forward(List<ProxyQuery<I>> unanswered) {
+        delegate.processQueries(unanswered);
+
+        final long lockedAt = statistics.lockWrite(trieLock.writeLock());
+        try {
+            for (ProxyQuery<I> q : unanswered) {
+                trie.insert(q.getInput(), q.getAnswer());
+            }
+        } finally {
+            statistics.unlockWrite(trieLock.writeLock(), lockedAt);
+        }
+    }
+
+    /**
+     * Returns the number of nodes of the underlying trie.
+     *
+     * @return the number of nodes of the underlying trie
+     */
+    public int size() {
+        trieLock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns statistics about the effectiveness of this cache. Since DFA queries are not prefix-closed, this cache
+     * never records partial hits.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return statistics;
+    }
+
+    @Override
+    public CompactDFACacheOracleState suspend() {
+        trieLock.readLock().lock();
+        try {
+            return new CompactDFACacheOracleState(trie.size(),
+                                                  trie.getFirstChildren(),
+                                                  trie.getNextSiblings(),
+                                                  trie.getLabels());
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void resume(CompactDFACacheOracleState state) {
+        trieLock.writeLock().lock();
+        try {
+            trie.setContents(state.size, state.firstChildren, state.nextSiblings, state.labels);
+        } finally {
+            trieLock.writeLock().unlock();
+        }
+    }
+
+    public static final class CompactDFACacheOracleState implements Serializable {
+
+        private final int size;
+        private final int[] firstChildren;
+        private final int[] nextSiblings;
+        private final int[] labels;
+
+        CompactDFACacheOracleState(int size, int[] firstChildren, int[] nextSiblings, int[] labels) {
+            this.size = size;
+            this.firstChildren = firstChildren;
+            this.nextSiblings = nextSiblings;
+            this.labels = labels;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.learnlib.api.Resumable;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
+import de.learnlib.filter.cache.dfa.ConcurrentDFACacheOracle.ConcurrentDFACacheOracleState;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A DFA cache that can be shared by concurrently querying threads. Contrary to the {@link DFACacheOracle}, which guards
+ * its cache with a global read-write lock, this cache uses a tree whose nodes are installed via CAS operations. Hence,
+ * lookups never block, and concurrent inserts only contend on the paths that are extended simultaneously. Concurrent
+ * cache misses on the same word are coalesced, i.e., each distinct word is forwarded to the delegate oracle only once.
+ * <p>
+ * Note that (unlike the {@link DFACacheOracle}) this cache does not support growing alphabets.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class ConcurrentDFACacheOracle<I>
+        implements DFALearningCacheOracle<I>, Resumable<ConcurrentDFACacheOracleState> {
+
+    private final ConcurrentDFATree<I> tree;
+    private final MembershipOracle<I, Boolean> delegate;
+    private final InFlightQueries<I> inFlightQueries;
+
+    public ConcurrentDFACacheOracle(Alphabet<I> alphabet, MembershipOracle<I, Boolean> delegate) {
+        this.tree = new ConcurrentDFATree<>(alphabet);
+        this.delegate = delegate;
+        this.inFlightQueries = new InFlightQueries<>();
+    }
+
+    @Override
+    public ConcurrentDFACacheConsistencyTest<I> createCacheConsistencyTest() {
+        return new ConcurrentDFACacheConsistencyTest<>(tree);
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
+        List<Query<I, Boolean>> unanswered = new ArrayList<>();
+
+        for (Query<I, Boolean> q : queries) {
+            Acceptance acc = tree.lookup(q.getInput());
+            if (acc != Acceptance.DONT_KNOW) {
+                q.answer(acc.toBoolean());
+            } else {
+                unanswered.add(q);
+            }
+        }
+
+        if (!unanswered.isEmpty()) {
+            inFlightQueries.process(unanswered, this::lookup, this::forward);
+        }
+    }
+
+    private @Nullable Boolean lookup(Word<I> word) {
+        Acceptance acc = tree.lookup(word);
+        return acc == Acceptance.DONT_KNOW ? null : acc.toBoolean();
+    }
+
+    private void forward(List<ProxyQuery<I>> unanswered) {
+        delegate.processQueries(unanswered);
+
+        for (ProxyQuery<I> q : unanswered) {
+            tree.insert(q.getInput(), q.getAnswer());
+        }
+    }
+
+    @Override
+    public ConcurrentDFACacheOracleState suspend() {
+        return new ConcurrentDFACacheOracleState(tree.suspend());
+    }
+
+    @Override
+    public void resume(ConcurrentDFACacheOracleState state) {
+        tree.resume(state.getRoot());
+    }
+
+    public static class ConcurrentDFACacheOracleState implements Serializable {
+
+        private final ConcurrentDFATree.Node root;
+
+        ConcurrentDFACacheOracleState(ConcurrentDFATree.Node root) {
+            this.root = root;
+        }
+
+        ConcurrentDFATree.Node getRoot() {
+            return root;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import de.learnlib.api.Resumable;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, tree-based storage for the acceptance information of a {@link ConcurrentDFACacheOracle}.
+ * <p>
+ * The successors of a node are stored in an array (indexed by the alphabet index of the respective symbol) that is
+ * lazily installed via a CAS operation, and successors themselves are installed via CAS operations on the respective
+ * array slots. Hence, lookups never block, and inserts only contend on the nodes that are created concurrently.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class ConcurrentDFATree<I> implements Resumable<ConcurrentDFATree.Node> {
+
+    private final Alphabet<I> alphabet;
+    private final int alphabetSize;
+    private volatile Node root;
+
+    ConcurrentDFATree(Alphabet<I> alphabet) {
+        this.alphabet = alphabet;
+        this.alphabetSize = alphabet.size();
+        this.root = new Node();
+    }
+
+    Acceptance lookup(Word<I> word) {
+        Node node = root;
+
+        for (I sym : word) {
+            node = node.getSuccessor(alphabet.getSymbolIndex(sym));
+            if (node == null) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+
+        return node.acceptance;
+    }
+
+    void insert(Word<I> word, boolean accepting) {
+        Node node = root;
+
+        for (I sym : word) {
+            node = node.getOrCreateSuccessor(alphabet.getSymbolIndex(sym), alphabetSize);
+        }
+
+        node.setAcceptance(accepting ? Acceptance.TRUE : Acceptance.FALSE);
+    }
+
+    <S> @Nullable Word<I> findSeparatingWord(DFA<S, I> hypothesis, Collection<? extends I> inputs) {
+        final Deque<Record<S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(root, hypothesis.getInitialState(), Word.epsilon()));
+
+        Record<S, I> current;
+        while ((current = queue.poll()) != null) {
+            final Acceptance acc = current.node.acceptance;
+
+            if (acc != Acceptance.DONT_KNOW) {
+                final boolean hypAcc = current.state != null && hypothesis.isAccepting(current.state);
+                if (acc.toBoolean() != hypAcc) {
+                    return current.word;
+                }
+            }
+
+            for (I sym : inputs) {
+                if (!alphabet.containsSymbol(sym)) {
+                    continue;
+                }
+
+                final Node succ = current.node.getSuccessor(alphabet.getSymbolIndex(sym));
+                if (succ != null) {
+                    final S hypSucc = current.state == null ? null : hypothesis.getSuccessor(current.state, sym);
+                    queue.add(new Record<>(succ, hypSucc, current.word.append(sym)));
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Node suspend() {
+        return root;
+    }
+
+    @Override
+    public void resume(Node state) {
+        this.root = state;
+    }
+
+    static final class Node implements Serializable {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, AtomicReferenceArray> SUCCESSORS =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, AtomicReferenceArray.class, "successors");
+        private static final AtomicReferenceFieldUpdater<Node, Acceptance> ACCEPTANCE =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Acceptance.class, "acceptance");
+
+        private volatile @Nullable AtomicReferenceArray<Node> successors;
+        private volatile Acceptance acceptance = Acceptance.DONT_KNOW;
+
+        @Nullable Node getSuccessor(int idx) {
+            final AtomicReferenceArray<Node> succs = successors;
+            return succs == null ? null : succs.get(idx);
+        }
+
+        @SuppressWarnings("unchecked")
+        Node getOrCreateSuccessor(int idx, int alphabetSize) {
+            AtomicReferenceArray<Node> succs = successors;
+
+            if (succs == null) {
+                succs = new AtomicReferenceArray<>(alphabetSize);
+                if (!SUCCESSORS.compareAndSet(this, null, succs)) {
+                    succs = successors;
+                }
+            }
+
+            final Node succ = succs.get(idx);
+            if (succ != null) {
+                return succ;
+            }
+
+            final Node newSucc = new Node();
+            if (succs.compareAndSet(idx, null, newSucc)) {
+                return newSucc;
+            }
+
+            return succs.get(idx);
+        }
+
+        void setAcceptance(Acceptance acc) {
+            if (!ACCEPTANCE.compareAndSet(this, Acceptance.DONT_KNOW, acc) && acceptance != acc) {
+                throw new ConflictException("Incompatible acceptances: " + acceptance + " vs " + acc);
+            }
+        }
+    }
+
+    private static final class Record<S, I> {
+
+        private final Node node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(Node node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
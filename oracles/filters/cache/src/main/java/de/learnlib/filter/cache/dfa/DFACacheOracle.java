@@ -15,16 +15,25 @@
  */
 package de.learnlib.filter.cache.dfa;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheJournal;
+import de.learnlib.filter.cache.CacheLoadResult;
+import de.learnlib.filter.cache.CacheLoading;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
 import de.learnlib.filter.cache.dfa.DFACacheOracle.DFACacheOracleState;
 import net.automatalib.SupportsGrowingAlphabet;
@@ -35,6 +44,8 @@ import net.automatalib.incremental.dfa.dag.IncrementalPCDFADAGBuilder;
 import net.automatalib.incremental.dfa.tree.IncrementalDFATreeBuilder;
 import net.automatalib.incremental.dfa.tree.IncrementalPCDFATreeBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +54,9 @@ import org.slf4j.LoggerFactory;
  * oracle. Queries that can be answered from the cache are answered directly, others are forwarded to the delegate
  * oracle. When the delegate oracle has finished processing these remaining queries, the results are incorporated into
  * the cache.
+ * <p>
+ * Concurrent cache misses on the same word (as well as duplicate words within a batch) are coalesced, i.e., each
+ * distinct word is forwarded to the delegate oracle only once, and all other requesters wait for its answer.
  *
  * @param <I>
  *         input symbol class
@@ -50,18 +64,27 @@ import org.slf4j.LoggerFactory;
  * @author Malte Isberner
  */
 public class DFACacheOracle<I>
-        implements DFALearningCacheOracle<I>, SupportsGrowingAlphabet<I>, Resumable<DFACacheOracleState<I>> {
+        implements DFALearningCacheOracle<I>,
+                   SupportsGrowingAlphabet<I>,
+                   Resumable<DFACacheOracleState<I>>,
+                   StatisticCollector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DFACacheOracle.class);
 
     private IncrementalDFABuilder<I> incDfa;
     private final ReadWriteLock incDfaLock;
     private final MembershipOracle<I, Boolean> delegate;
+    private final InFlightQueries<I> inFlightQueries;
+    private final CacheJournal<I> journal;
+    private final CacheStatistics statistics;
 
     DFACacheOracle(IncrementalDFABuilder<I> incDfa, MembershipOracle<I, Boolean> delegate) {
         this.incDfa = incDfa;
         this.incDfaLock = new ReentrantReadWriteLock();
         this.delegate = delegate;
+        this.inFlightQueries = new InFlightQueries<>();
+        this.journal = new CacheJournal<>();
+        this.statistics = new CacheStatistics("DFA cache");
     }
 
     /**
@@ -152,36 +175,125 @@ public class DFACacheOracle<I>
         return new DFACacheConsistencyTest<>(incDfa, incDfaLock);
     }
 
+    /**
+     * Creates an equivalence oracle that incrementally checks hypotheses for consistency with the contents of this
+     * cache, i.e., only cache contents that have been added since the last check and previously checked contents that
+     * are affected by changes of the hypothesis are examined. The returned oracle should be created before the first
+     * query is posed to this cache, because otherwise changed hypotheses need to be checked against the complete cache
+     * contents. The returned oracle should be {@link IncrementalDFACacheConsistencyTest#close() closed} once it is
+     * no longer used.
+     *
+     * @param parallel
+     *         whether the cache contents should be checked in parallel
+     *
+     * @return the incremental cache consistency test backed by the contents of this cache.
+     *
+     * @see IncrementalDFACacheConsistencyTest
+     */
+    public IncrementalDFACacheConsistencyTest<I> createIncrementalCacheConsistencyTest(boolean parallel) {
+        return new IncrementalDFACacheConsistencyTest<>(journal.register(),
+                                                        this::lookup,
+                                                        createCacheConsistencyTest(),
+                                                        parallel);
+    }
+
     @Override
     public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
-        List<ProxyQuery<I>> unanswered = new ArrayList<>();
+        List<Query<I, Boolean>> unanswered = new ArrayList<>();
 
-        incDfaLock.readLock().lock();
+        statistics.lock(incDfaLock.readLock());
         try {
             for (Query<I, Boolean> q : queries) {
                 Acceptance acc = incDfa.lookup(q.getInput());
                 if (acc != Acceptance.DONT_KNOW) {
                     q.answer(acc.toBoolean());
+                    statistics.recordHit(q.getInput().length());
                 } else {
-                    unanswered.add(new ProxyQuery<>(q));
+                    unanswered.add(q);
+                    statistics.recordMiss();
                 }
             }
         } finally {
             incDfaLock.readLock().unlock();
         }
 
+        if (!unanswered.isEmpty()) {
+            inFlightQueries.process(unanswered, this::lookup, this::forward);
+        }
+    }
+
+    private @Nullable Boolean lookup(Word<I> word) {
+        statistics.lock(incDfaLock.readLock());
+        try {
+            Acceptance acc = incDfa.lookup(word);
+            return acc == Acceptance.DONT_KNOW ? null : acc.toBoolean();
+        } finally {
+            incDfaLock.readLock().unlock();
+        }
+    }
+
+    private void forward(List<ProxyQuery<I>> unanswered) {
         delegate.processQueries(unanswered);
 
-        incDfaLock.writeLock().lock();
+        final long lockedAt = statistics.lockWrite(incDfaLock.writeLock());
         try {
             for (ProxyQuery<I> q : unanswered) {
-                incDfa.insert(q.getInput(), q.getAnswer());
+                insert(q.getInput(), q.getAnswer());
             }
         } finally {
-            incDfaLock.writeLock().unlock();
+            statistics.unlockWrite(incDfaLock.writeLock(), lockedAt);
         }
     }
 
+    private void insert(Word<I> word, Boolean accepting) {
+        incDfa.insert(word, accepting);
+        journal.record(word);
+    }
+
+    /**
+     * Bulk-loads the given queries (e.g. a passive sample) into this cache without posing them to the delegate
+     * oracle. Queries whose outputs contradict the cache contents are skipped and reported in the result.
+     *
+     * @param queries
+     *         the (answered) queries to load
+     *
+     * @return the result of the loading process
+     *
+     * @see CacheLoading
+     */
+    public CacheLoadResult<I, Boolean> load(Collection<? extends DefaultQuery<I, Boolean>> queries) {
+        return CacheLoading.load(queries, false, incDfaLock.writeLock(), this::insert);
+    }
+
+    /**
+     * Bulk-loads the queries recorded in the given file into this cache. See {@link #load(Collection)}.
+     *
+     * @param file
+     *         the (UTF-8 encoded) file containing one query per line
+     * @param parser
+     *         the parser for a single line, which may return {@code null} for lines that should be skipped
+     *
+     * @return the result of the loading process
+     *
+     * @throws IOException
+     *         if reading the file fails
+     */
+    public CacheLoadResult<I, Boolean> load(Path file, Function<String, @Nullable DefaultQuery<I, Boolean>> parser)
+            throws IOException {
+        return load(CacheLoading.parse(file, parser));
+    }
+
+    /**
+     * Returns statistics about the effectiveness of this cache. Since DFA queries are not prefix-closed, this cache
+     * never records partial hits.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return statistics;
+    }
+
     @Override
     public void addAlphabetSymbol(I symbol) {
         incDfa.addAlphabetSymbol(symbol);
@@ -205,6 +317,7 @@ public class DFACacheOracle<I>
         }
 
         this.incDfa = state.getBuilder();
+        this.journal.invalidate();
     }
 
     public static class DFACacheOracleState<I> implements Serializable {
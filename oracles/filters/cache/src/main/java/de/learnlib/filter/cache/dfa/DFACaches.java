@@ -15,7 +15,12 @@
  */
 package de.learnlib.filter.cache.dfa;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.filter.cache.BoundedCache;
+import de.learnlib.filter.cache.EvictionPolicy;
 import net.automatalib.incremental.dfa.IncrementalDFABuilder;
 import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
 import net.automatalib.incremental.dfa.dag.IncrementalPCDFADAGBuilder;
@@ -83,6 +88,114 @@ public final class DFACaches {
         return DFACacheOracle.createTreePCCacheOracle(alphabet, mqOracle);
     }
 
+    /**
+     * Creates a cache oracle for a DFA learning setup that can be shared by concurrently querying threads, using a
+     * lock-free tree for internal cache organization.
+     *
+     * @param alphabet
+     *         the alphabet containing the symbols of possible queries
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link ConcurrentDFACacheOracle}.
+     */
+    public static <I> ConcurrentDFACacheOracle<I> createConcurrentTreeCache(Alphabet<I> alphabet,
+                                                                            MembershipOracle<I, Boolean> mqOracle) {
+        return new ConcurrentDFACacheOracle<>(alphabet, mqOracle);
+    }
+
+    /**
+     * Creates a cache oracle for a DFA learning setup whose contents are persisted in a memory-mapped file. Re-opening
+     * an existing file makes all previously cached answers available immediately.
+     *
+     * @param alphabet
+     *         the alphabet containing the symbols of possible queries
+     * @param file
+     *         the file storing the cache contents. If the file does not exist, an empty cache is created
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link PersistentDFACacheOracle}.
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a cache for the given alphabet
+     */
+    public static <I> PersistentDFACacheOracle<I> createPersistentCache(Alphabet<I> alphabet,
+                                                                        Path file,
+                                                                        MembershipOracle<I, Boolean> mqOracle)
+            throws IOException {
+        return new PersistentDFACacheOracle<>(alphabet, file, mqOracle);
+    }
+
+    /**
+     * Creates a cache oracle for a DFA learning setup that stores at most the given number of answers. Words up to
+     * length {@link BoundedCache#DEFAULT_PINNED_LENGTH} are never evicted.
+     *
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param capacity
+     *         the maximum number of cached answers
+     * @param policy
+     *         the policy for selecting the answers to evict
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link BoundedDFACacheOracle}.
+     */
+    public static <I> BoundedDFACacheOracle<I> createBoundedCache(MembershipOracle<I, Boolean> mqOracle,
+                                                                  int capacity,
+                                                                  EvictionPolicy policy) {
+        return new BoundedDFACacheOracle<>(mqOracle, capacity, policy);
+    }
+
+    /**
+     * Creates a cache oracle for a DFA learning setup that stores at most the given number of answers.
+     *
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param capacity
+     *         the maximum number of cached answers
+     * @param policy
+     *         the policy for selecting the answers to evict
+     * @param pinnedLength
+     *         the length up to which words are never evicted
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link BoundedDFACacheOracle}.
+     */
+    public static <I> BoundedDFACacheOracle<I> createBoundedCache(MembershipOracle<I, Boolean> mqOracle,
+                                                                  int capacity,
+                                                                  EvictionPolicy policy,
+                                                                  int pinnedLength) {
+        return new BoundedDFACacheOracle<>(mqOracle, capacity, policy, pinnedLength);
+    }
+
+    /**
+     * Creates a cache oracle for a DFA learning setup, using a sparse {@code int} array trie for internal cache
+     * organization. The trie requires {@code 12} bytes per node (independent of the alphabet size), so words with
+     * common prefixes (such as the membership queries of most learning algorithms) share their storage and require
+     * less memory than in a {@link #createHashCache(MembershipOracle) hash cache}. Words without common prefixes
+     * (e.g. random equivalence queries) require about {@code 12} bytes per symbol, though.
+     *
+     * @param alphabet
+     *         the alphabet containing the symbols of possible queries
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link CompactDFACacheOracle}.
+     */
+    public static <I> CompactDFACacheOracle<I> createCompactCache(Alphabet<I> alphabet,
+                                                                  MembershipOracle<I, Boolean> mqOracle) {
+        return new CompactDFACacheOracle<>(alphabet, mqOracle);
+    }
+
     public static <I> DFAHashCacheOracle<I> createHashCache(MembershipOracle<I, Boolean> mqOracle) {
         return new DFAHashCacheOracle<>(mqOracle);
     }
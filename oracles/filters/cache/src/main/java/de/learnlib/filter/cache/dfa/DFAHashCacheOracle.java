@@ -32,17 +32,28 @@ import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
 import de.learnlib.filter.cache.dfa.DFAHashCacheOracle.DFAHashCacheOracleState;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * A DFA cache that stores the answers of queries in a hash map. Concurrent cache misses on the same word (as well as
+ * duplicate words within a batch) are coalesced, i.e., each distinct word is forwarded to the delegate oracle only
+ * once, and all other requesters wait for its answer.
+ *
+ * @param <I>
+ *         input symbol type
+ */
 public class DFAHashCacheOracle<I> implements DFALearningCacheOracle<I>, Resumable<DFAHashCacheOracleState<I>> {
 
     private final MembershipOracle<I, Boolean> delegate;
     private Map<Word<I>, Boolean> cache;
     private final Lock cacheLock;
+    private final InFlightQueries<I> inFlightQueries;
 
     public DFAHashCacheOracle(MembershipOracle<I, Boolean> delegate) {
         this.delegate = delegate;
         this.cache = new HashMap<>();
         this.cacheLock = new ReentrantLock();
+        this.inFlightQueries = new InFlightQueries<>();
     }
 
     @Override
@@ -52,7 +63,7 @@ public class DFAHashCacheOracle<I> implements DFALearningCacheOracle<I>, Resumab
 
     @Override
     public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
-        List<ProxyQuery<I>> misses = new ArrayList<>();
+        List<Query<I, Boolean>> misses = new ArrayList<>();
 
         cacheLock.lock();
         try {
@@ -62,13 +73,28 @@ public class DFAHashCacheOracle<I> implements DFALearningCacheOracle<I>, Resumab
                 if (answer != null) {
                     qry.answer(answer);
                 } else {
-                    misses.add(new ProxyQuery<>(qry));
+                    misses.add(qry);
                 }
             }
         } finally {
             cacheLock.unlock();
         }
 
+        if (!misses.isEmpty()) {
+            inFlightQueries.process(misses, this::lookup, this::forward);
+        }
+    }
+
+    private @Nullable Boolean lookup(Word<I> word) {
+        cacheLock.lock();
+        try {
+            return cache.get(word);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void forward(List<ProxyQuery<I>> misses) {
         delegate.processQueries(misses);
 
         cacheLock.lock();
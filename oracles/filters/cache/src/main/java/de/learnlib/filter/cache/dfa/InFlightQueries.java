@@ -0,0 +1,172 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Single-flight coordination of cache misses. A thread that misses on a word registers a pending future for this word
+ * and becomes responsible for forwarding the word to the delegate oracle. Other threads (and duplicates within the
+ * same batch) that miss on the same word in the meantime attach to the pending future instead of querying the word
+ * again. Hence, each distinct word reaches the delegate oracle exactly once.
+ * <p>
+ * A thread first forwards the words it is responsible for and only then waits for the words that other threads are
+ * responsible for, so that threads cannot mutually wait on each other.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class InFlightQueries<I> {
+
+    private final ConcurrentMap<Word<I>, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Answers the given cache misses.
+     *
+     * @param misses
+     *         the queries that could not be answered from the cache
+     * @param lookup
+     *         a function for (re-) checking the cache for a given word, returning {@code null} if the cache contains no
+     *         information about the word
+     * @param forward
+     *         a callback that forwards the given queries to the delegate oracle and stores their answers in the cache
+     */
+    void process(List<? extends Query<I, Boolean>> misses,
+                 Function<Word<I>, @Nullable Boolean> lookup,
+                 Consumer<List<ProxyQuery<I>>> forward) {
+
+        final Map<Word<I>, OwnedQuery<I>> owned = new LinkedHashMap<>();
+        final List<ForeignQuery<I>> foreign = new ArrayList<>();
+
+        for (Query<I, Boolean> q : misses) {
+            final Word<I> word = q.getInput();
+            final OwnedQuery<I> ownedQuery = owned.get(word);
+
+            if (ownedQuery != null) {
+                ownedQuery.duplicates.add(q);
+                continue;
+            }
+
+            final CompletableFuture<Boolean> future = new CompletableFuture<>();
+            final CompletableFuture<Boolean> existing = pending.putIfAbsent(word, future);
+
+            if (existing != null) {
+                foreign.add(new ForeignQuery<>(q, existing));
+                continue;
+            }
+
+            // another thread may have answered (and unregistered) the word since our initial cache lookup
+            final Boolean cached = lookup.apply(word);
+            if (cached != null) {
+                pending.remove(word, future);
+                future.complete(cached);
+                q.answer(cached);
+            } else {
+                owned.put(word, new OwnedQuery<>(word, q, future));
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            final List<ProxyQuery<I>> proxies = new ArrayList<>(owned.size());
+            for (OwnedQuery<I> o : owned.values()) {
+                proxies.add(o.proxy);
+            }
+
+            try {
+                forward.accept(proxies);
+            } catch (RuntimeException | Error e) {
+                for (OwnedQuery<I> o : owned.values()) {
+                    pending.remove(o.word, o.future);
+                    o.future.completeExceptionally(e);
+                }
+                throw e;
+            }
+
+            // the answers have been stored in the cache, so unregistering them can not cause duplicate queries
+            for (OwnedQuery<I> o : owned.values()) {
+                final Boolean answer = o.proxy.getAnswer();
+
+                for (Query<I, Boolean> d : o.duplicates) {
+                    d.answer(answer);
+                }
+
+                pending.remove(o.word, o.future);
+                o.future.complete(answer);
+            }
+        }
+
+        for (ForeignQuery<I> f : foreign) {
+            f.query.answer(await(f.future));
+        }
+    }
+
+    private static Boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new BatchInterruptedException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AssertionError("Delegates must not throw checked exceptions", e);
+        }
+    }
+
+    private static final class OwnedQuery<I> {
+
+        private final Word<I> word;
+        private final ProxyQuery<I> proxy;
+        private final CompletableFuture<Boolean> future;
+        private final List<Query<I, Boolean>> duplicates;
+
+        OwnedQuery(Word<I> word, Query<I, Boolean> query, CompletableFuture<Boolean> future) {
+            this.word = word;
+            this.proxy = new ProxyQuery<>(query);
+            this.future = future;
+            this.duplicates = new ArrayList<>();
+        }
+    }
+
+    private static final class ForeignQuery<I> {
+
+        private final Query<I, Boolean> query;
+        private final CompletableFuture<Boolean> future;
+
+        ForeignQuery(Query<I, Boolean> query, CompletableFuture<Boolean> future) {
+            this.query = query;
+            this.future = future;
+        }
+    }
+}
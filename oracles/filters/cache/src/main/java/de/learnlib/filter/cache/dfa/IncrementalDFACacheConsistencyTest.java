@@ -0,0 +1,122 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
+import de.learnlib.filter.cache.AbstractIncrementalCacheConsistencyTest;
+import de.learnlib.filter.cache.CacheJournal;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An incremental version of the {@link DFACacheConsistencyTest}. See {@link AbstractIncrementalCacheConsistencyTest}
+ * for details.
+ *
+ * @param <I>
+ *         input symbol class
+ */
+public final class IncrementalDFACacheConsistencyTest<I>
+        extends AbstractIncrementalCacheConsistencyTest<DFA<?, I>, CompactDFA<I>, I, Boolean>
+        implements DFAEquivalenceOracle<I> {
+
+    IncrementalDFACacheConsistencyTest(CacheJournal.Cursor<I> cursor,
+                                       Function<Word<I>, @Nullable Boolean> cacheLookup,
+                                       EquivalenceOracle<DFA<?, I>, I, Boolean> fallback,
+                                       boolean parallel) {
+        super(cursor, cacheLookup, fallback, parallel);
+    }
+
+    @Override
+    protected CompactDFA<I> copy(DFA<?, I> hypothesis, Alphabet<I> inputs) {
+        return copyDFA(hypothesis, inputs);
+    }
+
+    @Override
+    protected @Nullable Integer getInitialState(CompactDFA<I> snapshot) {
+        return snapshot.getInitialState();
+    }
+
+    @Override
+    protected @Nullable Integer getSuccessor(CompactDFA<I> snapshot, int state, I input) {
+        return snapshot.getSuccessor(state, input);
+    }
+
+    @Override
+    protected boolean isStateDistinct(CompactDFA<I> oldSnapshot,
+                                      int oldState,
+                                      CompactDFA<I> newSnapshot,
+                                      int newState) {
+        return oldSnapshot.isAccepting(oldState) != newSnapshot.isAccepting(newState);
+    }
+
+    @Override
+    protected boolean isTransitionDistinct(CompactDFA<I> oldSnapshot,
+                                           int oldState,
+                                           CompactDFA<I> newSnapshot,
+                                           int newState,
+                                           I input) {
+        return false;
+    }
+
+    private static <S, I> CompactDFA<I> copyDFA(DFA<S, I> dfa, Alphabet<I> inputs) {
+        final CompactDFA<I> result = new CompactDFA<>(inputs);
+        final S init = dfa.getInitialState();
+
+        if (init == null) {
+            return result;
+        }
+
+        final Map<S, Integer> mapping = new HashMap<>();
+        final Deque<S> queue = new ArrayDeque<>();
+
+        mapping.put(init, result.addInitialState(dfa.isAccepting(init)));
+        queue.add(init);
+
+        S curr;
+        while ((curr = queue.poll()) != null) {
+            final Integer currId = mapping.get(curr);
+
+            for (I i : inputs) {
+                final S succ = dfa.getSuccessor(curr, i);
+
+                if (succ == null) {
+                    continue;
+                }
+
+                Integer succId = mapping.get(succ);
+                if (succId == null) {
+                    succId = result.addState(dfa.isAccepting(succ));
+                    mapping.put(succ, succId);
+                    queue.add(succ);
+                }
+
+                result.addTransition(currId, i, succId, null);
+            }
+        }
+
+        return result;
+    }
+}
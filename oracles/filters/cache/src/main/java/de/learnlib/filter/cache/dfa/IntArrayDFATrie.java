@@ -0,0 +1,374 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compact, tree-based storage for the acceptance information of a {@link CompactDFACacheOracle}.
+ * <p>
+ * Nodes are identified by consecutive integers (the root being {@code 0}) and are stored in a first-child/next-sibling
+ * representation using three parallel {@code int} arrays: the first child of each node, the next sibling of each node
+ * ({@code 0} denoting a missing node in both cases, as the root is never a child), and a label that packs the alphabet
+ * index of the symbol of the incoming edge of a node together with its (two-bit) acceptance information. Siblings are
+ * sorted by their symbol index. Hence, every node requires {@code 12} bytes, independent of the size of the alphabet,
+ * i.e. the memory consumption scales with the number of edges of the trie.
+ * <p>
+ * Scanning the (sorted) siblings of a node requires {@code O(k)} array accesses, where {@code k} denotes the number of
+ * children of the node. To bound the lookup costs for large alphabets, a node with more than {@link #DENSE_THRESHOLD}
+ * children is additionally indexed by a dense successor table of {@code |alphabet| + 1} entries. Its first child entry
+ * then refers to this table (the last entry of which holds the head of the sibling list). Such a table costs at most
+ * {@code 4 * |alphabet| / DENSE_THRESHOLD} bytes per child of the node, and the siblings of a dense node are no
+ * longer kept sorted. Hence, lookups require {@code O(length * DENSE_THRESHOLD)} array accesses without hashing or
+ * allocating objects. Dense tables are never part of the {@link #getFirstChildren() exported} contents but are
+ * re-created by {@link #setContents(int, int[], int[], int[])}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class IntArrayDFATrie<I> {
+
+    private static final int DONT_KNOW = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+
+    private static final int ACCEPTANCE_BITS = 2;
+    private static final int ACCEPTANCE_MASK = (1 << ACCEPTANCE_BITS) - 1;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The number of children above which a node is indexed by a dense successor table.
+     */
+    static final int DENSE_THRESHOLD = 16;
+
+    private final Alphabet<I> alphabet;
+    private final int alphabetSize;
+
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] labels;
+    private int size;
+
+    private final List<int[]> denseTables;
+
+    IntArrayDFATrie(Alphabet<I> alphabet) {
+        if (alphabet.size() > (Integer.MAX_VALUE >>> ACCEPTANCE_BITS)) {
+            throw new IllegalArgumentException("Alphabet is too large");
+        }
+
+        this.alphabet = alphabet;
+        this.alphabetSize = alphabet.size();
+        this.firstChildren = new int[DEFAULT_CAPACITY];
+        this.nextSiblings = new int[DEFAULT_CAPACITY];
+        this.labels = new int[DEFAULT_CAPACITY];
+        this.size = 1;
+        this.denseTables = new ArrayList<>();
+    }
+
+    Acceptance lookup(Word<I> word) {
+        int node = 0;
+
+        for (I sym : word) {
+            node = getChild(node, alphabet.getSymbolIndex(sym));
+            if (node == 0) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+
+        return toAcceptance(getAcceptance(node));
+    }
+
+    void insert(Word<I> word, boolean accepting) {
+        int node = 0;
+
+        for (I sym : word) {
+            node = getOrCreateChild(node, alphabet.getSymbolIndex(sym));
+        }
+
+        final int acc = accepting ? TRUE : FALSE;
+        final int oldAcc = getAcceptance(node);
+
+        if (oldAcc == DONT_KNOW) {
+            labels[node] |= acc;
+        } else if (oldAcc != acc) {
+            throw new ConflictException("Incompatible acceptances: " + toAcceptance(oldAcc) + " vs " +
+                                        toAcceptance(acc));
+        }
+    }
+
+    <S> @Nullable Word<I> findSeparatingWord(DFA<S, I> hypothesis, Collection<? extends I> inputs) {
+        final boolean[] enabled = new boolean[alphabetSize];
+        for (I sym : inputs) {
+            if (alphabet.containsSymbol(sym)) {
+                enabled[alphabet.getSymbolIndex(sym)] = true;
+            }
+        }
+
+        final Deque<Record<S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(0, hypothesis.getInitialState(), Word.epsilon()));
+
+        Record<S, I> current;
+        while ((current = queue.poll()) != null) {
+            final int acc = getAcceptance(current.node);
+
+            if (acc != DONT_KNOW) {
+                final boolean hypAcc = current.state != null && hypothesis.isAccepting(current.state);
+                if ((acc == TRUE) != hypAcc) {
+                    return current.word;
+                }
+            }
+
+            for (int succ = getFirstChild(current.node); succ != 0; succ = nextSiblings[succ]) {
+                final int symIdx = getSymbolIndex(succ);
+                if (enabled[symIdx]) {
+                    final I sym = alphabet.getSymbol(symIdx);
+                    final S hypSucc = current.state == null ? null : hypothesis.getSuccessor(current.state, sym);
+                    queue.add(new Record<>(succ, hypSucc, current.word.append(sym)));
+                }
+            }
+        }
+
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of nodes that are indexed by a dense successor table.
+     *
+     * @return the number of dense nodes
+     */
+    int getNumDenseNodes() {
+        return denseTables.size();
+    }
+
+    /**
+     * Returns the number of bytes that are currently allocated for the nodes of this trie (including reserved but
+     * unused capacity and the dense successor tables).
+     *
+     * @return the number of allocated bytes
+     */
+    long getAllocatedBytes() {
+        final long denseEntries = (long) denseTables.size() * (alphabetSize + 1);
+        return Integer.BYTES * (firstChildren.length + nextSiblings.length + labels.length + denseEntries);
+    }
+
+    int[] getFirstChildren() {
+        final int[] result = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            result[i] = getFirstChild(i);
+        }
+
+        return result;
+    }
+
+    int[] getNextSiblings() {
+        return Arrays.copyOf(nextSiblings, size);
+    }
+
+    int[] getLabels() {
+        return Arrays.copyOf(labels, size);
+    }
+
+    void setContents(int numNodes, int[] firstChildren, int[] nextSiblings, int[] labels) {
+        if (numNodes < 1 || firstChildren.length != numNodes || nextSiblings.length != numNodes ||
+            labels.length != numNodes) {
+            throw new IllegalArgumentException("The given contents do not describe a valid trie");
+        }
+
+        for (int i = 0; i < numNodes; i++) {
+            if (firstChildren[i] < 0 || firstChildren[i] >= numNodes || nextSiblings[i] < 0 ||
+                nextSiblings[i] >= numNodes) {
+                throw new IllegalArgumentException("The given contents do not describe a valid trie");
+            }
+            if ((labels[i] >>> ACCEPTANCE_BITS) >= alphabetSize) {
+                throw new IllegalArgumentException("The given contents do not match the alphabet size of this cache");
+            }
+        }
+
+        this.size = numNodes;
+        this.firstChildren = firstChildren.clone();
+        this.nextSiblings = nextSiblings.clone();
+        this.labels = labels.clone();
+        this.denseTables.clear();
+
+        for (int i = 0; i < numNodes; i++) {
+            int numChildren = 0;
+            for (int child = firstChildren[i]; child != 0; child = nextSiblings[child]) {
+                numChildren++;
+            }
+            if (numChildren > DENSE_THRESHOLD) {
+                makeDense(i);
+            }
+        }
+    }
+
+    private int getFirstChild(int node) {
+        final int first = firstChildren[node];
+        return first < 0 ? denseTables.get(-first - 1)[alphabetSize] : first;
+    }
+
+    private int getChild(int node, int symIdx) {
+        final int first = firstChildren[node];
+
+        if (first < 0) {
+            return denseTables.get(-first - 1)[symIdx];
+        }
+
+        for (int child = first; child != 0; child = nextSiblings[child]) {
+            final int childIdx = getSymbolIndex(child);
+            if (childIdx == symIdx) {
+                return child;
+            } else if (childIdx > symIdx) {
+                break;
+            }
+        }
+        return 0;
+    }
+
+    private int getOrCreateChild(int node, int symIdx) {
+        final int first = firstChildren[node];
+
+        if (first < 0) {
+            final int[] table = denseTables.get(-first - 1);
+            int child = table[symIdx];
+
+            if (child == 0) {
+                // the siblings of a dense node need not be sorted, so simply prepend the new child
+                child = createNode(symIdx);
+                nextSiblings[child] = table[alphabetSize];
+                table[alphabetSize] = child;
+                table[symIdx] = child;
+            }
+
+            return child;
+        }
+
+        int numChildren = 0;
+        int prev = 0;
+        int child = first;
+
+        while (child != 0) {
+            final int childIdx = getSymbolIndex(child);
+            if (childIdx == symIdx) {
+                return child;
+            } else if (childIdx > symIdx) {
+                break;
+            }
+            numChildren++;
+            prev = child;
+            child = nextSiblings[child];
+        }
+
+        // keep siblings sorted by their symbol index
+        final int result = createNode(symIdx);
+        nextSiblings[result] = child;
+
+        if (prev == 0) {
+            firstChildren[node] = result;
+        } else {
+            nextSiblings[prev] = result;
+        }
+
+        for (int succ = result; succ != 0; succ = nextSiblings[succ]) {
+            numChildren++;
+        }
+
+        if (numChildren > DENSE_THRESHOLD) {
+            makeDense(node);
+        }
+
+        return result;
+    }
+
+    private void makeDense(int node) {
+        final int first = firstChildren[node];
+        final int[] table = new int[alphabetSize + 1];
+
+        for (int child = first; child != 0; child = nextSiblings[child]) {
+            table[getSymbolIndex(child)] = child;
+        }
+
+        table[alphabetSize] = first;
+        denseTables.add(table);
+        firstChildren[node] = -denseTables.size();
+    }
+
+    private int createNode(int symIdx) {
+        final int node = size;
+
+        if (node >= labels.length) {
+            final int newCapacity = Math.max(labels.length + (labels.length >> 1), node + 1);
+            firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+            labels = Arrays.copyOf(labels, newCapacity);
+        }
+
+        labels[node] = symIdx << ACCEPTANCE_BITS;
+        size = node + 1;
+        return node;
+    }
+
+    private int getSymbolIndex(int node) {
+        return labels[node] >>> ACCEPTANCE_BITS;
+    }
+
+    private int getAcceptance(int node) {
+        return labels[node] & ACCEPTANCE_MASK;
+    }
+
+    private static Acceptance toAcceptance(int acc) {
+        switch (acc) {
+            case TRUE:
+                return Acceptance.TRUE;
+            case FALSE:
+                return Acceptance.FALSE;
+            default:
+                return Acceptance.DONT_KNOW;
+        }
+    }
+
+    private static final class Record<S, I> {
+
+        private final int node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(int node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.Collection;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link EquivalenceOracle} that tests an hypothesis for consistency with the contents of a {@link
+ * PersistentDFACacheOracle}.
+ *
+ * @param <I>
+ *         input symbol class
+ */
+public final class PersistentDFACacheConsistencyTest<I> implements DFAEquivalenceOracle<I> {
+
+    private final PersistentDFATree<I> tree;
+
+    PersistentDFACacheConsistencyTest(PersistentDFATree<I> tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public @Nullable DefaultQuery<I, Boolean> findCounterExample(DFA<?, I> hypothesis, Collection<? extends I> inputs) {
+        final Word<I> w = tree.findSeparatingWord(hypothesis, inputs);
+        if (w == null) {
+            return null;
+        }
+
+        final Acceptance acc = tree.lookup(w);
+        assert (acc != Acceptance.DONT_KNOW);
+
+        DefaultQuery<I, Boolean> result = new DefaultQuery<>(w);
+        result.answer(acc.toBoolean());
+        return result;
+    }
+
+}
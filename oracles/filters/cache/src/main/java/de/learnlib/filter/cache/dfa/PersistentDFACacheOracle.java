@@ -0,0 +1,128 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
+import de.learnlib.filter.cache.MappedTrie;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A DFA cache whose contents are persisted in a memory-mapped file (see {@link MappedTrie}). Every answered query is
+ * immediately written to the file, and re-opening the cache on an existing file makes all previously cached answers
+ * available at once, without deserializing the cache contents first. Hence, a restarted experiment starts with a hot
+ * cache.
+ * <p>
+ * Like the {@link DFACacheOracle}, this cache may be shared by concurrently querying threads and coalesces concurrent
+ * cache misses on the same word. Note that (unlike the {@link DFACacheOracle}) this cache does not support growing
+ * alphabets, and that the cache has to be re-opened with an alphabet whose symbols have the same indices.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class PersistentDFACacheOracle<I> implements DFALearningCacheOracle<I>, Closeable, Flushable {
+
+    private final PersistentDFATree<I> tree;
+    private final MembershipOracle<I, Boolean> delegate;
+    private final InFlightQueries<I> inFlightQueries;
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param file
+     *         the file storing the cache contents. If the file does not exist, an empty cache is created
+     * @param delegate
+     *         the delegate oracle
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a cache for the given alphabet
+     */
+    public PersistentDFACacheOracle(Alphabet<I> alphabet, Path file, MembershipOracle<I, Boolean> delegate)
+            throws IOException {
+        this.tree = new PersistentDFATree<>(alphabet, file);
+        this.delegate = delegate;
+        this.inFlightQueries = new InFlightQueries<>();
+    }
+
+    @Override
+    public PersistentDFACacheConsistencyTest<I> createCacheConsistencyTest() {
+        return new PersistentDFACacheConsistencyTest<>(tree);
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Boolean>> queries) {
+        List<Query<I, Boolean>> unanswered = new ArrayList<>();
+
+        for (Query<I, Boolean> q : queries) {
+            Acceptance acc = tree.lookup(q.getInput());
+            if (acc != Acceptance.DONT_KNOW) {
+                q.answer(acc.toBoolean());
+            } else {
+                unanswered.add(q);
+            }
+        }
+
+        if (!unanswered.isEmpty()) {
+            inFlightQueries.process(unanswered, this::lookup, this::forward);
+        }
+    }
+
+    private @Nullable Boolean lookup(Word<I> word) {
+        Acceptance acc = tree.lookup(word);
+        return acc == Acceptance.DONT_KNOW ? null : acc.toBoolean();
+    }
+
+    private void forward(List<ProxyQuery<I>> unanswered) {
+        delegate.processQueries(unanswered);
+
+        for (ProxyQuery<I> q : unanswered) {
+            tree.insert(q.getInput(), q.getAnswer());
+        }
+    }
+
+    /**
+     * Forces all cache contents to be written to the underlying storage device.
+     */
+    @Override
+    public void flush() {
+        tree.flush();
+    }
+
+    /**
+     * Flushes and closes the cache. The cache must not be used after it has been closed.
+     *
+     * @throws IOException
+     *         if the underlying file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+}
@@ -0,0 +1,181 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.learnlib.filter.cache.MappedTrie;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, tree-based storage for the acceptance information of a {@link PersistentDFACacheOracle}, backed by a
+ * {@link MappedTrie}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class PersistentDFATree<I> implements Closeable, Flushable {
+
+    private static final int REJECTING = 0;
+    private static final int ACCEPTING = 1;
+
+    private final Alphabet<I> alphabet;
+    private final MappedTrie trie;
+    private final ReadWriteLock lock;
+
+    PersistentDFATree(Alphabet<I> alphabet, Path file) throws IOException {
+        this.alphabet = alphabet;
+        this.trie = new MappedTrie(file, alphabet.size());
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    Acceptance lookup(Word<I> word) {
+        lock.readLock().lock();
+        try {
+            int node = trie.getRoot();
+
+            for (I sym : word) {
+                node = trie.getSuccessor(node, alphabet.getSymbolIndex(sym));
+                if (node == MappedTrie.NO_NODE) {
+                    return Acceptance.DONT_KNOW;
+                }
+            }
+
+            return toAcceptance(trie.getValue(node));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void insert(Word<I> word, boolean accepting) {
+        final int value = accepting ? ACCEPTING : REJECTING;
+
+        lock.writeLock().lock();
+        try {
+            int node = trie.getRoot();
+
+            for (I sym : word) {
+                node = trie.getOrAddSuccessor(node, alphabet.getSymbolIndex(sym), MappedTrie.NO_VALUE);
+            }
+
+            final int oldValue = trie.getValue(node);
+            if (oldValue == MappedTrie.NO_VALUE) {
+                trie.setValue(node, value);
+            } else if (oldValue != value) {
+                throw new ConflictException("Incompatible acceptances: " + toAcceptance(oldValue) + " vs " +
+                                            toAcceptance(value));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <S> @Nullable Word<I> findSeparatingWord(DFA<S, I> hypothesis, Collection<? extends I> inputs) {
+        final Deque<Record<S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(trie.getRoot(), hypothesis.getInitialState(), Word.epsilon()));
+
+        lock.readLock().lock();
+        try {
+            Record<S, I> current;
+            while ((current = queue.poll()) != null) {
+                final Acceptance acc = toAcceptance(trie.getValue(current.node));
+
+                if (acc != Acceptance.DONT_KNOW) {
+                    final boolean hypAcc = current.state != null && hypothesis.isAccepting(current.state);
+                    if (acc.toBoolean() != hypAcc) {
+                        return current.word;
+                    }
+                }
+
+                for (I sym : inputs) {
+                    if (!alphabet.containsSymbol(sym)) {
+                        continue;
+                    }
+
+                    final int succ = trie.getSuccessor(current.node, alphabet.getSymbolIndex(sym));
+                    if (succ != MappedTrie.NO_NODE) {
+                        final S hypSucc = current.state == null ? null : hypothesis.getSuccessor(current.state, sym);
+                        queue.add(new Record<>(succ, hypSucc, current.word.append(sym)));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return null;
+    }
+
+    @Override
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            trie.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            trie.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Acceptance toAcceptance(int value) {
+        switch (value) {
+            case ACCEPTING:
+                return Acceptance.TRUE;
+            case REJECTING:
+                return Acceptance.FALSE;
+            default:
+                return Acceptance.DONT_KNOW;
+        }
+    }
+
+    private static final class Record<S, I> {
+
+        private final int node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(int node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
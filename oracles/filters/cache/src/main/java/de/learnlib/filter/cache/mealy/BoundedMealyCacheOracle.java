@@ -0,0 +1,144 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.BoundedCache;
+import de.learnlib.filter.cache.BoundedCacheStatistics;
+import de.learnlib.filter.cache.EvictionPolicy;
+import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.mealy.InternalMealyCacheOracle.ReverseLexCmp;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A Mealy cache that stores at most a fixed number of output symbols and evicts the leaves of its (prefix-closed) tree
+ * according to an {@link EvictionPolicy} once its capacity is exceeded (see {@link BoundedMealyTree}).
+ * <p>
+ * Like the {@link MealyCacheOracle}, queries of a batch that constitute prefixes of other queries of the batch are
+ * answered by the longer query, and queries for prefixes of cached words are answered by the cache. Note that the
+ * {@link #createCacheConsistencyTest() cache consistency test} of this cache only covers the currently cached (i.e.,
+ * non-evicted) outputs.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class BoundedMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>, StatisticCollector {
+
+    private final BoundedMealyTree<I, O> tree;
+    private final MembershipOracle<I, Word<O>> delegate;
+    private final Comparator<? super Query<I, ?>> queryCmp;
+
+    public BoundedMealyCacheOracle(Alphabet<I> alphabet,
+                                   MembershipOracle<I, Word<O>> delegate,
+                                   int capacity,
+                                   EvictionPolicy policy) {
+        this(alphabet, delegate, capacity, policy, BoundedCache.DEFAULT_PINNED_LENGTH);
+    }
+
+    public BoundedMealyCacheOracle(Alphabet<I> alphabet,
+                                   MembershipOracle<I, Word<O>> delegate,
+                                   int capacity,
+                                   EvictionPolicy policy,
+                                   int pinnedLength) {
+        this.tree = new BoundedMealyTree<>(capacity, policy, pinnedLength);
+        this.delegate = delegate;
+        this.queryCmp = new ReverseLexCmp<>(alphabet);
+    }
+
+    /**
+     * Pins the given word (and thus all of its prefixes), so that its outputs (once cached) are never evicted. This is
+     * useful for, e.g., the access sequences of a hypothesis.
+     *
+     * @param word
+     *         the word to pin
+     */
+    public void pin(Word<I> word) {
+        tree.pin(word);
+    }
+
+    @Override
+    public MealyEquivalenceOracle<I, O> createCacheConsistencyTest() {
+        return tree::findCounterExample;
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        List<Query<I, Word<O>>> qrys = new ArrayList<>(queries);
+        qrys.sort(queryCmp);
+
+        List<MasterQuery<I, O>> masterQueries = new ArrayList<>();
+
+        Iterator<Query<I, Word<O>>> it = qrys.iterator();
+        Query<I, Word<O>> q = it.next();
+        Word<I> ref = q.getInput();
+
+        MasterQuery<I, O> master = createMasterQuery(ref);
+        if (!master.isAnswered()) {
+            masterQueries.add(master);
+        }
+        master.addSlave(q);
+
+        while (it.hasNext()) {
+            q = it.next();
+            Word<I> curr = q.getInput();
+            if (!curr.isPrefixOf(ref)) {
+                master = createMasterQuery(curr);
+                if (!master.isAnswered()) {
+                    masterQueries.add(master);
+                }
+            }
+
+            master.addSlave(q);
+            ref = curr;
+        }
+
+        delegate.processQueries(masterQueries);
+
+        for (MasterQuery<I, O> m : masterQueries) {
+            tree.insert(m.getInput(), m.getAnswer());
+        }
+    }
+
+    private MasterQuery<I, O> createMasterQuery(Word<I> word) {
+        WordBuilder<O> wb = new WordBuilder<>(word.size());
+        if (tree.lookup(word, wb)) {
+            return new MasterQuery<>(word, wb.toWord());
+        }
+        return new MasterQuery<>(word);
+    }
+
+    @Override
+    public BoundedCacheStatistics getStatisticalData() {
+        return tree.getStatistics();
+    }
+}
@@ -0,0 +1,500 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.cache.BoundedCacheStatistics;
+import de.learnlib.filter.cache.EvictionPolicy;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, size-bounded, tree-based storage for the observed outputs of a Mealy system, used by the bounded
+ * Mealy cache.
+ * <p>
+ * Each node of the tree stores the output symbol of the transition leading to it. Since the tree is prefix-closed, the
+ * outputs of all prefixes of a cached word are available as well, and shared prefixes are stored only once. Once the
+ * number of nodes exceeds the capacity of the tree, <i>leaves</i> are evicted according to the configured {@link
+ * EvictionPolicy}. Evicting leaves only retains the prefix-closedness of the tree: A subtree is evicted bottom-up, as
+ * its root becomes a leaf (and thus an eviction candidate) once all of its children have been evicted. The policies
+ * rank the leaves as follows:
+ * <ul>
+ * <li>{@link EvictionPolicy#LRU}: the leaf whose word has been accessed least recently. Looking up (or inserting) a
+ * word counts as an access of all of its prefixes.</li>
+ * <li>{@link EvictionPolicy#LFU}: the leaf whose word has been accessed least frequently.</li>
+ * <li>{@link EvictionPolicy#DEPTH}: the leaf that terminates the deepest unshared subtree, i.e., the longest path of
+ * single-child nodes above the leaf (the <i>branch</i> of the leaf). Long branches typically stem from (e.g.,
+ * randomly generated) words that are rarely queried again, whereas densely shared regions of the tree (e.g., the
+ * prefixes re-queried by the learner) are kept.</li>
+ * </ul>
+ * Nodes can be <i>pinned</i>, in which case they are never evicted. Nodes up to a configurable depth are pinned
+ * automatically, as short words (e.g., access sequences) are frequently re-queried by learners. Additionally, arbitrary
+ * words (and thus all of their prefixes) can be pinned explicitly via {@link #pin(Word)}. Note that pinned nodes count
+ * towards the capacity of the tree, so that the tree may exceed its capacity if more nodes are pinned than the capacity
+ * allows.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public final class BoundedMealyTree<I, O> {
+
+    private final @NonNegative int capacity;
+    private final @NonNegative int pinnedLength;
+    private final Node<I, O> root;
+    private final TreeSet<Node<I, O>> evictionOrder;
+    private final Set<Word<I>> pendingPins;
+    private final BoundedCacheStatistics statistics;
+    private final Lock lock;
+
+    private int size;
+    private int maxPendingPinLength;
+    private long clock;
+    private long nextId;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *         the maximum number of (non-pinned) nodes, i.e., the maximum number of cached output symbols
+     * @param policy
+     *         the policy for selecting the leaves to evict
+     * @param pinnedLength
+     *         the depth up to which nodes are pinned automatically
+     */
+    public BoundedMealyTree(@NonNegative int capacity, EvictionPolicy policy, @NonNegative int pinnedLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        this.pinnedLength = pinnedLength;
+        this.root = new Node<>(nextId++, null, null, null);
+        this.root.pinned = true;
+        this.evictionOrder = new TreeSet<>(createComparator(policy));
+        this.pendingPins = new HashSet<>();
+        this.statistics = new BoundedCacheStatistics("Bounded Mealy tree (" + policy + ')');
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * Looks up the outputs of the given word and records the access for the eviction policy. The outputs of the
+     * longest cached prefix of the word are appended to the given word builder.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the word builder to append the outputs to
+     *
+     * @return {@code true} if the outputs of the complete word are cached, {@code false} otherwise
+     */
+    public boolean lookup(Word<I> word, WordBuilder<O> output) {
+        lock.lock();
+        try {
+            Node<I, O> node = root;
+            final long time = ++clock;
+
+            for (I sym : word) {
+                final Node<I, O> succ = node.getSuccessor(sym);
+                if (succ == null) {
+                    statistics.recordMiss();
+                    return false;
+                }
+                touch(succ, time);
+                output.append(succ.output);
+                node = succ;
+            }
+
+            statistics.recordHit();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Incorporates the given input/output behavior into the tree, evicting other nodes if necessary.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the output word
+     *
+     * @throws ConflictException
+     *         if the given output is incompatible with the already stored outputs
+     */
+    public void insert(Word<I> word, Word<O> output) {
+        final int len = word.length();
+
+        lock.lock();
+        try {
+            Node<I, O> node = root;
+            final long time = ++clock;
+            int i = 0;
+
+            // check the cached prefix for conflicts before modifying the tree
+            for (; i < len; i++) {
+                final Node<I, O> succ = node.getSuccessor(word.getSymbol(i));
+                if (succ == null) {
+                    break;
+                }
+
+                final O out = output.getSymbol(i);
+                if (!Objects.equals(succ.output, out)) {
+                    throw new ConflictException("Incompatible output symbols: " + succ.output + " vs " + out);
+                }
+                node = succ;
+            }
+
+            for (Node<I, O> n = node; n != root; n = n.parent) {
+                touch(n, time);
+            }
+
+            if (i == len) {
+                return;
+            }
+
+            // the new path is attached to a previously existing node
+            final Node<I, O> attach = node;
+            final I attachInput = word.getSymbol(i);
+            evictionOrder.remove(attach);
+
+            for (; i < len; i++) {
+                final Node<I, O> succ = new Node<>(nextId++, node, word.getSymbol(i), output.getSymbol(i));
+                succ.lastAccess = time;
+                succ.pinned = i < pinnedLength || isPendingPin(word, i + 1);
+                node.addSuccessor(succ);
+                node = succ;
+                size++;
+            }
+
+            // the branch of a previous single child of the attachment node now ends at the attachment node
+            if (attach.numSuccessors() == 2) {
+                for (Node<I, O> succ : attach.successors.values()) {
+                    if (!Objects.equals(succ.input, attachInput)) {
+                        refreshBranch(succ);
+                    }
+                }
+            }
+
+            // the new leaf is not considered for eviction until the tree has been shrunk to its capacity
+            evict();
+
+            if (!node.pinned) {
+                node.branchLength = computeBranchLength(node);
+                evictionOrder.add(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pins the given word (and thus all of its prefixes), so that its outputs (once cached) are never evicted.
+     *
+     * @param word
+     *         the input word to pin
+     */
+    public void pin(Word<I> word) {
+        lock.lock();
+        try {
+            Node<I, O> node = root;
+            int depth = 0;
+
+            for (I sym : word) {
+                final Node<I, O> succ = node.getSuccessor(sym);
+                if (succ == null) {
+                    break;
+                }
+                pinNode(succ);
+                node = succ;
+                depth++;
+            }
+
+            // the remaining nodes are pinned upon their creation
+            if (depth < word.length()) {
+                pendingPins.add(word);
+                maxPendingPinLength = Math.max(maxPendingPinLength, word.length());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of currently cached nodes (excluding the root), i.e., the number of cached output symbols.
+     *
+     * @return the number of currently cached nodes
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of this tree. Evictions are counted per node.
+     *
+     * @return the statistics of this tree
+     */
+    public BoundedCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Finds a cached word whose output according to the given hypothesis differs from the stored output. Note that the
+     * access data of the tree is not affected by this check.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the inputs to consider
+     * @param <S>
+     *         hypothesis state type
+     * @param <T>
+     *         hypothesis transition type
+     *
+     * @return a counterexample (with the stored output), or {@code null} if the hypothesis is consistent with the
+     * stored outputs
+     */
+    public <S, T> @Nullable DefaultQuery<I, Word<O>> findCounterExample(MealyMachine<S, I, T, O> hypothesis,
+                                                                        Collection<? extends I> inputs) {
+        final Deque<Record<S, I, O>> queue = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            queue.add(new Record<>(root, hypothesis.getInitialState(), Word.epsilon()));
+
+            Record<S, I, O> current;
+            while ((current = queue.poll()) != null) {
+                for (I sym : inputs) {
+                    final Node<I, O> succ = current.node.getSuccessor(sym);
+                    if (succ == null) {
+                        continue;
+                    }
+
+                    final Word<I> succWord = current.word.append(sym);
+                    final T trans = current.state == null ? null : hypothesis.getTransition(current.state, sym);
+
+                    if (trans == null || !Objects.equals(hypothesis.getTransitionOutput(trans), succ.output)) {
+                        return new DefaultQuery<>(succWord, getOutput(succ));
+                    }
+
+                    queue.add(new Record<>(succ, hypothesis.getSuccessor(trans), succWord));
+                }
+            }
+
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Word<O> getOutput(Node<I, O> node) {
+        final WordBuilder<O> wb = new WordBuilder<>();
+        for (Node<I, O> n = node; n != root; n = n.parent) {
+            wb.append(n.output);
+        }
+        return wb.reverse().toWord();
+    }
+
+    private void evict() {
+        while (size > capacity && !evictionOrder.isEmpty()) {
+            final Node<I, O> victim = evictionOrder.pollFirst();
+            final Node<I, O> parent = victim.parent;
+
+            parent.removeSuccessor(victim);
+            size--;
+            statistics.recordEviction();
+
+            final int remaining = parent.numSuccessors();
+            if (remaining == 0 && !parent.pinned) {
+                // the parent becomes a leaf itself
+                parent.branchLength = computeBranchLength(parent);
+                evictionOrder.add(parent);
+            } else if (remaining == 1) {
+                // the branch of the remaining child may now extend above the parent
+                refreshBranch(parent.successors.values().iterator().next());
+            }
+        }
+    }
+
+    private void pinNode(Node<I, O> node) {
+        if (node.pinned) {
+            return;
+        }
+
+        node.pinned = true;
+
+        if (node.numSuccessors() == 0) {
+            evictionOrder.remove(node);
+        } else if (node.numSuccessors() == 1) {
+            // the branch of the single child now ends at the pinned node
+            refreshBranch(node.successors.values().iterator().next());
+        }
+    }
+
+    private boolean isPendingPin(Word<I> word, int length) {
+        if (pendingPins.isEmpty() || length > maxPendingPinLength) {
+            return false;
+        }
+
+        // pin all prefixes of pending words, and forget about completely inserted ones
+        for (Iterator<Word<I>> it = pendingPins.iterator(); it.hasNext(); ) {
+            final Word<I> pin = it.next();
+            if (pin.length() >= length && word.prefix(length).isPrefixOf(pin)) {
+                if (pin.length() == length) {
+                    it.remove();
+                }
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Re-computes the branch length of the leaf at the end of the single-child path starting at the given node.
+     */
+    private void refreshBranch(Node<I, O> node) {
+        Node<I, O> leaf = node;
+        while (leaf.numSuccessors() == 1) {
+            leaf = leaf.successors.values().iterator().next();
+        }
+
+        // the position of the leaf depends on its branch length, so it has to be re-inserted. Note that a freshly
+        // inserted leaf is not ordered yet and thus must not be added here
+        if (evictionOrder.remove(leaf)) {
+            leaf.branchLength = computeBranchLength(leaf);
+            evictionOrder.add(leaf);
+        }
+    }
+
+    private int computeBranchLength(Node<I, O> leaf) {
+        int length = 1;
+        Node<I, O> node = leaf.parent;
+
+        while (node != root && !node.pinned && node.numSuccessors() == 1) {
+            length++;
+            node = node.parent;
+        }
+
+        return length;
+    }
+
+    private void touch(Node<I, O> node, long time) {
+        // only leaves are ordered, the position of a leaf depends on its access data, so it has to be re-inserted
+        final boolean ordered = evictionOrder.remove(node);
+        node.lastAccess = time;
+        node.frequency++;
+        if (ordered) {
+            evictionOrder.add(node);
+        }
+    }
+
+    private static <I, O> Comparator<Node<I, O>> createComparator(EvictionPolicy policy) {
+        final Comparator<Node<I, O>> lru = Comparator.<Node<I, O>>comparingLong(n -> n.lastAccess)
+                                                     .thenComparingLong(n -> n.id);
+
+        switch (policy) {
+            case LRU:
+                return lru;
+            case LFU:
+                return Comparator.<Node<I, O>>comparingLong(n -> n.frequency).thenComparing(lru);
+            case DEPTH:
+                return Comparator.<Node<I, O>>comparingInt(n -> -n.branchLength).thenComparing(lru);
+            default:
+                throw new IllegalArgumentException("Unknown eviction policy: " + policy);
+        }
+    }
+
+    private static final class Node<I, O> {
+
+        private final long id;
+        private final Node<I, O> parent;
+        private final I input;
+        private final O output;
+        private @Nullable Map<I, Node<I, O>> successors;
+        private long lastAccess;
+        private long frequency;
+        private int branchLength;
+        private boolean pinned;
+
+        Node(long id, Node<I, O> parent, I input, O output) {
+            this.id = id;
+            this.parent = parent;
+            this.input = input;
+            this.output = output;
+        }
+
+        @Nullable Node<I, O> getSuccessor(I input) {
+            return successors == null ? null : successors.get(input);
+        }
+
+        void addSuccessor(Node<I, O> succ) {
+            if (successors == null) {
+                successors = new HashMap<>();
+            }
+            successors.put(succ.input, succ);
+        }
+
+        void removeSuccessor(Node<I, O> succ) {
+            successors.remove(succ.input);
+            if (successors.isEmpty()) {
+                successors = null;
+            }
+        }
+
+        int numSuccessors() {
+            return successors == null ? 0 : successors.size();
+        }
+    }
+
+    private static final class Record<S, I, O> {
+
+        private final Node<I, O> node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(Node<I, O> node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import de.learnlib.api.Resumable;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.mealy.ConcurrentMealyCacheOracle.ConcurrentMealyCacheOracleState;
+import de.learnlib.filter.cache.mealy.InternalMealyCacheOracle.ReverseLexCmp;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A Mealy cache that can be shared by concurrently querying threads. Contrary to the {@link MealyCacheOracle}, which
+ * guards its cache with a global read-write lock, this cache uses a {@link ConcurrentMealyTree} whose paths are
+ * installed via CAS operations. Hence, lookups never block, and concurrent inserts only contend at the nodes where
+ * their paths diverge from the cached tree.
+ * <p>
+ * Like the {@link MealyCacheOracle}, queries of a batch that constitute prefixes of other queries of the batch are
+ * answered by the longer query. Note that (unlike the {@link MealyCacheOracle}) this cache does neither support growing
+ * alphabets nor a prefix-closure filter.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class ConcurrentMealyCacheOracle<I, O>
+        implements MealyLearningCacheOracle<I, O>, Resumable<ConcurrentMealyCacheOracleState<O>> {
+
+    private final ConcurrentMealyTree<I, O> tree;
+    private final MembershipOracle<I, Word<O>> delegate;
+    private final Comparator<? super Query<I, ?>> queryCmp;
+
+    public ConcurrentMealyCacheOracle(Alphabet<I> alphabet, MembershipOracle<I, Word<O>> delegate) {
+        this.tree = new ConcurrentMealyTree<>(alphabet);
+        this.delegate = delegate;
+        this.queryCmp = new ReverseLexCmp<>(alphabet);
+    }
+
+    @Override
+    public ConcurrentMealyCacheConsistencyTest<I, O> createCacheConsistencyTest() {
+        return new ConcurrentMealyCacheConsistencyTest<>(tree);
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        List<Query<I, Word<O>>> qrys = new ArrayList<>(queries);
+        qrys.sort(queryCmp);
+
+        List<MasterQuery<I, O>> masterQueries = new ArrayList<>();
+
+        Iterator<Query<I, Word<O>>> it = qrys.iterator();
+        Query<I, Word<O>> q = it.next();
+        Word<I> ref = q.getInput();
+
+        MasterQuery<I, O> master = createMasterQuery(ref);
+        if (!master.isAnswered()) {
+            masterQueries.add(master);
+        }
+        master.addSlave(q);
+
+        while (it.hasNext()) {
+            q = it.next();
+            Word<I> curr = q.getInput();
+            if (!curr.isPrefixOf(ref)) {
+                master = createMasterQuery(curr);
+                if (!master.isAnswered()) {
+                    masterQueries.add(master);
+                }
+            }
+
+            master.addSlave(q);
+            ref = curr;
+        }
+
+        delegate.processQueries(masterQueries);
+
+        for (MasterQuery<I, O> m : masterQueries) {
+            tree.insert(m.getSuffix(), m.getAnswer());
+        }
+    }
+
+    private MasterQuery<I, O> createMasterQuery(Word<I> word) {
+        WordBuilder<O> wb = new WordBuilder<>(word.size());
+        if (tree.lookup(word, wb)) {
+            return new MasterQuery<>(word, wb.toWord());
+        }
+        return new MasterQuery<>(word);
+    }
+
+    @Override
+    public ConcurrentMealyCacheOracleState<O> suspend() {
+        return new ConcurrentMealyCacheOracleState<>(tree.suspend());
+    }
+
+    @Override
+    public void resume(ConcurrentMealyCacheOracleState<O> state) {
+        tree.resume(state.getRoot());
+    }
+
+    public static class ConcurrentMealyCacheOracleState<O> implements Serializable {
+
+        private final ConcurrentMealyTree.Node<O> root;
+
+        ConcurrentMealyCacheOracleState(ConcurrentMealyTree.Node<O> root) {
+            this.root = root;
+        }
+
+        ConcurrentMealyTree.Node<O> getRoot() {
+            return root;
+        }
+    }
+}
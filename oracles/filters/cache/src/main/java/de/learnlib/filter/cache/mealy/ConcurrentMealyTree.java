@@ -0,0 +1,274 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import de.learnlib.api.Resumable;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, tree-based storage for the observed outputs of a Mealy system, used by the concurrent Mealy caches.
+ * <p>
+ * The successors of a node are stored in an array (indexed by the alphabet index of the respective symbol) that is
+ * lazily installed via a CAS operation. When inserting a word, the path for the not yet cached suffix of the word is
+ * constructed privately and published with a single CAS operation on the respective array slot. Hence, lookups never
+ * block, and concurrent inserts only contend at the node where their paths diverge from the existing tree.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public final class ConcurrentMealyTree<I, O> implements Resumable<ConcurrentMealyTree.Node<O>> {
+
+    private final Alphabet<I> alphabet;
+    private final int alphabetSize;
+    private volatile Node<O> root;
+
+    public ConcurrentMealyTree(Alphabet<I> alphabet) {
+        this.alphabet = alphabet;
+        this.alphabetSize = alphabet.size();
+        this.root = new Node<>(null);
+    }
+
+    /**
+     * Returns the root node of the tree, i.e., the node reached by the empty word.
+     *
+     * @return the root node
+     */
+    public Node<O> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the successor of the given node for the given input symbol.
+     *
+     * @param node
+     *         the node
+     * @param input
+     *         the input symbol
+     *
+     * @return the successor node, or {@code null} if no information is stored for the given input
+     */
+    public @Nullable Node<O> getSuccessor(Node<O> node, I input) {
+        return node.getSuccessor(alphabet.getSymbolIndex(input));
+    }
+
+    /**
+     * Looks up the outputs of the given word. The outputs of the longest cached prefix of the word are appended to the
+     * given word builder.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the word builder to append the outputs to
+     *
+     * @return {@code true} if the outputs of the complete word are cached, {@code false} otherwise
+     */
+    public boolean lookup(Word<I> word, WordBuilder<O> output) {
+        Node<O> node = root;
+
+        for (I sym : word) {
+            node = node.getSuccessor(alphabet.getSymbolIndex(sym));
+            if (node == null) {
+                return false;
+            }
+            output.append(node.output);
+        }
+
+        return true;
+    }
+
+    /**
+     * Incorporates the given input/output behavior into the tree.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the output word
+     *
+     * @throws ConflictException
+     *         if the given output is incompatible with the already stored outputs
+     */
+    public void insert(Word<I> word, Word<O> output) {
+        final int len = word.length();
+        Node<O> node = root;
+
+        for (int i = 0; i < len; i++) {
+            final AtomicReferenceArray<Node<O>> succs = node.getOrCreateSuccessors(alphabetSize);
+            final int idx = alphabet.getSymbolIndex(word.getSymbol(i));
+
+            Node<O> succ = succs.get(idx);
+            if (succ == null) {
+                final Node<O> path = createPath(word, output, i);
+                if (succs.compareAndSet(idx, null, path)) {
+                    return;
+                }
+                succ = succs.get(idx);
+            }
+
+            final O out = output.getSymbol(i);
+            if (!Objects.equals(succ.output, out)) {
+                throw new ConflictException("Incompatible output symbols: " + succ.output + " vs " + out);
+            }
+
+            node = succ;
+        }
+    }
+
+    private Node<O> createPath(Word<I> word, Word<O> output, int start) {
+        final int len = word.length();
+        Node<O> last = new Node<>(output.getSymbol(len - 1));
+
+        for (int i = len - 2; i >= start; i--) {
+            final Node<O> node = new Node<>(output.getSymbol(i));
+            node.getOrCreateSuccessors(alphabetSize).set(alphabet.getSymbolIndex(word.getSymbol(i + 1)), last);
+            last = node;
+        }
+
+        return last;
+    }
+
+    /**
+     * Finds a word whose output according to the given hypothesis differs from the stored output.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the inputs to consider
+     * @param <S>
+     *         hypothesis state type
+     * @param <T>
+     *         hypothesis transition type
+     *
+     * @return a separating word, or {@code null} if the hypothesis is consistent with the stored outputs
+     */
+    public <S, T> @Nullable Word<I> findSeparatingWord(MealyMachine<S, I, T, O> hypothesis,
+                                                       Collection<? extends I> inputs) {
+        final Deque<Record<S, I, O>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(root, hypothesis.getInitialState(), Word.epsilon()));
+
+        Record<S, I, O> current;
+        while ((current = queue.poll()) != null) {
+            for (I sym : inputs) {
+                if (!alphabet.containsSymbol(sym)) {
+                    continue;
+                }
+
+                final Node<O> succ = current.node.getSuccessor(alphabet.getSymbolIndex(sym));
+                if (succ == null) {
+                    continue;
+                }
+
+                final Word<I> succWord = current.word.append(sym);
+                final T trans = current.state == null ? null : hypothesis.getTransition(current.state, sym);
+
+                if (trans == null || !Objects.equals(hypothesis.getTransitionOutput(trans), succ.output)) {
+                    return succWord;
+                }
+
+                queue.add(new Record<>(succ, hypothesis.getSuccessor(trans), succWord));
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Node<O> suspend() {
+        return root;
+    }
+
+    @Override
+    public void resume(Node<O> state) {
+        this.root = state;
+    }
+
+    /**
+     * A node of the tree.
+     *
+     * @param <O>
+     *         output symbol type
+     */
+    public static final class Node<O> implements Serializable {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, AtomicReferenceArray> SUCCESSORS =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, AtomicReferenceArray.class, "successors");
+
+        private final O output;
+        private volatile @Nullable AtomicReferenceArray<Node<O>> successors;
+
+        Node(O output) {
+            this.output = output;
+        }
+
+        /**
+         * Returns the output of the transition leading to this node. The output of the root node is undefined.
+         *
+         * @return the output of the transition leading to this node
+         */
+        public O getOutput() {
+            return output;
+        }
+
+        @Nullable Node<O> getSuccessor(int idx) {
+            final AtomicReferenceArray<Node<O>> succs = successors;
+            return succs == null ? null : succs.get(idx);
+        }
+
+        @SuppressWarnings("unchecked")
+        AtomicReferenceArray<Node<O>> getOrCreateSuccessors(int alphabetSize) {
+            final AtomicReferenceArray<Node<O>> succs = successors;
+
+            if (succs != null) {
+                return succs;
+            }
+
+            final AtomicReferenceArray<Node<O>> newSuccs = new AtomicReferenceArray<>(alphabetSize);
+            if (SUCCESSORS.compareAndSet(this, null, newSuccs)) {
+                return newSuccs;
+            }
+
+            return successors;
+        }
+    }
+
+    private static final class Record<S, I, O> {
+
+        private final Node<O> node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(Node<O> node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.filter.cache.AbstractIncrementalCacheConsistencyTest;
+import de.learnlib.filter.cache.CacheJournal;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An incremental version of the {@link MealyCacheConsistencyTest}. See {@link AbstractIncrementalCacheConsistencyTest}
+ * for details.
+ *
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+public final class IncrementalMealyCacheConsistencyTest<I, O>
+        extends AbstractIncrementalCacheConsistencyTest<MealyMachine<?, I, ?, O>, CompactMealy<I, O>, I, Word<O>>
+        implements MealyEquivalenceOracle<I, O> {
+
+    IncrementalMealyCacheConsistencyTest(CacheJournal.Cursor<I> cursor,
+                                         Function<Word<I>, @Nullable Word<O>> cacheLookup,
+                                         EquivalenceOracle<MealyMachine<?, I, ?, O>, I, Word<O>> fallback,
+                                         boolean parallel) {
+        super(cursor, cacheLookup, fallback, parallel);
+    }
+
+    @Override
+    protected @Nullable Word<I> restrict(Word<I> word, Set<I> inputs) {
+        // Mealy caches are prefix-closed, hence we can check the longest prefix that only consists of the given inputs
+        int len = 0;
+        for (I sym : word) {
+            if (!inputs.contains(sym)) {
+                break;
+            }
+            len++;
+        }
+        return len == 0 ? null : word.prefix(len);
+    }
+
+    @Override
+    protected CompactMealy<I, O> copy(MealyMachine<?, I, ?, O> hypothesis, Alphabet<I> inputs) {
+        return copyMealy(hypothesis, inputs);
+    }
+
+    @Override
+    protected @Nullable Integer getInitialState(CompactMealy<I, O> snapshot) {
+        return snapshot.getInitialState();
+    }
+
+    @Override
+    protected @Nullable Integer getSuccessor(CompactMealy<I, O> snapshot, int state, I input) {
+        return snapshot.getSuccessor(state, input);
+    }
+
+    @Override
+    protected boolean isStateDistinct(CompactMealy<I, O> oldSnapshot,
+                                      int oldState,
+                                      CompactMealy<I, O> newSnapshot,
+                                      int newState) {
+        return false;
+    }
+
+    @Override
+    protected boolean isTransitionDistinct(CompactMealy<I, O> oldSnapshot,
+                                           int oldState,
+                                           CompactMealy<I, O> newSnapshot,
+                                           int newState,
+                                           I input) {
+        return !Objects.equals(oldSnapshot.getOutput(oldState, input), newSnapshot.getOutput(newState, input));
+    }
+
+    private static <S, I, T, O> CompactMealy<I, O> copyMealy(MealyMachine<S, I, T, O> mealy, Alphabet<I> inputs) {
+        final CompactMealy<I, O> result = new CompactMealy<>(inputs);
+        final S init = mealy.getInitialState();
+
+        if (init == null) {
+            return result;
+        }
+
+        final Map<S, Integer> mapping = new HashMap<>();
+        final Deque<S> queue = new ArrayDeque<>();
+
+        mapping.put(init, result.addInitialState());
+        queue.add(init);
+
+        S curr;
+        while ((curr = queue.poll()) != null) {
+            final Integer currId = mapping.get(curr);
+
+            for (I i : inputs) {
+                final T trans = mealy.getTransition(curr, i);
+
+                if (trans == null) {
+                    continue;
+                }
+
+                final S succ = mealy.getSuccessor(trans);
+                Integer succId = mapping.get(succ);
+                if (succId == null) {
+                    succId = result.addState();
+                    mapping.put(succ, succId);
+                    queue.add(succ);
+                }
+
+                result.addTransition(currId, i, succId, mealy.getTransitionOutput(trans));
+            }
+        }
+
+        return result;
+    }
+}
@@ -15,7 +15,9 @@
  */
 package de.learnlib.filter.cache.mealy;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -23,9 +25,16 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheJournal;
+import de.learnlib.filter.cache.CacheLoadResult;
+import de.learnlib.filter.cache.CacheLoading;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
 import net.automatalib.SupportsGrowingAlphabet;
 import net.automatalib.commons.util.comparison.CmpUtil;
@@ -56,11 +65,14 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  *
  * @author Malte Isberner
  */
-class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>, SupportsGrowingAlphabet<I> {
+class InternalMealyCacheOracle<I, O>
+        implements MealyLearningCacheOracle<I, O>, SupportsGrowingAlphabet<I>, StatisticCollector {
 
     private final MembershipOracle<I, Word<O>> delegate;
     protected IncrementalMealyBuilder<I, O> incMealy;
     protected final ReadWriteLock incMealyLock;
+    protected final CacheJournal<I> journal;
+    private final CacheStatistics statistics;
     private final Comparator<? super Query<I, ?>> queryCmp;
     private final @Nullable Mapping<? super O, ? extends O> errorSyms;
 
@@ -76,6 +88,8 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
                              Comparator<I> comparator) {
         this.incMealy = incrementalBuilder;
         this.incMealyLock = new ReentrantReadWriteLock();
+        this.journal = new CacheJournal<>();
+        this.statistics = new CacheStatistics("Mealy cache");
         this.queryCmp = new ReverseLexCmp<>(comparator);
         this.errorSyms = errorSyms;
         this.delegate = delegate;
@@ -90,6 +104,39 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
         return new MealyCacheConsistencyTest<>(incMealy, incMealyLock);
     }
 
+    /**
+     * Creates an equivalence oracle that incrementally checks hypotheses for consistency with the contents of this
+     * cache, i.e., only cache contents that have been added since the last check and previously checked contents that
+     * are affected by changes of the hypothesis are examined. The returned oracle should be created before the first
+     * query is posed to this cache, because otherwise changed hypotheses need to be checked against the complete cache
+     * contents. The returned oracle should be {@link IncrementalMealyCacheConsistencyTest#close() closed} once it is
+     * no longer used.
+     *
+     * @param parallel
+     *         whether the cache contents should be checked in parallel
+     *
+     * @return the incremental cache consistency test backed by the contents of this cache.
+     *
+     * @see IncrementalMealyCacheConsistencyTest
+     */
+    public IncrementalMealyCacheConsistencyTest<I, O> createIncrementalCacheConsistencyTest(boolean parallel) {
+        return new IncrementalMealyCacheConsistencyTest<>(journal.register(),
+                                                          this::lookup,
+                                                          createCacheConsistencyTest(),
+                                                          parallel);
+    }
+
+    private @Nullable Word<O> lookup(Word<I> word) {
+        final WordBuilder<O> wb = new WordBuilder<>(word.length());
+
+        statistics.lock(incMealyLock.readLock());
+        try {
+            return incMealy.lookup(word, wb) ? wb.toWord() : null;
+        } finally {
+            incMealyLock.readLock().unlock();
+        }
+    }
+
     @Override
     public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
         if (queries.isEmpty()) {
@@ -105,7 +152,7 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
         Query<I, Word<O>> q = it.next();
         Word<I> ref = q.getInput();
 
-        incMealyLock.readLock().lock();
+        statistics.lock(incMealyLock.readLock());
         try {
             MasterQuery<I, O> master = createMasterQuery(ref);
             if (!master.isAnswered()) {
@@ -121,6 +168,9 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
                     if (!master.isAnswered()) {
                         masterQueries.add(master);
                     }
+                } else {
+                    // answered by a query of the same batch
+                    statistics.recordHit(curr.length());
                 }
 
                 master.addSlave(q);
@@ -134,47 +184,69 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
 
         delegate.processQueries(masterQueries);
 
-        incMealyLock.writeLock().lock();
+        final long lockedAt = statistics.lockWrite(incMealyLock.writeLock());
         try {
             for (MasterQuery<I, O> m : masterQueries) {
                 postProcess(m);
             }
         } finally {
-            incMealyLock.writeLock().unlock();
+            statistics.unlockWrite(incMealyLock.writeLock(), lockedAt);
         }
     }
 
     private MasterQuery<I, O> createMasterQuery(Word<I> word) {
         WordBuilder<O> wb = new WordBuilder<>(word.size());
         if (incMealy.lookup(word, wb)) {
+            statistics.recordHit(word.length());
             return new MasterQuery<>(word, wb.toWord());
         }
 
+        int wbSize = wb.size();
+
         if (errorSyms == null) {
+            if (wbSize > 0) {
+                statistics.recordPartialHit();
+            } else {
+                statistics.recordMiss();
+            }
             return new MasterQuery<>(word);
         }
 
-        int wbSize = wb.size();
-
         if (wbSize == 0) {
+            statistics.recordMiss();
             return new MasterQuery<>(word, errorSyms);
         }
 
         O repSym = errorSyms.get(wb.getSymbol(wbSize - 1));
         if (repSym == null) {
+            statistics.recordPartialHit();
             return new MasterQuery<>(word, errorSyms);
         }
 
         wb.repeatAppend(word.length() - wbSize, repSym);
+        statistics.recordHit(word.length());
         return new MasterQuery<>(word, wb.toWord());
     }
 
+    /**
+     * Returns statistics about the effectiveness of this cache. Queries that are prefixes of other queries of the same
+     * batch are counted as hits.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return statistics;
+    }
+
     private void postProcess(MasterQuery<I, O> master) {
-        Word<I> word = master.getSuffix();
-        Word<O> answer = master.getAnswer();
+        insert(master.getSuffix(), master.getAnswer());
+    }
 
+    private void insert(Word<I> word, Word<O> answer) {
         if (errorSyms == null) {
             incMealy.insert(word, answer);
+            journal.record(word);
             return;
         }
 
@@ -189,17 +261,64 @@ class InternalMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>,
 
         if (i == answLen) {
             incMealy.insert(word, answer);
+            journal.record(word);
         } else {
             incMealy.insert(word.prefix(i), answer.prefix(i));
+            journal.record(word.prefix(i));
         }
     }
 
+    /**
+     * Bulk-loads the given queries (e.g. recorded traces of the system) into this cache without posing them to the
+     * delegate oracle. The output of each query needs to cover its complete input ({@link DefaultQuery#getInput()
+     * prefix and suffix}). Queries whose outputs only cover (parts of) their input, such as queries produced by a
+     * learner that only cover the suffix, are not inserted but reported as {@link CacheLoadResult#getRejected()
+     * rejected}. Queries whose outputs contradict the cache contents are skipped and reported as conflicts.
+     *
+     * @param queries
+     *         the (answered) queries to load
+     *
+     * @return the result of the loading process
+     *
+     * @see CacheLoading
+     */
+    public CacheLoadResult<I, Word<O>> load(Collection<? extends DefaultQuery<I, Word<O>>> queries) {
+        return CacheLoading.load(queries,
+                                 true,
+                                 incMealyLock.writeLock(),
+                                 InternalMealyCacheOracle::coversInput,
+                                 this::insert);
+    }
+
+    private static <I, O> boolean coversInput(DefaultQuery<I, Word<O>> query) {
+        final Word<O> output = query.getOutput();
+        return output != null && output.length() == query.getInput().length();
+    }
+
+    /**
+     * Bulk-loads the queries recorded in the given file into this cache. See {@link #load(Collection)}.
+     *
+     * @param file
+     *         the (UTF-8 encoded) file containing one query per line
+     * @param parser
+     *         the parser for a single line, which may return {@code null} for lines that should be skipped
+     *
+     * @return the result of the loading process
+     *
+     * @throws IOException
+     *         if reading the file fails
+     */
+    public CacheLoadResult<I, Word<O>> load(Path file, Function<String, @Nullable DefaultQuery<I, Word<O>>> parser)
+            throws IOException {
+        return load(CacheLoading.parse(file, parser));
+    }
+
     @Override
     public void addAlphabetSymbol(I symbol) {
         incMealy.addAlphabetSymbol(symbol);
     }
 
-    private static final class ReverseLexCmp<I> implements Comparator<Query<I, ?>>, Serializable {
+    static final class ReverseLexCmp<I> implements Comparator<Query<I, ?>>, Serializable {
 
         private final Comparator<I> comparator;
 
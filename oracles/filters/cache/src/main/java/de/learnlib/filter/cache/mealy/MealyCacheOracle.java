@@ -102,6 +102,7 @@ public class MealyCacheOracle<I, O> extends InternalMealyCacheOracle<I, O>
         }
 
         this.incMealy = state.getBuilder();
+        this.journal.invalidate();
     }
 
     public static class MealyCacheOracleState<I, O> implements Serializable {
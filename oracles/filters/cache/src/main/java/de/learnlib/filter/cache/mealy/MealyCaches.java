@@ -15,7 +15,12 @@
  */
 package de.learnlib.filter.cache.mealy;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.filter.cache.BoundedCache;
+import de.learnlib.filter.cache.EvictionPolicy;
 import net.automatalib.commons.util.mappings.Mapping;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
 import net.automatalib.words.Alphabet;
@@ -130,6 +135,91 @@ public final class MealyCaches {
         return MealyCacheOracle.createDynamicTreeCacheOracle(errorSyms, mqOracle);
     }
 
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup that can be shared by concurrently querying threads,
+     * using a lock-free tree for internal cache organization.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param mqOracle
+     *         the membership oracle
+     *
+     * @return a Mealy learning cache with a concurrent tree-based implementation
+     */
+    public static <I, O> ConcurrentMealyCacheOracle<I, O> createConcurrentTreeCache(Alphabet<I> alphabet,
+                                                                                    MembershipOracle<I, Word<O>> mqOracle) {
+        return new ConcurrentMealyCacheOracle<>(alphabet, mqOracle);
+    }
+
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup whose contents are persisted in a memory-mapped file.
+     * Re-opening an existing file makes all previously cached outputs available immediately.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param file
+     *         the file storing the cache contents. If the file does not exist, an empty cache is created
+     * @param mqOracle
+     *         the membership oracle
+     *
+     * @return a Mealy learning cache with a persistent tree-based implementation
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a cache for the given alphabet
+     */
+    public static <I, O> PersistentMealyCacheOracle<I, O> createPersistentCache(Alphabet<I> alphabet,
+                                                                                Path file,
+                                                                                MembershipOracle<I, Word<O>> mqOracle)
+            throws IOException {
+        return new PersistentMealyCacheOracle<>(alphabet, file, mqOracle);
+    }
+
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup that stores at most the given number of output symbols.
+     * Words up to length {@link BoundedCache#DEFAULT_PINNED_LENGTH} are never evicted.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param mqOracle
+     *         the membership oracle
+     * @param capacity
+     *         the maximum number of cached output symbols (i.e., tree nodes)
+     * @param policy
+     *         the policy for selecting the tree leaves to evict
+     *
+     * @return a Mealy learning cache with a bounded, tree-based implementation
+     */
+    public static <I, O> BoundedMealyCacheOracle<I, O> createBoundedCache(Alphabet<I> alphabet,
+                                                                          MembershipOracle<I, Word<O>> mqOracle,
+                                                                          int capacity,
+                                                                          EvictionPolicy policy) {
+        return new BoundedMealyCacheOracle<>(alphabet, mqOracle, capacity, policy);
+    }
+
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup that stores at most the given number of output symbols.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param mqOracle
+     *         the membership oracle
+     * @param capacity
+     *         the maximum number of cached output symbols (i.e., tree nodes)
+     * @param policy
+     *         the policy for selecting the tree leaves to evict
+     * @param pinnedLength
+     *         the length up to which words are never evicted
+     *
+     * @return a Mealy learning cache with a bounded, tree-based implementation
+     */
+    public static <I, O> BoundedMealyCacheOracle<I, O> createBoundedCache(Alphabet<I> alphabet,
+                                                                          MembershipOracle<I, Word<O>> mqOracle,
+                                                                          int capacity,
+                                                                          EvictionPolicy policy,
+                                                                          int pinnedLength) {
+        return new BoundedMealyCacheOracle<>(alphabet, mqOracle, capacity, policy, pinnedLength);
+    }
+
     /**
      * Creates a cache oracle for a Mealy machine learning setup.
      * <p>
@@ -0,0 +1,151 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.mealy.InternalMealyCacheOracle.ReverseLexCmp;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A Mealy cache whose contents are persisted in a memory-mapped file (see {@link PersistentMealyTree}). Every answered
+ * query is immediately written to the file, and re-opening the cache on an existing file makes all previously cached
+ * outputs available at once, without deserializing the cache contents first. Hence, a restarted experiment starts with
+ * a hot cache.
+ * <p>
+ * Like the {@link MealyCacheOracle}, queries of a batch that constitute prefixes of other queries of the batch are
+ * answered by the longer query. Note that (unlike the {@link MealyCacheOracle}) this cache does neither support growing
+ * alphabets nor a prefix-closure filter, and that the cache has to be re-opened with an alphabet whose symbols have the
+ * same indices. Output symbols need to be {@link java.io.Serializable serializable}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class PersistentMealyCacheOracle<I, O> implements MealyLearningCacheOracle<I, O>, Closeable, Flushable {
+
+    private final PersistentMealyTree<I, O> tree;
+    private final MembershipOracle<I, Word<O>> delegate;
+    private final Comparator<? super Query<I, ?>> queryCmp;
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param file
+     *         the file storing the cache contents. If the file does not exist, an empty cache is created
+     * @param delegate
+     *         the delegate oracle
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a cache for the given alphabet
+     */
+    public PersistentMealyCacheOracle(Alphabet<I> alphabet, Path file, MembershipOracle<I, Word<O>> delegate)
+            throws IOException {
+        this.tree = new PersistentMealyTree<>(alphabet, file);
+        this.delegate = delegate;
+        this.queryCmp = new ReverseLexCmp<>(alphabet);
+    }
+
+    @Override
+    public PersistentMealyCacheConsistencyTest<I, O> createCacheConsistencyTest() {
+        return new PersistentMealyCacheConsistencyTest<>(tree);
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        List<Query<I, Word<O>>> qrys = new ArrayList<>(queries);
+        qrys.sort(queryCmp);
+
+        List<MasterQuery<I, O>> masterQueries = new ArrayList<>();
+
+        Iterator<Query<I, Word<O>>> it = qrys.iterator();
+        Query<I, Word<O>> q = it.next();
+        Word<I> ref = q.getInput();
+
+        MasterQuery<I, O> master = createMasterQuery(ref);
+        if (!master.isAnswered()) {
+            masterQueries.add(master);
+        }
+        master.addSlave(q);
+
+        while (it.hasNext()) {
+            q = it.next();
+            Word<I> curr = q.getInput();
+            if (!curr.isPrefixOf(ref)) {
+                master = createMasterQuery(curr);
+                if (!master.isAnswered()) {
+                    masterQueries.add(master);
+                }
+            }
+
+            master.addSlave(q);
+            ref = curr;
+        }
+
+        delegate.processQueries(masterQueries);
+
+        for (MasterQuery<I, O> m : masterQueries) {
+            tree.insert(m.getSuffix(), m.getAnswer());
+        }
+    }
+
+    private MasterQuery<I, O> createMasterQuery(Word<I> word) {
+        WordBuilder<O> wb = new WordBuilder<>(word.size());
+        if (tree.lookup(word, wb)) {
+            return new MasterQuery<>(word, wb.toWord());
+        }
+        return new MasterQuery<>(word);
+    }
+
+    /**
+     * Forces all cache contents to be written to the underlying storage device.
+     */
+    @Override
+    public void flush() {
+        tree.flush();
+    }
+
+    /**
+     * Flushes and closes the cache. The cache must not be used after it has been closed.
+     *
+     * @throws IOException
+     *         if the underlying file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+}
@@ -0,0 +1,348 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.learnlib.filter.cache.MappedTrie;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe, tree-based storage for the observed outputs of a Mealy system, whose contents are persisted in a
+ * memory-mapped file (see {@link MappedTrie}). Used by the persistent Mealy caches.
+ * <p>
+ * Each node of the tree stores the index of the output symbol of the transition leading to it. The output symbols
+ * themselves are stored (via Java serialization) in a separate file next to the tree file, whose name is obtained by
+ * appending {@code .outputs} to the name of the tree file. Since the number of distinct output symbols is usually
+ * small, this file is simply re-written whenever a new output symbol is observed.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public final class PersistentMealyTree<I, O> implements Closeable, Flushable {
+
+    private static final String OUTPUTS_SUFFIX = ".outputs";
+
+    private final Alphabet<I> alphabet;
+    private final MappedTrie trie;
+    private final Path outputsFile;
+    private final List<O> outputs;
+    private final Map<O, Integer> outputIndices;
+    private final ReadWriteLock lock;
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param file
+     *         the file storing the tree. If the file does not exist, an empty tree is created
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a tree for the given alphabet
+     */
+    public PersistentMealyTree(Alphabet<I> alphabet, Path file) throws IOException {
+        this.alphabet = alphabet;
+        this.outputsFile = file.resolveSibling(file.getFileName() + OUTPUTS_SUFFIX);
+        this.outputs = readOutputs(outputsFile);
+        this.outputIndices = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+
+        for (int i = 0; i < outputs.size(); i++) {
+            outputIndices.put(outputs.get(i), i);
+        }
+
+        this.trie = new MappedTrie(file, alphabet.size());
+    }
+
+    /**
+     * Returns the root node of the tree, i.e., the node reached by the empty word.
+     *
+     * @return the root node
+     */
+    public int getRoot() {
+        return trie.getRoot();
+    }
+
+    /**
+     * Returns the successor of the given node for the given input symbol.
+     *
+     * @param node
+     *         the node
+     * @param input
+     *         the input symbol
+     *
+     * @return the successor node, or {@link MappedTrie#NO_NODE} if no information is stored for the given input
+     */
+    public int getSuccessor(int node, I input) {
+        lock.readLock().lock();
+        try {
+            return trie.getSuccessor(node, alphabet.getSymbolIndex(input));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the output of the transition leading to the given node. The output of the root node is undefined.
+     *
+     * @param node
+     *         the node
+     *
+     * @return the output of the transition leading to the given node
+     */
+    public O getOutput(int node) {
+        lock.readLock().lock();
+        try {
+            return outputs.get(trie.getValue(node));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the outputs of the given word. The outputs of the longest cached prefix of the word are appended to the
+     * given word builder.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the word builder to append the outputs to
+     *
+     * @return {@code true} if the outputs of the complete word are cached, {@code false} otherwise
+     */
+    public boolean lookup(Word<I> word, WordBuilder<O> output) {
+        lock.readLock().lock();
+        try {
+            int node = trie.getRoot();
+
+            for (I sym : word) {
+                node = trie.getSuccessor(node, alphabet.getSymbolIndex(sym));
+                if (node == MappedTrie.NO_NODE) {
+                    return false;
+                }
+                output.append(outputs.get(trie.getValue(node)));
+            }
+
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Incorporates the given input/output behavior into the tree.
+     *
+     * @param word
+     *         the input word
+     * @param output
+     *         the output word
+     *
+     * @throws ConflictException
+     *         if the given output is incompatible with the already stored outputs
+     */
+    public void insert(Word<I> word, Word<O> output) {
+        final int len = word.length();
+
+        lock.writeLock().lock();
+        try {
+            int node = trie.getRoot();
+
+            for (int i = 0; i < len; i++) {
+                final O out = output.getSymbol(i);
+                final int symIdx = alphabet.getSymbolIndex(word.getSymbol(i));
+                final int succ = trie.getSuccessor(node, symIdx);
+
+                if (succ == MappedTrie.NO_NODE) {
+                    // only register (and persist) the output symbol once it is actually referenced by a new node
+                    node = trie.getOrAddSuccessor(node, symIdx, getOrAddOutputIndex(out));
+                } else {
+                    final O stored = outputs.get(trie.getValue(succ));
+                    if (!Objects.equals(stored, out)) {
+                        throw new ConflictException("Incompatible output symbols: " + stored + " vs " + out);
+                    }
+                    node = succ;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int getOrAddOutputIndex(O output) throws IOException {
+        final Integer idx = outputIndices.get(output);
+
+        if (idx != null) {
+            return idx;
+        }
+
+        // the output symbol has to be persisted before it is referenced by the tree
+        final List<O> newOutputs = new ArrayList<>(outputs);
+        newOutputs.add(output);
+        writeOutputs(outputsFile, newOutputs);
+
+        final int newIdx = outputs.size();
+        outputs.add(output);
+        outputIndices.put(output, newIdx);
+
+        return newIdx;
+    }
+
+    /**
+     * Finds a word whose output according to the given hypothesis differs from the stored output.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the inputs to consider
+     * @param <S>
+     *         hypothesis state type
+     * @param <T>
+     *         hypothesis transition type
+     *
+     * @return a separating word, or {@code null} if the hypothesis is consistent with the stored outputs
+     */
+    public <S, T> @Nullable Word<I> findSeparatingWord(MealyMachine<S, I, T, O> hypothesis,
+                                                       Collection<? extends I> inputs) {
+        final Deque<Record<S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(trie.getRoot(), hypothesis.getInitialState(), Word.epsilon()));
+
+        lock.readLock().lock();
+        try {
+            Record<S, I> current;
+            while ((current = queue.poll()) != null) {
+                for (I sym : inputs) {
+                    if (!alphabet.containsSymbol(sym)) {
+                        continue;
+                    }
+
+                    final int succ = trie.getSuccessor(current.node, alphabet.getSymbolIndex(sym));
+                    if (succ == MappedTrie.NO_NODE) {
+                        continue;
+                    }
+
+                    final Word<I> succWord = current.word.append(sym);
+                    final T trans = current.state == null ? null : hypothesis.getTransition(current.state, sym);
+
+                    if (trans == null ||
+                        !Objects.equals(hypothesis.getTransitionOutput(trans), outputs.get(trie.getValue(succ)))) {
+                        return succWord;
+                    }
+
+                    queue.add(new Record<>(succ, hypothesis.getSuccessor(trans), succWord));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return null;
+    }
+
+    /**
+     * Forces all contents of the tree to be written to the underlying storage device.
+     */
+    @Override
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            trie.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the tree. The tree must not be used after it has been closed.
+     *
+     * @throws IOException
+     *         if the underlying file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            trie.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O> List<O> readOutputs(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+
+        try (InputStream is = Files.newInputStream(file); ObjectInputStream ois = new ObjectInputStream(is)) {
+            return (List<O>) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read output symbols from '" + file + "'", e);
+        }
+    }
+
+    private static <O> void writeOutputs(Path file, List<O> outputs) throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (OutputStream os = Files.newOutputStream(tmp); ObjectOutputStream oos = new ObjectOutputStream(os)) {
+            oos.writeObject(outputs);
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Record<S, I> {
+
+        private final int node;
+        private final @Nullable S state;
+        private final Word<I> word;
+
+        Record(int node, @Nullable S state, Word<I> word) {
+            this.node = node;
+            this.state = state;
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.learnlib.api.Resumable;
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.SymbolQueryOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheStatistics;
+import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.mealy.SymbolQueryCache.SymbolQueryCacheState;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.util.automata.equivalence.NearLinearEquivalenceTest;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe variant of the {@link SymbolQueryCache} whose cache contents can be shared by multiple workers.
+ * <p>
+ * Each worker uses its own instance of this class (obtained via {@link #fork(SymbolQueryOracle)}), which holds the
+ * worker-specific cursor, trace and delegate oracle. The cached Mealy automaton, however, is shared by all forks and
+ * guarded by a read-write lock, so that a query of one worker can be answered from the outputs that another worker has
+ * observed before.
+ *
+ * @param <I>
+ *         input alphabet type
+ * @param <O>
+ *         output alphabet type
+ */
+public class SharedSymbolQueryCache<I, O>
+        implements SymbolQueryOracle<I, O>,
+                   MealyLearningCacheOracle<I, O>,
+                   Resumable<SymbolQueryCacheState<I, O>>,
+                   StatisticCollector {
+
+    private final Store<I, O> store;
+    private final SymbolQueryOracle<I, O> delegate;
+
+    private final List<I> currentTrace;
+    private Integer currentState;
+    private boolean currentTraceValid;
+
+    public SharedSymbolQueryCache(SymbolQueryOracle<I, O> delegate, Alphabet<I> alphabet) {
+        this(new Store<>(new CompactMealy<>(alphabet)), delegate);
+    }
+
+    private SharedSymbolQueryCache(Store<I, O> store, SymbolQueryOracle<I, O> delegate) {
+        this.store = store;
+        this.delegate = delegate;
+        this.currentTrace = new ArrayList<>();
+        this.currentTraceValid = false;
+
+        store.lock.readLock().lock();
+        try {
+            this.currentState = store.cache.getInitialState();
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a new cache that shares the cache contents with this cache, but uses its own cursor and the given
+     * delegate oracle. This allows each worker of a parallel setup to use its own cache instance.
+     *
+     * @param delegate
+     *         the delegate oracle of the new cache
+     *
+     * @return a new cache sharing the cache contents with this cache
+     */
+    public SharedSymbolQueryCache<I, O> fork(SymbolQueryOracle<I, O> delegate) {
+        return new SharedSymbolQueryCache<>(store, delegate);
+    }
+
+    @Override
+    public O query(I i) {
+
+        if (this.currentTraceValid) {
+            final O cachedOutput;
+            final Integer succ;
+
+            store.statistics.lock(store.lock.readLock());
+            try {
+                succ = store.cache.getSuccessor(this.currentState, i);
+                cachedOutput = succ == null ? null : store.cache.getOutput(this.currentState, i);
+            } finally {
+                store.lock.readLock().unlock();
+            }
+
+            if (succ != null) {
+                this.currentTrace.add(i);
+                this.currentState = succ;
+                return cachedOutput;
+            } else {
+                if (this.currentTrace.isEmpty()) {
+                    store.statistics.recordMiss();
+                } else {
+                    store.statistics.recordPartialHit();
+                }
+
+                this.currentTraceValid = false;
+                this.delegate.reset();
+
+                this.currentTrace.forEach(this.delegate::query);
+            }
+        }
+
+        final O output = this.delegate.query(i);
+
+        final long lockedAt = store.statistics.lockWrite(store.lock.writeLock());
+        try {
+            final Integer succ = store.cache.getSuccessor(this.currentState, i);
+
+            if (succ == null) {
+                final Integer newState = store.cache.addState();
+                store.cache.addTransition(this.currentState, i, newState, output);
+                this.currentState = newState;
+            } else {
+                // another worker may have inserted the transition in the meantime
+                final O cachedOutput = store.cache.getOutput(this.currentState, i);
+                if (!Objects.equals(cachedOutput, output)) {
+                    throw new ConflictException("Incompatible output symbols: " + cachedOutput + " vs " + output);
+                }
+                this.currentState = succ;
+            }
+        } finally {
+            store.statistics.unlockWrite(store.lock.writeLock(), lockedAt);
+        }
+
+        return output;
+    }
+
+    @Override
+    public void reset() {
+        if (this.currentTraceValid && !this.currentTrace.isEmpty()) {
+            // the previous query has been answered by the cache completely
+            store.statistics.recordHit(this.currentTrace.size());
+        }
+
+        store.statistics.lock(store.lock.readLock());
+        try {
+            Integer init = store.cache.getInitialState();
+            assert init != null;
+            this.currentState = init;
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        this.currentTrace.clear();
+        this.currentTraceValid = true;
+    }
+
+    /**
+     * Returns statistics about the effectiveness of the shared cache contents. The statistics are shared by all forks
+     * of this cache. A query is the sequence of symbols between two calls to {@link #reset()}, and its statistics are
+     * recorded once it has to be delegated, or (if it can be answered by the cache completely) upon the next reset.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return store.statistics;
+    }
+
+    @Override
+    public EquivalenceOracle<MealyMachine<?, I, ?, O>, I, Word<O>> createCacheConsistencyTest() {
+        return this::findCounterexample;
+    }
+
+    private @Nullable DefaultQuery<I, Word<O>> findCounterexample(MealyMachine<?, I, ?, O> hypothesis,
+                                                                  Collection<? extends I> alphabet) {
+        store.lock.readLock().lock();
+        try {
+            final Word<I> sepWord =
+                    NearLinearEquivalenceTest.findSeparatingWord(store.cache, hypothesis, alphabet, true);
+
+            if (sepWord != null) {
+                return new DefaultQuery<>(sepWord, store.cache.computeOutput(sepWord));
+            }
+
+            return null;
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the state of the shared cache contents. Note that the returned state is backed by the live cache
+     * contents, hence the cache should not be queried until the state has been serialized.
+     *
+     * @return the state of the shared cache contents
+     */
+    @Override
+    public SymbolQueryCacheState<I, O> suspend() {
+        store.lock.readLock().lock();
+        try {
+            return new SymbolQueryCacheState<>(store.cache);
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the shared cache contents (and thereby the contents of all forks) with the given state. All forks need
+     * to be {@link #reset()} before they are queried again.
+     *
+     * @param state
+     *         the state to resume
+     */
+    @Override
+    public void resume(SymbolQueryCacheState<I, O> state) {
+        store.lock.writeLock().lock();
+        try {
+            store.cache = state.getCache();
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Store<I, O> {
+
+        private final ReadWriteLock lock;
+        private final CacheStatistics statistics;
+        private CompactMealy<I, O> cache;
+
+        Store(CompactMealy<I, O> cache) {
+            this.lock = new ReentrantReadWriteLock();
+            this.statistics = new CacheStatistics("Shared symbol query cache");
+            this.cache = cache;
+            this.cache.addInitialState();
+        }
+    }
+}
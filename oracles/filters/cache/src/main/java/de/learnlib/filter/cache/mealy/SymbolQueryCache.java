@@ -25,6 +25,8 @@ import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.SymbolQueryOracle;
 import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
 import de.learnlib.filter.cache.mealy.SymbolQueryCache.SymbolQueryCacheState;
 import net.automatalib.automata.transducers.MealyMachine;
@@ -49,7 +51,10 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * @author frohme
  */
 public class SymbolQueryCache<I, O>
-        implements SymbolQueryOracle<I, O>, MealyLearningCacheOracle<I, O>, Resumable<SymbolQueryCacheState<I, O>> {
+        implements SymbolQueryOracle<I, O>,
+                   MealyLearningCacheOracle<I, O>,
+                   Resumable<SymbolQueryCacheState<I, O>>,
+                   StatisticCollector {
 
     private CompactMealy<I, O> cache;
     private final SymbolQueryOracle<I, O> delegate;
@@ -58,6 +63,8 @@ public class SymbolQueryCache<I, O>
     private Integer currentState;
     private boolean currentTraceValid;
 
+    private final CacheStatistics statistics;
+
     public SymbolQueryCache(final SymbolQueryOracle<I, O> delegate, final Alphabet<I> alphabet) {
         this.delegate = delegate;
         this.cache = new CompactMealy<>(alphabet);
@@ -65,6 +72,7 @@ public class SymbolQueryCache<I, O>
 
         this.currentTrace = new ArrayList<>();
         this.currentTraceValid = false;
+        this.statistics = new CacheStatistics("Symbol query cache");
     }
 
     @Override
@@ -80,6 +88,12 @@ public class SymbolQueryCache<I, O>
                 this.currentState = succ;
                 return output;
             } else {
+                if (this.currentTrace.isEmpty()) {
+                    this.statistics.recordMiss();
+                } else {
+                    this.statistics.recordPartialHit();
+                }
+
                 this.currentTraceValid = false;
                 this.delegate.reset();
 
@@ -108,6 +122,11 @@ public class SymbolQueryCache<I, O>
 
     @Override
     public void reset() {
+        if (this.currentTraceValid && !this.currentTrace.isEmpty()) {
+            // the previous query has been answered by the cache completely
+            this.statistics.recordHit(this.currentTrace.size());
+        }
+
         Integer init = this.cache.getInitialState();
         assert init != null;
         this.currentState = init;
@@ -115,6 +134,18 @@ public class SymbolQueryCache<I, O>
         this.currentTraceValid = true;
     }
 
+    /**
+     * Returns statistics about the effectiveness of this cache. A query is the sequence of symbols between two calls to
+     * {@link #reset()}, and its statistics are recorded once it has to be delegated, or (if it can be answered by the
+     * cache completely) upon the next reset. This cache does not use any locks.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return statistics;
+    }
+
     @Override
     public EquivalenceOracle<MealyMachine<?, I, ?, O>, I, Word<O>> createCacheConsistencyTest() {
         return this::findCounterexample;
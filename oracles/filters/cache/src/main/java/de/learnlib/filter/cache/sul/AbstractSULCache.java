@@ -22,17 +22,21 @@ import java.util.concurrent.locks.ReadWriteLock;
 import de.learnlib.api.Resumable;
 import de.learnlib.api.SUL;
 import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.LearningCache.MealyLearningCache;
 import de.learnlib.filter.cache.mealy.MealyCacheConsistencyTest;
 import net.automatalib.SupportsGrowingAlphabet;
 import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
 import net.automatalib.ts.output.MealyTransitionSystem;
+import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I, O>, SupportsGrowingAlphabet<I> {
+abstract class AbstractSULCache<I, O>
+        implements SUL<I, O>, MealyLearningCache<I, O>, SupportsGrowingAlphabet<I>, StatisticCollector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSULCache.class);
 
@@ -57,6 +61,11 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
         return impl.step(in);
     }
 
+    @Override
+    public Word<O> stepAll(Word<I> in) {
+        return impl.stepAll(in);
+    }
+
     @Override
     public boolean canFork() {
         return impl.canFork();
@@ -81,6 +90,17 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
         return impl.incMealy.asGraph().size();
     }
 
+    /**
+     * Returns statistics about the effectiveness of this cache, which are shared with all forks of this cache. The
+     * statistics of a query are recorded when the query is finished, i.e., upon {@link #post()}.
+     *
+     * @return the statistics of this cache
+     */
+    @Override
+    public CacheStatistics getStatisticalData() {
+        return impl.statistics;
+    }
+
     /**
      * Implementation class; we need this to bind the {@code T} and {@code S} type parameters of the transition system
      * returned by {@link IncrementalMealyBuilder#asTransitionSystem()}.
@@ -105,6 +125,7 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
         protected MealyTransitionSystem<S, I, T, O> mealyTs;
         protected final SUL<I, O> delegate;
         protected final ReadWriteLock incMealyLock;
+        protected final CacheStatistics statistics;
 
         private final WordBuilder<I> inputWord = new WordBuilder<>();
         private final WordBuilder<O> outputWord = new WordBuilder<>();
@@ -115,16 +136,18 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
         AbstractSULCacheImpl(IncrementalMealyBuilder<I, O> incMealy,
                              ReadWriteLock lock,
                              MealyTransitionSystem<S, I, T, O> mealyTs,
-                             SUL<I, O> sul) {
+                             SUL<I, O> sul,
+                             CacheStatistics statistics) {
             this.incMealy = incMealy;
             this.mealyTs = mealyTs;
             this.delegate = sul;
             this.incMealyLock = lock;
+            this.statistics = statistics;
         }
 
         @Override
         public void pre() {
-            incMealyLock.readLock().lock();
+            statistics.lock(incMealyLock.readLock());
             this.current = mealyTs.getInitialState();
         }
 
@@ -139,25 +162,90 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
                     out = mealyTs.getTransitionOutput(trans);
                     current = mealyTs.getSuccessor(trans);
                     assert current != null;
+                    inputWord.append(in);
+                    return out;
                 } else {
-                    incMealyLock.readLock().unlock();
-                    current = null;
-                    requiredInitializedDelegate();
-                    for (I prevSym : inputWord) {
-                        outputWord.append(delegate.step(prevSym));
-                    }
+                    // replay the cached prefix and execute the new input with a single delegate call
+                    switchToDelegate();
+                    final Word<O> outputs = executeOnDelegate(inputWord.toWord(), Word.fromLetter(in));
+                    inputWord.append(in);
+                    outputWord.append(outputs);
+                    return outputs.lastSymbol();
                 }
             }
 
             inputWord.append(in);
+            out = delegate.step(in);
+            postNewStepHook();
+            outputWord.add(out);
+
+            return out;
+        }
+
+        @Override
+        public Word<O> stepAll(Word<I> in) {
+            final int len = in.length();
+            final WordBuilder<O> cached = new WordBuilder<>(len);
+            Word<I> replay = Word.epsilon();
+            int i = 0;
+
+            if (current != null) {
+                while (i < len) {
+                    final I sym = in.getSymbol(i);
+                    final T trans = mealyTs.getTransition(current, sym);
 
-            if (current == null) {
-                out = delegate.step(in);
-                postNewStepHook();
-                outputWord.add(out);
+                    if (trans == null) {
+                        break;
+                    }
+
+                    cached.add(mealyTs.getTransitionOutput(trans));
+                    current = mealyTs.getSuccessor(trans);
+                    assert current != null;
+                    inputWord.append(sym);
+                    i++;
+                }
+
+                if (i == len) {
+                    return cached.toWord();
+                }
+
+                switchToDelegate();
+                replay = inputWord.toWord();
             }
 
-            return out;
+            // execute the (replayed) cached prefix and all remaining inputs with a single delegate call
+            final Word<I> remaining = in.subWord(i);
+            final Word<O> outputs = executeOnDelegate(replay, remaining);
+            inputWord.append(remaining);
+            outputWord.append(outputs);
+
+            return cached.toWord().concat(outputs.subWord(outputs.length() - remaining.length()));
+        }
+
+        private void switchToDelegate() {
+            if (inputWord.isEmpty()) {
+                statistics.recordMiss();
+            } else {
+                statistics.recordPartialHit();
+            }
+            incMealyLock.readLock().unlock();
+            current = null;
+            requiredInitializedDelegate();
+        }
+
+        /**
+         * Executes the given inputs on the delegate. Before, the given (already cached) prefix is replayed on the
+         * delegate to reach the state of the current query.
+         *
+         * @param replay
+         *         the cached prefix to replay
+         * @param inputs
+         *         the new inputs to execute
+         *
+         * @return the outputs of both the replayed prefix and the new inputs
+         */
+        protected Word<O> executeOnDelegate(Word<I> replay, Word<I> inputs) {
+            return delegate.stepAll(replay.concat(inputs));
         }
 
         // TODO: The SUL interface might need a cleanup() method which, by contract,
@@ -168,14 +256,15 @@ abstract class AbstractSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I
             if (outputWord.isEmpty()) {
                 // if outputWord is empty we still hold the read-lock!
                 incMealyLock.readLock().unlock();
+                statistics.recordHit(inputWord.size());
             } else {
                 // otherwise acquire write-lock to update cache!
-                incMealyLock.writeLock().lock();
+                final long lockedAt = statistics.lockWrite(incMealyLock.writeLock());
                 try {
                     incMealy.insert(inputWord.toWord(), outputWord.toWord());
                     postCacheWriteHook(inputWord);
                 } finally {
-                    incMealyLock.writeLock().unlock();
+                    statistics.unlockWrite(incMealyLock.writeLock(), lockedAt);
                 }
             }
 
@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.sul;
+
+import java.io.Serializable;
+
+import de.learnlib.api.Resumable;
+import de.learnlib.api.SUL;
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.filter.cache.LearningCache.MealyLearningCache;
+import de.learnlib.filter.cache.mealy.ConcurrentMealyCacheConsistencyTest;
+import de.learnlib.filter.cache.mealy.ConcurrentMealyTree;
+import de.learnlib.filter.cache.mealy.ConcurrentMealyTree.Node;
+import de.learnlib.filter.cache.sul.ConcurrentSULCache.ConcurrentSULCacheState;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A cache to be used with a {@link SUL} that can be shared by concurrently querying threads.
+ * <p>
+ * Like the {@link SULCache}, this cache defers any real execution to the point where the cached information is
+ * definitely insufficient. However, contrary to the {@link SULCache}, no lock is held during the execution of a query.
+ * Instead, the cache is backed by a {@link ConcurrentMealyTree} whose paths are installed via CAS operations, so that
+ * lookups never block and concurrent inserts only contend at the nodes where their paths diverge from the cached tree.
+ * All {@link #fork() forks} of this cache share the same tree.
+ * <p>
+ * Note that (unlike the {@link SULCache}) this cache does not support growing alphabets.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class ConcurrentSULCache<I, O>
+        implements SUL<I, O>, MealyLearningCache<I, O>, Resumable<ConcurrentSULCacheState<O>> {
+
+    private final ConcurrentMealyTree<I, O> tree;
+    private final SUL<I, O> delegate;
+
+    private final WordBuilder<I> inputWord = new WordBuilder<>();
+    private final WordBuilder<O> outputWord = new WordBuilder<>();
+
+    private boolean delegatePreCalled;
+    private @Nullable Node<O> current;
+
+    public ConcurrentSULCache(Alphabet<I> alphabet, SUL<I, O> sul) {
+        this(new ConcurrentMealyTree<>(alphabet), sul);
+    }
+
+    private ConcurrentSULCache(ConcurrentMealyTree<I, O> tree, SUL<I, O> sul) {
+        this.tree = tree;
+        this.delegate = sul;
+    }
+
+    @Override
+    public void pre() {
+        this.current = tree.getRoot();
+    }
+
+    @Override
+    public O step(I in) {
+        O out = null;
+
+        if (current != null) {
+            final Node<O> succ = tree.getSuccessor(current, in);
+
+            if (succ != null) {
+                out = succ.getOutput();
+                current = succ;
+            } else {
+                current = null;
+                requiredInitializedDelegate();
+                // replay the cached prefix with a single delegate call
+                outputWord.append(delegate.stepAll(inputWord.toWord()));
+            }
+        }
+
+        inputWord.append(in);
+
+        if (current == null) {
+            out = delegate.step(in);
+            outputWord.add(out);
+        }
+
+        return out;
+    }
+
+    @Override
+    public void post() {
+        try {
+            if (!outputWord.isEmpty()) {
+                tree.insert(inputWord.toWord(), outputWord.toWord());
+            }
+        } finally {
+            if (delegatePreCalled) {
+                delegate.post();
+                delegatePreCalled = false;
+            }
+            inputWord.clear();
+            outputWord.clear();
+            current = null;
+        }
+    }
+
+    private void requiredInitializedDelegate() {
+        if (!delegatePreCalled) {
+            delegate.pre();
+        }
+        delegatePreCalled = true;
+    }
+
+    @Override
+    public boolean canFork() {
+        return delegate.canFork();
+    }
+
+    @Override
+    public ConcurrentSULCache<I, O> fork() {
+        return new ConcurrentSULCache<>(tree, delegate.fork());
+    }
+
+    @Override
+    public MealyEquivalenceOracle<I, O> createCacheConsistencyTest() {
+        return new ConcurrentMealyCacheConsistencyTest<>(tree);
+    }
+
+    @Override
+    public ConcurrentSULCacheState<O> suspend() {
+        return new ConcurrentSULCacheState<>(tree.suspend());
+    }
+
+    @Override
+    public void resume(ConcurrentSULCacheState<O> state) {
+        tree.resume(state.root);
+    }
+
+    public static final class ConcurrentSULCacheState<O> implements Serializable {
+
+        private final Node<O> root;
+
+        ConcurrentSULCacheState(Node<O> root) {
+            this.root = root;
+        }
+    }
+}
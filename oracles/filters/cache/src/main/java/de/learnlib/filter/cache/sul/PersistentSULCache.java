@@ -0,0 +1,172 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.sul;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import de.learnlib.api.SUL;
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.filter.cache.LearningCache.MealyLearningCache;
+import de.learnlib.filter.cache.MappedTrie;
+import de.learnlib.filter.cache.mealy.PersistentMealyCacheConsistencyTest;
+import de.learnlib.filter.cache.mealy.PersistentMealyTree;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A cache to be used with a {@link SUL} whose contents are persisted in a memory-mapped file (see {@link
+ * PersistentMealyTree}). Every executed query is immediately written to the file, and re-opening the cache on an
+ * existing file makes all previously cached outputs available at once, without deserializing the cache contents first.
+ * Hence, a restarted experiment starts with a hot cache.
+ * <p>
+ * Like the {@link SULCache}, this cache defers any real execution to the point where the cached information is
+ * definitely insufficient. All {@link #fork() forks} of this cache share the same file. Note that (unlike the {@link
+ * SULCache}) this cache does not support growing alphabets, and that the cache has to be re-opened with an alphabet
+ * whose symbols have the same indices. Output symbols need to be {@link java.io.Serializable serializable}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class PersistentSULCache<I, O> implements SUL<I, O>, MealyLearningCache<I, O>, Closeable, Flushable {
+
+    private final PersistentMealyTree<I, O> tree;
+    private final SUL<I, O> delegate;
+
+    private final WordBuilder<I> inputWord = new WordBuilder<>();
+    private final WordBuilder<O> outputWord = new WordBuilder<>();
+
+    private boolean delegatePreCalled;
+    private int current = MappedTrie.NO_NODE;
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param file
+     *         the file storing the cache contents. If the file does not exist, an empty cache is created
+     * @param sul
+     *         the delegate SUL
+     *
+     * @throws IOException
+     *         if the file cannot be opened or does not contain a cache for the given alphabet
+     */
+    public PersistentSULCache(Alphabet<I> alphabet, Path file, SUL<I, O> sul) throws IOException {
+        this(new PersistentMealyTree<>(alphabet, file), sul);
+    }
+
+    private PersistentSULCache(PersistentMealyTree<I, O> tree, SUL<I, O> sul) {
+        this.tree = tree;
+        this.delegate = sul;
+    }
+
+    @Override
+    public void pre() {
+        this.current = tree.getRoot();
+    }
+
+    @Override
+    public O step(I in) {
+        O out = null;
+
+        if (current != MappedTrie.NO_NODE) {
+            final int succ = tree.getSuccessor(current, in);
+
+            if (succ != MappedTrie.NO_NODE) {
+                out = tree.getOutput(succ);
+                current = succ;
+            } else {
+                current = MappedTrie.NO_NODE;
+                requiredInitializedDelegate();
+                // replay the cached prefix with a single delegate call
+                outputWord.append(delegate.stepAll(inputWord.toWord()));
+            }
+        }
+
+        inputWord.append(in);
+
+        if (current == MappedTrie.NO_NODE) {
+            out = delegate.step(in);
+            outputWord.add(out);
+        }
+
+        return out;
+    }
+
+    @Override
+    public void post() {
+        try {
+            if (!outputWord.isEmpty()) {
+                tree.insert(inputWord.toWord(), outputWord.toWord());
+            }
+        } finally {
+            if (delegatePreCalled) {
+                delegate.post();
+                delegatePreCalled = false;
+            }
+            inputWord.clear();
+            outputWord.clear();
+            current = MappedTrie.NO_NODE;
+        }
+    }
+
+    private void requiredInitializedDelegate() {
+        if (!delegatePreCalled) {
+            delegate.pre();
+        }
+        delegatePreCalled = true;
+    }
+
+    @Override
+    public boolean canFork() {
+        return delegate.canFork();
+    }
+
+    @Override
+    public PersistentSULCache<I, O> fork() {
+        return new PersistentSULCache<>(tree, delegate.fork());
+    }
+
+    @Override
+    public MealyEquivalenceOracle<I, O> createCacheConsistencyTest() {
+        return new PersistentMealyCacheConsistencyTest<>(tree);
+    }
+
+    /**
+     * Forces all cache contents to be written to the underlying storage device.
+     */
+    @Override
+    public void flush() {
+        tree.flush();
+    }
+
+    /**
+     * Flushes and closes the cache (and thereby all of its forks). The cache must not be used after it has been
+     * closed.
+     *
+     * @throws IOException
+     *         if the underlying file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import de.learnlib.api.Resumable;
 import de.learnlib.api.SUL;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.sul.SULCache.SULCacheState;
 import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
@@ -49,7 +50,11 @@ public class SULCache<I, O> extends AbstractSULCache<I, O> implements Resumable<
     private final SULCacheImpl<?, I, ?, O> impl;
 
     SULCache(IncrementalMealyBuilder<I, O> incMealy, SUL<I, O> sul) {
-        this(new SULCacheImpl<>(incMealy, new ReentrantReadWriteLock(), incMealy.asTransitionSystem(), sul));
+        this(new SULCacheImpl<>(incMealy,
+                                new ReentrantReadWriteLock(),
+                                incMealy.asTransitionSystem(),
+                                sul,
+                                new CacheStatistics("SUL cache")));
     }
 
     private <S, T> SULCache(SULCacheImpl<S, I, T, O> cacheImpl) {
@@ -95,13 +100,14 @@ public class SULCache<I, O> extends AbstractSULCache<I, O> implements Resumable<
         SULCacheImpl(IncrementalMealyBuilder<I, O> incMealy,
                      ReadWriteLock lock,
                      MealyTransitionSystem<S, I, T, O> mealyTs,
-                     SUL<I, O> sul) {
-            super(incMealy, lock, mealyTs, sul);
+                     SUL<I, O> sul,
+                     CacheStatistics statistics) {
+            super(incMealy, lock, mealyTs, sul, statistics);
         }
 
         @Override
         public SUL<I, O> fork() {
-            return new SULCacheImpl<>(incMealy, incMealyLock, mealyTs, delegate.fork());
+            return new SULCacheImpl<>(incMealy, incMealyLock, mealyTs, delegate.fork(), statistics);
         }
 
         @Override
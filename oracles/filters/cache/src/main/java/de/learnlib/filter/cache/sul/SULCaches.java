@@ -15,6 +15,9 @@
  */
 package de.learnlib.filter.cache.sul;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import de.learnlib.api.SUL;
 import de.learnlib.api.StateLocalInputSUL;
 import net.automatalib.words.Alphabet;
@@ -37,6 +40,15 @@ public final class SULCaches {
         return SULCache.createDAGCache(alphabet, sul);
     }
 
+    public static <I, O> ConcurrentSULCache<I, O> createConcurrentTreeCache(Alphabet<I> alphabet, SUL<I, O> sul) {
+        return new ConcurrentSULCache<>(alphabet, sul);
+    }
+
+    public static <I, O> PersistentSULCache<I, O> createPersistentCache(Alphabet<I> alphabet, Path file, SUL<I, O> sul)
+            throws IOException {
+        return new PersistentSULCache<>(alphabet, file, sul);
+    }
+
     public static <I, O> StateLocalInputSULCache<I, O> createStateLocalInputTreeCache(Alphabet<I> alphabet,
                                                                                       StateLocalInputSUL<I, O> sul) {
         return StateLocalInputSULCache.createTreeCache(alphabet, sul);
@@ -25,11 +25,14 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import de.learnlib.api.Resumable;
 import de.learnlib.api.StateLocalInputSUL;
+import de.learnlib.filter.cache.CacheStatistics;
 import de.learnlib.filter.cache.sul.StateLocalInputSULCache.StateLocalInputSULCacheState;
 import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
 import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
 import net.automatalib.ts.output.MealyTransitionSystem;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 
 public class StateLocalInputSULCache<I, O> extends AbstractSULCache<I, O>
         implements StateLocalInputSUL<I, O>, Resumable<StateLocalInputSULCacheState<I, O>> {
@@ -40,7 +43,8 @@ public class StateLocalInputSULCache<I, O> extends AbstractSULCache<I, O>
         this(new StateLocalInputSULCacheImpl<>(incMealy,
                                                new ReentrantReadWriteLock(),
                                                incMealy.asTransitionSystem(),
-                                               sul));
+                                               sul,
+                                               new CacheStatistics("SUL cache")));
     }
 
     private <S, T> StateLocalInputSULCache(StateLocalInputSULCacheImpl<S, I, T, O> cacheImpl) {
@@ -86,16 +90,18 @@ public class StateLocalInputSULCache<I, O> extends AbstractSULCache<I, O>
         StateLocalInputSULCacheImpl(IncrementalMealyBuilder<I, O> incMealy,
                                     ReadWriteLock lock,
                                     MealyTransitionSystem<S, I, T, O> mealyTs,
-                                    StateLocalInputSUL<I, O> sul) {
-            this(incMealy, lock, mealyTs, new HashMap<>(), sul);
+                                    StateLocalInputSUL<I, O> sul,
+                                    CacheStatistics statistics) {
+            this(incMealy, lock, mealyTs, new HashMap<>(), sul, statistics);
         }
 
         private StateLocalInputSULCacheImpl(IncrementalMealyBuilder<I, O> incMealy,
                                             ReadWriteLock lock,
                                             MealyTransitionSystem<S, I, T, O> mealyTs,
                                             Map<S, Collection<I>> enabledInputCache,
-                                            StateLocalInputSUL<I, O> sul) {
-            super(incMealy, lock, mealyTs, sul);
+                                            StateLocalInputSUL<I, O> sul,
+                                            CacheStatistics statistics) {
+            super(incMealy, lock, mealyTs, sul, statistics);
             this.delegate = sul;
             S init = mealyTs.getInitialState();
             assert init != null;
@@ -109,6 +115,18 @@ public class StateLocalInputSULCache<I, O> extends AbstractSULCache<I, O>
             inputsTrace.add(delegate.currentlyEnabledInputs());
         }
 
+        @Override
+        protected Word<O> executeOnDelegate(Word<I> replay, Word<I> inputs) {
+            // the enabled inputs have to be recorded after each new step, so only the replay can be batched
+            final WordBuilder<O> wb = new WordBuilder<>(replay.length() + inputs.length());
+            wb.append(delegate.stepAll(replay));
+            for (I sym : inputs) {
+                wb.add(delegate.step(sym));
+                postNewStepHook();
+            }
+            return wb.toWord();
+        }
+
         @Override
         protected void postCacheWriteHook(List<I> input) {
             final int prefixLength = input.size() - this.inputsTrace.size();
@@ -150,7 +168,8 @@ public class StateLocalInputSULCache<I, O> extends AbstractSULCache<I, O>
                                                      incMealyLock,
                                                      mealyTs,
                                                      enabledInputCache,
-                                                     delegate.fork());
+                                                     delegate.fork(),
+                                                     statistics);
         }
 
         @Override
@@ -0,0 +1,146 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.cache.dfa.BoundedDFACacheOracle;
+import de.learnlib.filter.cache.dfa.DFACaches;
+import de.learnlib.filter.statistic.oracle.DFACounterOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.DFASimulatorOracle;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BoundedCacheTest {
+
+    private static final Word<Character> A = Word.fromString("aaa");
+    private static final Word<Character> B = Word.fromString("bbb");
+    private static final Word<Character> C = Word.fromString("cccc");
+    private static final Word<Character> D = Word.fromString("ddd");
+
+    @Test
+    public void testLRU() {
+        final BoundedCache<Character, Integer> cache = new BoundedCache<>(3, EvictionPolicy.LRU, 0);
+
+        cache.put(A, 1);
+        cache.put(B, 2);
+        cache.put(C, 3);
+        Assert.assertEquals(cache.get(A), Integer.valueOf(1));
+
+        cache.put(D, 4);
+
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertNull(cache.get(B));
+        Assert.assertNotNull(cache.get(A));
+        Assert.assertNotNull(cache.get(C));
+        Assert.assertNotNull(cache.get(D));
+    }
+
+    @Test
+    public void testLFU() {
+        final BoundedCache<Character, Integer> cache = new BoundedCache<>(3, EvictionPolicy.LFU, 0);
+
+        cache.put(A, 1);
+        cache.put(B, 2);
+        cache.put(C, 3);
+        cache.get(A);
+        cache.get(A);
+        cache.get(C);
+        cache.get(B);
+        cache.get(B);
+
+        cache.put(D, 4);
+
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertNull(cache.get(C));
+        Assert.assertNotNull(cache.get(A));
+        Assert.assertNotNull(cache.get(B));
+        Assert.assertNotNull(cache.get(D));
+    }
+
+    @Test
+    public void testDepth() {
+        final BoundedCache<Character, Integer> cache = new BoundedCache<>(3, EvictionPolicy.DEPTH, 0);
+
+        cache.put(C, 3);
+        cache.put(A, 1);
+        cache.put(B, 2);
+        cache.get(C);
+
+        cache.put(D, 4);
+
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertNull(cache.get(C));
+    }
+
+    @Test
+    public void testPinning() {
+        final BoundedCache<Character, Integer> cache = new BoundedCache<>(2, EvictionPolicy.LRU, 1);
+
+        cache.put(Word.epsilon(), 0);
+        cache.put(Word.fromLetter('a'), 1);
+        cache.pin(A);
+        cache.put(A, 2);
+        cache.put(B, 3);
+        cache.put(C, 4);
+
+        // pinned entries exceed the capacity
+        Assert.assertEquals(cache.size(), 4);
+        Assert.assertNotNull(cache.get(Word.epsilon()));
+        Assert.assertNotNull(cache.get(Word.fromLetter('a')));
+        Assert.assertNotNull(cache.get(A));
+        Assert.assertNull(cache.get(B));
+        Assert.assertNotNull(cache.get(C));
+        Assert.assertEquals(cache.getStatistics().getEvictions(), 1);
+    }
+
+    @Test
+    public void testConflict() {
+        final BoundedCache<Character, Integer> cache = new BoundedCache<>(2, EvictionPolicy.LRU, 0);
+
+        cache.put(A, 1);
+        cache.put(A, 1);
+        Assert.assertThrows(ConflictException.class, () -> cache.put(A, 2));
+        Assert.assertEquals(cache.get(A), Integer.valueOf(1));
+    }
+
+    @Test
+    public void testOracle() {
+        final DFACounterOracle<Character> counter =
+                new DFACounterOracle<>(new DFASimulatorOracle<>(CacheTestUtils.DFA), "counterOracle");
+        final BoundedDFACacheOracle<Character> oracle = DFACaches.createBoundedCache(counter, 2, EvictionPolicy.LRU, 0);
+
+        oracle.answerQuery(A);
+        oracle.answerQuery(B);
+        oracle.answerQuery(A);
+        Assert.assertEquals(counter.getCount(), 2);
+
+        oracle.answerQuery(C);
+        oracle.answerQuery(B);
+        Assert.assertEquals(counter.getCount(), 4);
+
+        final BoundedCacheStatistics statistics = oracle.getStatisticalData();
+        Assert.assertEquals(statistics.getEvictions(), 2);
+        Assert.assertEquals(statistics.getHits(), 1);
+        Assert.assertEquals(statistics.getMisses(), 4);
+
+        final DefaultQuery<Character, Boolean> ce = oracle.createCacheConsistencyTest()
+                                                          .findCounterExample(CacheTestUtils.DFA,
+                                                                              CacheTestUtils.INPUT_ALPHABET);
+        Assert.assertNull(ce);
+    }
+}
@@ -0,0 +1,174 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.cache.dfa.DFACacheOracle;
+import de.learnlib.filter.cache.mealy.MealyCacheOracle;
+import de.learnlib.filter.statistic.oracle.CounterOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.DFASimulatorOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CacheLoadingTest {
+
+    @Test
+    public void testDFA() {
+        final CounterOracle<Character, Boolean> counter =
+                new CounterOracle<>(new DFASimulatorOracle<>(CacheTestUtils.DFA), "counter");
+        final DFACacheOracle<Character> cache =
+                DFACacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET, counter);
+
+        final List<Word<Character>> words = generateWords(4);
+        final List<DefaultQuery<Character, Boolean>> queries = new ArrayList<>(words.size() + 1);
+
+        for (Word<Character> w : words) {
+            queries.add(new DefaultQuery<>(w, CacheTestUtils.DFA.computeOutput(w)));
+        }
+
+        final Word<Character> conflict = words.get(words.size() - 1);
+        queries.add(new DefaultQuery<>(conflict, !CacheTestUtils.DFA.computeOutput(conflict)));
+
+        final CacheLoadResult<Character, Boolean> result = cache.load(queries);
+
+        Assert.assertEquals(result.getNumLoaded(), words.size());
+        Assert.assertEquals(result.getConflicts().size(), 1);
+        Assert.assertEquals(result.getConflicts().get(0).getInput(), conflict);
+        Assert.assertFalse(result.isConsistent());
+
+        for (Word<Character> w : words) {
+            Assert.assertEquals(cache.answerQuery(w), CacheTestUtils.DFA.computeOutput(w));
+        }
+
+        Assert.assertEquals(counter.getCount(), 0);
+        Assert.assertNull(cache.createCacheConsistencyTest()
+                               .findCounterExample(CacheTestUtils.DFA, CacheTestUtils.INPUT_ALPHABET));
+    }
+
+    @Test
+    public void testMealyFromFile() throws IOException {
+        final CounterOracle<Character, Word<Integer>> counter =
+                new CounterOracle<>(new MealySimulatorOracle<>(CacheTestUtils.MEALY), "counter");
+        final MealyCacheOracle<Character, Integer> cache =
+                MealyCacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET, counter);
+
+        final List<Word<Character>> words = generateWords(4);
+        final List<String> lines = new ArrayList<>(words.size() + 1);
+        lines.add("# recorded traces");
+
+        for (Word<Character> w : words) {
+            final StringBuilder sb = new StringBuilder();
+            w.forEach(sb::append);
+            for (Integer o : CacheTestUtils.MEALY.computeOutput(w)) {
+                sb.append(' ').append(o);
+            }
+            lines.add(sb.toString());
+        }
+
+        final Path file = Files.createTempFile("traces", ".txt");
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+
+            final CacheLoadResult<Character, Word<Integer>> result = cache.load(file, CacheLoadingTest::parseTrace);
+
+            Assert.assertEquals(result.getNumLoaded(), words.size());
+            Assert.assertTrue(result.isConsistent());
+        } finally {
+            Files.delete(file);
+        }
+
+        for (Word<Character> w : words) {
+            Assert.assertEquals(cache.answerQuery(w), CacheTestUtils.MEALY.computeOutput(w));
+        }
+
+        Assert.assertEquals(counter.getCount(), 0);
+    }
+
+    @Test
+    public void testMealyPartialOutputs() {
+        final CounterOracle<Character, Word<Integer>> counter =
+                new CounterOracle<>(new MealySimulatorOracle<>(CacheTestUtils.MEALY), "counter");
+        final MealyCacheOracle<Character, Integer> cache =
+                MealyCacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET, counter);
+
+        final Word<Character> prefix = Word.fromString("ab");
+        final Word<Character> suffix = Word.fromString("ca");
+        final Word<Character> input = prefix.concat(suffix);
+        final Word<Integer> output = CacheTestUtils.MEALY.computeOutput(input);
+
+        final List<DefaultQuery<Character, Word<Integer>>> queries = new ArrayList<>();
+        // complete queries may be split into prefix and suffix
+        queries.add(new DefaultQuery<>(prefix, suffix, output));
+        // (learner) queries whose outputs only cover the suffix cannot be represented by the cache
+        final Word<Character> otherPrefix = Word.fromString("cc");
+        final Word<Integer> suffixOutput = CacheTestUtils.MEALY.computeSuffixOutput(otherPrefix, suffix);
+        final DefaultQuery<Character, Word<Integer>> partial = new DefaultQuery<>(otherPrefix, suffix, suffixOutput);
+        queries.add(partial);
+
+        final CacheLoadResult<Character, Word<Integer>> result = cache.load(queries);
+
+        Assert.assertEquals(result.getNumLoaded(), 1);
+        Assert.assertTrue(result.getConflicts().isEmpty());
+        Assert.assertEquals(result.getRejected(), Collections.singletonList(partial));
+        Assert.assertFalse(result.isConsistent());
+
+        Assert.assertEquals(cache.answerQuery(input), output);
+        Assert.assertEquals(counter.getCount(), 0);
+    }
+
+    private static DefaultQuery<Character, Word<Integer>> parseTrace(String line) {
+        if (line.startsWith("#")) {
+            return null;
+        }
+
+        final String[] tokens = line.split(" ", -1);
+        final Word<Character> input = Word.fromString(tokens[0]);
+        final WordBuilder<Integer> output = new WordBuilder<>(tokens.length - 1);
+
+        for (int i = 1; i < tokens.length; i++) {
+            output.append(Integer.parseInt(tokens[i]));
+        }
+
+        return new DefaultQuery<>(input, output.toWord());
+    }
+
+    private static List<Word<Character>> generateWords(int maxLength) {
+        final List<Word<Character>> result = new ArrayList<>();
+        result.add(Word.epsilon());
+
+        for (int i = 0; i < result.size(); i++) {
+            final Word<Character> w = result.get(i);
+            if (w.length() < maxLength) {
+                for (Character c : CacheTestUtils.INPUT_ALPHABET) {
+                    result.add(w.append(c));
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import de.learnlib.api.SUL;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.dfa.CompactDFACacheOracle;
+import de.learnlib.filter.cache.dfa.DFACacheOracle;
+import de.learnlib.filter.cache.dfa.DFACaches;
+import de.learnlib.filter.cache.mealy.MealyCacheOracle;
+import de.learnlib.filter.cache.mealy.SharedSymbolQueryCache;
+import de.learnlib.filter.cache.mealy.SymbolQueryCache;
+import de.learnlib.filter.cache.sul.SULCache;
+import de.learnlib.oracle.membership.SULSymbolQueryOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.DFASimulatorOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CacheStatisticsTest {
+
+    private static final Word<Character> A = Word.fromString("a");
+    private static final Word<Character> AB = Word.fromString("ab");
+
+    @Test
+    public void testDFACache() {
+        final DFACacheOracle<Character> cache =
+                DFACacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                    new DFASimulatorOracle<>(CacheTestUtils.DFA));
+
+        cache.answerQuery(AB);
+        cache.answerQuery(AB);
+        // DFA caches are not prefix-closed
+        cache.answerQuery(A);
+
+        checkStatistics(cache.getStatisticalData(), 1, 0, 2, 2);
+    }
+
+    @Test
+    public void testCompactDFACache() {
+        final CompactDFACacheOracle<Character> cache =
+                DFACaches.createCompactCache(CacheTestUtils.INPUT_ALPHABET,
+                                             new DFASimulatorOracle<>(CacheTestUtils.DFA));
+
+        cache.answerQuery(AB);
+        cache.answerQuery(AB);
+        cache.answerQuery(A);
+
+        checkStatistics(cache.getStatisticalData(), 1, 0, 2, 2);
+    }
+
+    @Test
+    public void testMealyCache() {
+        final MealyCacheOracle<Character, Integer> cache =
+                MealyCacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                      new MealySimulatorOracle<>(CacheTestUtils.MEALY));
+
+        cache.answerQuery(A);
+        cache.answerQuery(AB);
+        cache.answerQuery(AB);
+
+        checkStatistics(cache.getStatisticalData(), 1, 1, 1, 2);
+    }
+
+    @Test
+    public void testSULCache() {
+        final SULCache<Character, Integer> cache =
+                SULCache.createTreeCache(CacheTestUtils.INPUT_ALPHABET, new MealySimulatorSUL<>(CacheTestUtils.MEALY));
+
+        execute(cache, A);
+        execute(cache, AB);
+        execute(cache, AB);
+
+        // forks share their statistics
+        execute(cache.fork(), A);
+
+        checkStatistics(cache.getStatisticalData(), 2, 1, 1, 3);
+    }
+
+    @Test
+    public void testSymbolQueryCache() {
+        final SymbolQueryCache<Character, Integer> cache =
+                new SymbolQueryCache<>(new SULSymbolQueryOracle<>(new MealySimulatorSUL<>(CacheTestUtils.MEALY)),
+                                       CacheTestUtils.INPUT_ALPHABET);
+
+        cache.reset();
+        cache.query('a');
+        cache.reset();
+        cache.query('a');
+        cache.query('b');
+        cache.reset();
+        cache.query('a');
+        cache.query('b');
+        cache.reset();
+
+        checkStatistics(cache.getStatisticalData(), 1, 1, 1, 2);
+    }
+
+    @Test
+    public void testSharedSymbolQueryCache() {
+        final SharedSymbolQueryCache<Character, Integer> cache =
+                new SharedSymbolQueryCache<>(new SULSymbolQueryOracle<>(new MealySimulatorSUL<>(CacheTestUtils.MEALY)),
+                                             CacheTestUtils.INPUT_ALPHABET);
+
+        cache.reset();
+        cache.query('a');
+        cache.reset();
+        cache.query('a');
+        cache.query('b');
+        cache.reset();
+        cache.query('a');
+        cache.query('b');
+        cache.reset();
+
+        // forks share their statistics
+        final SharedSymbolQueryCache<Character, Integer> fork =
+                cache.fork(new SULSymbolQueryOracle<>(new MealySimulatorSUL<>(CacheTestUtils.MEALY)));
+        fork.reset();
+        fork.query('a');
+        fork.reset();
+
+        checkStatistics(cache.getStatisticalData(), 2, 1, 1, 3);
+    }
+
+    private static void execute(SUL<Character, Integer> sul, Word<Character> input) {
+        sul.pre();
+        try {
+            input.forEach(sul::step);
+        } finally {
+            sul.post();
+        }
+    }
+
+    private static void checkStatistics(CacheStatistics statistics,
+                                        long hits,
+                                        long partialHits,
+                                        long misses,
+                                        long savedSymbols) {
+        Assert.assertEquals(statistics.getHits(), hits);
+        Assert.assertEquals(statistics.getPartialHits(), partialHits);
+        Assert.assertEquals(statistics.getMisses(), misses);
+        Assert.assertEquals(statistics.getSavedSymbols(), savedSymbols);
+        Assert.assertEquals(statistics.getHitRate(), (double) hits / (hits + partialHits + misses));
+    }
+}
@@ -0,0 +1,193 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.cache.dfa.DFACacheOracle;
+import de.learnlib.filter.cache.dfa.IncrementalDFACacheConsistencyTest;
+import de.learnlib.filter.cache.mealy.IncrementalMealyCacheConsistencyTest;
+import de.learnlib.filter.cache.mealy.MealyCacheOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.DFASimulatorOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class IncrementalCacheConsistencyTest {
+
+    @DataProvider
+    public static Object[][] parallel() {
+        return new Object[][] {{false}, {true}};
+    }
+
+    @Test(dataProvider = "parallel")
+    public void testDFA(boolean parallel) {
+        final DFACacheOracle<Character> cache =
+                DFACacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                    new DFASimulatorOracle<>(CacheTestUtils.DFA));
+        final EquivalenceOracle<DFA<?, Character>, Character, Boolean> eqOracle =
+                cache.createIncrementalCacheConsistencyTest(parallel);
+
+        checkConsistency(cache, eqOracle, CacheTestUtils.DFA, CacheTestUtils.DFA_INVALID);
+
+        // a test that is created for a non-empty cache needs to fall back to checking the complete cache
+        final EquivalenceOracle<DFA<?, Character>, Character, Boolean> lateOracle =
+                cache.createIncrementalCacheConsistencyTest(parallel);
+        Assert.assertNull(lateOracle.findCounterExample(CacheTestUtils.DFA, CacheTestUtils.INPUT_ALPHABET));
+        Assert.assertNotNull(lateOracle.findCounterExample(CacheTestUtils.DFA_INVALID, CacheTestUtils.INPUT_ALPHABET));
+    }
+
+    @Test(dataProvider = "parallel")
+    public void testMealy(boolean parallel) {
+        final MealyCacheOracle<Character, Integer> cache =
+                MealyCacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                      new MealySimulatorOracle<>(CacheTestUtils.MEALY));
+        final EquivalenceOracle<MealyMachine<?, Character, ?, Integer>, Character, Word<Integer>> eqOracle =
+                cache.createIncrementalCacheConsistencyTest(parallel);
+
+        checkConsistency(cache, eqOracle, CacheTestUtils.MEALY, CacheTestUtils.MEALY_INVALID);
+
+        // words with symbols outside the given inputs are only checked up to the first unknown symbol
+        Assert.assertNull(eqOracle.findCounterExample(CacheTestUtils.MEALY, Collections.singleton('a')));
+    }
+
+    @Test(dataProvider = "parallel")
+    public void testDFAGrowingInputs(boolean parallel) {
+        final DFACacheOracle<Character> cache =
+                DFACacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                    new DFASimulatorOracle<>(CacheTestUtils.DFA));
+        final IncrementalDFACacheConsistencyTest<Character> eqOracle =
+                cache.createIncrementalCacheConsistencyTest(parallel);
+
+        checkGrowingInputs(cache, eqOracle, CacheTestUtils.DFA, CacheTestUtils.DFA_INVALID);
+        eqOracle.close();
+    }
+
+    @Test(dataProvider = "parallel")
+    public void testMealyGrowingInputs(boolean parallel) {
+        final MealyCacheOracle<Character, Integer> cache =
+                MealyCacheOracle.createDAGCacheOracle(CacheTestUtils.INPUT_ALPHABET,
+                                                      new MealySimulatorOracle<>(CacheTestUtils.MEALY));
+        final IncrementalMealyCacheConsistencyTest<Character, Integer> eqOracle =
+                cache.createIncrementalCacheConsistencyTest(parallel);
+
+        checkGrowingInputs(cache, eqOracle, CacheTestUtils.MEALY, CacheTestUtils.MEALY_INVALID);
+        eqOracle.close();
+    }
+
+    @Test
+    public void testJournalCursors() {
+        final CacheJournal<Character> journal = new CacheJournal<>();
+
+        final CacheJournal.Cursor<Character> first = journal.register();
+        Assert.assertTrue(first.isComplete());
+
+        journal.record(Word.fromLetter('a'));
+
+        final CacheJournal.Cursor<Character> second = journal.register();
+        Assert.assertFalse(second.isComplete());
+        Assert.assertEquals(journal.getNumberOfCursors(), 2);
+
+        first.close();
+        first.close();
+        Assert.assertFalse(first.isComplete());
+        Assert.assertEquals(journal.getNumberOfCursors(), 1);
+
+        journal.record(Word.fromLetter('b'));
+        Assert.assertTrue(first.drain().isEmpty());
+        Assert.assertEquals(second.drain(), Collections.singletonList(Word.fromLetter('b')));
+    }
+
+    private static <A extends Output<Character, D>, D> void checkGrowingInputs(MembershipOracle<Character, D> cache,
+                                                                             EquivalenceOracle<A, Character, D> oracle,
+                                                                             A target,
+                                                                             A invalidTarget) {
+
+        final Set<Character> restrictedInputs = Collections.singleton('a');
+        generateWords(3).forEach(cache::answerQuery);
+
+        // words with symbols outside the given inputs are not verified completely
+        Assert.assertNull(oracle.findCounterExample(target, restrictedInputs));
+
+        // same hypothesis, more inputs
+        Assert.assertNull(oracle.findCounterExample(target, CacheTestUtils.INPUT_ALPHABET));
+
+        // changed hypothesis, more inputs
+        Assert.assertNull(oracle.findCounterExample(target, restrictedInputs));
+        final DefaultQuery<Character, D> ce =
+                oracle.findCounterExample(invalidTarget, CacheTestUtils.INPUT_ALPHABET);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getOutput(), target.computeOutput(ce.getInput()));
+        Assert.assertNotEquals(ce.getOutput(), invalidTarget.computeOutput(ce.getInput()));
+    }
+
+    private static <A extends Output<Character, D>, D> void checkConsistency(MembershipOracle<Character, D> cache,
+                                                                           EquivalenceOracle<A, Character, D> eqOracle,
+                                                                           A target,
+                                                                           A invalidTarget) {
+
+        final List<Word<Character>> words = generateWords(3);
+        final List<Word<Character>> shortWords = words.subList(0, words.size() / 2);
+        final List<Word<Character>> longWords = words.subList(words.size() / 2, words.size());
+
+        // empty cache
+        Assert.assertNull(eqOracle.findCounterExample(invalidTarget, CacheTestUtils.INPUT_ALPHABET));
+
+        shortWords.forEach(cache::answerQuery);
+        Assert.assertNull(eqOracle.findCounterExample(target, CacheTestUtils.INPUT_ALPHABET));
+
+        // new contents, same hypothesis
+        longWords.forEach(cache::answerQuery);
+        Assert.assertNull(eqOracle.findCounterExample(target, CacheTestUtils.INPUT_ALPHABET));
+
+        // changed hypothesis, contents have been verified before
+        final DefaultQuery<Character, D> ce =
+                eqOracle.findCounterExample(invalidTarget, CacheTestUtils.INPUT_ALPHABET);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getOutput(), target.computeOutput(ce.getInput()));
+        Assert.assertNotEquals(ce.getOutput(), invalidTarget.computeOutput(ce.getInput()));
+
+        // changed back
+        Assert.assertNull(eqOracle.findCounterExample(target, CacheTestUtils.INPUT_ALPHABET));
+    }
+
+    private static List<Word<Character>> generateWords(int maxLength) {
+        final List<Word<Character>> result = new ArrayList<>();
+        result.add(Word.epsilon());
+
+        for (int i = 0; i < result.size(); i++) {
+            final Word<Character> w = result.get(i);
+            if (w.length() < maxLength) {
+                for (Character c : CacheTestUtils.INPUT_ALPHABET) {
+                    result.add(w.append(c));
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MappedTrieTest {
+
+    private static final int ALPHABET_SIZE = 200;
+
+    private Path file;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".trie");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Random words over a large alphabet hardly share any prefixes. Every edge must be stored as a single node and
+     * must be found again after re-opening the file.
+     */
+    @Test
+    public void testSparseNodes() throws IOException {
+        final Random random = new Random(42);
+        final List<int[]> words = new ArrayList<>();
+        final List<Integer> leaves = new ArrayList<>();
+
+        try (MappedTrie trie = new MappedTrie(file, ALPHABET_SIZE)) {
+            for (int i = 0; i < 1000; i++) {
+                final int[] word = random.ints(10, 0, ALPHABET_SIZE).toArray();
+                int node = trie.getRoot();
+                for (int sym : word) {
+                    node = trie.getOrAddSuccessor(node, sym, sym);
+                }
+                words.add(word);
+                leaves.add(node);
+            }
+
+            Assert.assertEquals(trie.size(), countNodes(words) + 1);
+        }
+
+        try (MappedTrie trie = new MappedTrie(file, ALPHABET_SIZE)) {
+            Assert.assertEquals(trie.size(), countNodes(words) + 1);
+
+            for (int i = 0; i < words.size(); i++) {
+                int node = trie.getRoot();
+                for (int sym : words.get(i)) {
+                    node = trie.getSuccessor(node, sym);
+                    Assert.assertEquals(trie.getValue(node), sym);
+                }
+                Assert.assertEquals(node, leaves.get(i).intValue());
+                Assert.assertEquals(trie.getSuccessor(node, 0), MappedTrie.NO_NODE);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteOnceValues() throws IOException {
+        try (MappedTrie trie = new MappedTrie(file, ALPHABET_SIZE)) {
+            final int node = trie.getOrAddSuccessor(trie.getRoot(), 42, MappedTrie.NO_VALUE);
+            Assert.assertEquals(trie.getValue(node), MappedTrie.NO_VALUE);
+
+            trie.setValue(node, 7);
+            Assert.assertEquals(trie.getValue(node), 7);
+            Assert.assertThrows(IllegalStateException.class, () -> trie.setValue(node, 8));
+
+            // existing nodes keep their value
+            Assert.assertEquals(trie.getOrAddSuccessor(trie.getRoot(), 42, 9), node);
+            Assert.assertEquals(trie.getValue(node), 7);
+        }
+
+        Assert.assertThrows(IOException.class, () -> new MappedTrie(file, ALPHABET_SIZE + 1));
+    }
+
+    private static int countNodes(List<int[]> words) {
+        final Set<String> prefixes = new HashSet<>();
+
+        for (int[] word : words) {
+            final StringBuilder sb = new StringBuilder();
+            for (int sym : word) {
+                sb.append(sym).append(',');
+                prefixes.add(sb.toString());
+            }
+        }
+
+        return prefixes.size();
+    }
+}
@@ -17,11 +17,12 @@ package de.learnlib.filter.cache;
 
 import java.util.Collection;
 
-import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.query.Query;
 import de.learnlib.filter.cache.LearningCache.MealyLearningCache;
 import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.sul.ConcurrentSULCache;
+import de.learnlib.filter.cache.sul.PersistentSULCache;
 import de.learnlib.filter.cache.sul.SULCache;
 import de.learnlib.filter.cache.sul.StateLocalInputSULCache;
 import de.learnlib.oracle.membership.SULOracle;
@@ -29,7 +30,7 @@ import de.learnlib.oracle.membership.StateLocalInputSULOracle;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.words.Word;
 
-public class SULLearningCacheOracle<I, O, C extends MealyLearningCache<I, O> & Resumable<?>>
+public class SULLearningCacheOracle<I, O, C extends MealyLearningCache<I, O>>
         implements MealyLearningCacheOracle<I, O> {
 
     private final C cache;
@@ -62,6 +63,16 @@ public class SULLearningCacheOracle<I, O, C extends MealyLearningCache<I, O> & R
         return new SULLearningCacheOracle<>(cache, new SULOracle<>(cache));
     }
 
+    public static <I, O> SULLearningCacheOracle<I, O, ConcurrentSULCache<I, O>> fromConcurrentSULCache(
+            ConcurrentSULCache<I, O> cache) {
+        return new SULLearningCacheOracle<>(cache, new SULOracle<>(cache));
+    }
+
+    public static <I, O> SULLearningCacheOracle<I, O, PersistentSULCache<I, O>> fromPersistentSULCache(
+            PersistentSULCache<I, O> cache) {
+        return new SULLearningCacheOracle<>(cache, new SULOracle<>(cache));
+    }
+
     public static <I, O> SULLearningCacheOracle<I, O, StateLocalInputSULCache<I, O>> fromSLISULCache(
             StateLocalInputSULCache<I, O> cache,
             O undefinedInput) {
@@ -0,0 +1,176 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.cache.CacheTestUtils;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that concurrent (and duplicate) cache misses are coalesced, i.e., that each distinct word reaches the delegate
+ * oracle exactly once.
+ */
+public class DFACacheCoalescingTest {
+
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_LENGTH = 3;
+
+    @DataProvider(name = "caches")
+    public static Object[][] caches() {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+        return new Object[][] {{(CacheFactory) o -> DFACaches.createTreeCache(alphabet, o)},
+                               {(CacheFactory) o -> DFACaches.createDAGCache(alphabet, o)},
+                               {(CacheFactory) DFACaches::createHashCache},
+                               {(CacheFactory) o -> DFACaches.createConcurrentTreeCache(alphabet, o)},
+                               {(CacheFactory) o -> DFACaches.createCompactCache(alphabet, o)}};
+    }
+
+    @Test(dataProvider = "caches")
+    public void testDuplicatesInBatch(CacheFactory cacheFactory) {
+        final CountingOracle delegate = new CountingOracle(0);
+        final MembershipOracle<Character, Boolean> cache = cacheFactory.apply(delegate);
+
+        final List<Word<Character>> words = generateWords();
+        final List<DefaultQuery<Character, Boolean>> queries = new ArrayList<>(2 * words.size());
+        for (Word<Character> w : words) {
+            queries.add(new DefaultQuery<>(w));
+            queries.add(new DefaultQuery<>(w));
+        }
+
+        cache.processQueries(queries);
+
+        checkAnswers(queries);
+        checkCounts(delegate, words);
+    }
+
+    @Test(dataProvider = "caches", timeOut = 30000)
+    public void testConcurrentMisses(CacheFactory cacheFactory) throws Exception {
+        final CountingOracle delegate = new CountingOracle(1);
+        final MembershipOracle<Character, Boolean> cache = cacheFactory.apply(delegate);
+
+        final List<Word<Character>> words = generateWords();
+        final CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+
+        try {
+            final List<Future<List<DefaultQuery<Character, Boolean>>>> futures = new ArrayList<>(NUM_THREADS);
+
+            for (int i = 0; i < NUM_THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    final List<DefaultQuery<Character, Boolean>> queries = new ArrayList<>(words.size());
+                    for (Word<Character> w : words) {
+                        queries.add(new DefaultQuery<>(w));
+                    }
+                    barrier.await();
+                    cache.processQueries(queries);
+                    return queries;
+                }));
+            }
+
+            for (Future<List<DefaultQuery<Character, Boolean>>> f : futures) {
+                checkAnswers(f.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        checkCounts(delegate, words);
+    }
+
+    private static List<Word<Character>> generateWords() {
+        final List<Word<Character>> result = new ArrayList<>();
+        result.add(Word.epsilon());
+
+        int begin = 0;
+        for (int len = 1; len <= MAX_LENGTH; len++) {
+            final int end = result.size();
+            for (int i = begin; i < end; i++) {
+                for (Character c : CacheTestUtils.INPUT_ALPHABET) {
+                    result.add(result.get(i).append(c));
+                }
+            }
+            begin = end;
+        }
+
+        return result;
+    }
+
+    private static void checkAnswers(Collection<DefaultQuery<Character, Boolean>> queries) {
+        for (DefaultQuery<Character, Boolean> q : queries) {
+            Assert.assertEquals(q.getOutput(), CacheTestUtils.DFA.computeOutput(q.getInput()));
+        }
+    }
+
+    private static void checkCounts(CountingOracle delegate, List<Word<Character>> words) {
+        Assert.assertEquals(delegate.counts.size(), words.size());
+        for (AtomicInteger count : delegate.counts.values()) {
+            Assert.assertEquals(count.get(), 1);
+        }
+    }
+
+    @FunctionalInterface
+    interface CacheFactory extends Function<MembershipOracle<Character, Boolean>, MembershipOracle<Character, Boolean>> {}
+
+    /**
+     * A (slow) oracle that counts how often each word has been queried.
+     */
+    private static final class CountingOracle implements MembershipOracle<Character, Boolean> {
+
+        private final Map<Word<Character>, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final DFA<?, Character> dfa = CacheTestUtils.DFA;
+        private final long delay;
+
+        CountingOracle(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void processQueries(Collection<? extends Query<Character, Boolean>> queries) {
+            for (Query<Character, Boolean> q : queries) {
+                counts.computeIfAbsent(q.getInput(), k -> new AtomicInteger()).incrementAndGet();
+                q.answer(dfa.computeOutput(q.getInput()));
+            }
+
+            if (delay > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
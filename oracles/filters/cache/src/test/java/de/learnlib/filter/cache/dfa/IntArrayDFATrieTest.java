@@ -0,0 +1,206 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.dfa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IntArrayDFATrieTest {
+
+    private static final int BYTES_PER_NODE = 3 * Integer.BYTES;
+
+    @Test
+    public void testLookup() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 9);
+        final IntArrayDFATrie<Integer> trie = new IntArrayDFATrie<>(alphabet);
+        final List<Word<Integer>> words = randomWords(new Random(42), alphabet, 500, 10);
+
+        for (Word<Integer> w : words) {
+            trie.insert(w, w.hashCode() % 2 == 0);
+        }
+
+        for (Word<Integer> w : words) {
+            Assert.assertEquals(trie.lookup(w), w.hashCode() % 2 == 0 ? Acceptance.TRUE : Acceptance.FALSE);
+            if (!w.isEmpty()) {
+                final Word<Integer> prefix = w.prefix(-1);
+                if (!words.contains(prefix)) {
+                    Assert.assertEquals(trie.lookup(prefix), Acceptance.DONT_KNOW);
+                }
+            }
+        }
+
+        final Word<Integer> word = words.get(0);
+        Assert.assertThrows(ConflictException.class, () -> trie.insert(word, word.hashCode() % 2 != 0));
+
+        final IntArrayDFATrie<Integer> copy = new IntArrayDFATrie<>(alphabet);
+        copy.setContents(trie.size(), trie.getFirstChildren(), trie.getNextSiblings(), trie.getLabels());
+
+        for (Word<Integer> w : words) {
+            Assert.assertEquals(copy.lookup(w), trie.lookup(w));
+        }
+
+        final IntArrayDFATrie<Integer> smaller = new IntArrayDFATrie<>(Alphabets.integers(0, 1));
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> smaller.setContents(trie.size(),
+                                                      trie.getFirstChildren(),
+                                                      trie.getNextSiblings(),
+                                                      trie.getLabels()));
+    }
+
+    /**
+     * Random words over a large alphabet hardly share any prefixes. The memory consumption of the trie must still only
+     * depend on the number of its nodes (i.e. its edges), but not on the size of the alphabet.
+     */
+    @Test
+    public void testMemoryScalesWithEdges() {
+        final Random random = new Random(42);
+        final int numWords = 1000;
+        final int length = 30;
+
+        final Alphabet<Integer> small = Alphabets.integers(0, 1);
+        final Alphabet<Integer> large = Alphabets.integers(0, 199);
+
+        final IntArrayDFATrie<Integer> smallTrie = new IntArrayDFATrie<>(small);
+        final IntArrayDFATrie<Integer> largeTrie = new IntArrayDFATrie<>(large);
+
+        for (Word<Integer> w : randomWords(random, small, numWords, length)) {
+            smallTrie.insert(w, true);
+        }
+        for (Word<Integer> w : randomWords(random, large, numWords, length)) {
+            largeTrie.insert(w, true);
+        }
+
+        // low sharing: (almost) every symbol of every word requires its own node
+        Assert.assertTrue(largeTrie.size() > numWords * (length - 2));
+
+        assertBytesPerNode(smallTrie, small.size());
+        assertBytesPerNode(largeTrie, large.size());
+
+        // a dense successor table would require 4 * |alphabet| bytes per node
+        final long dense = (long) largeTrie.size() * Integer.BYTES * large.size();
+        Assert.assertTrue(largeTrie.getAllocatedBytes() * 20 < dense);
+    }
+
+    /**
+     * Prefix-closed sets of words (such as the membership queries of most learning algorithms) only require a single
+     * node per cached word, which is less than the objects (word, backing array, map entry) that a hash-based cache
+     * needs to allocate per entry.
+     */
+    @Test
+    public void testMemoryOfPrefixClosedWords() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final IntArrayDFATrie<Integer> trie = new IntArrayDFATrie<>(alphabet);
+
+        final List<Word<Integer>> words = new ArrayList<>();
+        words.add(Word.epsilon());
+
+        for (int i = 0; i < words.size(); i++) {
+            final Word<Integer> w = words.get(i);
+            if (w.length() < 6) {
+                for (Integer sym : alphabet) {
+                    words.add(w.append(sym));
+                }
+            }
+        }
+
+        for (Word<Integer> w : words) {
+            trie.insert(w, w.length() % 2 == 0);
+        }
+
+        Assert.assertEquals(trie.size(), words.size());
+        assertBytesPerNode(trie, alphabet.size());
+        // even the smallest word object and hash map entry require more than this on common JVMs
+        Assert.assertTrue(trie.getAllocatedBytes() / words.size() <= 2 * BYTES_PER_NODE);
+    }
+
+    /**
+     * Nodes with many children are indexed by dense successor tables. Lookups and (re-) insertions must behave the
+     * same as for sparse nodes and the tables must be re-created when restoring the contents of a trie.
+     */
+    @Test
+    public void testDenseNodes() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 199);
+        final IntArrayDFATrie<Integer> trie = new IntArrayDFATrie<>(alphabet);
+        final List<Word<Integer>> words = new ArrayList<>();
+
+        // the root and the node of the first symbol become dense, all other nodes stay sparse
+        for (int i = alphabet.size() - 1; i >= 0; i--) {
+            words.add(Word.fromLetter(i));
+            words.add(Word.fromSymbols(0, i));
+        }
+        for (int i = 0; i < IntArrayDFATrie.DENSE_THRESHOLD; i++) {
+            words.add(Word.fromSymbols(1, i));
+        }
+
+        for (Word<Integer> w : words) {
+            trie.insert(w, w.hashCode() % 2 == 0);
+        }
+
+        Assert.assertEquals(trie.getNumDenseNodes(), 2);
+        Assert.assertEquals(trie.lookup(Word.fromSymbols(1, IntArrayDFATrie.DENSE_THRESHOLD)), Acceptance.DONT_KNOW);
+        Assert.assertEquals(trie.lookup(Word.fromSymbols(0, 0, 0)), Acceptance.DONT_KNOW);
+
+        final Word<Integer> word = Word.fromSymbols(0, 42);
+        Assert.assertThrows(ConflictException.class, () -> trie.insert(word, word.hashCode() % 2 != 0));
+
+        final IntArrayDFATrie<Integer> copy = new IntArrayDFATrie<>(alphabet);
+        copy.setContents(trie.size(), trie.getFirstChildren(), trie.getNextSiblings(), trie.getLabels());
+
+        Assert.assertEquals(copy.getNumDenseNodes(), 2);
+        Assert.assertEquals(copy.size(), words.size() + 1);
+
+        for (Word<Integer> w : words) {
+            final Acceptance expected = w.hashCode() % 2 == 0 ? Acceptance.TRUE : Acceptance.FALSE;
+            Assert.assertEquals(trie.lookup(w), expected);
+            Assert.assertEquals(copy.lookup(w), expected);
+        }
+
+        assertBytesPerNode(trie, alphabet.size());
+        assertBytesPerNode(copy, alphabet.size());
+    }
+
+    private static void assertBytesPerNode(IntArrayDFATrie<?> trie, int alphabetSize) {
+        // arrays grow by a factor of 1.5
+        final long nodeBytes = (long) (1.5 * trie.size() + 1) * BYTES_PER_NODE;
+        final long denseBytes = (long) trie.getNumDenseNodes() * (alphabetSize + 1) * Integer.BYTES;
+        Assert.assertTrue(trie.getAllocatedBytes() <= nodeBytes + denseBytes,
+                          "Allocated " + trie.getAllocatedBytes() + " bytes for " + trie.size() + " nodes");
+    }
+
+    private static List<Word<Integer>> randomWords(Random random, Alphabet<Integer> alphabet, int num, int length) {
+        final List<Word<Integer>> result = new ArrayList<>(num);
+
+        for (int i = 0; i < num; i++) {
+            final WordBuilder<Integer> wb = new WordBuilder<>(length);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            result.add(wb.toWord());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.cache.CacheTestUtils;
+import de.learnlib.filter.cache.EvictionPolicy;
+import de.learnlib.filter.statistic.oracle.MealyCounterOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BoundedMealyTreeTest {
+
+    @Test
+    public void testPrefixesAreCached() {
+        final BoundedMealyTree<Character, Integer> tree = new BoundedMealyTree<>(10, EvictionPolicy.LRU, 0);
+
+        tree.insert(Word.fromString("abc"), Word.fromSymbols(1, 2, 3));
+        tree.insert(Word.fromString("abd"), Word.fromSymbols(1, 2, 4));
+
+        // shared prefixes are stored only once
+        Assert.assertEquals(tree.size(), 4);
+
+        final WordBuilder<Integer> hit = new WordBuilder<>();
+        Assert.assertTrue(tree.lookup(Word.fromString("ab"), hit));
+        Assert.assertEquals(hit.toWord(), Word.fromSymbols(1, 2));
+
+        final WordBuilder<Integer> miss = new WordBuilder<>();
+        Assert.assertFalse(tree.lookup(Word.fromString("abe"), miss));
+        Assert.assertEquals(miss.toWord(), Word.fromSymbols(1, 2));
+    }
+
+    @Test
+    public void testLeafEviction() {
+        final BoundedMealyTree<Character, Integer> tree = new BoundedMealyTree<>(3, EvictionPolicy.LRU, 0);
+
+        tree.insert(Word.fromString("aa"), Word.fromSymbols(1, 1));
+        tree.insert(Word.fromString("b"), Word.fromSymbols(2));
+        tree.insert(Word.fromString("c"), Word.fromSymbols(3));
+
+        // only the leaf 'aa' is evicted, its prefix 'a' remains cached
+        Assert.assertEquals(tree.size(), 3);
+        Assert.assertFalse(tree.lookup(Word.fromString("aa"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("a"), new WordBuilder<>()));
+
+        tree.insert(Word.fromString("d"), Word.fromSymbols(4));
+
+        // 'a' has become a leaf itself and 'b' is the least recently used one
+        Assert.assertEquals(tree.size(), 3);
+        Assert.assertFalse(tree.lookup(Word.fromString("b"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("a"), new WordBuilder<>()));
+        Assert.assertEquals(tree.getStatistics().getEvictions(), 2);
+    }
+
+    @Test
+    public void testDepth() {
+        final BoundedMealyTree<Character, Integer> tree = new BoundedMealyTree<>(6, EvictionPolicy.DEPTH, 0);
+
+        tree.insert(Word.fromString("bbb"), Word.fromSymbols(2, 2, 2));
+        tree.insert(Word.fromString("aa"), Word.fromSymbols(1, 1));
+        tree.insert(Word.fromString("ab"), Word.fromSymbols(1, 2));
+        tree.lookup(Word.fromString("bbb"), new WordBuilder<>());
+
+        tree.insert(Word.fromString("c"), Word.fromSymbols(3));
+
+        // the unshared branch 'bbb' is evicted first, even though it has been accessed most recently
+        Assert.assertEquals(tree.size(), 6);
+        Assert.assertFalse(tree.lookup(Word.fromString("bbb"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("bb"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("aa"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("ab"), new WordBuilder<>()));
+    }
+
+    @Test
+    public void testPinning() {
+        final BoundedMealyTree<Character, Integer> tree = new BoundedMealyTree<>(2, EvictionPolicy.LRU, 1);
+
+        tree.pin(Word.fromString("bb"));
+        tree.insert(Word.fromString("aa"), Word.fromSymbols(1, 1));
+        tree.insert(Word.fromString("bb"), Word.fromSymbols(2, 2));
+        tree.insert(Word.fromString("cc"), Word.fromSymbols(3, 3));
+
+        // pinned nodes exceed the capacity
+        Assert.assertEquals(tree.size(), 4);
+        Assert.assertTrue(tree.lookup(Word.fromString("a"), new WordBuilder<>()));
+        Assert.assertFalse(tree.lookup(Word.fromString("aa"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("bb"), new WordBuilder<>()));
+        Assert.assertTrue(tree.lookup(Word.fromString("cc"), new WordBuilder<>()));
+    }
+
+    @Test
+    public void testConflict() {
+        final BoundedMealyTree<Character, Integer> tree = new BoundedMealyTree<>(10, EvictionPolicy.LRU, 0);
+
+        tree.insert(Word.fromString("ab"), Word.fromSymbols(1, 2));
+        Assert.assertThrows(ConflictException.class,
+                            () -> tree.insert(Word.fromString("abc"), Word.fromSymbols(1, 3, 3)));
+
+        // a rejected insertion does not modify the tree
+        Assert.assertEquals(tree.size(), 2);
+    }
+
+    @Test
+    public void testOracle() {
+        final MealyCounterOracle<Character, Integer> counter =
+                new MealyCounterOracle<>(new MealySimulatorOracle<>(CacheTestUtils.MEALY), "counterOracle");
+        final BoundedMealyCacheOracle<Character, Integer> oracle =
+                MealyCaches.createBoundedCache(CacheTestUtils.INPUT_ALPHABET, counter, 10, EvictionPolicy.LRU, 0);
+
+        final Word<Character> word = Word.fromString("abab");
+        oracle.answerQuery(word);
+        oracle.answerQuery(word.prefix(2));
+        oracle.answerQuery(word);
+        Assert.assertEquals(counter.getCount(), 1);
+
+        final DefaultQuery<Character, Word<Integer>> ce = oracle.createCacheConsistencyTest()
+                                                                .findCounterExample(CacheTestUtils.MEALY,
+                                                                                    CacheTestUtils.INPUT_ALPHABET);
+        Assert.assertNull(ce);
+    }
+}
@@ -0,0 +1,97 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.learnlib.filter.cache.AbstractCacheTest;
+import de.learnlib.filter.cache.CacheTestUtils;
+import de.learnlib.filter.statistic.oracle.MealyCounterOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.testng.annotations.AfterClass;
+
+public class MealyPersistentCacheTest
+        extends AbstractCacheTest<PersistentMealyCacheOracle<Character, Integer>, MealyMachine<?, Character, ?, Integer>, Character, Word<Integer>> {
+
+    private final MealyCounterOracle<Character, Integer> counter;
+    private final Path dir;
+    private PersistentMealyCacheOracle<Character, Integer> current;
+
+    public MealyPersistentCacheTest() throws IOException {
+        counter = new MealyCounterOracle<>(new MealySimulatorOracle<>(CacheTestUtils.MEALY), "counterOracle");
+        dir = Files.createTempDirectory("mealy-cache");
+    }
+
+    @AfterClass
+    public void cleanup() throws IOException {
+        current.close();
+        Files.deleteIfExists(dir.resolve("cache.trie"));
+        Files.deleteIfExists(dir.resolve("cache.trie.outputs"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Override
+    protected MealyMachine<?, Character, ?, Integer> getTargetModel() {
+        return CacheTestUtils.MEALY;
+    }
+
+    @Override
+    protected MealyMachine<?, Character, ?, Integer> getInvalidTargetModel() {
+        return CacheTestUtils.MEALY_INVALID;
+    }
+
+    @Override
+    protected PersistentMealyCacheOracle<Character, Integer> getCachedOracle() {
+        try {
+            current = MealyCaches.createPersistentCache(getAlphabet(), dir.resolve("cache.trie"), counter);
+            return current;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected PersistentMealyCacheOracle<Character, Integer> getResumedOracle(PersistentMealyCacheOracle<Character, Integer> original) {
+        try {
+            // simulate a restart by re-opening the cache file
+            original.close();
+            return getCachedOracle();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected long getNumberOfPosedQueries() {
+        return counter.getCount();
+    }
+
+    @Override
+    protected boolean supportsPrefixes() {
+        return true;
+    }
+
+    @Override
+    protected Alphabet<Character> getAlphabet() {
+        return CacheTestUtils.INPUT_ALPHABET;
+    }
+}
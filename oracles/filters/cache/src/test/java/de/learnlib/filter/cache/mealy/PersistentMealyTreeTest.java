@@ -0,0 +1,80 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PersistentMealyTreeTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+
+    private Path file;
+    private Path outputsFile;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mealy", ".trie");
+        outputsFile = file.resolveSibling(file.getFileName() + ".outputs");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(outputsFile);
+    }
+
+    /**
+     * A rejected (conflicting) insertion must neither persist its output symbols nor re-write the output file.
+     */
+    @Test
+    public void testConflictDoesNotPersistOutputs() throws IOException {
+        try (PersistentMealyTree<Character, String> tree = new PersistentMealyTree<>(ALPHABET, file)) {
+            tree.insert(Word.fromSymbols('a', 'b'), Word.fromSymbols("x", "y"));
+        }
+
+        final long lastModified = Files.getLastModifiedTime(outputsFile).toMillis();
+        final long size = Files.size(outputsFile);
+
+        try (PersistentMealyTree<Character, String> tree = new PersistentMealyTree<>(ALPHABET, file)) {
+            Assert.assertThrows(ConflictException.class,
+                                () -> tree.insert(Word.fromSymbols('a', 'b'), Word.fromSymbols("x", "z")));
+            Assert.assertThrows(ConflictException.class,
+                                () -> tree.insert(Word.fromSymbols('a'), Word.fromSymbols("w")));
+
+            // extending the cached word with a known output does not touch the output file either
+            tree.insert(Word.fromSymbols('a', 'b', 'c'), Word.fromSymbols("x", "y", "x"));
+
+            final WordBuilder<String> output = new WordBuilder<>();
+            Assert.assertTrue(tree.lookup(Word.fromSymbols('a', 'b', 'c'), output));
+            Assert.assertEquals(output.toWord(), Word.fromSymbols("x", "y", "x"));
+        }
+
+        Assert.assertEquals(Files.getLastModifiedTime(outputsFile).toMillis(), lastModified);
+        Assert.assertEquals(Files.size(outputsFile), size);
+    }
+}
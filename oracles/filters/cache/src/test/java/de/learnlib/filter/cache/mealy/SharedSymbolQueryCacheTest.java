@@ -0,0 +1,180 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.AbstractCacheTest;
+import de.learnlib.filter.cache.CacheTestUtils;
+import de.learnlib.filter.statistic.oracle.CounterSymbolQueryOracle;
+import de.learnlib.oracle.membership.SULSymbolQueryOracle;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SharedSymbolQueryCacheTest
+        extends AbstractCacheTest<SharedSymbolQueryCache<Character, Integer>, MealyMachine<?, Character, ?, Integer>, Character, Word<Integer>> {
+
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_LENGTH = 5;
+
+    private final CounterSymbolQueryOracle<Character, Integer> counter;
+
+    public SharedSymbolQueryCacheTest() {
+        counter = createCounter();
+    }
+
+    @Override
+    protected Alphabet<Character> getAlphabet() {
+        return CacheTestUtils.INPUT_ALPHABET;
+    }
+
+    @Override
+    protected MealyMachine<?, Character, ?, Integer> getTargetModel() {
+        return CacheTestUtils.MEALY;
+    }
+
+    @Override
+    protected MealyMachine<?, Character, ?, Integer> getInvalidTargetModel() {
+        return CacheTestUtils.MEALY_INVALID;
+    }
+
+    @Override
+    protected SharedSymbolQueryCache<Character, Integer> getCachedOracle() {
+        return new SharedSymbolQueryCache<>(counter, getAlphabet());
+    }
+
+    @Override
+    protected SharedSymbolQueryCache<Character, Integer> getResumedOracle(SharedSymbolQueryCache<Character, Integer> original) {
+        final SharedSymbolQueryCache<Character, Integer> fresh = new SharedSymbolQueryCache<>(counter, getAlphabet());
+        serializeResumable(original, fresh);
+        return fresh;
+    }
+
+    @Override
+    protected long getNumberOfPosedQueries() {
+        return counter.getResetCount();
+    }
+
+    @Override
+    protected boolean supportsPrefixes() {
+        return true;
+    }
+
+    @Test
+    public void testSharedContents() {
+        final CounterSymbolQueryOracle<Character, Integer> counter1 = createCounter();
+        final CounterSymbolQueryOracle<Character, Integer> counter2 = createCounter();
+
+        final SharedSymbolQueryCache<Character, Integer> cache1 = new SharedSymbolQueryCache<>(counter1, getAlphabet());
+        final SharedSymbolQueryCache<Character, Integer> cache2 = cache1.fork(counter2);
+
+        final Word<Character> word = Word.fromCharSequence("abcab");
+        final Word<Integer> expected = CacheTestUtils.MEALY.computeOutput(word);
+
+        Assert.assertEquals(cache1.answerQuery(word), expected);
+        Assert.assertEquals(counter1.getResetCount(), 1);
+
+        // the second worker should be able to answer the query (and its prefixes) from the shared contents
+        Assert.assertEquals(cache2.answerQuery(word), expected);
+        Assert.assertEquals(cache2.answerQuery(word.prefix(3)), expected.prefix(3));
+        Assert.assertEquals(counter2.getResetCount(), 0);
+        Assert.assertEquals(counter2.getSymbolCount(), 0);
+
+        // extensions are only delegated to the respective worker's oracle
+        final Word<Character> extension = word.append('c');
+        Assert.assertEquals(cache2.answerQuery(extension), CacheTestUtils.MEALY.computeOutput(extension));
+        Assert.assertEquals(counter1.getResetCount(), 1);
+        Assert.assertEquals(counter2.getResetCount(), 1);
+
+        Assert.assertEquals(cache1.answerQuery(extension), CacheTestUtils.MEALY.computeOutput(extension));
+        Assert.assertEquals(counter1.getResetCount(), 1);
+    }
+
+    /**
+     * Lets multiple forks concurrently query overlapping traces (in different orders), so that the forks frequently
+     * extend (and answer from) the traces that other forks have inserted in the meantime.
+     */
+    @Test
+    public void testConcurrentForks() throws InterruptedException, ExecutionException {
+        final SharedSymbolQueryCache<Character, Integer> cache =
+                new SharedSymbolQueryCache<>(createCounter(), getAlphabet());
+
+        final List<Word<Character>> words = new ArrayList<>();
+        collectWords(Word.epsilon(), words);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        final List<Future<?>> futures = new ArrayList<>(NUM_THREADS);
+
+        try {
+            for (int i = 0; i < NUM_THREADS; i++) {
+                final SharedSymbolQueryCache<Character, Integer> fork = cache.fork(createCounter());
+                final List<Word<Character>> shuffled = new ArrayList<>(words);
+                Collections.shuffle(shuffled, new Random(i));
+
+                futures.add(executor.submit(() -> {
+                    for (Word<Character> w : shuffled) {
+                        Assert.assertEquals(fork.answerQuery(w), CacheTestUtils.MEALY.computeOutput(w));
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                // re-throws any assertion error (or conflict) of the workers
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertNull(cache.createCacheConsistencyTest()
+                               .findCounterExample(CacheTestUtils.MEALY, CacheTestUtils.INPUT_ALPHABET));
+
+        // all traces are available to a new fork without querying its delegate
+        final CounterSymbolQueryOracle<Character, Integer> freshCounter = createCounter();
+        final SharedSymbolQueryCache<Character, Integer> fresh = cache.fork(freshCounter);
+
+        for (Word<Character> w : words) {
+            Assert.assertEquals(fresh.answerQuery(w), CacheTestUtils.MEALY.computeOutput(w));
+        }
+
+        Assert.assertEquals(freshCounter.getResetCount(), 0);
+        Assert.assertEquals(freshCounter.getSymbolCount(), 0);
+    }
+
+    private void collectWords(Word<Character> prefix, List<Word<Character>> words) {
+        words.add(prefix);
+        if (prefix.length() < MAX_LENGTH) {
+            for (Character i : getAlphabet()) {
+                collectWords(prefix.append(i), words);
+            }
+        }
+    }
+
+    private static CounterSymbolQueryOracle<Character, Integer> createCounter() {
+        return new CounterSymbolQueryOracle<>(new SULSymbolQueryOracle<>(new MealySimulatorSUL<>(CacheTestUtils.MEALY)));
+    }
+}
@@ -0,0 +1,104 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.sul;
+
+import de.learnlib.api.SUL;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.CacheTestUtils;
+import de.learnlib.oracle.membership.SULOracle;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that cache misses are forwarded to the delegate via a single {@link SUL#stepAll(Word)} call.
+ */
+public class SULCacheBatchingTest {
+
+    private static final Word<Character> PREFIX = Word.fromString("abc");
+    private static final Word<Character> WORD = Word.fromString("abcab");
+
+    @Test
+    public void testStepAll() {
+        final CallCountingSUL delegate = new CallCountingSUL();
+        final SULCache<Character, Integer> cache = SULCaches.createTreeCache(CacheTestUtils.INPUT_ALPHABET, delegate);
+        final SULOracle<Character, Integer> oracle = new SULOracle<>(cache);
+
+        Assert.assertEquals(oracle.answerQuery(PREFIX), CacheTestUtils.MEALY.computeOutput(PREFIX));
+        Assert.assertEquals(delegate.stepAllCalls, 1);
+
+        // the cached prefix is replayed together with the new suffix
+        Assert.assertEquals(oracle.answerQuery(WORD), CacheTestUtils.MEALY.computeOutput(WORD));
+        Assert.assertEquals(delegate.stepAllCalls, 2);
+        Assert.assertEquals(delegate.stepCalls, 0);
+
+        // fully cached
+        Assert.assertEquals(oracle.answerQuery(WORD.prefix(4)), CacheTestUtils.MEALY.computeOutput(WORD.prefix(4)));
+        Assert.assertEquals(delegate.stepAllCalls, 2);
+        Assert.assertEquals(delegate.stepCalls, 0);
+    }
+
+    @Test
+    public void testStepwiseReplay() {
+        final CallCountingSUL delegate = new CallCountingSUL();
+        final SULCache<Character, Integer> cache = SULCaches.createTreeCache(CacheTestUtils.INPUT_ALPHABET, delegate);
+        final Word<Integer> expected = CacheTestUtils.MEALY.computeOutput(WORD);
+
+        cache.pre();
+        cache.stepAll(PREFIX);
+        cache.post();
+
+        cache.pre();
+        for (int i = 0; i < WORD.length(); i++) {
+            Assert.assertEquals(cache.step(WORD.getSymbol(i)), expected.getSymbol(i));
+        }
+        cache.post();
+
+        // one call for the first query, one call replaying the cached prefix (plus the first new input), and a single
+        // step for the remaining input
+        Assert.assertEquals(delegate.stepAllCalls, 2);
+        Assert.assertEquals(delegate.stepCalls, 1);
+    }
+
+    private static final class CallCountingSUL implements SUL<Character, Integer> {
+
+        private final SUL<Character, Integer> sul = new MealySimulatorSUL<>(CacheTestUtils.MEALY);
+        private int stepCalls;
+        private int stepAllCalls;
+
+        @Override
+        public void pre() {
+            sul.pre();
+        }
+
+        @Override
+        public void post() {
+            sul.post();
+        }
+
+        @Override
+        public Integer step(Character in) {
+            stepCalls++;
+            return sul.step(in);
+        }
+
+        @Override
+        public Word<Integer> stepAll(Word<Character> in) {
+            stepAllCalls++;
+            return sul.stepAll(in);
+        }
+    }
+}
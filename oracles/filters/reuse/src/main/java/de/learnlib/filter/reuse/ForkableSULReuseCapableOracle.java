@@ -0,0 +1,139 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse;
+
+import de.learnlib.api.ObservableSUL;
+import de.learnlib.api.SUL;
+import de.learnlib.filter.reuse.ReuseOracle.ReuseOracleBuilder;
+import de.learnlib.filter.reuse.tree.SystemStateHandler;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * A {@link ReuseCapableOracle} that answers queries on forks of a (forkable) {@link SUL}, e.g. a simulator. The system
+ * states of the {@link ReuseOracle} are the forks themselves: a query that does not reuse a system state is answered on
+ * a new fork which is kept <i>open</i> (i.e. {@link SUL#post()} is not called) afterwards, so that subsequent queries
+ * can continue on it without resetting.
+ * <p>
+ * As a fork is modified when a query continues on it, a system state must be used at most once. Hence, the {@link
+ * ReuseOracle} needs to invalidate system states upon reuse (which is the default, see {@link
+ * ReuseOracleBuilder#withEnabledSystemstateInvalidation(boolean)}). Since every fork stays open as long as it is stored
+ * in the reuse tree, the sessions of forks that are removed from the tree have to be terminated by the {@link
+ * SystemStateHandler} provided by {@link #getSystemStateHandler()}. Otherwise (e.g. with the no-op handler and the
+ * unbounded number of system states per node that the {@link ReuseOracleBuilder} uses by default), forks are leaked.
+ * Hence, the {@link ReuseOracle} should preferably be configured via {@link #createReuseOracleBuilder(Alphabet, SUL)}.
+ * <p>
+ * An {@link ObservableSUL} is only supported through forking, i.e. its observable state ({@link
+ * ObservableSUL#getState()}) is not used as a system state, because it cannot be used to restore the SUL. For SULs that
+ * can restore a previously observed state, see {@link SnapshotableSULReuseCapableOracle}.
+ * <p>
+ * <b>Note:</b> this oracle is not thread-safe. When using the {@link ReuseOracle} concurrently, supply a separate
+ * oracle for each thread, e.g. via {@code () -> new ForkableSULReuseCapableOracle<>(sul.fork())}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class ForkableSULReuseCapableOracle<I, O> implements ReuseCapableOracle<SUL<I, O>, I, O> {
+
+    private final SUL<I, O> sul;
+
+    /**
+     * Constructor.
+     *
+     * @param sul
+     *         the SUL from which forks are created, must be forkable
+     *
+     * @throws IllegalArgumentException
+     *         if the given SUL cannot be forked
+     */
+    public ForkableSULReuseCapableOracle(SUL<I, O> sul) {
+        if (!sul.canFork()) {
+            throw new IllegalArgumentException("SUL must be forkable");
+        }
+        this.sul = sul;
+    }
+
+    /**
+     * Returns a {@link SystemStateHandler} that terminates the sessions of disposed forks.
+     *
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return a {@link SystemStateHandler} that calls {@link SUL#post()} on disposed forks
+     */
+    public static <I, O> SystemStateHandler<SUL<I, O>> getSystemStateHandler() {
+        return SUL::post;
+    }
+
+    /**
+     * Creates a {@link ReuseOracleBuilder} whose system states are forks of the given SUL. The builder invalidates
+     * system states upon reuse, stores at most one fork per node of the reuse tree, and terminates the sessions of
+     * forks that are removed from the tree (see {@link #getSystemStateHandler()}). Each thread of the resulting {@link
+     * ReuseOracle} uses its own oracle, which forks a separate instance of the given SUL.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param sul
+     *         the SUL from which forks are created, must be forkable
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return a pre-configured {@link ReuseOracleBuilder}
+     *
+     * @throws IllegalArgumentException
+     *         if the given SUL cannot be forked
+     */
+    public static <I, O> ReuseOracleBuilder<SUL<I, O>, I, O> createReuseOracleBuilder(Alphabet<I> alphabet,
+                                                                                      SUL<I, O> sul) {
+        if (!sul.canFork()) {
+            throw new IllegalArgumentException("SUL must be forkable");
+        }
+
+        return new ReuseOracleBuilder<SUL<I, O>, I, O>(alphabet,
+                                                       () -> new ForkableSULReuseCapableOracle<>(sul.fork()))
+                .withEnabledSystemstateInvalidation(true)
+                .withMaxSystemStates(1)
+                .withSystemStateHandler(getSystemStateHandler());
+    }
+
+    @Override
+    public QueryResult<SUL<I, O>, O> continueQuery(Word<I> trace, SUL<I, O> s) {
+        return execute(s, trace);
+    }
+
+    @Override
+    public QueryResult<SUL<I, O>, O> processQuery(Word<I> trace) {
+        final SUL<I, O> fork = sul.fork();
+        fork.pre();
+        return execute(fork, trace);
+    }
+
+    private QueryResult<SUL<I, O>, O> execute(SUL<I, O> fork, Word<I> trace) {
+        try {
+            return new QueryResult<>(fork.stepAll(trace), fork);
+        } catch (RuntimeException e) {
+            // the fork cannot be reused, so terminate its session
+            fork.post();
+            throw e;
+        }
+    }
+}
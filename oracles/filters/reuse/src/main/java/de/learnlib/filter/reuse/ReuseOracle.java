@@ -15,13 +15,18 @@
  */
 package de.learnlib.filter.reuse;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import de.learnlib.api.oracle.SingleQueryOracle.SingleQueryOracleMealy;
+import de.learnlib.api.query.Query;
 import de.learnlib.filter.reuse.ReuseCapableOracle.QueryResult;
 import de.learnlib.filter.reuse.tree.BoundedDeque.AccessPolicy;
 import de.learnlib.filter.reuse.tree.BoundedDeque.EvictPolicy;
@@ -33,6 +38,7 @@ import de.learnlib.filter.reuse.tree.SystemStateHandler;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * The reuse oracle is a {@link MealyMembershipOracle} that is able to <ul> <li>Cache queries: Each processed query will
@@ -49,6 +55,14 @@ import net.automatalib.words.WordBuilder;
  * The usage of model invariant input symbols and failure output symbols is disabled by default and can be enabled upon
  * construction (see {@link ReuseOracleBuilder#withFailureOutputs(Set)} and {@link
  * ReuseOracleBuilder#withInvariantInputs(Set)}).
+ * <p>
+ * Batches of queries (see {@link #processQueries(Collection)}) are processed in prefix order, i.e. every query is
+ * processed after all queries of the batch that are prefixes of it. This way, the system state reached by a query can
+ * be continued by its extensions, so that a single reset serves a whole chain of queries of the batch.
+ * <p>
+ * The oracle may be queried concurrently: Each thread uses its own {@link ReuseCapableOracle} (obtained from the
+ * supplier), whereas the {@link ReuseTree} is shared without a global lock. Note that if system state invalidation is
+ * disabled, multiple threads may continue from the same system state concurrently.
  *
  * @param <S>
  *         system state class
@@ -65,6 +79,8 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
 
     private final ReuseTree<S, I, O> tree;
 
+    private final Comparator<Word<I>> prefixOrder;
+
     /**
      * Default constructor.
      */
@@ -77,7 +93,9 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
                                                                    .withMaxSystemStates(builder.maxSystemStates)
                                                                    .withAccessPolicy(builder.accessPolicy)
                                                                    .withEvictPolicy(builder.evictPolicy)
+                                                                   .withSystemStateBudget(builder.systemStateBudget)
                                                                    .build();
+        this.prefixOrder = new PrefixOrderCmp<>(builder.alphabet);
     }
 
     @Override
@@ -90,6 +108,31 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         return processQuery(input);
     }
 
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final List<Query<I, Word<O>>> sortedQueries = new ArrayList<>(queries);
+        sortedQueries.sort((q1, q2) -> prefixOrder.compare(q1.getInput(), q2.getInput()));
+
+        @Nullable Word<I> lastInput = null;
+        Word<O> lastOutput = Word.epsilon();
+
+        for (Query<I, Word<O>> q : sortedQueries) {
+            final Word<I> input = q.getInput();
+
+            // duplicates are adjacent after sorting
+            if (!input.equals(lastInput)) {
+                lastInput = input;
+                lastOutput = processQuery(input);
+            }
+
+            q.answer(lastOutput.suffix(q.getSuffix().length()));
+        }
+    }
+
     /**
      * This methods returns the full output to the input query.
      * <p>
@@ -113,12 +156,7 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
 
         // No system state available
         if (nodeResult == null) {
-            final QueryResult<S, O> newResult =
-                    filterAndProcessQuery(query, tree.getPartialOutput(query), oracle::processQuery);
-
-            tree.insert(query, newResult);
-
-            output = newResult.output;
+            output = filterAndProcessQuery(query, tree.getRoot(), tree.getPartialOutput(query), oracle::processQuery);
         } else { // System state available -> reuse
             final int suffixLen = query.size() - nodeResult.prefixLength;
             final Word<I> suffix = query.suffix(suffixLen);
@@ -129,16 +167,14 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
             final ReuseNode<S, I, O> reuseNode = nodeResult.reuseNode;
             final S systemState = nodeResult.systemState;
 
-            final QueryResult<S, O> suffixQueryResult = filterAndProcessQuery(suffix,
-                                                                              partialSuffixOutput,
-                                                                              filteredInput -> oracle.continueQuery(
-                                                                                      filteredInput,
-                                                                                      systemState));
-
-            this.tree.insert(suffix, reuseNode, suffixQueryResult);
+            final Word<O> suffixOutput = filterAndProcessQuery(suffix,
+                                                               reuseNode,
+                                                               partialSuffixOutput,
+                                                               filteredInput -> oracle.continueQuery(filteredInput,
+                                                                                                     systemState));
 
             final Word<O> prefixOutput = tree.getOutput(query.prefix(nodeResult.prefixLength));
-            output = new WordBuilder<>(prefixOutput).append(suffixQueryResult.output).toWord();
+            output = new WordBuilder<>(prefixOutput).append(suffixOutput).toWord();
         }
         return output;
     }
@@ -152,21 +188,24 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
 
     /**
      * Filters all the query elements corresponding to "reflexive" edges in the reuse tree, executes the shorter query,
-     * and fills the filtered outputs into the resulting output word.
+     * fills the filtered outputs into the resulting output word, and inserts the result into the reuse tree.
      *
      * @param query
      *         the input query with "reflexive" symbols (may be a suffix of the original query, if a system state is
      *         reused).
+     * @param sink
+     *         the node of the reuse tree from which the query is executed.
      * @param partialOutput
      *         the output information from the tree with {@code null} entries for all "non-reflexive" edges.
      * @param processQuery
      *         a function that actually processes the (shortened) query.
      *
-     * @return the query result including the outputs of the "reflexive" symbol executions.
+     * @return the output of the query including the outputs of the "reflexive" symbol executions.
      */
-    private QueryResult<S, O> filterAndProcessQuery(Word<I> query,
-                                                    Word<O> partialOutput,
-                                                    Function<Word<I>, QueryResult<S, O>> processQuery) {
+    private Word<O> filterAndProcessQuery(Word<I> query,
+                                          ReuseNode<S, I, O> sink,
+                                          Word<O> partialOutput,
+                                          Function<Word<I>, QueryResult<S, O>> processQuery) {
         final LinkedList<I> filteredQueryList = new LinkedList<>(query.asList());
         final Iterator<I> queryIterator = filteredQueryList.iterator();
 
@@ -179,7 +218,9 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         }
 
         // process the query
+        final long start = System.nanoTime();
         final QueryResult<S, O> res = processQuery.apply(Word.fromList(filteredQueryList));
+        final long nanosPerStep = (System.nanoTime() - start) / Math.max(1, filteredQueryList.size());
 
         final WordBuilder<O> wordBuilder = new WordBuilder<>();
         final Iterator<O> resultIterator = res.output.iterator();
@@ -193,7 +234,12 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
             }
         }
 
-        return new QueryResult<>(wordBuilder.toWord(), res.newState);
+        final Word<O> output = wordBuilder.toWord();
+
+        // the measured latency of the query determines the replay cost of its system state
+        tree.insert(query, sink, new QueryResult<>(output, res.newState), nanosPerStep);
+
+        return output;
     }
 
     /**
@@ -203,6 +249,34 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         return this.tree;
     }
 
+    /**
+     * Lexicographic order of words with respect to the symbol indices of an alphabet. In this order, every word is
+     * preceded by all of its prefixes.
+     */
+    private static final class PrefixOrderCmp<I> implements Comparator<Word<I>> {
+
+        private final Alphabet<I> alphabet;
+
+        PrefixOrderCmp(Alphabet<I> alphabet) {
+            this.alphabet = alphabet;
+        }
+
+        @Override
+        public int compare(Word<I> w1, Word<I> w2) {
+            final int minLength = Math.min(w1.length(), w2.length());
+
+            for (int i = 0; i < minLength; i++) {
+                final int cmp = Integer.compare(alphabet.getSymbolIndex(w1.getSymbol(i)),
+                                                alphabet.getSymbolIndex(w2.getSymbol(i)));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+
+            return Integer.compare(w1.length(), w2.length());
+        }
+    }
+
     public static class ReuseOracleBuilder<S, I, O> {
 
         private final Alphabet<I> alphabet;
@@ -215,6 +289,7 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         private int maxSystemStates = -1;
         private AccessPolicy accessPolicy = AccessPolicy.LIFO;
         private EvictPolicy evictPolicy = EvictPolicy.EVICT_OLDEST;
+        private int systemStateBudget = -1;
 
         public ReuseOracleBuilder(Alphabet<I> alphabet,
                                   Supplier<? extends ReuseCapableOracle<S, I, O>> oracleSupplier) {
@@ -257,6 +332,18 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
             return this;
         }
 
+        /**
+         * Restricts the total number of system states stored in the {@link ReuseTree}. If the budget is exceeded, the
+         * system states that are the cheapest to re-create are evicted first. A value less than or equal to 0 means
+         * unbounded.
+         *
+         * @see ReuseTreeBuilder#withSystemStateBudget(int)
+         */
+        public ReuseOracleBuilder<S, I, O> withSystemStateBudget(int systemStateBudget) {
+            this.systemStateBudget = systemStateBudget;
+            return this;
+        }
+
         public ReuseOracle<S, I, O> build() {
             return new ReuseOracle<>(this);
         }
@@ -0,0 +1,60 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse;
+
+import de.learnlib.api.SUL;
+
+/**
+ * A System Under Learning (SUL) whose current state can be captured in a snapshot and restored later on.
+ * <p>
+ * In combination with a {@link SnapshotableSULReuseCapableOracle}, snapshots can be used as system states of the
+ * {@link ReuseOracle}, so that queries may continue from a previously reached state instead of resetting the SUL.
+ *
+ * @param <S>
+ *         snapshot type
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public interface SnapshotableSUL<S, I, O> extends SUL<I, O> {
+
+    @Override
+    default SnapshotableSUL<S, I, O> fork() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Captures the current state of the system. Must only be called between {@link #pre()} (or {@link
+     * #restore(Object)}) and {@link #post()}.
+     * <p>
+     * Implementation note: the returned snapshot must not be modified by subsequent calls to {@link #step(Object)},
+     * {@link #pre()}, {@link #post()} or {@link #restore(Object)}, as it may be restored multiple times.
+     *
+     * @return a snapshot of the current state of the system
+     */
+    S snapshot();
+
+    /**
+     * Restores a previously captured snapshot. Semantically, this is equivalent to calling {@link #pre()} and executing
+     * the inputs that have led to the snapshot, i.e. a call to this method starts a new session that has to be
+     * terminated by {@link #post()}.
+     *
+     * @param snapshot
+     *         the snapshot to restore
+     */
+    void restore(S snapshot);
+}
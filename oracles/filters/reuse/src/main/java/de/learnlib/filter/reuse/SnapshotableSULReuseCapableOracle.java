@@ -0,0 +1,66 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse;
+
+import net.automatalib.words.Word;
+
+/**
+ * A {@link ReuseCapableOracle} that answers queries on a {@link SnapshotableSUL}. The system states of the {@link
+ * ReuseOracle} are the snapshots of the SUL, and continuing a query restores the respective snapshot instead of
+ * resetting the SUL.
+ * <p>
+ * As snapshots are not modified by subsequent steps, the {@link ReuseOracle} may use this oracle with disabled system
+ * state invalidation (see {@link ReuseOracle.ReuseOracleBuilder#withEnabledSystemstateInvalidation(boolean)}).
+ * <p>
+ * <b>Note:</b> this oracle is not thread-safe. When using the {@link ReuseOracle} concurrently, supply a separate
+ * oracle (and SUL) for each thread, e.g. via {@code () -> new SnapshotableSULReuseCapableOracle<>(sul.fork())}.
+ *
+ * @param <S>
+ *         snapshot type
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class SnapshotableSULReuseCapableOracle<S, I, O> implements ReuseCapableOracle<S, I, O> {
+
+    private final SnapshotableSUL<S, I, O> sul;
+
+    public SnapshotableSULReuseCapableOracle(SnapshotableSUL<S, I, O> sul) {
+        this.sul = sul;
+    }
+
+    @Override
+    public QueryResult<S, O> continueQuery(Word<I> trace, S s) {
+        sul.restore(s);
+        return executeAndSnapshot(trace);
+    }
+
+    @Override
+    public QueryResult<S, O> processQuery(Word<I> trace) {
+        sul.pre();
+        return executeAndSnapshot(trace);
+    }
+
+    private QueryResult<S, O> executeAndSnapshot(Word<I> trace) {
+        try {
+            final Word<O> output = sul.stepAll(trace);
+            return new QueryResult<>(output, sul.snapshot());
+        } finally {
+            sul.post();
+        }
+    }
+}
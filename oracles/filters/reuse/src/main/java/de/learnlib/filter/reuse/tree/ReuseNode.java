@@ -15,9 +15,13 @@
  */
 package de.learnlib.filter.reuse.tree;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import de.learnlib.filter.reuse.tree.BoundedDeque.AccessPolicy;
 import de.learnlib.filter.reuse.tree.BoundedDeque.EvictPolicy;
@@ -28,6 +32,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * ReuseEdge}s. Each {@link ReuseNode} may contain a system state holding relevant informations (e.g. database
  * identifiers or an object) that belongs to the system state that 'represents' the system state after executing a
  * membership query.
+ * <p>
+ * Nodes are thread-safe: Outgoing edges are stored in an immutable edge table (so they can be read without locking)
+ * that is replaced via CAS operations when edges are added, and the system states of each node are guarded by a
+ * per-node lock.
+ * <p>
+ * Nodes are stored compactly, as trees for large alphabets may consist of millions of (mostly sparsely connected)
+ * nodes: The edge table only contains the existing edges (sorted by their input index), and the container for system
+ * states is only allocated while the node actually holds system states. Configuration that is shared by all nodes of a
+ * tree (e.g. the alphabet size or the capacity for system states) is not stored per node but passed by the {@link
+ * ReuseTree} to the respective methods.
  *
  * @param <S>
  *         system state class
@@ -40,61 +54,166 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public class ReuseNode<S, I, O> {
 
-    private final @Nullable ReuseEdge<S, I, O>[] edges;
-    private final BoundedDeque<S> systemStates;
-    // private S systemstate;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final EdgeTable EMPTY_TABLE = new EdgeTable<>(new int[0], new ReuseEdge[0]);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ReuseNode, EdgeTable> EDGES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(ReuseNode.class, EdgeTable.class, "edges");
+
+    private volatile EdgeTable<S, I, O> edges;
+    // modifications guarded by this, null if there are no system states
+    private volatile @Nullable BoundedDeque<S> systemStates;
     private final int id;
+    private final int depth;
+
+    public ReuseNode(int id) {
+        this(id, 0);
+    }
 
     @SuppressWarnings("unchecked")
-    public ReuseNode(int id,
-                     int alphabetSize,
-                     int maxSystemStates,
-                     AccessPolicy accessPolicy,
-                     EvictPolicy evictPolicy) {
-        this.edges = new ReuseEdge[alphabetSize];
+    public ReuseNode(int id, int depth) {
+        this.edges = (EdgeTable<S, I, O>) EMPTY_TABLE;
         this.id = id;
-        this.systemStates = new BoundedDeque<>(maxSystemStates, accessPolicy, evictPolicy);
+        this.depth = depth;
     }
 
     /**
      * The system state, may be {@code null}.
      */
-    public S fetchSystemState(boolean remove) {
+    public synchronized @Nullable S fetchSystemState(boolean remove) {
+        final BoundedDeque<S> states = systemStates;
+        if (states == null) {
+            return null;
+        }
         if (remove) {
-            return systemStates.retrieve();
+            final S result = states.retrieve();
+            releaseIfEmpty(states);
+            return result;
         }
-        return systemStates.peek();
+        return states.peek();
     }
 
-    public @Nullable S addSystemState(S state) {
-        return systemStates.insert(state);
+    /**
+     * Adds a system state to this {@link ReuseNode}. The container for the system states of this node is created with
+     * the given configuration, if the node currently holds no system states.
+     *
+     * @param state
+     *         the system state to add
+     * @param maxSystemStates
+     *         the maximum number of system states of this node, a value less than or equal to 0 means unbounded
+     * @param accessPolicy
+     *         the policy for retrieving system states
+     * @param evictPolicy
+     *         the policy for evicting system states if the capacity is exceeded
+     *
+     * @return the evicted system state (which may be the given one), or {@code null} if no state has been evicted
+     */
+    public synchronized @Nullable S addSystemState(S state,
+                                                   int maxSystemStates,
+                                                   AccessPolicy accessPolicy,
+                                                   EvictPolicy evictPolicy) {
+        BoundedDeque<S> states = systemStates;
+        if (states == null) {
+            states = new BoundedDeque<>(maxSystemStates, accessPolicy, evictPolicy);
+            systemStates = states;
+        }
+        final S evicted = states.insert(state);
+        // the new state may have been rejected
+        releaseIfEmpty(states);
+        return evicted;
     }
 
-    public Iterator<S> systemStatesIterator() {
-        return systemStates.iterator();
+    /**
+     * Returns an iterator over a snapshot of the current system states of this node.
+     */
+    public synchronized Iterator<S> systemStatesIterator() {
+        final BoundedDeque<S> states = systemStates;
+        if (states == null) {
+            return Collections.emptyIterator();
+        }
+        return new ArrayList<>(states).iterator();
     }
 
     public boolean hasSystemStates() {
-        return !systemStates.isEmpty();
+        return systemStates != null;
+    }
+
+    public synchronized void clearSystemStates() {
+        systemStates = null;
     }
 
-    public void clearSystemStates() {
-        systemStates.clear();
+    /**
+     * Atomically removes all system states from this node.
+     *
+     * @return the removed system states
+     */
+    public synchronized List<S> removeSystemStates() {
+        final BoundedDeque<S> states = systemStates;
+        if (states == null) {
+            return Collections.emptyList();
+        }
+        systemStates = null;
+        return new ArrayList<>(states);
+    }
+
+    private void releaseIfEmpty(BoundedDeque<S> states) {
+        if (states.isEmpty()) {
+            systemStates = null;
+        }
     }
 
     /**
-     * Returns all outgoing {@link ReuseEdge}s from this {@link ReuseNode}. If there are none the returned {@link
-     * java.util.Collection} will be empty (but never {@code null}).
+     * Returns (a snapshot of) all outgoing {@link ReuseEdge}s from this {@link ReuseNode}, ordered by the index of
+     * their input symbol. If there are none the returned {@link java.util.Collection} will be empty (but never {@code
+     * null}).
      */
-    public Collection<@Nullable ReuseEdge<S, I, O>> getEdges() {
-        return Arrays.asList(edges);
+    public Collection<ReuseEdge<S, I, O>> getEdges() {
+        return Collections.unmodifiableList(Arrays.asList(edges.edges));
     }
 
     /**
-     * Adds an outgoing {@link ReuseEdge} to this {@link ReuseNode}.
+     * Adds an outgoing {@link ReuseEdge} to this {@link ReuseNode}, replacing any existing edge for the given index.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the index is not within {@code [0, alphabetSize)}
      */
-    public void addEdge(int index, ReuseEdge<S, I, O> edge) {
-        this.edges[index] = edge;
+    public void addEdge(int index, ReuseEdge<S, I, O> edge, int alphabetSize) {
+        checkIndex(index, alphabetSize);
+        EdgeTable<S, I, O> current;
+        do {
+            current = edges;
+        } while (!EDGES_UPDATER.compareAndSet(this, current, current.with(index, edge)));
+    }
+
+    /**
+     * Atomically adds an outgoing {@link ReuseEdge} to this {@link ReuseNode}, unless an edge for the given index
+     * already exists.
+     *
+     * @return {@code null} if the given edge has been added, the existing edge otherwise
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the index is not within {@code [0, alphabetSize)}
+     */
+    public @Nullable ReuseEdge<S, I, O> addEdgeIfAbsent(int index, ReuseEdge<S, I, O> edge, int alphabetSize) {
+        checkIndex(index, alphabetSize);
+        while (true) {
+            final EdgeTable<S, I, O> current = edges;
+            final ReuseEdge<S, I, O> existing = current.get(index);
+
+            if (existing != null) {
+                return existing;
+            }
+            if (EDGES_UPDATER.compareAndSet(this, current, current.with(index, edge))) {
+                return null;
+            }
+        }
+    }
+
+    private static void checkIndex(int index, int alphabetSize) {
+        if (index < 0 || index >= alphabetSize) {
+            throw new IndexOutOfBoundsException("Invalid input index: " + index);
+        }
     }
 
     public @Nullable ReuseNode<S, I, O> getTargetNodeForInput(int index) {
@@ -109,13 +228,28 @@ public class ReuseNode<S, I, O> {
      * May be {@code null}.
      */
     public @Nullable ReuseEdge<S, I, O> getEdgeWithInput(int index) {
-        return this.edges[index];
+        return this.edges.get(index);
+    }
+
+    /**
+     * Returns the number of outgoing {@link ReuseEdge}s of this {@link ReuseNode}.
+     */
+    public int getNumberOfEdges() {
+        return this.edges.indices.length;
     }
 
     public int getId() {
         return this.id;
     }
 
+    /**
+     * Returns the number of (non-reflexive) edges from the root of the tree to this node, i.e. the number of steps that
+     * need to be executed on the SUL in order to reach a system state of this node.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
     public static final class NodeResult<S, I, O> {
 
         public final ReuseNode<S, I, O> reuseNode;
@@ -133,4 +267,47 @@ public class ReuseNode<S, I, O> {
         }
     }
 
+    /**
+     * An immutable, sparse table of outgoing edges. The input indices are stored in ascending order, so that an edge
+     * can be looked up via binary search.
+     */
+    private static final class EdgeTable<S, I, O> {
+
+        private final int[] indices;
+        private final ReuseEdge<S, I, O>[] edges;
+
+        EdgeTable(int[] indices, ReuseEdge<S, I, O>[] edges) {
+            this.indices = indices;
+            this.edges = edges;
+        }
+
+        @Nullable ReuseEdge<S, I, O> get(int index) {
+            final int pos = Arrays.binarySearch(indices, index);
+            return pos < 0 ? null : edges[pos];
+        }
+
+        EdgeTable<S, I, O> with(int index, ReuseEdge<S, I, O> edge) {
+            final int pos = Arrays.binarySearch(indices, index);
+
+            if (pos >= 0) {
+                final ReuseEdge<S, I, O>[] newEdges = edges.clone();
+                newEdges[pos] = edge;
+                return new EdgeTable<>(indices, newEdges);
+            }
+
+            final int insertionPoint = -pos - 1;
+            final int size = indices.length;
+            final int[] newIndices = new int[size + 1];
+            final ReuseEdge<S, I, O>[] newEdges = Arrays.copyOf(edges, size + 1);
+
+            System.arraycopy(indices, 0, newIndices, 0, insertionPoint);
+            System.arraycopy(indices, insertionPoint, newIndices, insertionPoint + 1, size - insertionPoint);
+            System.arraycopy(edges, insertionPoint, newEdges, insertionPoint + 1, size - insertionPoint);
+            newIndices[insertionPoint] = index;
+            newEdges[insertionPoint] = edge;
+
+            return new EdgeTable<>(newIndices, newEdges);
+        }
+    }
+
 }
\ No newline at end of file
@@ -18,9 +18,12 @@ package de.learnlib.filter.reuse.tree;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.learnlib.filter.reuse.ReuseCapableOracle;
 import de.learnlib.filter.reuse.ReuseException;
@@ -43,6 +46,20 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * SUL and maintains also available system states. The {@link ReuseTree} is only 'tree like' since it may contain
  * reflexive edges at nodes (only possible if {@link ReuseTreeBuilder#withFailureOutputs(Set)} or {@link
  * ReuseTreeBuilder#withInvariantInputs(Set)} is set).
+ * <p>
+ * The {@link ReuseTree} is thread-safe without relying on a global lock: Lookups ({@link #getOutput(Word)}, {@link
+ * #getPartialOutput(Word)}) are lock-free traversals of the (atomically updated) edges, new edges are added via CAS
+ * operations (see {@link ReuseNode#addEdgeIfAbsent(int, ReuseEdge, int)}), and system states are guarded by a lock per
+ * {@link ReuseNode}. Hence, concurrent queries only contend when they access the system states of the same node.
+ * <p>
+ * Besides the per-node capacity (see {@link ReuseTreeBuilder#withMaxSystemStates(int)}), the total number of system
+ * states stored in the tree may be restricted (see {@link ReuseTreeBuilder#withSystemStateBudget(int)}). If this budget
+ * is exceeded, the system states that are the cheapest to re-create are evicted first. The replay cost of a system
+ * state is estimated as its depth times the per-step latency that has been measured for the query which produced the
+ * state (see {@link #insert(Word, ReuseNode, ReuseCapableOracle.QueryResult, long)}).
+ * <p>
+ * In order to keep large trees compact, nodes store their edges sparsely (see {@link ReuseNode}) and equal outputs of
+ * edges are interned, i.e. all edges share a single instance per output symbol.
  *
  * @param <S>
  *         system state class
@@ -64,10 +81,12 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
     private final int maxSystemStates;
     private final AccessPolicy accessPolicy;
     private final EvictPolicy evictPolicy;
+    private final @Nullable SystemStateBudget<S, I, O> budget;
+    private final ConcurrentMap<O, O> internedOutputs;
     /** May be reset to zero, see {@link ReuseTree#clearTree()}. */
-    private int nodeCount;
+    private final AtomicInteger nodeCount;
     /** May be reinitialized, see {@link ReuseTree#clearTree()}. */
-    private ReuseNode<S, I, O> root;
+    private volatile ReuseNode<S, I, O> root;
 
     ReuseTree(ReuseTreeBuilder<S, I, O> builder) {
         this.alphabet = builder.alphabet;
@@ -86,14 +105,35 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
         this.maxSystemStates = builder.maxSystemStates;
         this.accessPolicy = builder.accessPolicy;
         this.evictPolicy = builder.evictPolicy;
+        this.budget =
+                builder.systemStateBudget > 0 ? new SystemStateBudget<>(builder.systemStateBudget, handler) : null;
 
         // local and not configurable
         this.alphabetSize = alphabet.size();
-        this.root = createNode();
+        this.nodeCount = new AtomicInteger();
+        this.internedOutputs = new ConcurrentHashMap<>();
+        this.root = createNode(0);
     }
 
-    private ReuseNode<S, I, O> createNode() {
-        return new ReuseNode<>(nodeCount++, alphabetSize, maxSystemStates, accessPolicy, evictPolicy);
+    private ReuseNode<S, I, O> createNode(int depth) {
+        return new ReuseNode<>(nodeCount.getAndIncrement(), depth);
+    }
+
+    private @Nullable O internOutput(@Nullable O output) {
+        if (output == null) {
+            return null;
+        }
+        final O existing = internedOutputs.putIfAbsent(output, output);
+        return existing == null ? output : existing;
+    }
+
+    /**
+     * Returns the number of system states currently stored in the tree, if a system state budget is configured.
+     *
+     * @return the number of stored system states, or {@code -1} if no system state budget is configured
+     */
+    public int getNumberOfSystemStates() {
+        return budget == null ? -1 : budget.size();
     }
 
     /**
@@ -112,16 +152,14 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
 
         final WordBuilder<O> output = new WordBuilder<>();
 
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            for (final I symbol : query) {
-                final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
-                if (edge == null) {
-                    return null;
-                }
-                output.add(edge.getOutput());
-                sink = edge.getTarget();
+        ReuseNode<S, I, O> sink = getRoot();
+        for (final I symbol : query) {
+            final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
+            if (edge == null) {
+                return null;
             }
+            output.add(edge.getOutput());
+            sink = edge.getTarget();
         }
 
         return output.toWord();
@@ -154,22 +192,20 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
 
         final WordBuilder<O> output = new WordBuilder<>();
 
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            for (final I symbol : query) {
-                final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
-                // add null-pointers if no more outputs are available
-                if (edge == null) {
-                    break;
-                }
-                // add output for "reflexive" edges
-                if (sink.equals(edge.getTarget())) {
-                    output.add(edge.getOutput());
-                } else { // for "non-reflexive" edges add a null-pointer.
-                    output.add(null);
-                }
-                sink = edge.getTarget();
+        ReuseNode<S, I, O> sink = getRoot();
+        for (final I symbol : query) {
+            final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
+            // add null-pointers if no more outputs are available
+            if (edge == null) {
+                break;
+            }
+            // add output for "reflexive" edges
+            if (sink.equals(edge.getTarget())) {
+                output.add(edge.getOutput());
+            } else { // for "non-reflexive" edges add a null-pointer.
+                output.add(null);
             }
+            sink = edge.getTarget();
         }
 
         // fill the output with null-pointers to the size of the query.
@@ -184,18 +220,19 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
      * The {@link SystemStateHandler} will be informed about all disposings.
      */
     public void disposeSystemstates() {
-        synchronized (this) {
-            disposeSystemstates(getRoot());
-        }
+        disposeSystemstates(getRoot());
     }
 
     private void disposeSystemstates(ReuseNode<S, I, O> node) {
-        Iterator<S> stateIt = node.systemStatesIterator();
-        while (stateIt.hasNext()) {
-            S state = stateIt.next();
+        final List<S> states = node.removeSystemStates();
+
+        if (budget != null) {
+            budget.removed(states.size());
+        }
+
+        for (S state : states) {
             systemStateHandler.dispose(state);
         }
-        node.clearSystemStates();
 
         for (ReuseEdge<S, I, O> edge : node.getEdges()) {
             if (edge != null) {
@@ -214,10 +251,14 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
      * The {@link SystemStateHandler} will <b>not</b> be informed about any disposings.
      */
     public void clearTree() {
-        synchronized (this) {
-            this.nodeCount = 0;
-            disposeSystemstates(root);
-            this.root = createNode();
+        final ReuseNode<S, I, O> oldRoot = this.root;
+        this.nodeCount.set(0);
+        this.root = createNode(0);
+        this.internedOutputs.clear();
+        disposeSystemstates(oldRoot);
+
+        if (budget != null) {
+            budget.clear();
         }
     }
 
@@ -235,39 +276,46 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
             throw new IllegalArgumentException(msg);
         }
 
-        int length = 0;
-
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            ReuseNode<S, I, O> lastState = null;
-            if (sink.hasSystemStates()) {
-                lastState = sink;
-            }
+        // collect all nodes with system states along the query (lock-free)
+        final List<ReuseNode<S, I, O>> candidates = new ArrayList<>();
+        final List<Integer> lengths = new ArrayList<>();
 
-            ReuseNode<S, I, O> node;
-            for (int i = 0; i < query.size(); i++) {
-                node = sink.getTargetNodeForInput(alphabet.getSymbolIndex(query.getSymbol(i)));
+        ReuseNode<S, I, O> sink = getRoot();
+        if (sink.hasSystemStates()) {
+            candidates.add(sink);
+            lengths.add(0);
+        }
 
-                if (node == null) {
-                    // we have reached longest known prefix
-                    break;
-                }
+        ReuseNode<S, I, O> node;
+        for (int i = 0; i < query.size(); i++) {
+            node = sink.getTargetNodeForInput(alphabet.getSymbolIndex(query.getSymbol(i)));
 
-                sink = node;
-                if (sink.hasSystemStates()) {
-                    lastState = sink;
-                    length = i + 1;
-                }
+            if (node == null) {
+                // we have reached longest known prefix
+                break;
             }
 
-            if (lastState == null) {
-                return null;
+            sink = node;
+            if (sink.hasSystemStates()) {
+                candidates.add(sink);
+                lengths.add(i + 1);
             }
+        }
 
-            S systemState = lastState.fetchSystemState(invalidateSystemstates);
+        // prefer the deepest node, but fall back to shallower ones if concurrent queries have consumed its states
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            final ReuseNode<S, I, O> candidate = candidates.get(i);
+            final S systemState = candidate.fetchSystemState(invalidateSystemstates);
 
-            return new ReuseNode.NodeResult<>(lastState, systemState, length);
+            if (systemState != null) {
+                if (invalidateSystemstates && budget != null) {
+                    budget.removed(1);
+                }
+                return new ReuseNode.NodeResult<>(candidate, systemState, lengths.get(i));
+            }
         }
+
+        return null;
     }
 
     /**
@@ -286,9 +334,7 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
      *         if non deterministic behavior is detected
      */
     public void insert(Word<I> query, ReuseCapableOracle.QueryResult<S, O> queryResult) {
-        synchronized (this) {
-            insert(query, getRoot(), queryResult);
-        }
+        insert(query, getRoot(), queryResult);
     }
 
     /**
@@ -303,11 +349,35 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
      * <p>
      * This method should only be invoked internally from the {@link ReuseOracle} unless you know exactly what you are
      * doing (you may want to create a predefined reuse tree before start learning).
+     * <p>
+     * Since no latency has been measured for the query, the replay cost of the new system state (see {@link
+     * ReuseTreeBuilder#withSystemStateBudget(int)}) is estimated with one nanosecond per step.
      *
      * @throws ReuseException
      *         if non deterministic behavior is detected
      */
     public void insert(Word<I> query, ReuseNode<S, I, O> sink, ReuseCapableOracle.QueryResult<S, O> queryResult) {
+        insert(query, sink, queryResult, 1);
+    }
+
+    /**
+     * Inserts the given {@link Word} (suffix of a membership query) with {@link ReuseCapableOracle.QueryResult} (suffix
+     * output) into the tree starting from the {@link ReuseNode} (see {@link #insert(Word, ReuseNode,
+     * ReuseCapableOracle.QueryResult)}).
+     * <p>
+     * If a system state budget is configured (see {@link ReuseTreeBuilder#withSystemStateBudget(int)}), the replay
+     * cost of the new system state is estimated as the depth of its node times the given latency.
+     *
+     * @param nanosPerStep
+     *         the measured time per step of the query that produced the system state in nanoseconds
+     *
+     * @throws ReuseException
+     *         if non deterministic behavior is detected
+     */
+    public void insert(Word<I> query,
+                       ReuseNode<S, I, O> sink,
+                       ReuseCapableOracle.QueryResult<S, O> queryResult,
+                       long nanosPerStep) {
         if (queryResult == null) {
             String msg = "The queryResult is not allowed to be null.";
             throw new IllegalArgumentException(msg);
@@ -323,23 +393,13 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
 
         ReuseNode<S, I, O> effectiveSink = sink;
 
-        synchronized (this) {
-            for (int i = 0; i < query.size(); i++) {
-                I in = query.getSymbol(i);
-                O out = queryResult.output.getSymbol(i);
-
-                ReuseEdge<S, I, O> edge = effectiveSink.getEdgeWithInput(alphabet.getSymbolIndex(in));
-                if (edge != null) {
-                    if (Objects.equals(edge.getOutput(), out)) {
-                        effectiveSink = edge.getTarget();
-                        continue;
-                    }
-
-                    throw new ReuseException(
-                            "Conflict: input '" + query + "', output '" + queryResult.output + "', i=" + i +
-                            ", cached output '" + edge.getOutput() + "'");
-                }
+        for (int i = 0; i < query.size(); i++) {
+            I in = query.getSymbol(i);
+            O out = queryResult.output.getSymbol(i);
+            int index = alphabet.getSymbolIndex(in);
 
+            ReuseEdge<S, I, O> edge = effectiveSink.getEdgeWithInput(index);
+            if (edge == null) {
                 ReuseNode<S, I, O> rn;
 
                 if (failureOutputSymbols.contains(out)) {
@@ -347,19 +407,48 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
                 } else if (invariantInputSymbols.contains(in)) {
                     rn = effectiveSink;
                 } else {
-                    rn = createNode();
+                    rn = createNode(effectiveSink.getDepth() + 1);
                 }
 
-                int index = alphabet.getSymbolIndex(in);
-                effectiveSink.addEdge(index, new ReuseEdge<>(effectiveSink, rn, in, out));
-                effectiveSink = rn;
+                final ReuseEdge<S, I, O> newEdge = new ReuseEdge<>(effectiveSink, rn, in, internOutput(out));
+                // another thread may have added an edge in the meantime, in which case we have to validate its output
+                edge = effectiveSink.addEdgeIfAbsent(index, newEdge, alphabetSize);
+                if (edge == null) {
+                    effectiveSink = rn;
+                    continue;
+                }
             }
 
-            S evictedState = effectiveSink.addSystemState(queryResult.newState);
-            if (evictedState != null) {
-                systemStateHandler.dispose(evictedState);
+            if (Objects.equals(edge.getOutput(), out)) {
+                effectiveSink = edge.getTarget();
+                continue;
+            }
+
+            // the system state of the rejected query cannot be stored, so it has to be disposed
+            systemStateHandler.dispose(queryResult.newState);
+
+            throw new ReuseException(
+                    "Conflict: input '" + query + "', output '" + queryResult.output + "', i=" + i +
+                    ", cached output '" + edge.getOutput() + "'");
+        }
+
+        S evictedState =
+                effectiveSink.addSystemState(queryResult.newState, maxSystemStates, accessPolicy, evictPolicy);
+
+        if (budget != null) {
+            final boolean rejected = evictPolicy == EvictPolicy.REJECT_NEW && evictedState == queryResult.newState;
+            if (!rejected) {
+                if (evictedState != null) {
+                    // the new state replaces an evicted one
+                    budget.removed(1);
+                }
+                budget.added(effectiveSink, (long) effectiveSink.getDepth() * Math.max(1, nanosPerStep));
             }
         }
+
+        if (evictedState != null) {
+            systemStateHandler.dispose(evictedState);
+        }
     }
 
     @Override
@@ -371,11 +460,8 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
 
     private void appendNodesRecursively(Collection<ReuseNode<S, I, O>> nodes, ReuseNode<S, I, O> current) {
         nodes.add(current);
-        for (int i = 0; i < alphabetSize; i++) {
-            ReuseEdge<S, I, O> reuseEdge = current.getEdgeWithInput(i);
-            if (reuseEdge == null) {
-                continue;
-            }
+        // only visit the existing edges rather than probing every input symbol
+        for (ReuseEdge<S, I, O> reuseEdge : current.getEdges()) {
             if (!current.equals(reuseEdge.getTarget())) {
                 appendNodesRecursively(nodes, reuseEdge.getTarget());
             }
@@ -384,7 +470,7 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
 
     @Override
     public Collection<@Nullable ReuseEdge<S, I, O>> getOutgoingEdges(@Nullable ReuseNode<S, I, O> node) {
-        return node == null ? Collections.emptyList() : node.getEdges();
+        return node == null ? Collections.emptyList() : Collections.unmodifiableCollection(node.getEdges());
     }
 
     @Override
@@ -410,6 +496,7 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
         private int maxSystemStates = -1;
         private AccessPolicy accessPolicy = AccessPolicy.LIFO;
         private EvictPolicy evictPolicy = EvictPolicy.EVICT_OLDEST;
+        private int systemStateBudget = -1;
 
         public ReuseTreeBuilder(Alphabet<I> alphabet) {
             this.alphabet = alphabet;
@@ -453,6 +540,15 @@ public final class ReuseTree<S, I, O> implements Graph<@Nullable ReuseNode<S, I,
             return this;
         }
 
+        /**
+         * Restricts the total number of system states stored in the tree. A value less than or equal to 0 means
+         * unbounded.
+         */
+        public ReuseTreeBuilder<S, I, O> withSystemStateBudget(int systemStateBudget) {
+            this.systemStateBudget = systemStateBudget;
+            return this;
+        }
+
         public ReuseTree<S, I, O> build() {
             return new ReuseTree<>(this);
         }
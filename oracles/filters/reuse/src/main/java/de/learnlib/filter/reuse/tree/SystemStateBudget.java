@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.tree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A global budget for the system states stored in a {@link ReuseTree}. If the number of stored system states exceeds
+ * the budget, system states are evicted from the node whose states are the cheapest to re-create, i.e. whose replay
+ * cost is minimal. Evicted system states are handed to the {@link SystemStateHandler}.
+ * <p>
+ * The replay cost of a system state is reported when the state is added (see {@link #added(ReuseNode, long)}), and is
+ * fixed from then on. The {@link ReuseTree} estimates it as the depth of the node times the per-step latency that has
+ * been measured for the query which produced the state. If a node holds multiple system states, the node is ranked by
+ * the replay cost of its most recently added state.
+ * <p>
+ * For every node that holds system states, the budget keeps (exactly one) valid candidate entry in a priority queue.
+ * Entries of nodes whose states have been fetched by queries in the meantime are discarded lazily.
+ *
+ * @param <S>
+ *         system state class
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ */
+final class SystemStateBudget<S, I, O> {
+
+    private final int capacity;
+    private final SystemStateHandler<S> systemStateHandler;
+    private final AtomicInteger size;
+
+    // guarded by this
+    private final PriorityQueue<Candidate<S, I, O>> candidates;
+    private final Map<ReuseNode<S, I, O>, Candidate<S, I, O>> validCandidates;
+
+    SystemStateBudget(int capacity, SystemStateHandler<S> systemStateHandler) {
+        this.capacity = capacity;
+        this.systemStateHandler = systemStateHandler;
+        this.size = new AtomicInteger();
+        this.candidates = new PriorityQueue<>(Comparator.comparingLong((Candidate<S, I, O> c) -> c.replayCost));
+        this.validCandidates = new HashMap<>();
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Registers a system state that has been added to the given node and evicts system states if the budget is
+     * exceeded.
+     *
+     * @param node
+     *         the node the system state has been added to
+     * @param replayCost
+     *         the estimated time it takes to re-create the system state in nanoseconds
+     */
+    void added(ReuseNode<S, I, O> node, long replayCost) {
+        size.incrementAndGet();
+
+        final List<S> evicted = new ArrayList<>();
+
+        synchronized (this) {
+            offer(node, replayCost);
+
+            while (size.get() > capacity && !candidates.isEmpty()) {
+                final Candidate<S, I, O> candidate = candidates.poll();
+                final ReuseNode<S, I, O> victim = candidate.node;
+
+                if (validCandidates.get(victim) != candidate) {
+                    continue;
+                }
+
+                final S state = victim.fetchSystemState(true);
+
+                if (state == null) {
+                    // all states of the node have been fetched by queries in the meantime
+                    validCandidates.remove(victim);
+                    continue;
+                }
+
+                size.decrementAndGet();
+                evicted.add(state);
+
+                if (victim.hasSystemStates()) {
+                    offer(victim, candidate.replayCost);
+                } else {
+                    validCandidates.remove(victim);
+                }
+            }
+
+            compact();
+        }
+
+        // dispose outside of the lock, as disposing may be expensive
+        for (S state : evicted) {
+            systemStateHandler.dispose(state);
+        }
+    }
+
+    /**
+     * Registers the given number of system states that have been removed from the tree by other means than eviction.
+     */
+    void removed(int count) {
+        size.addAndGet(-count);
+    }
+
+    /**
+     * Discards all candidates, e.g. after the tree has been cleared.
+     */
+    synchronized void clear() {
+        candidates.clear();
+        validCandidates.clear();
+    }
+
+    private void offer(ReuseNode<S, I, O> node, long replayCost) {
+        final Candidate<S, I, O> candidate = new Candidate<>(node, replayCost);
+        validCandidates.put(node, candidate);
+        candidates.add(candidate);
+    }
+
+    private void compact() {
+        // valid candidates are bounded by the number of stored states, so stale ones make up the difference
+        if (candidates.size() > 2 * Math.max(capacity, validCandidates.size())) {
+            validCandidates.values().removeIf(c -> !c.node.hasSystemStates());
+            candidates.removeIf(c -> validCandidates.get(c.node) != c);
+        }
+    }
+
+    private static final class Candidate<S, I, O> {
+
+        private final ReuseNode<S, I, O> node;
+        private final long replayCost;
+
+        Candidate(ReuseNode<S, I, O> node, long replayCost) {
+            this.node = node;
+            this.replayCost = replayCost;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.reuse.ReuseCapableOracle;
+import de.learnlib.filter.reuse.ReuseOracle;
+import de.learnlib.filter.reuse.ReuseOracle.ReuseOracleBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the batched query processing of the {@link ReuseOracle}.
+ */
+public class BatchedReuseTest {
+
+    private final Alphabet<Integer> sigma = Alphabets.integers(0, 2);
+
+    @Test
+    public void testChainedQueries() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(sigma, () -> oracle).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries =
+                Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1, 2, 2)),
+                              new DefaultQuery<>(Word.fromSymbols(2)),
+                              new DefaultQuery<>(Word.fromSymbols(1)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2), Word.fromSymbols(0)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2)));
+
+        reuseOracle.processQueries(queries);
+
+        checkAnswers(queries);
+        // one reset for the chain 1 -> 12 -> 120, one reset each for 122 and 2
+        Assert.assertEquals(oracle.resets, 3);
+        Assert.assertEquals(oracle.continuations, 2);
+    }
+
+    @Test
+    public void testSharedPrefixStates() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(sigma, () -> oracle).withEnabledSystemstateInvalidation(false).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = new ArrayList<>();
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1, 0)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1, 1)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1, 2)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1)));
+        Collections.reverse(queries);
+
+        reuseOracle.processQueries(queries);
+
+        checkAnswers(queries);
+        // all extensions of 1 continue from its (non-invalidated) system state
+        Assert.assertEquals(oracle.resets, 1);
+        Assert.assertEquals(oracle.continuations, 3);
+    }
+
+    private static void checkAnswers(List<DefaultQuery<Integer, Word<Integer>>> queries) {
+        for (DefaultQuery<Integer, Word<Integer>> q : queries) {
+            final Word<Integer> expected = computeOutput(0, q.getInput()).output.suffix(q.getSuffix().length());
+            Assert.assertEquals(q.getOutput(), expected);
+        }
+    }
+
+    private static ReuseCapableOracle.QueryResult<Integer, Integer> computeOutput(int state, Word<Integer> input) {
+        final WordBuilder<Integer> output = new WordBuilder<>();
+        int sum = state;
+        for (Integer symbol : input) {
+            sum += symbol;
+            output.add(sum);
+        }
+        return new ReuseCapableOracle.QueryResult<>(output.toWord(), sum);
+    }
+
+    private static final class CountingOracle implements ReuseCapableOracle<Integer, Integer, Integer> {
+
+        private int resets;
+        private int continuations;
+
+        @Override
+        public QueryResult<Integer, Integer> continueQuery(Word<Integer> trace, Integer s) {
+            continuations++;
+            return computeOutput(s, trace);
+        }
+
+        @Override
+        public QueryResult<Integer, Integer> processQuery(Word<Integer> trace) {
+            resets++;
+            return computeOutput(0, trace);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import de.learnlib.filter.reuse.ReuseCapableOracle.QueryResult;
+import de.learnlib.filter.reuse.tree.ReuseEdge;
+import de.learnlib.filter.reuse.tree.ReuseNode;
+import de.learnlib.filter.reuse.tree.ReuseTree;
+import de.learnlib.filter.reuse.tree.ReuseTree.ReuseTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the compact (sparse) representation of the {@link ReuseTree} for large alphabets.
+ */
+public class CompactReuseTreeTest {
+
+    private static final int ALPHABET_SIZE = 200;
+    private static final int NUM_WORDS = 1000;
+    private static final int MAX_LENGTH = 10;
+
+    private final Alphabet<Integer> sigma = Alphabets.integers(0, ALPHABET_SIZE - 1);
+
+    @Test
+    public void testSparseEdges() {
+        final ReuseTree<Integer, Integer, String> tree = new ReuseTreeBuilder<Integer, Integer, String>(sigma).build();
+        final Random random = new Random(42);
+
+        final List<Word<Integer>> words = generateWords(random);
+        for (Word<Integer> w : words) {
+            tree.insert(w, new QueryResult<>(computeOutput(w), 0));
+        }
+
+        final Set<Word<Integer>> prefixes = new HashSet<>();
+        for (Word<Integer> w : words) {
+            Assert.assertEquals(tree.getOutput(w), computeOutput(w));
+            prefixes.addAll(w.prefixes(false));
+        }
+
+        // every (distinct) prefix corresponds to exactly one node
+        Assert.assertEquals(tree.getNodes().size(), prefixes.size());
+
+        for (ReuseNode<Integer, Integer, String> node : tree.getNodes()) {
+            int previousIndex = -1;
+            int numEdges = 0;
+
+            for (ReuseEdge<Integer, Integer, String> edge : node.getEdges()) {
+                Assert.assertNotNull(edge);
+                // edges are sorted by their input index
+                final int index = sigma.getSymbolIndex(edge.getInput());
+                Assert.assertTrue(index > previousIndex);
+                Assert.assertSame(node.getEdgeWithInput(index), edge);
+                previousIndex = index;
+                numEdges++;
+            }
+
+            Assert.assertEquals(node.getNumberOfEdges(), numEdges);
+        }
+    }
+
+    @Test
+    public void testOutputInterning() {
+        final ReuseTree<Integer, Integer, String> tree = new ReuseTreeBuilder<Integer, Integer, String>(sigma).build();
+
+        tree.insert(Word.fromSymbols(1), new QueryResult<>(Word.fromSymbols(new String("ok")), 0));
+        tree.insert(Word.fromSymbols(2), new QueryResult<>(Word.fromSymbols(new String("ok")), 0));
+
+        final ReuseNode<Integer, Integer, String> root = tree.getRoot();
+        final ReuseEdge<Integer, Integer, String> e1 = root.getEdgeWithInput(sigma.getSymbolIndex(1));
+        final ReuseEdge<Integer, Integer, String> e2 = root.getEdgeWithInput(sigma.getSymbolIndex(2));
+
+        Assert.assertNotNull(e1);
+        Assert.assertNotNull(e2);
+        Assert.assertSame(e1.getOutput(), e2.getOutput());
+    }
+
+    @Test
+    public void testLazySystemStates() {
+        final ReuseTree<Integer, Integer, String> tree = new ReuseTreeBuilder<Integer, Integer, String>(sigma).build();
+        final ReuseNode<Integer, Integer, String> root = tree.getRoot();
+
+        Assert.assertFalse(root.hasSystemStates());
+        Assert.assertFalse(root.systemStatesIterator().hasNext());
+        Assert.assertNull(root.fetchSystemState(true));
+
+        tree.insert(Word.epsilon(), new QueryResult<>(Word.epsilon(), 1));
+        Assert.assertTrue(root.hasSystemStates());
+        Assert.assertEquals(root.fetchSystemState(false), Integer.valueOf(1));
+
+        Assert.assertEquals(root.fetchSystemState(true), Integer.valueOf(1));
+        Assert.assertFalse(root.hasSystemStates());
+        Assert.assertTrue(root.removeSystemStates().isEmpty());
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+        final ReuseTree<Integer, Integer, String> tree = new ReuseTreeBuilder<Integer, Integer, String>(sigma).build();
+        final ReuseNode<Integer, Integer, String> root = tree.getRoot();
+
+        root.addEdge(ALPHABET_SIZE, new ReuseEdge<>(root, root, 0, "ok"), ALPHABET_SIZE);
+    }
+
+    private List<Word<Integer>> generateWords(Random random) {
+        final List<Word<Integer>> result = new ArrayList<>(NUM_WORDS);
+
+        for (int i = 0; i < NUM_WORDS; i++) {
+            final WordBuilder<Integer> wb = new WordBuilder<>();
+            final int length = random.nextInt(MAX_LENGTH) + 1;
+            for (int j = 0; j < length; j++) {
+                // skew the distribution so that prefixes are shared
+                wb.add(sigma.getSymbol(random.nextInt(j + 2)));
+            }
+            result.add(wb.toWord());
+        }
+
+        return result;
+    }
+
+    private static Word<String> computeOutput(Word<Integer> input) {
+        final WordBuilder<String> wb = new WordBuilder<>();
+        int sum = 0;
+        for (Integer i : input) {
+            sum += i;
+            wb.add(Integer.toString(sum % 3));
+        }
+        return wb.toWord();
+    }
+}
@@ -0,0 +1,152 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.learnlib.filter.reuse.ReuseCapableOracle;
+import de.learnlib.filter.reuse.ReuseOracle;
+import de.learnlib.filter.reuse.ReuseOracle.ReuseOracleBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a single {@link ReuseOracle} can be queried concurrently by multiple threads.
+ */
+public class ConcurrentReuseTest {
+
+    private static final int NUM_THREADS = 4;
+    private static final int MAX_LENGTH = 5;
+    private static final int THRESHOLD = 3;
+
+    private final Alphabet<Integer> sigma = Alphabets.integers(0, 3);
+
+    @DataProvider
+    public static Object[][] invalidation() {
+        return new Object[][] {{true}, {false}};
+    }
+
+    @Test(dataProvider = "invalidation")
+    public void testConcurrentQueries(boolean invalidate) throws InterruptedException, ExecutionException {
+        final ReuseOracle<Integer, Integer, String> reuseOracle =
+                new ReuseOracleBuilder<>(sigma, CounterOracle::new).withFailureOutputs(Collections.singleton("error"))
+                                                                   .withEnabledSystemstateInvalidation(invalidate)
+                                                                   .build();
+
+        final List<Word<Integer>> words = new ArrayList<>();
+        collectWords(Word.epsilon(), words);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        final List<Future<?>> futures = new ArrayList<>(NUM_THREADS);
+
+        try {
+            for (int i = 0; i < NUM_THREADS; i++) {
+                final List<Word<Integer>> shuffled = new ArrayList<>(words);
+                Collections.shuffle(shuffled, new Random(i));
+                futures.add(executor.submit(new QueryTask(reuseOracle, shuffled)));
+            }
+
+            for (Future<?> f : futures) {
+                // re-throws any assertion error of the workers
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Word<Integer> w : words) {
+            Assert.assertEquals(reuseOracle.getReuseTree().getOutput(w), computeOutput(0, w));
+        }
+    }
+
+    private void collectWords(Word<Integer> prefix, List<Word<Integer>> words) {
+        words.add(prefix);
+        if (prefix.length() < MAX_LENGTH) {
+            for (Integer i : sigma) {
+                collectWords(prefix.append(i), words);
+            }
+        }
+    }
+
+    private static Word<String> computeOutput(int state, Word<Integer> input) {
+        final WordBuilder<String> output = new WordBuilder<>();
+        int counter = state;
+        for (Integer symbol : input) {
+            if (counter + symbol <= THRESHOLD) {
+                counter += symbol;
+                output.add("ok");
+            } else {
+                output.add("error");
+            }
+        }
+        return output.toWord();
+    }
+
+    private static final class QueryTask implements Callable<Void> {
+
+        private final ReuseOracle<Integer, Integer, String> oracle;
+        private final List<Word<Integer>> words;
+
+        QueryTask(ReuseOracle<Integer, Integer, String> oracle, List<Word<Integer>> words) {
+            this.oracle = oracle;
+            this.words = words;
+        }
+
+        @Override
+        public Void call() {
+            for (Word<Integer> w : words) {
+                Assert.assertEquals(oracle.answerQuery(w), computeOutput(0, w));
+            }
+            return null;
+        }
+    }
+
+    private static final class CounterOracle implements ReuseCapableOracle<Integer, Integer, String> {
+
+        @Override
+        public QueryResult<Integer, String> continueQuery(Word<Integer> trace, Integer s) {
+            return execute(s, trace);
+        }
+
+        @Override
+        public QueryResult<Integer, String> processQuery(Word<Integer> trace) {
+            return execute(0, trace);
+        }
+
+        private static QueryResult<Integer, String> execute(int state, Word<Integer> trace) {
+            int counter = state;
+            for (Integer symbol : trace) {
+                if (counter + symbol <= THRESHOLD) {
+                    counter += symbol;
+                }
+            }
+            return new QueryResult<>(computeOutput(state, trace), counter);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import de.learnlib.api.SUL;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.reuse.ForkableSULReuseCapableOracle;
+import de.learnlib.filter.reuse.ReuseException;
+import de.learnlib.filter.reuse.ReuseOracle;
+import de.learnlib.filter.reuse.ReuseOracle.ReuseOracleBuilder;
+import de.learnlib.filter.reuse.SnapshotableSUL;
+import de.learnlib.filter.reuse.SnapshotableSULReuseCapableOracle;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the {@link SUL}-based {@link de.learnlib.filter.reuse.ReuseCapableOracle} adapters.
+ */
+public class SULReuseCapableOracleTest {
+
+    private final Alphabet<Integer> sigma = Alphabets.integers(0, 2);
+
+    @Test
+    public void testForkableSUL() {
+        final AtomicInteger resets = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final SumSUL sul = new SumSUL(resets, closed);
+
+        final Supplier<ForkableSULReuseCapableOracle<Integer, Integer>> supplier =
+                () -> new ForkableSULReuseCapableOracle<>(sul);
+        final ReuseOracle<SUL<Integer, Integer>, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(sigma, supplier).withSystemStateHandler(
+                        ForkableSULReuseCapableOracle.getSystemStateHandler()).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries =
+                Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1, 2, 0)),
+                              new DefaultQuery<>(Word.fromSymbols(1)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2)));
+
+        reuseOracle.processQueries(queries);
+
+        checkAnswers(queries);
+        Assert.assertEquals(resets.get(), 1);
+        Assert.assertEquals(closed.get(), 0);
+
+        reuseOracle.getReuseTree().disposeSystemstates();
+        Assert.assertEquals(closed.get(), 1);
+    }
+
+    @Test
+    public void testForkableSULConflict() {
+        final AtomicInteger resets = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final AtomicInteger offset = new AtomicInteger();
+        final SumSUL sul = new SumSUL(resets, closed, offset);
+
+        final ReuseOracle<SUL<Integer, Integer>, Integer, Integer> reuseOracle =
+                ForkableSULReuseCapableOracle.createReuseOracleBuilder(sigma, sul).build();
+
+        reuseOracle.answerQuery(Word.fromSymbols(1, 2));
+        Assert.assertEquals(closed.get(), 0);
+
+        // make the SUL non-deterministic, so that the next query conflicts with the reuse tree
+        offset.set(10);
+        Assert.assertThrows(ReuseException.class, () -> reuseOracle.answerQuery(Word.fromSymbols(1, 1)));
+
+        // the fork of the rejected query has been terminated
+        Assert.assertEquals(closed.get(), 1);
+
+        reuseOracle.getReuseTree().disposeSystemstates();
+        Assert.assertEquals(closed.get(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonForkableSUL() {
+        final SUL<Integer, Integer> sul = new SUL<Integer, Integer>() {
+
+            @Override
+            public void pre() {}
+
+            @Override
+            public void post() {}
+
+            @Override
+            public Integer step(Integer in) {
+                return in;
+            }
+        };
+
+        new ForkableSULReuseCapableOracle<>(sul);
+    }
+
+    @Test
+    public void testSnapshotableSUL() {
+        final AtomicInteger resets = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final SumSUL sul = new SumSUL(resets, closed);
+
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(sigma, () -> new SnapshotableSULReuseCapableOracle<>(sul))
+                        .withEnabledSystemstateInvalidation(false)
+                        .build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = new ArrayList<>();
+        queries.add(new DefaultQuery<>(Word.fromSymbols(2, 0)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(2, 1)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(2), Word.fromSymbols(2)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(2)));
+
+        reuseOracle.processQueries(queries);
+
+        checkAnswers(queries);
+        // all extensions of 2 restore its snapshot
+        Assert.assertEquals(resets.get(), 1);
+        // every session is terminated
+        Assert.assertEquals(closed.get(), 4);
+    }
+
+    private static void checkAnswers(List<DefaultQuery<Integer, Word<Integer>>> queries) {
+        for (DefaultQuery<Integer, Word<Integer>> q : queries) {
+            final WordBuilder<Integer> expected = new WordBuilder<>();
+            int sum = 0;
+            for (Integer i : q.getInput()) {
+                sum += i;
+                expected.add(sum);
+            }
+            Assert.assertEquals(q.getOutput(), expected.toWord().suffix(q.getSuffix().length()));
+        }
+    }
+
+    /**
+     * A SUL that outputs the sum of all inputs of the current session.
+     */
+    private static final class SumSUL implements SnapshotableSUL<Integer, Integer, Integer> {
+
+        private final AtomicInteger resets;
+        private final AtomicInteger closed;
+        private final AtomicInteger offset;
+        private int sum;
+
+        SumSUL(AtomicInteger resets, AtomicInteger closed) {
+            this(resets, closed, new AtomicInteger());
+        }
+
+        SumSUL(AtomicInteger resets, AtomicInteger closed, AtomicInteger offset) {
+            this.resets = resets;
+            this.closed = closed;
+            this.offset = offset;
+        }
+
+        @Override
+        public void pre() {
+            resets.incrementAndGet();
+            sum = 0;
+        }
+
+        @Override
+        public void post() {
+            closed.incrementAndGet();
+        }
+
+        @Override
+        public Integer step(Integer in) {
+            sum += in;
+            return sum + offset.get();
+        }
+
+        @Override
+        public Integer snapshot() {
+            return sum;
+        }
+
+        @Override
+        public void restore(Integer snapshot) {
+            sum = snapshot;
+        }
+
+        @Override
+        public boolean canFork() {
+            return true;
+        }
+
+        @Override
+        public SumSUL fork() {
+            return new SumSUL(resets, closed, offset);
+        }
+    }
+}
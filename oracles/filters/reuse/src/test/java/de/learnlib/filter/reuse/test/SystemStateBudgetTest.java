@@ -0,0 +1,122 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.filter.reuse.ReuseCapableOracle.QueryResult;
+import de.learnlib.filter.reuse.tree.ReuseNode.NodeResult;
+import de.learnlib.filter.reuse.tree.ReuseTree;
+import de.learnlib.filter.reuse.tree.ReuseTree.ReuseTreeBuilder;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the global, cost-aware system state budget of the {@link ReuseTree}.
+ */
+public class SystemStateBudgetTest {
+
+    @Test
+    public void testCheapestStatesAreEvicted() {
+        final List<Integer> disposed = new ArrayList<>();
+        final ReuseTree<Integer, Integer, String> tree =
+                new ReuseTreeBuilder<Integer, Integer, String>(Alphabets.integers(0, 3)).withSystemStateHandler(
+                        disposed::add).withSystemStateBudget(2).build();
+
+        insert(tree, 10, 1);
+        insert(tree, 30, 2, 2, 2);
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 2);
+        Assert.assertTrue(disposed.isEmpty());
+
+        // exceeds the budget, the state of depth 1 is the cheapest to re-create
+        insert(tree, 20, 3, 3);
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 2);
+        Assert.assertEquals(disposed, Collections.singletonList(10));
+        Assert.assertNull(tree.fetchSystemState(Word.fromSymbols(1)));
+
+        // fetching (and thereby invalidating) a state frees budget
+        final NodeResult<Integer, Integer, String> result = tree.fetchSystemState(Word.fromSymbols(2, 2, 2));
+        Assert.assertNotNull(result);
+        Assert.assertEquals(result.systemState, Integer.valueOf(30));
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 1);
+
+        insert(tree, 40);
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 2);
+        Assert.assertEquals(disposed, Collections.singletonList(10));
+
+        // the root state has no replay cost at all
+        insert(tree, 50, 2, 2, 2);
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 2);
+        Assert.assertEquals(disposed.size(), 2);
+        Assert.assertEquals(disposed.get(1), Integer.valueOf(40));
+
+        tree.disposeSystemstates();
+        Assert.assertEquals(tree.getNumberOfSystemStates(), 0);
+        Assert.assertEquals(disposed.size(), 4);
+    }
+
+    @Test
+    public void testMeasuredReplayCosts() {
+        final List<Integer> disposed = new ArrayList<>();
+        final ReuseTree<Integer, Integer, String> tree =
+                new ReuseTreeBuilder<Integer, Integer, String>(Alphabets.integers(0, 3)).withSystemStateHandler(
+                        disposed::add).withSystemStateBudget(2).build();
+
+        // a deep state of a fast query and shallow states of slow queries
+        insertMeasured(tree, 1, 30, 2, 2, 2);
+        insertMeasured(tree, 1_000_000, 10, 1);
+        insertMeasured(tree, 1_000, 20, 3, 3);
+
+        // the deep state is the cheapest to re-create
+        Assert.assertEquals(disposed, Collections.singletonList(30));
+        Assert.assertNull(tree.fetchSystemState(Word.fromSymbols(2, 2, 2)));
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(1)));
+
+        // shallow states of slow queries are kept in favor of deeper states of faster queries
+        insertMeasured(tree, 1_000_000, 11, 1);
+        insertMeasured(tree, 1_000_000, 12, 1);
+        Assert.assertEquals(disposed, Arrays.asList(30, 20));
+    }
+
+    @Test
+    public void testUnboundedTree() {
+        final ReuseTree<Integer, Integer, String> tree =
+                new ReuseTreeBuilder<Integer, Integer, String>(Alphabets.integers(0, 3)).build();
+
+        insert(tree, 10, 1);
+        Assert.assertEquals(tree.getNumberOfSystemStates(), -1);
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(1)));
+    }
+
+    private static void insert(ReuseTree<Integer, Integer, String> tree, Integer state, Integer... input) {
+        final List<String> output = Collections.nCopies(input.length, "ok");
+        tree.insert(Word.fromSymbols(input), new QueryResult<>(Word.fromList(output), state));
+    }
+
+    private static void insertMeasured(ReuseTree<Integer, Integer, String> tree,
+                                       long nanosPerStep,
+                                       Integer state,
+                                       Integer... input) {
+        final List<String> output = Collections.nCopies(input.length, "ok");
+        final QueryResult<Integer, String> result = new QueryResult<>(Word.fromList(output), state);
+        tree.insert(Word.fromSymbols(input), tree.getRoot(), result, nanosPerStep);
+    }
+}
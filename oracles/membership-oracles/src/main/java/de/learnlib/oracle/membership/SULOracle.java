@@ -21,7 +21,6 @@ import de.learnlib.api.SUL;
 import de.learnlib.api.oracle.MembershipOracle.MealyMembershipOracle;
 import de.learnlib.api.query.Query;
 import net.automatalib.words.Word;
-import net.automatalib.words.WordBuilder;
 
 /**
  * A wrapper around a system under learning (SUL).
@@ -51,18 +50,9 @@ public class SULOracle<I, O> implements MealyMembershipOracle<I, O> {
     public Word<O> answerQuery(Word<I> prefix, Word<I> suffix) {
         sul.pre();
         try {
-            // Prefix: Execute symbols, don't record output
-            for (I sym : prefix) {
-                sul.step(sym);
-            }
-
-            // Suffix: Execute symbols, outputs constitute output word
-            WordBuilder<O> wb = new WordBuilder<>(suffix.length());
-            for (I sym : suffix) {
-                wb.add(sul.step(sym));
-            }
-
-            return wb.toWord();
+            // Execute prefix and suffix at once, only the outputs of the suffix constitute the output word
+            final Word<O> output = sul.stepAll(prefix.concat(suffix));
+            return output.subWord(prefix.length());
         } finally {
             sul.post();
         }
@@ -0,0 +1,111 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A signal shared among the jobs of a single batch that allows to abort the processing of the remaining queries as
+ * soon as one query satisfies a given condition (e.g., reveals a counterexample).
+ * <p>
+ * Jobs process their queries in chunks and only check the signal in between chunks. Hence, already started chunks are
+ * processed completely and the (sub-) processors are never interrupted.
+ *
+ * @param <Q>
+ *         query type
+ */
+final class AbortSignal<Q> {
+
+    private final Predicate<? super Q> abortCondition;
+    private final @NonNegative int chunkSize;
+    private final AtomicReference<@Nullable Q> trigger;
+
+    AbortSignal(Predicate<? super Q> abortCondition, @NonNegative int chunkSize) {
+        this.abortCondition = abortCondition;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.trigger = new AtomicReference<>();
+    }
+
+    boolean isAborted() {
+        return trigger.get() != null;
+    }
+
+    /**
+     * Returns the query that triggered the abortion.
+     *
+     * @return the query that triggered the abortion, {@code null} if the batch has not been aborted
+     */
+    @Nullable Q getTrigger() {
+        return trigger.get();
+    }
+
+    /**
+     * Processes the given queries chunk-wise with the given processor, until either all queries are processed or the
+     * batch has been aborted.
+     *
+     * @param processor
+     *         the processor to answer the queries
+     * @param queries
+     *         the queries to process
+     *
+     * @return the number of processed queries
+     */
+    int process(BatchProcessor<Q> processor, Iterable<? extends Q> queries) {
+        final List<Q> chunk = new ArrayList<>(chunkSize);
+        int processed = 0;
+
+        for (Q q : queries) {
+            chunk.add(q);
+            if (chunk.size() == chunkSize) {
+                if (isAborted()) {
+                    return processed;
+                }
+                processed += chunk.size();
+                if (!processChunk(processor, chunk)) {
+                    return processed;
+                }
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty() && !isAborted()) {
+            processed += chunk.size();
+            processChunk(processor, chunk);
+        }
+
+        return processed;
+    }
+
+    private boolean processChunk(BatchProcessor<Q> processor, List<Q> chunk) {
+        processor.processBatch(chunk);
+
+        for (Q q : chunk) {
+            if (abortCondition.test(q)) {
+                trigger.compareAndSet(null, q);
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,228 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.base.Throwables;
+import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
+import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import de.learnlib.api.oracle.parallelism.ThreadPool;
+import de.learnlib.api.statistic.StatisticCollector;
+import de.learnlib.setting.LearnLibProperty;
+import de.learnlib.setting.LearnLibSettings;
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A batch processor that distributes queries on a work-stealing {@link ForkJoinPool}.
+ * <p>
+ * Incoming batches are recursively split into chunks whose size is adapted to the observed per-query latency: Chunks
+ * are sized such that processing a single chunk takes roughly {@link #TARGET_BATCH_TIME} nanoseconds. Hence, cheap
+ * queries are processed in large chunks (reducing scheduling overhead), whereas expensive queries are distributed
+ * fine-grained among the worker threads. Idle workers steal pending chunks from busy ones.
+ * <p>
+ * (Sub-) processors are not bound to a specific thread, but are handed out to whichever worker processes the current
+ * chunk. A processor is only used by a single worker at a time, and at most one processor per active worker is
+ * requested from the supplier.
+ * <p>
+ * The processor collects {@link PoolStatistics statistics} about the work distribution (per-worker throughput, latency
+ * histogram, imbalance ratio, queue depth) which can be obtained via {@link #getStatisticalData()}. Every chunk counts
+ * as a separate job.
+ *
+ * @param <Q>
+ *         query type
+ * @param <P>
+ *         (sub-) processor type
+ */
+public abstract class AbstractAdaptiveBatchProcessor<Q, P extends BatchProcessor<Q>>
+        implements ThreadPool, BatchProcessor<Q>, StatisticCollector {
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    private static final long DEFAULT_TARGET_BATCH_TIME = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Weight of the previous latency estimation when incorporating a new observation (as a power of two).
+     */
+    private static final int SMOOTHING_SHIFT = 2;
+
+    public static final int MIN_BATCH_SIZE = 1;
+    public static final int MAX_BATCH_SIZE = DEFAULT_MAX_BATCH_SIZE;
+    public static final long TARGET_BATCH_TIME = DEFAULT_TARGET_BATCH_TIME;
+    public static final int POOL_SIZE;
+
+    static {
+        LearnLibSettings settings = LearnLibSettings.getInstance();
+
+        int numProcessors = Runtime.getRuntime().availableProcessors();
+
+        POOL_SIZE = settings.getInt(LearnLibProperty.PARALLEL_POOL_SIZE, numProcessors);
+    }
+
+    private final OraclePool<P> oraclePool;
+    private final P processor;
+    private final ForkJoinPool pool;
+    private final PoolStatistics statistics;
+    private final @NonNegative int minBatchSize;
+    private final @NonNegative int maxBatchSize;
+    private final @NonNegative long targetBatchTime;
+
+    /**
+     * The (smoothed) time it takes to answer a single query in nanoseconds, {@code 0} if no estimation exists yet.
+     * Concurrent updates may overwrite each other, which is fine for a heuristic value.
+     */
+    private volatile long nanosPerQuery;
+
+    public AbstractAdaptiveBatchProcessor(Supplier<? extends P> oracleSupplier,
+                                          @NonNegative int minBatchSize,
+                                          @NonNegative int maxBatchSize,
+                                          @NonNegative long targetBatchTime,
+                                          ForkJoinPool pool) {
+        // the pool never runs more chunks concurrently than it has workers, so reserving a processor never blocks
+        this.oraclePool = new OraclePool<>(oracleSupplier, pool.getParallelism());
+        this.processor = oracleSupplier.get();
+        this.oraclePool.offer(this.processor);
+        this.pool = pool;
+        this.statistics = new PoolStatistics(getClass().getSimpleName());
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = Math.max(minBatchSize, maxBatchSize);
+        this.targetBatchTime = targetBatchTime;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void processBatch(Collection<? extends Q> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final List<Q> queryList = new ArrayList<>(queries);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AdaptiveQueriesJob<Q> job = new AdaptiveQueriesJob<>(this, queryList, latch);
+
+        statistics.jobSubmitted();
+        try {
+            pool.execute(job);
+        } catch (RejectedExecutionException e) {
+            statistics.jobRejected();
+            throw e;
+        }
+
+        try {
+            // Await completion of the root job, which is only completed once all of its sub-jobs have completed
+            // (even if some of them have failed)
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new BatchInterruptedException(e);
+        }
+
+        final Throwable t = job.getFailure();
+        if (t != null) {
+            Throwables.throwIfUnchecked(t);
+            throw new AssertionError("Jobs must not throw checked exceptions", t);
+        }
+    }
+
+    /**
+     * Returns the size of the chunks that a batch of the given size is currently split into. The size is bounded such
+     * that every worker of the pool receives at least one chunk.
+     *
+     * @param numQueries
+     *         the total number of queries of the current batch
+     *
+     * @return the size of the chunks
+     */
+    @NonNegative int getBatchSize(@NonNegative int numQueries) {
+        final long fairShare = (numQueries - 1) / pool.getParallelism() + 1;
+        final long latency = nanosPerQuery;
+        final long adaptiveSize = latency == 0 ? minBatchSize : targetBatchTime / latency;
+
+        return (int) Math.max(minBatchSize, Math.min(Math.min(adaptiveSize, maxBatchSize), fairShare));
+    }
+
+    /**
+     * Processes the given chunk of queries with an idle (sub-) processor and incorporates the required time into the
+     * latency estimation. The chunk must have been announced via {@link #chunkSubmitted()} before.
+     *
+     * @param chunk
+     *         the queries to process
+     */
+    void processChunk(List<? extends Q> chunk) {
+        try {
+            oraclePool.reserve();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            statistics.jobStarted();
+            statistics.jobFailed();
+            throw new BatchInterruptedException(e);
+        }
+
+        final long start = System.nanoTime();
+        new PooledQueriesJob<>(chunk, oraclePool, null, statistics).run();
+        updateLatency(chunk.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Records that a chunk has been forked off, i.e. that it awaits its {@link #processChunk(List) processing}.
+     */
+    void chunkSubmitted() {
+        statistics.jobSubmitted();
+    }
+
+    private void updateLatency(@NonNegative int numQueries, long elapsedNanos) {
+        final long observed = Math.max(1, elapsedNanos / numQueries);
+        final long previous = nanosPerQuery;
+
+        if (previous == 0) {
+            nanosPerQuery = observed;
+        } else {
+            nanosPerQuery = previous + ((observed - previous) >> SMOOTHING_SHIFT);
+        }
+    }
+
+    /**
+     * Returns the statistics about the work distribution of this processor. The returned object is live, i.e., it
+     * reflects the statistics of all batches processed so far and may be {@link PoolStatistics#reset() reset} by the
+     * caller.
+     *
+     * @return the statistics about the work distribution of this processor
+     */
+    @Override
+    public PoolStatistics getStatisticalData() {
+        return statistics;
+    }
+
+    protected P getProcessor() {
+        return processor;
+    }
+
+}
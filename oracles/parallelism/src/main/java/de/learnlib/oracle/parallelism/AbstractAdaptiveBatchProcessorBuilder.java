@@ -0,0 +1,115 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import de.learnlib.oracle.parallelism.AbstractDynamicBatchProcessorBuilder.StaticOracleProvider;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Builder class for a {@link AbstractAdaptiveBatchProcessor}.
+ *
+ * @param <Q>
+ *         query type
+ * @param <P>
+ *         (sub-) processor type
+ * @param <OR>
+ *         constructed oracle type
+ */
+public abstract class AbstractAdaptiveBatchProcessorBuilder<Q, P extends BatchProcessor<Q>, OR> {
+
+    private final @Nullable Supplier<? extends P> oracleSupplier;
+    private final @Nullable Collection<? extends P> oracles;
+    private @Nullable ForkJoinPool customPool;
+    private @NonNegative int minBatchSize = AbstractAdaptiveBatchProcessor.MIN_BATCH_SIZE;
+    private @NonNegative int maxBatchSize = AbstractAdaptiveBatchProcessor.MAX_BATCH_SIZE;
+    private @NonNegative long targetBatchTime = AbstractAdaptiveBatchProcessor.TARGET_BATCH_TIME;
+    private @NonNegative int poolSize = AbstractAdaptiveBatchProcessor.POOL_SIZE;
+
+    public AbstractAdaptiveBatchProcessorBuilder(Supplier<? extends P> oracleSupplier) {
+        this.oracleSupplier = oracleSupplier;
+        this.oracles = null;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder(Collection<? extends P> oracles) {
+        Preconditions.checkArgument(!oracles.isEmpty(), "No oracles specified");
+        this.oracles = oracles;
+        this.oracleSupplier = null;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder<Q, P, OR> withCustomPool(ForkJoinPool pool) {
+        this.customPool = pool;
+        return this;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder<Q, P, OR> withMinBatchSize(@NonNegative int minBatchSize) {
+        Preconditions.checkArgument(minBatchSize > 0, "Batch size must be positive");
+        this.minBatchSize = minBatchSize;
+        return this;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder<Q, P, OR> withMaxBatchSize(@NonNegative int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0, "Batch size must be positive");
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder<Q, P, OR> withTargetBatchTime(@NonNegative long time,
+                                                                               TimeUnit unit) {
+        Preconditions.checkArgument(time > 0, "Target batch time must be positive");
+        this.targetBatchTime = unit.toNanos(time);
+        return this;
+    }
+
+    public AbstractAdaptiveBatchProcessorBuilder<Q, P, OR> withPoolSize(@NonNegative int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    @SuppressWarnings("nullness") // the constructors guarantee that oracles and oracleSupplier are null exclusively
+    public OR create() {
+
+        final Supplier<? extends P> supplier;
+        final ForkJoinPool pool;
+
+        if (oracles != null) {
+            // the processor never requests more oracles than there are concurrently active workers
+            pool = new ForkJoinPool(oracles.size());
+            supplier = new StaticOracleProvider<>(oracles);
+        } else if (customPool != null) {
+            pool = customPool;
+            supplier = oracleSupplier;
+        } else {
+            pool = new ForkJoinPool(poolSize);
+            supplier = oracleSupplier;
+        }
+
+        return buildOracle(supplier, minBatchSize, maxBatchSize, targetBatchTime, pool);
+    }
+
+    protected abstract OR buildOracle(Supplier<? extends P> supplier,
+                                      int minBatchSize,
+                                      int maxBatchSize,
+                                      long targetBatchTime,
+                                      ForkJoinPool pool);
+}
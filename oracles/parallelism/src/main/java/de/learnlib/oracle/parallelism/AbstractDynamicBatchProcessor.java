@@ -18,21 +18,28 @@ package de.learnlib.oracle.parallelism;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import com.google.common.base.Throwables;
 import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
 import de.learnlib.api.oracle.parallelism.BatchProcessor;
 import de.learnlib.api.oracle.parallelism.ThreadPool;
+import de.learnlib.api.statistic.StatisticCollector;
 import de.learnlib.setting.LearnLibProperty;
 import de.learnlib.setting.LearnLibSettings;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A batch processor that dynamically distributes queries to worker threads.
+ * <p>
+ * The processor collects {@link PoolStatistics statistics} about the work distribution (per-worker throughput, latency
+ * histogram, imbalance ratio, queue depth) which can be obtained via {@link #getStatisticalData()}.
  *
  * @param <Q>
  *         query type
@@ -42,7 +49,7 @@ import org.checkerframework.checker.index.qual.NonNegative;
  * @author Malte Isberner
  */
 public abstract class AbstractDynamicBatchProcessor<Q, P extends BatchProcessor<Q>>
-        implements ThreadPool, BatchProcessor<Q> {
+        implements ThreadPool, BatchProcessor<Q>, StatisticCollector {
 
     public static final int BATCH_SIZE;
     public static final int POOL_SIZE;
@@ -59,15 +66,55 @@ public abstract class AbstractDynamicBatchProcessor<Q, P extends BatchProcessor<
     }
 
     private final ThreadLocal<P> threadLocalOracle;
+    private final @Nullable OraclePool<P> oraclePool;
     private final ExecutorService executor;
     private final @NonNegative int batchSize;
+    private final PoolStatistics statistics;
 
+    /**
+     * Constructor. Each thread of the given executor is bound to its own (sub-) processor.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new thread-specific (sub-) processors
+     * @param batchSize
+     *         the size of the batches that are submitted to the executor
+     * @param executor
+     *         the executor for processing the batches
+     */
     public AbstractDynamicBatchProcessor(final Supplier<? extends P> oracleSupplier,
                                          @NonNegative int batchSize,
                                          ExecutorService executor) {
         this.threadLocalOracle = ThreadLocal.withInitial(oracleSupplier);
+        this.oraclePool = null;
         this.executor = executor;
         this.batchSize = batchSize;
+        this.statistics = new PoolStatistics(getClass().getSimpleName());
+    }
+
+    /**
+     * Constructor. Batches borrow an idle (sub-) processor for the duration of their execution, regardless of the
+     * executing thread. The number of concurrently processed batches (and therefore the number of spawned
+     * processors) is bounded by the given maximum concurrency. This is suitable for executors that spawn a new thread
+     * for each task (cf. {@link PoolPolicy#VIRTUAL}).
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new (sub-) processors
+     * @param batchSize
+     *         the size of the batches that are submitted to the executor
+     * @param executor
+     *         the executor for processing the batches
+     * @param maxConcurrency
+     *         the maximum number of concurrently processed batches
+     */
+    public AbstractDynamicBatchProcessor(final Supplier<? extends P> oracleSupplier,
+                                         @NonNegative int batchSize,
+                                         ExecutorService executor,
+                                         @NonNegative int maxConcurrency) {
+        this.threadLocalOracle = ThreadLocal.withInitial(oracleSupplier);
+        this.oraclePool = new OraclePool<>(oracleSupplier, maxConcurrency);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.statistics = new PoolStatistics(getClass().getSimpleName());
     }
 
     @Override
@@ -82,49 +129,154 @@ public abstract class AbstractDynamicBatchProcessor<Q, P extends BatchProcessor<
 
     @Override
     public void processBatch(Collection<? extends Q> queries) {
+        processBatch(queries, (AbortSignal<Q>) null);
+    }
+
+    /**
+     * Processes the given batch until the first query that satisfies the given abort condition has been answered. Once
+     * the abort condition fires, no further jobs are submitted and already submitted (but not yet started) jobs are
+     * skipped. Jobs that are currently running are not interrupted.
+     * <p>
+     * Note that the abort condition is evaluated concurrently by the worker threads. If multiple queries satisfy the
+     * abort condition, it is unspecified which of these queries is returned.
+     *
+     * @param queries
+     *         the batch to process
+     * @param abortCondition
+     *         the condition that determines (after a query has been answered) whether the remaining queries should be
+     *         skipped
+     * @param <S>
+     *         (specific) query type
+     *
+     * @return a query that satisfies the abort condition, or {@code null} if no (answered) query satisfies it
+     *
+     * @throws BatchInterruptedException
+     *         if the processing thread was interrupted by an exception.
+     */
+    @SuppressWarnings("unchecked") // the signal only ever tests (and returns) queries of the given batch
+    public <S extends Q> @Nullable S processBatch(Collection<? extends S> queries,
+                                                  Predicate<? super S> abortCondition) {
+        final AbortSignal<Q> signal = new AbortSignal<>(q -> abortCondition.test((S) q), batchSize);
+        processBatch(queries, signal);
+        return (S) signal.getTrigger();
+    }
+
+    private void processBatch(Collection<? extends Q> queries, @Nullable AbortSignal<Q> signal) {
         if (queries.isEmpty()) {
             return;
         }
 
+        try {
+            // Await completion of all jobs
+            processBatchAsync(queries, signal).get();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Runnables must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new BatchInterruptedException(e);
+        }
+    }
+
+    /**
+     * Asynchronously processes the given batch. The queries are submitted to the executor, but this method does not
+     * wait for their completion. Note that for bounded processors (cf. {@link #AbstractDynamicBatchProcessor(Supplier,
+     * int, ExecutorService, int)}), this method may block until enough jobs have completed to schedule the remaining
+     * queries.
+     *
+     * @param queries
+     *         the batch to process
+     *
+     * @return a future that completes once all queries of the batch have been processed
+     *
+     * @throws BatchInterruptedException
+     *         if the submitting thread was interrupted while waiting for the submission of jobs
+     */
+    public CompletableFuture<Void> processBatchAsync(Collection<? extends Q> queries) {
+        return processBatchAsync(queries, null);
+    }
+
+    private CompletableFuture<Void> processBatchAsync(Collection<? extends Q> queries,
+                                                     @Nullable AbortSignal<Q> signal) {
+        if (queries.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
         int numQueries = queries.size();
         int numJobs = (numQueries - 1) / batchSize + 1;
         List<Q> currentBatch = null;
 
-        List<Future<?>> futures = new ArrayList<>(numJobs);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(numJobs);
+
+        try {
+            for (Q query : queries) {
 
-        for (Q query : queries) {
+                // do not bother submitting further jobs, if the batch has already been aborted
+                if (signal != null && signal.isAborted()) {
+                    currentBatch = null;
+                    break;
+                }
 
-            if (currentBatch == null) {
-                currentBatch = new ArrayList<>(batchSize);
+                if (currentBatch == null) {
+                    currentBatch = new ArrayList<>(batchSize);
+                }
+
+                currentBatch.add(query);
+                if (currentBatch.size() == batchSize) {
+                    futures.add(submit(currentBatch, signal));
+                    currentBatch = null;
+                }
             }
 
-            currentBatch.add(query);
-            if (currentBatch.size() == batchSize) {
-                Future<?> future = executor.submit(new DynamicQueriesJob<>(currentBatch, threadLocalOracle));
-                futures.add(future);
-                currentBatch = null;
+            if (currentBatch != null) {
+                futures.add(submit(currentBatch, signal));
             }
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new BatchInterruptedException(e);
         }
 
-        if (currentBatch != null) {
-            Future<?> future = executor.submit(new DynamicQueriesJob<>(currentBatch, threadLocalOracle));
-            futures.add(future);
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> submit(List<Q> batch, @Nullable AbortSignal<Q> signal)
+            throws InterruptedException {
+        if (oraclePool == null) {
+            return submit(new DynamicQueriesJob<>(batch, threadLocalOracle, signal, statistics));
         }
 
+        // bound the number of concurrent jobs before spawning a new thread for the job
+        oraclePool.reserve();
         try {
-            // Await completion of all jobs
-            for (Future<?> future : futures) {
-                future.get();
-            }
-        } catch (ExecutionException e) {
-            Throwables.throwIfUnchecked(e.getCause());
-            throw new AssertionError("Runnables must not throw checked exceptions", e);
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-            throw new BatchInterruptedException(e);
+            return submit(new PooledQueriesJob<>(batch, oraclePool, signal, statistics));
+        } catch (RejectedExecutionException e) {
+            oraclePool.cancel();
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> submit(Runnable job) {
+        statistics.jobSubmitted();
+        try {
+            return CompletableFuture.runAsync(job, executor);
+        } catch (RejectedExecutionException e) {
+            statistics.jobRejected();
+            throw e;
         }
     }
 
+    /**
+     * Returns the statistics about the work distribution of this processor. The returned object is live, i.e., it
+     * reflects the statistics of all batches processed so far and may be {@link PoolStatistics#reset() reset} by the
+     * caller.
+     *
+     * @return the statistics about the work distribution of this processor
+     */
+    @Override
+    public PoolStatistics getStatisticalData() {
+        return statistics;
+    }
+
     protected P getProcessor() {
         return threadLocalOracle.get();
     }
@@ -101,6 +101,12 @@ public abstract class AbstractDynamicBatchProcessorBuilder<Q, P extends BatchPro
                 case CACHED:
                     executor = new ScalingThreadPoolExecutor(0, poolSize, DEFAULT_KEEP_ALIVE_TIME, TimeUnit.SECONDS);
                     break;
+                case VIRTUAL:
+                    // threads are not re-used, so bind oracles to jobs rather than threads
+                    return buildBoundedOracle(oracleSupplier,
+                                              batchSize,
+                                              VirtualThreads.newThreadPerTaskExecutor(),
+                                              poolSize);
                 default:
                     throw new IllegalStateException("Unknown pool policy: " + poolPolicy);
             }
@@ -112,6 +118,11 @@ public abstract class AbstractDynamicBatchProcessorBuilder<Q, P extends BatchPro
 
     protected abstract OR buildOracle(Supplier<? extends P> supplier, int batchSize, ExecutorService executorService);
 
+    protected abstract OR buildBoundedOracle(Supplier<? extends P> supplier,
+                                             int batchSize,
+                                             ExecutorService executorService,
+                                             int maxConcurrency);
+
     static class StaticOracleProvider<P extends BatchProcessor<?>> implements Supplier<P> {
 
         private final P[] oracles;
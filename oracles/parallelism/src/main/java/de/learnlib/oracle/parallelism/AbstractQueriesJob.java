@@ -18,11 +18,14 @@ package de.learnlib.oracle.parallelism;
 import java.util.Collection;
 
 import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Abstract base class for jobs (i.e., {@link Runnable}s) that process queries.
  * <p>
- * Subclasses specify how the delegate batch processor is obtained.
+ * Subclasses specify how the delegate batch processor is obtained. If the job is given an {@link AbortSignal}, the
+ * queries are processed chunk-wise and the remaining chunks are skipped once the signal has been triggered. The
+ * processing of the job is recorded in the given {@link PoolStatistics}.
  *
  * @param <Q>
  *         query type
@@ -32,17 +35,61 @@ import de.learnlib.api.oracle.parallelism.BatchProcessor;
 abstract class AbstractQueriesJob<Q> implements Runnable {
 
     private final Collection<? extends Q> queries;
+    private final @Nullable AbortSignal<Q> abortSignal;
+    private final PoolStatistics statistics;
 
-    AbstractQueriesJob(Collection<? extends Q> queries) {
+    AbstractQueriesJob(Collection<? extends Q> queries,
+                       @Nullable AbortSignal<Q> abortSignal,
+                       PoolStatistics statistics) {
         this.queries = queries;
+        this.abortSignal = abortSignal;
+        this.statistics = statistics;
     }
 
     @Override
     public void run() {
-        BatchProcessor<Q> oracle = getOracle();
+        statistics.jobStarted();
 
-        oracle.processBatch(queries);
+        final BatchProcessor<Q> oracle;
+
+        try {
+            oracle = getOracle();
+        } catch (RuntimeException | Error e) {
+            statistics.jobFailed();
+            cancelOracle();
+            throw e;
+        }
+
+        final long start = System.nanoTime();
+        int processed = 0;
+
+        try {
+            if (abortSignal == null) {
+                oracle.processBatch(queries);
+                processed = queries.size();
+            } else {
+                processed = abortSignal.process(oracle, queries);
+            }
+        } finally {
+            statistics.recordJob(oracle, processed, System.nanoTime() - start);
+            releaseOracle(oracle);
+        }
     }
 
     protected abstract BatchProcessor<Q> getOracle();
+
+    /**
+     * Hook for subclasses that need to give back the oracle obtained via {@link #getOracle()} once the queries have
+     * been processed. The default implementation does nothing.
+     *
+     * @param oracle
+     *         the oracle previously returned by {@link #getOracle()}
+     */
+    protected void releaseOracle(BatchProcessor<Q> oracle) {}
+
+    /**
+     * Hook for subclasses that need to clean up if {@link #getOracle()} failed, i.e., if no oracle has been obtained
+     * that could be given back via {@link #releaseOracle(BatchProcessor)}. The default implementation does nothing.
+     */
+    protected void cancelOracle() {}
 }
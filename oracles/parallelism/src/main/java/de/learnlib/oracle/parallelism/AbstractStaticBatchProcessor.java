@@ -23,15 +23,22 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.google.common.base.Throwables;
 import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
 import de.learnlib.api.oracle.parallelism.BatchProcessor;
 import de.learnlib.api.oracle.parallelism.ThreadPool;
+import de.learnlib.api.statistic.StatisticCollector;
 import de.learnlib.setting.LearnLibProperty;
 import de.learnlib.setting.LearnLibSettings;
 import net.automatalib.commons.smartcollections.ArrayStorage;
+import net.automatalib.words.Word;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.EnsuresNonNullIf;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A batch processor that statically distributes a set of queries among several threads.
@@ -39,6 +46,13 @@ import org.checkerframework.checker.index.qual.NonNegative;
  * An incoming set of queries is divided into a given number of batches, such that the sizes of all batches differ by at
  * most one. This keeps the required synchronization effort low, but if some batches are "harder" (for whatever reason)
  * than others, the load can be very unbalanced.
+ * <p>
+ * Optionally, queries can be distributed with <i>prefix affinity</i>: Before being divided, the queries are arranged
+ * such that queries with common prefixes are next to each other. Hence, each (sub-) processor receives a set of
+ * related queries, which benefits (sub-) processors with local caches or reuse facilities.
+ * <p>
+ * The processor collects {@link PoolStatistics statistics} about the work distribution (per-worker throughput, latency
+ * histogram, imbalance ratio) which can be obtained via {@link #getStatisticalData()}.
  *
  * @param <Q>
  *         query type
@@ -48,7 +62,7 @@ import org.checkerframework.checker.index.qual.NonNegative;
  * @author Malte Isberner
  */
 public abstract class AbstractStaticBatchProcessor<Q, P extends BatchProcessor<Q>>
-        implements ThreadPool, BatchProcessor<Q> {
+        implements ThreadPool, BatchProcessor<Q>, StatisticCollector {
 
     private static final int DEFAULT_MIN_BATCH_SIZE = 10;
     public static final int MIN_BATCH_SIZE;
@@ -68,12 +82,35 @@ public abstract class AbstractStaticBatchProcessor<Q, P extends BatchProcessor<Q
     private final @NonNegative int minBatchSize;
     private final ArrayStorage<P> oracles;
     private final ExecutorService executor;
+    private final @Nullable Function<? super Q, ? extends Word<?>> affinityFunction;
+    private final PoolStatistics statistics;
 
     public AbstractStaticBatchProcessor(Collection<? extends P> oracles,
                                         @NonNegative int minBatchSize,
                                         PoolPolicy policy) {
+        this(oracles, minBatchSize, policy, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param oracles
+     *         the (sub-) processors to distribute the queries to
+     * @param minBatchSize
+     *         the minimum number of queries per (sub-) processor
+     * @param policy
+     *         the pool policy of the underlying executor
+     * @param affinityFunction
+     *         the function for extracting the input word of a query, used for distributing queries with prefix
+     *         affinity. May be {@code null} to disable prefix affinity
+     */
+    public AbstractStaticBatchProcessor(Collection<? extends P> oracles,
+                                        @NonNegative int minBatchSize,
+                                        PoolPolicy policy,
+                                        @Nullable Function<? super Q, ? extends Word<?>> affinityFunction) {
 
         this.oracles = new ArrayStorage<>(oracles);
+        this.affinityFunction = affinityFunction;
 
         switch (policy) {
             case FIXED:
@@ -82,14 +119,51 @@ public abstract class AbstractStaticBatchProcessor<Q, P extends BatchProcessor<Q
             case CACHED:
                 this.executor = Executors.newCachedThreadPool();
                 break;
+            case VIRTUAL:
+                this.executor = VirtualThreads.newThreadPerTaskExecutor();
+                break;
             default:
                 throw new IllegalArgumentException("Illegal pool policy: " + policy);
         }
         this.minBatchSize = minBatchSize;
+        this.statistics = new PoolStatistics(getClass().getSimpleName());
     }
 
     @Override
     public void processBatch(Collection<? extends Q> queries) {
+        processBatch(queries, (AbortSignal<Q>) null);
+    }
+
+    /**
+     * Processes the given batch until the first query that satisfies the given abort condition has been answered. Once
+     * the abort condition fires, every thread finishes its currently processed chunk of (at most {@link
+     * #MIN_BATCH_SIZE min. batch size}) queries and skips all of its remaining queries.
+     * <p>
+     * Note that the abort condition is evaluated concurrently by the worker threads. If multiple queries satisfy the
+     * abort condition, it is unspecified which of these queries is returned.
+     *
+     * @param queries
+     *         the batch to process
+     * @param abortCondition
+     *         the condition that determines (after a query has been answered) whether the remaining queries should be
+     *         skipped
+     * @param <S>
+     *         (specific) query type
+     *
+     * @return a query that satisfies the abort condition, or {@code null} if no (answered) query satisfies it
+     *
+     * @throws BatchInterruptedException
+     *         if the processing thread was interrupted by an exception.
+     */
+    @SuppressWarnings("unchecked") // the signal only ever tests (and returns) queries of the given batch
+    public <S extends Q> @Nullable S processBatch(Collection<? extends S> queries,
+                                                  Predicate<? super S> abortCondition) {
+        final AbortSignal<Q> signal = new AbortSignal<>(q -> abortCondition.test((S) q), minBatchSize);
+        processBatch(queries, signal);
+        return (S) signal.getTrigger();
+    }
+
+    private void processBatch(Collection<? extends Q> queries, @Nullable AbortSignal<Q> signal) {
         int num = queries.size();
         if (num <= 0) {
             return;
@@ -105,42 +179,21 @@ public abstract class AbstractStaticBatchProcessor<Q, P extends BatchProcessor<Q
         int externalBatches = numBatches - 1;
 
         if (externalBatches == 0) {
-            processQueriesLocally(queries);
+            processQueriesLocally(queries, signal);
             return;
         }
 
-        // Calculate the number of full and non-full batches. The difference in size
-        // will never exceed one (cf. pidgeonhole principle)
-        int fullBatchSize = (num - 1) / numBatches + 1;
-        int nonFullBatches = fullBatchSize * numBatches - num;
-
+        List<List<Q>> batches = distribute(queries, numBatches);
         List<Future<?>> futures = new ArrayList<>(externalBatches);
 
-        Iterator<? extends Q> queryIt = queries.iterator();
-
         // Start the threads for the external batches
         for (int i = 0; i < externalBatches; i++) {
-            int bs = fullBatchSize;
-            if (i < nonFullBatches) {
-                bs--;
-            }
-            List<Q> batch = new ArrayList<>(bs);
-            for (int j = 0; j < bs; j++) {
-                batch.add(queryIt.next());
-            }
-
-            Runnable job = new StaticQueriesJob<>(batch, oracles.get(i + 1));
-            Future<?> future = executor.submit(job);
-            futures.add(future);
-        }
-
-        // Finally, prepare and process the batch for the oracle executed in this thread.
-        List<Q> localBatch = new ArrayList<>(fullBatchSize);
-        for (int j = 0; j < fullBatchSize; j++) {
-            localBatch.add(queryIt.next());
+            Runnable job = new StaticQueriesJob<>(batches.get(i + 1), oracles.get(i + 1), signal, statistics);
+            futures.add(submit(job));
         }
 
-        processQueriesLocally(localBatch);
+        // Finally, process the batch for the oracle executed in this thread.
+        processQueriesLocally(batches.get(0), signal);
 
         try {
             for (Future<?> f : futures) {
@@ -155,8 +208,89 @@ public abstract class AbstractStaticBatchProcessor<Q, P extends BatchProcessor<Q
         }
     }
 
-    private void processQueriesLocally(Collection<? extends Q> localBatch) {
-        oracles.get(0).processBatch(localBatch);
+    /**
+     * Divides the given queries into the given number of batches. The first batch is processed by the local thread,
+     * the remaining batches are processed by the external threads.
+     * <p>
+     * The default implementation divides the queries into contiguous batches whose sizes differ by at most one. If
+     * prefix affinity is enabled, the queries are arranged by their common prefixes before being divided.
+     *
+     * @param queries
+     *         the queries to divide
+     * @param numBatches
+     *         the number of batches
+     *
+     * @return the list of batches
+     */
+    protected List<List<Q>> distribute(Collection<? extends Q> queries, @NonNegative int numBatches) {
+        final int num = queries.size();
+
+        // Calculate the number of full and non-full batches. The difference in size
+        // will never exceed one (cf. pidgeonhole principle)
+        final int fullBatchSize = (num - 1) / numBatches + 1;
+        final int nonFullBatches = fullBatchSize * numBatches - num;
+
+        // Arrange the queries such that the contiguous batches below contain related queries
+        final Iterator<? extends Q> queryIt = hasPrefixAffinity() ?
+                PrefixAffinity.arrange(queries, affinityFunction).iterator() :
+                queries.iterator();
+
+        final List<List<Q>> result = new ArrayList<>(numBatches);
+
+        for (int i = 0; i < numBatches; i++) {
+            final int bs = i < nonFullBatches ? fullBatchSize - 1 : fullBatchSize;
+            final List<Q> batch = new ArrayList<>(bs);
+            for (int j = 0; j < bs; j++) {
+                batch.add(queryIt.next());
+            }
+            result.add(batch);
+        }
+
+        return result;
+    }
+
+    @EnsuresNonNullIf(expression = "affinityFunction", result = true)
+    protected final boolean hasPrefixAffinity() {
+        return affinityFunction != null;
+    }
+
+    private Future<?> submit(Runnable job) {
+        statistics.jobSubmitted();
+        try {
+            return executor.submit(job);
+        } catch (RejectedExecutionException e) {
+            statistics.jobRejected();
+            throw e;
+        }
+    }
+
+    private void processQueriesLocally(Collection<? extends Q> localBatch, @Nullable AbortSignal<Q> signal) {
+        final P oracle = oracles.get(0);
+        final long start = System.nanoTime();
+        int processed = 0;
+
+        try {
+            if (signal == null) {
+                oracle.processBatch(localBatch);
+                processed = localBatch.size();
+            } else {
+                processed = signal.process(oracle, localBatch);
+            }
+        } finally {
+            statistics.recordJob(oracle, processed, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the statistics about the work distribution of this processor. The returned object is live, i.e., it
+     * reflects the statistics of all batches processed so far and may be {@link PoolStatistics#reset() reset} by the
+     * caller.
+     *
+     * @return the statistics about the work distribution of this processor
+     */
+    @Override
+    public PoolStatistics getStatisticalData() {
+        return statistics;
     }
 
     @Override
@@ -45,6 +45,7 @@ public abstract class AbstractStaticBatchProcessorBuilder<Q, P extends BatchProc
     private @NonNegative int minBatchSize = AbstractStaticBatchProcessor.MIN_BATCH_SIZE;
     private @NonNegative int numInstances = AbstractStaticBatchProcessor.NUM_INSTANCES;
     private PoolPolicy poolPolicy = AbstractStaticBatchProcessor.POOL_POLICY;
+    private boolean prefixAffinity;
 
     public AbstractStaticBatchProcessorBuilder(Collection<? extends P> oracles) {
         Preconditions.checkArgument(!oracles.isEmpty(), "No oracles specified");
@@ -72,6 +73,21 @@ public abstract class AbstractStaticBatchProcessorBuilder<Q, P extends BatchProc
         return this;
     }
 
+    /**
+     * Configures whether queries with common prefixes should preferably be processed by the same (sub-) processor.
+     * This increases the effectiveness of (sub-) processors with local caches or reuse facilities (e.g., a {@code
+     * SULCache} or {@code ReuseOracle} per (sub-) processor) at the cost of arranging each batch in a prefix tree.
+     *
+     * @param prefixAffinity
+     *         flag whether queries should be distributed with prefix affinity
+     *
+     * @return {@code this}
+     */
+    public AbstractStaticBatchProcessorBuilder<Q, P, OR> withPrefixAffinity(boolean prefixAffinity) {
+        this.prefixAffinity = prefixAffinity;
+        return this;
+    }
+
     @SuppressWarnings("nullness") // the constructors guarantee that oracles and oracleSupplier are null exclusively
     public OR create() {
         Collection<? extends P> oracleInstances;
@@ -85,9 +101,12 @@ public abstract class AbstractStaticBatchProcessorBuilder<Q, P extends BatchProc
             oracleInstances = oracleList;
         }
 
-        return buildOracle(oracleInstances, minBatchSize, poolPolicy);
+        return buildOracle(oracleInstances, minBatchSize, poolPolicy, prefixAffinity);
     }
 
-    protected abstract OR buildOracle(Collection<? extends P> oracleInstances, int minBatchSize, PoolPolicy poolPolicy);
+    protected abstract OR buildOracle(Collection<? extends P> oracleInstances,
+                                      int minBatchSize,
+                                      PoolPolicy poolPolicy,
+                                      boolean prefixAffinity);
 
 }
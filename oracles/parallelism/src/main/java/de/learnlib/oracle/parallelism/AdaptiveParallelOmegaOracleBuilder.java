@@ -0,0 +1,54 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import de.learnlib.api.oracle.OmegaMembershipOracle;
+import de.learnlib.api.query.OmegaQuery;
+
+/**
+ * A specialized {@link AbstractAdaptiveBatchProcessorBuilder} for {@link OmegaMembershipOracle}s.
+ *
+ * @param <S>
+ *         oracle state type
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class AdaptiveParallelOmegaOracleBuilder<S, I, D>
+        extends AbstractAdaptiveBatchProcessorBuilder<OmegaQuery<I, D>, OmegaMembershipOracle<S, I, D>, AdaptiveParallelOmegaOracle<S, I, D>> {
+
+    public AdaptiveParallelOmegaOracleBuilder(Supplier<? extends OmegaMembershipOracle<S, I, D>> oracleSupplier) {
+        super(oracleSupplier);
+    }
+
+    public AdaptiveParallelOmegaOracleBuilder(Collection<? extends OmegaMembershipOracle<S, I, D>> oracles) {
+        super(oracles);
+    }
+
+    @Override
+    protected AdaptiveParallelOmegaOracle<S, I, D> buildOracle(Supplier<? extends OmegaMembershipOracle<S, I, D>> supplier,
+                                                               int minBatchSize,
+                                                               int maxBatchSize,
+                                                               long targetBatchTime,
+                                                               ForkJoinPool pool) {
+        return new AdaptiveParallelOmegaOracle<>(supplier, minBatchSize, maxBatchSize, targetBatchTime, pool);
+    }
+}
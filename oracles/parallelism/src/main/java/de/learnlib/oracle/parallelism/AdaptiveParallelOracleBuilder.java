@@ -0,0 +1,52 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+
+/**
+ * A specialized {@link AbstractAdaptiveBatchProcessorBuilder} for {@link MembershipOracle}s.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class AdaptiveParallelOracleBuilder<I, D>
+        extends AbstractAdaptiveBatchProcessorBuilder<Query<I, D>, MembershipOracle<I, D>, AdaptiveParallelOracle<I, D>> {
+
+    public AdaptiveParallelOracleBuilder(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        super(oracleSupplier);
+    }
+
+    public AdaptiveParallelOracleBuilder(Collection<? extends MembershipOracle<I, D>> oracles) {
+        super(oracles);
+    }
+
+    @Override
+    protected AdaptiveParallelOracle<I, D> buildOracle(Supplier<? extends MembershipOracle<I, D>> supplier,
+                                                       int minBatchSize,
+                                                       int maxBatchSize,
+                                                       long targetBatchTime,
+                                                       ForkJoinPool pool) {
+        return new AdaptiveParallelOracle<>(supplier, minBatchSize, maxBatchSize, targetBatchTime, pool);
+    }
+}
@@ -0,0 +1,111 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A queries job for the {@link AbstractAdaptiveBatchProcessor}. The job recursively forks off halves of its range of
+ * queries until the range fits the current (adaptive) batch size, and processes the remaining range itself.
+ * <p>
+ * The job never joins its sub-jobs (and therefore never blocks a worker thread). Instead, completion is propagated
+ * upwards via {@link CountedCompleter#tryComplete()}, and the root job signals the completion of the whole batch via
+ * its latch. Failing jobs do not complete exceptionally but record their exception (cf. {@link #getFailure()}) and
+ * complete regularly. Hence, the latch is only released once every sub-job has settled, even if some of them have
+ * failed.
+ *
+ * @param <Q>
+ *         query type
+ */
+final class AdaptiveQueriesJob<Q> extends CountedCompleter<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AbstractAdaptiveBatchProcessor<Q, ?> processor;
+    private final transient List<? extends Q> queries;
+    private final transient @Nullable CountDownLatch latch;
+    private final transient AtomicReference<@Nullable Throwable> failure;
+    private final @NonNegative int low;
+    private final @NonNegative int high;
+
+    AdaptiveQueriesJob(AbstractAdaptiveBatchProcessor<Q, ?> processor,
+                       List<? extends Q> queries,
+                       CountDownLatch latch) {
+        this(null, processor, queries, latch, new AtomicReference<>(), 0, queries.size());
+    }
+
+    private AdaptiveQueriesJob(@Nullable AdaptiveQueriesJob<Q> parent,
+                               AbstractAdaptiveBatchProcessor<Q, ?> processor,
+                               List<? extends Q> queries,
+                               @Nullable CountDownLatch latch,
+                               AtomicReference<@Nullable Throwable> failure,
+                               @NonNegative int low,
+                               @NonNegative int high) {
+        super(parent);
+        this.processor = processor;
+        this.queries = queries;
+        this.latch = latch;
+        this.failure = failure;
+        this.low = low;
+        this.high = high;
+    }
+
+    @Override
+    public void compute() {
+        try {
+            final int batchSize = processor.getBatchSize(queries.size());
+
+            int end = high;
+            while (end - low > batchSize) {
+                final int mid = (low + end) >>> 1;
+                addToPendingCount(1);
+                processor.chunkSubmitted();
+                new AdaptiveQueriesJob<>(this, processor, queries, null, failure, mid, end).fork();
+                end = mid;
+            }
+
+            processor.processChunk(queries.subList(low, end));
+        } catch (RuntimeException | Error e) {
+            // only the first failure is reported, but all sub-jobs still need to settle
+            failure.compareAndSet(null, e);
+        }
+
+        tryComplete();
+    }
+
+    @Override
+    public void onCompletion(CountedCompleter<?> caller) {
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Returns the first exception that has been thrown while processing the queries of this job (or any of its
+     * sub-jobs). Only meaningful for the root job once it has completed.
+     *
+     * @return the first exception, or {@code null} if all queries have been processed successfully
+     */
+    @Nullable Throwable getFailure() {
+        return failure.get();
+    }
+}
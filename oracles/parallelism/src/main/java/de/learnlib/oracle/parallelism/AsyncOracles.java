@@ -0,0 +1,132 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import de.learnlib.api.SUL;
+import de.learnlib.api.oracle.AsyncMembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
+import de.learnlib.oracle.membership.SULOracle;
+import net.automatalib.words.Word;
+
+/**
+ * Factory methods for adapting synchronous {@link MembershipOracle}s (and {@link SUL}s) to {@link
+ * AsyncMembershipOracle}s and vice versa.
+ * <p>
+ * Note that {@link DynamicParallelOracle}s natively implement {@link AsyncMembershipOracle} and do not need to be
+ * adapted.
+ */
+public final class AsyncOracles {
+
+    private AsyncOracles() {
+        throw new AssertionError("Constructor should not be invoked");
+    }
+
+    /**
+     * Adapts the given (shared) membership oracle to an {@link AsyncMembershipOracle} that processes batches on the
+     * given executor. If the executor may run several jobs concurrently, the oracle needs to be thread-safe (e.g. a
+     * {@link de.learnlib.api.oracle.parallelism.ParallelOracle}). Otherwise, use a single-threaded executor.
+     *
+     * @param oracle
+     *         the oracle to adapt
+     * @param executor
+     *         the executor for processing the batches
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the asynchronous oracle
+     */
+    public static <I, D> AsyncMembershipOracle<I, D> asAsync(MembershipOracle<I, D> oracle, Executor executor) {
+        return new ExecutorAsyncOracle<>(() -> oracle, executor);
+    }
+
+    /**
+     * Adapts the membership oracles of the given supplier to an {@link AsyncMembershipOracle} that processes batches
+     * on the given executor. Each thread of the executor uses its own oracle instance.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new thread-specific membership oracle instances
+     * @param executor
+     *         the executor for processing the batches
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the asynchronous oracle
+     */
+    public static <I, D> AsyncMembershipOracle<I, D> asAsync(Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
+                                                             Executor executor) {
+        return new ExecutorAsyncOracle<>(oracleSupplier, executor);
+    }
+
+    /**
+     * Adapts the given {@code sul} to an {@link AsyncMembershipOracle} that processes batches on the given executor.
+     * Each thread of the executor uses its own {@link SULOracle} for a {@link SUL#fork() forked} instance of the sul.
+     * This requires that the sul is {@link SUL#canFork() forkable}.
+     *
+     * @param sul
+     *         the sul instance for spawning new thread-specific membership oracle instances
+     * @param executor
+     *         the executor for processing the batches
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output domain type
+     *
+     * @return the asynchronous oracle
+     */
+    public static <I, O> AsyncMembershipOracle<I, Word<O>> asAsync(SUL<I, O> sul, Executor executor) {
+        Preconditions.checkArgument(sul.canFork(), "SUL must be forkable for asynchronous processing");
+        return new ExecutorAsyncOracle<>(() -> new SULOracle<>(sul.fork()), executor);
+    }
+
+    /**
+     * Adapts the given {@link AsyncMembershipOracle} to a (synchronous) {@link MembershipOracle} that blocks until
+     * all queries have been answered. Exceptions that occurred during the asynchronous processing are re-thrown. If
+     * the calling thread is interrupted while waiting for the answers, a {@link BatchInterruptedException} is thrown.
+     *
+     * @param oracle
+     *         the oracle to adapt
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the synchronous oracle
+     */
+    public static <I, D> MembershipOracle<I, D> asSync(AsyncMembershipOracle<I, D> oracle) {
+        return queries -> {
+            try {
+                oracle.processQueriesAsync(queries).get();
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalStateException("Asynchronous query processing failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+                throw new BatchInterruptedException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
+import de.learnlib.api.query.Query;
+
+/**
+ * A {@link DeduplicatingOracle} for DFA membership queries. As the acceptance of a word does not depend on how it is
+ * split into prefix and suffix, queries are considered redundant if they share the same {@link Query#getInput() input
+ * word}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class DFADeduplicatingOracle<I> extends DeduplicatingOracle<I, Boolean> implements DFAMembershipOracle<I> {
+
+    public DFADeduplicatingOracle(MembershipOracle<I, Boolean> delegate) {
+        super(delegate);
+    }
+
+    @Override
+    protected Object getKey(Query<I, Boolean> query) {
+        return query.getInput();
+    }
+}
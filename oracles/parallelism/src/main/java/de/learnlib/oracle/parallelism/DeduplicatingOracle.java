@@ -0,0 +1,93 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
+import de.learnlib.api.query.Query;
+import net.automatalib.commons.util.Pair;
+
+/**
+ * A membership oracle that removes redundant queries from a batch before forwarding it to a delegate oracle. This is
+ * particularly useful in front of a {@link ParallelOracle}, which would otherwise dispatch every redundant query to a
+ * (potentially different) worker and pay for a separate system reset each time.
+ * <p>
+ * Queries of a batch are grouped by a key (cf. {@link #getKey(Query)}) and only a single query per group is forwarded
+ * to the delegate. Upon answering this representative, all queries of the group are answered. By default, queries are
+ * considered redundant if they have identical prefixes and suffixes. See {@link DFADeduplicatingOracle} and {@link
+ * MealyDeduplicatingOracle} for specializations that exploit the semantics of the respective output domains.
+ * <p>
+ * Contrary to a cache, this oracle does not keep any information between batches.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class DeduplicatingOracle<I, D> implements MembershipOracle<I, D> {
+
+    private final MembershipOracle<I, D> delegate;
+
+    public DeduplicatingOracle(MembershipOracle<I, D> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, D>> queries) {
+        if (queries.size() <= 1) {
+            delegate.processQueries(queries);
+        } else {
+            delegate.processQueries(group(queries));
+        }
+    }
+
+    /**
+     * Groups the given queries. Every query of the given batch must be answered by exactly one of the returned
+     * (representative) queries.
+     *
+     * @param queries
+     *         the queries to group
+     *
+     * @return the representative queries of the groups
+     */
+    protected Collection<? extends Query<I, D>> group(Collection<? extends Query<I, D>> queries) {
+        final Map<Object, GroupQuery<I, D>> groups = new LinkedHashMap<>();
+
+        for (Query<I, D> q : queries) {
+            groups.computeIfAbsent(getKey(q), k -> new GroupQuery<>(q.getPrefix(), q.getSuffix(), (m, o) -> o))
+                  .addMember(q);
+        }
+
+        return groups.values();
+    }
+
+    /**
+     * Returns the key of the given query. Queries with equal keys are answered by a single query. The default
+     * implementation uses the pair of the prefix and the suffix of the query.
+     *
+     * @param query
+     *         the query
+     *
+     * @return the key of the query
+     */
+    protected Object getKey(Query<I, D> query) {
+        return Pair.of(query.getPrefix(), query.getSuffix());
+    }
+}
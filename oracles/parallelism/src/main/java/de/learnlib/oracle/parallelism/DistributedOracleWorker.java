@@ -0,0 +1,135 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The worker side of a {@link DistributedParallelOracle}. A worker answers the batches it receives with a local
+ * {@link MembershipOracle} (e.g. one that is backed by a native SUL process).
+ * <p>
+ * A worker is typically run in a separate process via
+ * <pre>
+ * new DistributedOracleWorker&lt;&gt;(oracle, codec).serve(System.in, System.out);
+ * </pre>
+ * (cf. {@link StreamWorkerChannel#forProcess(ProcessBuilder)}) or listens for connections of an oracle via {@link
+ * #serve(ServerSocket)} (cf. {@link StreamWorkerChannel#forSocket(String, int)}). Within a single JVM, {@link
+ * #process(byte[])} can be used as a {@link WorkerChannel} directly.
+ * <p>
+ * Note that a worker processes the batches of a single connection sequentially. Hence, the local oracle does not need to
+ * be thread-safe unless the worker serves multiple connections concurrently.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class DistributedOracleWorker<I, D> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistributedOracleWorker.class);
+
+    private final MembershipOracle<I, D> oracle;
+    private final QueryCodec<I, D> codec;
+
+    public DistributedOracleWorker(MembershipOracle<I, D> oracle, QueryCodec<I, D> codec) {
+        this.oracle = oracle;
+        this.codec = codec;
+    }
+
+    /**
+     * Answers a single encoded batch.
+     *
+     * @param request
+     *         the encoded batch of queries
+     *
+     * @return the encoded answers (or the encoded error, if the local oracle failed to answer the batch)
+     *
+     * @throws IOException
+     *         if the request could not be decoded
+     */
+    public byte[] process(byte[] request) throws IOException {
+        final List<DefaultQuery<I, D>> queries = DistributedProtocol.decodeRequest(codec, request);
+
+        try {
+            oracle.processQueries(queries);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to answer batch", e);
+            return DistributedProtocol.encodeError(String.valueOf(e));
+        }
+
+        return DistributedProtocol.encodeResponse(codec, queries);
+    }
+
+    /**
+     * Answers batches received via the given input stream until the stream is closed.
+     *
+     * @param in
+     *         the stream to read requests from
+     * @param out
+     *         the stream to write responses to
+     *
+     * @throws IOException
+     *         if an I/O error occurs
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        final DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in));
+        final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+
+        byte[] request;
+        while ((request = DistributedProtocol.readFrame(dataIn)) != null) {
+            DistributedProtocol.writeFrame(dataOut, process(request));
+            dataOut.flush();
+        }
+    }
+
+    /**
+     * Sequentially accepts connections on the given server socket and serves each of them until it is closed. This
+     * method only returns if the server socket is closed.
+     *
+     * @param serverSocket
+     *         the socket to accept connections on
+     *
+     * @throws IOException
+     *         if an I/O error occurs while accepting connections
+     */
+    public void serve(ServerSocket serverSocket) throws IOException {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setTcpNoDelay(true);
+                serve(socket.getInputStream(), socket.getOutputStream());
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                LOGGER.warn("Lost connection to oracle", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import de.learnlib.api.oracle.parallelism.BatchInterruptedException;
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
+import de.learnlib.api.query.Query;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ParallelOracle} that distributes queries among (remote) workers, e.g. {@link DistributedOracleWorker}s
+ * running in separate processes or on separate machines. Workers are connected via {@link WorkerChannel}s, which
+ * allows to plug in arbitrary transports.
+ * <p>
+ * Incoming queries are divided into batches of a given size which are encoded via a {@link QueryCodec} and
+ * dynamically dispatched to the workers, i.e., each worker requests a new batch as soon as it has answered its previous
+ * one. If a channel fails (cf. {@link WorkerChannel#exchange(byte[])}), the respective worker is discarded and its
+ * current batch is re-dispatched to the remaining workers. If a worker reports that its local oracle failed to answer
+ * a batch, the failure is propagated to the caller as a {@link WorkerException}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class DistributedParallelOracle<I, D> implements ParallelOracle<I, D> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistributedParallelOracle.class);
+
+    public static final int BATCH_SIZE = 64;
+
+    private final List<WorkerChannel> channels;
+    private final QueryCodec<I, D> codec;
+    private final @NonNegative int batchSize;
+    private final ExecutorService executor;
+
+    public DistributedParallelOracle(Collection<? extends WorkerChannel> channels,
+                                     QueryCodec<I, D> codec,
+                                     @NonNegative int batchSize) {
+        Preconditions.checkArgument(!channels.isEmpty(), "No channels specified");
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+
+        this.channels = new CopyOnWriteArrayList<>(channels);
+        this.codec = codec;
+        this.batchSize = batchSize;
+        this.executor = Executors.newFixedThreadPool(channels.size());
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, D>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final List<Query<I, D>> queryList = new ArrayList<>(queries);
+        final Queue<List<Query<I, D>>> pending = new ConcurrentLinkedQueue<>(Lists.partition(queryList, batchSize));
+
+        // Workers may fail after the other workers have already finished. Hence, repeat until all batches are answered
+        while (!pending.isEmpty()) {
+            final List<WorkerChannel> available = new ArrayList<>(channels);
+
+            if (available.isEmpty()) {
+                throw new IllegalStateException("All workers have failed");
+            }
+
+            final List<Future<?>> futures = new ArrayList<>(available.size());
+            for (WorkerChannel channel : available) {
+                futures.add(executor.submit(() -> dispatch(channel, pending)));
+            }
+
+            try {
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new AssertionError("Runnables must not throw checked exceptions", e);
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+                throw new BatchInterruptedException(e);
+            }
+        }
+    }
+
+    private void dispatch(WorkerChannel channel, Queue<List<Query<I, D>>> pending) {
+        // a channel must only be used by a single thread at a time, even if this oracle is used concurrently
+        synchronized (channel) {
+            List<Query<I, D>> batch;
+            while ((batch = pending.poll()) != null) {
+                final byte[] request;
+                try {
+                    request = DistributedProtocol.encodeRequest(codec, batch);
+                } catch (IOException e) {
+                    pending.clear();
+                    throw new UncheckedIOException(e);
+                }
+
+                try {
+                    final byte[] response = channel.exchange(request);
+                    DistributedProtocol.decodeResponse(codec, batch, response);
+                } catch (IOException e) {
+                    LOGGER.warn("Worker failed, re-dispatching its batch", e);
+                    pending.add(batch);
+                    discard(channel);
+                    return;
+                } catch (RuntimeException e) {
+                    pending.clear();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void discard(WorkerChannel channel) {
+        channels.remove(channel);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close channel", e);
+        }
+    }
+
+    /**
+     * Returns the number of workers that have not failed so far.
+     *
+     * @return the number of available workers
+     */
+    public int getNumAvailableWorkers() {
+        return channels.size();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+        closeChannels();
+    }
+
+    @Override
+    public void shutdownNow() {
+        executor.shutdownNow();
+        closeChannels();
+    }
+
+    private void closeChannels() {
+        for (WorkerChannel channel : channels) {
+            discard(channel);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A builder for a {@link DistributedParallelOracle}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class DistributedParallelOracleBuilder<I, D> {
+
+    private final Collection<? extends WorkerChannel> channels;
+    private final QueryCodec<I, D> codec;
+    private @NonNegative int batchSize = DistributedParallelOracle.BATCH_SIZE;
+
+    public DistributedParallelOracleBuilder(Collection<? extends WorkerChannel> channels, QueryCodec<I, D> codec) {
+        Preconditions.checkArgument(!channels.isEmpty(), "No channels specified");
+        this.channels = channels;
+        this.codec = codec;
+    }
+
+    public DistributedParallelOracleBuilder<I, D> withBatchSize(@NonNegative int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DistributedParallelOracle<I, D> create() {
+        return new DistributedParallelOracle<>(channels, codec, batchSize);
+    }
+}
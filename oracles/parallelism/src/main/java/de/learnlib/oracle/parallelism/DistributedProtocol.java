@@ -0,0 +1,210 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The (binary) wire format shared by {@link DistributedParallelOracle}s and {@link DistributedOracleWorker}s.
+ * <p>
+ * A request consists of the number of queries, followed by the prefix and suffix (each encoded as its length and its
+ * symbols) of every query. A response consists of a status byte, followed by either the outputs of all queries (in
+ * the order of the request) or an (UTF-8 encoded) error message. All lengths are variable-length encoded.
+ */
+final class DistributedProtocol {
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    private static final int MAX_FRAME_SIZE = Integer.MAX_VALUE - 8;
+
+    private DistributedProtocol() {
+        // prevent instantiation
+    }
+
+    static <I, D> byte[] encodeRequest(QueryCodec<I, D> codec, List<? extends Query<I, D>> queries)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        writeVarInt(out, queries.size());
+        for (Query<I, D> q : queries) {
+            writeWord(out, codec, q.getPrefix());
+            writeWord(out, codec, q.getSuffix());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static <I, D> List<DefaultQuery<I, D>> decodeRequest(QueryCodec<I, D> codec, byte[] request) throws IOException {
+        final DataInput in = new DataInputStream(new ByteArrayInputStream(request));
+
+        final int num = readVarInt(in);
+        final List<DefaultQuery<I, D>> result = new ArrayList<>(num);
+
+        for (int i = 0; i < num; i++) {
+            final Word<I> prefix = readWord(in, codec);
+            final Word<I> suffix = readWord(in, codec);
+            result.add(new DefaultQuery<>(prefix, suffix));
+        }
+
+        return result;
+    }
+
+    static <I, D> byte[] encodeResponse(QueryCodec<I, D> codec, List<? extends DefaultQuery<I, D>> queries)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(STATUS_OK);
+        for (DefaultQuery<I, D> q : queries) {
+            codec.writeOutput(out, q.getOutput());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static byte[] encodeError(String message) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(STATUS_ERROR);
+        // DataOutput#writeUTF is limited to 64 KiB, which (e.g. nested) exception messages may exceed
+        final byte[] encoded = message.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, encoded.length);
+        out.write(encoded);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the given response and answers the given queries accordingly.
+     *
+     * @throws WorkerException
+     *         if the worker reported an error
+     */
+    static <I, D> void decodeResponse(QueryCodec<I, D> codec,
+                                      List<? extends Query<I, D>> queries,
+                                      byte[] response) throws IOException {
+        final DataInput in = new DataInputStream(new ByteArrayInputStream(response));
+
+        final byte status = in.readByte();
+        if (status == STATUS_ERROR) {
+            final int length = readVarInt(in);
+            if (length < 0 || length > response.length) {
+                throw new IOException("Illegal message length: " + length);
+            }
+            final byte[] encoded = new byte[length];
+            in.readFully(encoded);
+            throw new WorkerException(new String(encoded, StandardCharsets.UTF_8));
+        } else if (status != STATUS_OK) {
+            throw new IOException("Illegal response status: " + status);
+        }
+
+        // decode all outputs first, so that a corrupted response does not leave the batch partially answered
+        final List<D> outputs = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            outputs.add(codec.readOutput(in));
+        }
+
+        for (int i = 0; i < queries.size(); i++) {
+            queries.get(i).answer(outputs.get(i));
+        }
+    }
+
+    static void writeFrame(DataOutput out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+
+    /**
+     * Reads a frame from the given input.
+     *
+     * @return the frame, or {@code null} if the input has been closed before the frame started
+     */
+    static byte @Nullable [] readFrame(DataInput in) throws IOException {
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Illegal frame size: " + length);
+        }
+
+        final byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final byte b = in.readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static <I> void writeWord(DataOutput out, QueryCodec<I, ?> codec, Word<I> word) throws IOException {
+        writeVarInt(out, word.length());
+        for (I i : word) {
+            codec.writeSymbol(out, i);
+        }
+    }
+
+    private static <I> Word<I> readWord(DataInput in, QueryCodec<I, ?> codec) throws IOException {
+        final int length = readVarInt(in);
+        final WordBuilder<I> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(codec.readSymbol(in));
+        }
+        return wb.toWord();
+    }
+}
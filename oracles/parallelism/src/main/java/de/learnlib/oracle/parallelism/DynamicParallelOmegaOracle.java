@@ -29,6 +29,11 @@ import org.checkerframework.checker.index.qual.NonNegative;
 /**
  * A specialized {@link AbstractDynamicBatchProcessor} for {@link OmegaMembershipOracle}s that implements {@link
  * ParallelOmegaOracle}.
+ * <p>
+ * Since the cost of answering omega queries varies with the lengths of their prefixes and loops as well as their
+ * numbers of repetitions, queries are submitted in the order of their descending estimated cost, so that expensive
+ * queries do not delay the completion of a batch. Furthermore, queries that only differ in their number of repetitions
+ * are only answered once.
  *
  * @param <I>
  *         input symbol type
@@ -45,9 +50,18 @@ public class DynamicParallelOmegaOracle<S, I, D>
         super(oracleSupplier, batchSize, executor);
     }
 
+    public DynamicParallelOmegaOracle(Supplier<? extends OmegaMembershipOracle<S, I, D>> oracleSupplier,
+                                      @NonNegative int batchSize,
+                                      ExecutorService executor,
+                                      @NonNegative int maxConcurrency) {
+        super(oracleSupplier, batchSize, executor, maxConcurrency);
+    }
+
     @Override
     public void processQueries(Collection<? extends OmegaQuery<I, D>> omegaQueries) {
-        processBatch(omegaQueries);
+        final OmegaQueryScheduler<I, D> scheduler = new OmegaQueryScheduler<>(omegaQueries);
+        processBatch(scheduler.getScheduledQueries());
+        scheduler.propagateAnswers();
     }
 
     @Override
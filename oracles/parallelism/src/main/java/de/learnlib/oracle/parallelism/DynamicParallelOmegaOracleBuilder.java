@@ -49,4 +49,12 @@ public class DynamicParallelOmegaOracleBuilder<S, I, D>
                                                               ExecutorService executorService) {
         return new DynamicParallelOmegaOracle<>(supplier, batchSize, executorService);
     }
+
+    @Override
+    protected DynamicParallelOmegaOracle<S, I, D> buildBoundedOracle(Supplier<? extends OmegaMembershipOracle<S, I, D>> supplier,
+                                                                     int batchSize,
+                                                                     ExecutorService executorService,
+                                                                     int maxConcurrency) {
+        return new DynamicParallelOmegaOracle<>(supplier, batchSize, executorService, maxConcurrency);
+    }
 }
@@ -16,17 +16,22 @@
 package de.learnlib.oracle.parallelism;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import de.learnlib.api.oracle.AsyncMembershipOracle;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.oracle.parallelism.ParallelOracle;
 import de.learnlib.api.query.Query;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A specialized {@link AbstractDynamicBatchProcessor} for {@link MembershipOracle}s that implements {@link
- * ParallelOracle}.
+ * ParallelOracle}. Additionally, this oracle implements {@link AsyncMembershipOracle} so that callers may continue
+ * their work while the queries are being processed by the worker threads.
  *
  * @param <I>
  *         input symbol type
@@ -34,7 +39,7 @@ import org.checkerframework.checker.index.qual.NonNegative;
  *         output domain type
  */
 public class DynamicParallelOracle<I, D> extends AbstractDynamicBatchProcessor<Query<I, D>, MembershipOracle<I, D>>
-        implements ParallelOracle<I, D> {
+        implements ParallelOracle<I, D>, AsyncMembershipOracle<I, D> {
 
     public DynamicParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
                                  @NonNegative int batchSize,
@@ -42,8 +47,26 @@ public class DynamicParallelOracle<I, D> extends AbstractDynamicBatchProcessor<Q
         super(oracleSupplier, batchSize, executor);
     }
 
+    public DynamicParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
+                                 @NonNegative int batchSize,
+                                 ExecutorService executor,
+                                 @NonNegative int maxConcurrency) {
+        super(oracleSupplier, batchSize, executor, maxConcurrency);
+    }
+
     @Override
     public void processQueries(Collection<? extends Query<I, D>> queries) {
         processBatch(queries);
     }
+
+    @Override
+    public <Q extends Query<I, D>> @Nullable Q processQueries(Collection<? extends Q> queries,
+                                                              Predicate<? super Q> abortCondition) {
+        return processBatch(queries, abortCondition);
+    }
+
+    @Override
+    public CompletableFuture<Void> processQueriesAsync(Collection<? extends Query<I, D>> queries) {
+        return processBatchAsync(queries);
+    }
 }
@@ -47,4 +47,12 @@ public class DynamicParallelOracleBuilder<I, D>
                                                       ExecutorService executorService) {
         return new DynamicParallelOracle<>(supplier, batchSize, executorService);
     }
+
+    @Override
+    protected DynamicParallelOracle<I, D> buildBoundedOracle(Supplier<? extends MembershipOracle<I, D>> supplier,
+                                                             int batchSize,
+                                                             ExecutorService executorService,
+                                                             int maxConcurrency) {
+        return new DynamicParallelOracle<>(supplier, batchSize, executorService, maxConcurrency);
+    }
 }
@@ -18,6 +18,7 @@ package de.learnlib.oracle.parallelism;
 import java.util.Collection;
 
 import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A queries job that maintains a thread-local reference to a {@link BatchProcessor}, and dynamically selects that
@@ -35,8 +36,11 @@ final class DynamicQueriesJob<Q> extends AbstractQueriesJob<Q> {
 
     private final ThreadLocal<? extends BatchProcessor<Q>> threadLocalOracle;
 
-    DynamicQueriesJob(Collection<? extends Q> queries, ThreadLocal<? extends BatchProcessor<Q>> threadLocalOracle) {
-        super(queries);
+    DynamicQueriesJob(Collection<? extends Q> queries,
+                      ThreadLocal<? extends BatchProcessor<Q>> threadLocalOracle,
+                      @Nullable AbortSignal<Q> abortSignal,
+                      PoolStatistics statistics) {
+        super(queries, abortSignal, statistics);
         this.threadLocalOracle = threadLocalOracle;
     }
 
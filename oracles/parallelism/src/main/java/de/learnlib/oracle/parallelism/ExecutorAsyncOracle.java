@@ -0,0 +1,54 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import de.learnlib.api.oracle.AsyncMembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+
+/**
+ * An {@link AsyncMembershipOracle} that processes each batch of queries as a single job of a given {@link Executor}.
+ * Each thread of the executor is bound to its own (synchronous) membership oracle, obtained from the given supplier.
+ * Hence, concurrently outstanding batches are processed in parallel, if the executor provides multiple threads.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+public class ExecutorAsyncOracle<I, D> implements AsyncMembershipOracle<I, D> {
+
+    private final ThreadLocal<MembershipOracle<I, D>> threadLocalOracle;
+    private final Executor executor;
+
+    public ExecutorAsyncOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier, Executor executor) {
+        this.threadLocalOracle = ThreadLocal.withInitial(oracleSupplier);
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> processQueriesAsync(Collection<? extends Query<I, D>> queries) {
+        if (queries.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> threadLocalOracle.get().processQueries(queries), executor);
+    }
+}
@@ -0,0 +1,73 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import de.learnlib.api.query.AbstractQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+
+/**
+ * A query that represents a group of (redundant) queries of a batch. Upon answering this query, all members of the
+ * group are answered with the respective projection of the answer.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+final class GroupQuery<I, D> extends AbstractQuery<I, D> {
+
+    private final List<Query<I, D>> members;
+    private final BiFunction<? super Query<I, D>, ? super D, ? extends D> projection;
+
+    /**
+     * Constructor.
+     *
+     * @param prefix
+     *         the prefix of the query
+     * @param suffix
+     *         the suffix of the query
+     * @param projection
+     *         the function for deriving the answer of a member from the answer of this query
+     */
+    GroupQuery(Word<I> prefix,
+               Word<I> suffix,
+               BiFunction<? super Query<I, D>, ? super D, ? extends D> projection) {
+        super(prefix, suffix);
+        this.members = new ArrayList<>();
+        this.projection = projection;
+    }
+
+    void addMember(Query<I, D> member) {
+        members.add(member);
+    }
+
+    @Override
+    public void answer(D output) {
+        for (Query<I, D> m : members) {
+            m.answer(projection.apply(m, output));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toStringWithAnswer(null);
+    }
+}
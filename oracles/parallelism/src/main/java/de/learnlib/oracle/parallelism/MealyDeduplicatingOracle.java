@@ -0,0 +1,121 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle.MealyMembershipOracle;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link DeduplicatingOracle} for Mealy membership queries. Since the output of a Mealy machine for a prefix of a
+ * word is the respective prefix of the output for the complete word, every query whose input word is a prefix of
+ * another query's input word can be answered from the output of the longer query. Hence, only maximal input words are
+ * forwarded to the delegate, and all (prefix-) subsumed queries are answered from the respective sub-words of these
+ * outputs. This resembles the master/slave grouping of the Mealy caches, but does not keep any information between
+ * batches.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class MealyDeduplicatingOracle<I, O> extends DeduplicatingOracle<I, Word<O>>
+        implements MealyMembershipOracle<I, O> {
+
+    public MealyDeduplicatingOracle(MembershipOracle<I, Word<O>> delegate) {
+        super(delegate);
+    }
+
+    @Override
+    protected Collection<? extends Query<I, Word<O>>> group(Collection<? extends Query<I, Word<O>>> queries) {
+        final List<Query<I, Word<O>>> sorted = new ArrayList<>(queries);
+        // process longer words first, so that every word is already covered when one of its extensions exists
+        sorted.sort((q1, q2) -> Integer.compare(q2.getInput().length(), q1.getInput().length()));
+
+        final Node<I, O> root = new Node<>(null);
+        final List<GroupQuery<I, Word<O>>> result = new ArrayList<>();
+
+        for (Query<I, Word<O>> q : sorted) {
+            final Word<I> input = q.getInput();
+            final int len = input.length();
+
+            Node<I, O> node = root;
+            int idx = 0;
+            while (idx < len) {
+                final Node<I, O> succ = node.getSuccessor(input.getSymbol(idx));
+                if (succ == null) {
+                    break;
+                }
+                node = succ;
+                idx++;
+            }
+
+            GroupQuery<I, Word<O>> master = node.master;
+
+            if (idx < len || master == null) {
+                master = new GroupQuery<>(Word.epsilon(), input, MealyDeduplicatingOracle::project);
+                result.add(master);
+
+                if (root.master == null) {
+                    root.master = master;
+                }
+                while (idx < len) {
+                    node = node.addSuccessor(input.getSymbol(idx++), master);
+                }
+            }
+
+            master.addMember(q);
+        }
+
+        return result;
+    }
+
+    private static <I, O> Word<O> project(Query<I, Word<O>> member, Word<O> output) {
+        final int start = member.getPrefix().length();
+        return output.subWord(start, start + member.getSuffix().length());
+    }
+
+    private static final class Node<I, O> {
+
+        private @Nullable Map<I, Node<I, O>> successors;
+        private @Nullable GroupQuery<I, Word<O>> master;
+
+        Node(@Nullable GroupQuery<I, Word<O>> master) {
+            this.master = master;
+        }
+
+        @Nullable Node<I, O> getSuccessor(I symbol) {
+            return successors == null ? null : successors.get(symbol);
+        }
+
+        Node<I, O> addSuccessor(I symbol, GroupQuery<I, Word<O>> master) {
+            if (successors == null) {
+                successors = new HashMap<>();
+            }
+            final Node<I, O> succ = new Node<>(master);
+            successors.put(symbol, succ);
+            return succ;
+        }
+    }
+}
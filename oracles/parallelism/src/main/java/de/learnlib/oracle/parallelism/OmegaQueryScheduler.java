@@ -0,0 +1,166 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.learnlib.api.query.OmegaQuery;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A cost-aware scheduler for batches of {@link OmegaQuery}s.
+ * <p>
+ * The cost of answering an omega query grows with the length of its prefix and the number of (potential) repetitions of
+ * its loop. This class therefore orders queries by their estimated cost (cf. {@link #estimateCost(OmegaQuery)}),
+ * largest first, so that expensive queries do not end up as the stragglers of a batch.
+ * <p>
+ * Furthermore, queries that only differ in their number of repetitions (<i>siblings</i>) are only answered once: Only
+ * the sibling with the largest number of repetitions is scheduled. Since an omega oracle stops unrolling the loop as
+ * soon as it detects a periodicity, the answers of all other siblings can be derived from this answer (cf. {@link
+ * #propagateAnswers()}). This assumes a deterministic system.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ */
+final class OmegaQueryScheduler<I, D> {
+
+    private final List<OmegaQuery<I, D>> scheduledQueries;
+    private final Map<OmegaQuery<I, D>, List<OmegaQuery<I, D>>> derivedQueries;
+
+    OmegaQueryScheduler(Collection<? extends OmegaQuery<I, D>> queries) {
+        final Map<Pair<Word<I>, Word<I>>, OmegaQuery<I, D>> representatives = new HashMap<>();
+        final Map<OmegaQuery<I, D>, List<OmegaQuery<I, D>>> siblings = new IdentityHashMap<>();
+
+        this.scheduledQueries = new ArrayList<>(queries.size());
+
+        for (OmegaQuery<I, D> q : queries) {
+            final Pair<Word<I>, Word<I>> key = Pair.of(q.getPrefix(), q.getLoop());
+            final OmegaQuery<I, D> rep = representatives.get(key);
+
+            if (rep == null) {
+                representatives.put(key, q);
+            } else if (q.getRepeat() > rep.getRepeat()) {
+                representatives.put(key, q);
+                siblings.computeIfAbsent(q, k -> new ArrayList<>()).add(rep);
+                final List<OmegaQuery<I, D>> repSiblings = siblings.remove(rep);
+                if (repSiblings != null) {
+                    siblings.get(q).addAll(repSiblings);
+                }
+            } else if (q.getRepeat() < rep.getRepeat()) {
+                siblings.computeIfAbsent(rep, k -> new ArrayList<>()).add(q);
+            } else {
+                // identical queries are answered independently
+                scheduledQueries.add(q);
+            }
+        }
+
+        this.scheduledQueries.addAll(representatives.values());
+        this.scheduledQueries.sort(descendingCost());
+        this.derivedQueries = siblings;
+    }
+
+    /**
+     * Returns the queries that need to be answered, ordered by descending estimated cost.
+     *
+     * @return the queries that need to be answered
+     */
+    List<OmegaQuery<I, D>> getScheduledQueries() {
+        return scheduledQueries;
+    }
+
+    /**
+     * Answers the queries that have been omitted from the {@link #getScheduledQueries() scheduled queries}. Must be
+     * called after the scheduled queries have been answered.
+     */
+    void propagateAnswers() {
+        for (Map.Entry<OmegaQuery<I, D>, List<OmegaQuery<I, D>>> e : derivedQueries.entrySet()) {
+            final OmegaQuery<I, D> rep = e.getKey();
+            final int periodicity = rep.getPeriodicity();
+
+            for (OmegaQuery<I, D> q : e.getValue()) {
+                if (periodicity > q.getRepeat()) {
+                    // the sibling stops unrolling the loop before the periodicity is detected
+                    q.answer(null, -1);
+                } else {
+                    q.answer(rep.getOutput(), periodicity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the cost of answering the given query as the maximum number of symbols that need to be executed.
+     *
+     * @param query
+     *         the query
+     *
+     * @return the estimated cost
+     */
+    static long estimateCost(OmegaQuery<?, ?> query) {
+        return query.getPrefix().length() + (long) query.getLoop().length() * query.getRepeat();
+    }
+
+    private static <I, D> Comparator<OmegaQuery<I, D>> descendingCost() {
+        return Comparator.<OmegaQuery<I, D>>comparingLong(OmegaQueryScheduler::estimateCost).reversed();
+    }
+
+    /**
+     * Divides the given queries into the given number of batches, such that the sizes of all batches differ by at most
+     * one and the estimated costs of the batches are balanced. To do so, the queries are sorted by descending cost and
+     * dealt in alternating directions (i.e., 0, 1, ..., n-1, n-1, ..., 1, 0, 0, 1, ...) among the batches.
+     *
+     * @param queries
+     *         the queries to divide
+     * @param numBatches
+     *         the number of batches
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the list of batches
+     */
+    static <I, D> List<List<OmegaQuery<I, D>>> distribute(Collection<? extends OmegaQuery<I, D>> queries,
+                                                          @NonNegative int numBatches) {
+        final List<OmegaQuery<I, D>> sorted = new ArrayList<>(queries);
+        sorted.sort(descendingCost());
+
+        final List<List<OmegaQuery<I, D>>> result = new ArrayList<>(numBatches);
+        final int expectedSize = (sorted.size() - 1) / numBatches + 1;
+        for (int i = 0; i < numBatches; i++) {
+            result.add(new ArrayList<>(expectedSize));
+        }
+
+        for (int i = 0; i < sorted.size(); i++) {
+            final int round = i / numBatches;
+            final int pos = i % numBatches;
+            final int idx = (round & 1) == 0 ? pos : numBatches - 1 - pos;
+            result.get(idx).add(sorted.get(i));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * A pool of (sub-) processors whose concurrent usage is bounded by a {@link Semaphore}.
+ * <p>
+ * As opposed to thread-local processors, the pooled processors are not bound to a specific thread, which allows to
+ * use them with executors that spawn a new thread for each task (e.g. virtual threads). A processor is only handed
+ * out to a single job at a time, and new processors are only requested from the supplier if all existing ones are
+ * currently in use. Hence, the pool never contains more processors than permits.
+ *
+ * @param <P>
+ *         (sub-) processor type
+ */
+final class OraclePool<P> {
+
+    private final Supplier<? extends P> oracleSupplier;
+    private final Deque<P> idleOracles;
+    private final Semaphore permits;
+
+    OraclePool(Supplier<? extends P> oracleSupplier, @NonNegative int maxConcurrency) {
+        this.oracleSupplier = oracleSupplier;
+        this.idleOracles = new ConcurrentLinkedDeque<>();
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Reserves a permit for a subsequent call to {@link #acquire()}, blocking until a permit is available.
+     *
+     * @throws InterruptedException
+     *         if the waiting thread has been interrupted
+     */
+    void reserve() throws InterruptedException {
+        permits.acquire();
+    }
+
+    /**
+     * Returns a previously reserved permit without acquiring a processor, e.g. if the job could not be scheduled or
+     * if {@link #acquire()} failed.
+     */
+    void cancel() {
+        permits.release();
+    }
+
+    /**
+     * Returns an idle processor (or a new one, if no processor is idle). Requires a previous call to {@link
+     * #reserve()}.
+     *
+     * @return the processor
+     */
+    P acquire() {
+        final P idle = idleOracles.pollFirst();
+
+        if (idle != null) {
+            return idle;
+        }
+
+        return oracleSupplier.get();
+    }
+
+    /**
+     * Adds the given (e.g. eagerly created) processor to the idle processors of this pool without affecting the
+     * permits.
+     *
+     * @param oracle
+     *         the processor to add
+     */
+    void offer(P oracle) {
+        idleOracles.offerFirst(oracle);
+    }
+
+    /**
+     * Returns the given processor to the pool and releases the reserved permit.
+     *
+     * @param oracle
+     *         the processor to return
+     */
+    void release(P oracle) {
+        idleOracles.offerFirst(oracle);
+        permits.release();
+    }
+}
@@ -32,7 +32,7 @@ import de.learnlib.oracle.membership.StateLocalInputSULOracle;
 import net.automatalib.words.Word;
 
 /**
- * Builders for (static and dynamic) parallel oracles.
+ * Builders for (static, dynamic, adaptive and distributed) parallel oracles.
  * <p>
  * Using the methods defined in this class is the preferred way of instantiating parallel oracles.
  * <p>
@@ -64,6 +64,34 @@ import net.automatalib.words.Word;
  *      .withPoolPolicy(PoolPolicy.CACHED)
  *      .create();
  * </pre>
+ * <p>
+ * Creating a dynamic parallel oracle for an I/O-bound (forkable) SUL that spawns a new (virtual, if supported) thread
+ * for each query, while processing at most 1000 queries (and therefore forking at most 1000 SULs) concurrently:
+ * <pre>
+ * ParallelOracleBuilders.newDynamicParallelOracle(sul)
+ *      .withPoolSize(1000)
+ *      .withPoolPolicy(PoolPolicy.VIRTUAL)
+ *      .create();
+ * </pre>
+ * <p>
+ * Creating an adaptive parallel oracle with a work-stealing pool of size 4, whose batches are sized such that each
+ * batch takes about 10 milliseconds to process, using a (forkable) SUL:
+ * <pre>
+ * ParallelOracleBuilders.newAdaptiveParallelOracle(sul)
+ *      .withPoolSize(4)
+ *      .withTargetBatchTime(10, TimeUnit.MILLISECONDS)
+ *      .create();
+ * </pre>
+ * <p>
+ * Creating a distributed parallel oracle that distributes batches of 100 queries among two worker processes (each
+ * running a {@link DistributedOracleWorker} on its standard input and output):
+ * <pre>
+ * ParallelOracleBuilders.newDistributedParallelOracle(
+ *          Arrays.asList(StreamWorkerChannel.forProcess(workerProcess1), StreamWorkerChannel.forProcess(workerProcess2)),
+ *          QueryCodecs.forMealy(inputs, outputs))
+ *      .withBatchSize(100)
+ *      .create();
+ * </pre>
  *
  * @author Malte Isberner
  */
@@ -426,6 +454,203 @@ public final class ParallelOracleBuilders {
         return new StaticParallelOmegaOracleBuilder<>(oracles);
     }
 
+    /**
+     * Creates an {@link AdaptiveParallelOracleBuilder} using the provided {@code sul} as a supplier. This requires that
+     * the sul is {@link SUL#canFork() forkable}.
+     *
+     * @param sul
+     *         the sul instance for spawning new worker-specific membership oracle instances
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    public static <I, O> AdaptiveParallelOracleBuilder<I, Word<O>> newAdaptiveParallelOracle(SUL<I, O> sul) {
+        Preconditions.checkArgument(sul.canFork(), FORKABLE_SUL_ERR);
+        return new AdaptiveParallelOracleBuilder<>(toSupplier(sul));
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOracleBuilder} using the provided {@code sul} as a supplier. This requires that
+     * the sul is {@link SUL#canFork() forkable}.
+     *
+     * @param sul
+     *         the sul instance for spawning new worker-specific membership oracle instances
+     * @param undefinedInput
+     *         the input symbol used for responding to inputs that are not {@link StateLocalInputSUL#currentlyEnabledInputs()
+     *         enabled}.
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    public static <I, O> AdaptiveParallelOracleBuilder<I, Word<O>> newAdaptiveParallelOracle(StateLocalInputSUL<I, O> sul,
+                                                                                             O undefinedInput) {
+        Preconditions.checkArgument(sul.canFork(), FORKABLE_SUL_ERR);
+        return new AdaptiveParallelOracleBuilder<>(toSupplier(sul, undefinedInput));
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOracleBuilder} using the provided supplier.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new worker-specific membership oracle instances
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    public static <I, D> AdaptiveParallelOracleBuilder<I, D> newAdaptiveParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        return new AdaptiveParallelOracleBuilder<>(oracleSupplier);
+    }
+
+    /**
+     * Convenience method for {@link #newAdaptiveParallelOracle(Collection)}.
+     *
+     * @param firstOracle
+     *         the first (mandatory) oracle
+     * @param otherOracles
+     *         further (optional) oracles to be used by other workers
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    @SafeVarargs
+    public static <I, D> AdaptiveParallelOracleBuilder<I, D> newAdaptiveParallelOracle(MembershipOracle<I, D> firstOracle,
+                                                                                       MembershipOracle<I, D>... otherOracles) {
+        return newAdaptiveParallelOracle(Lists.asList(firstOracle, otherOracles));
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOracleBuilder} using the provided collection of membership oracles. The
+     * resulting parallel oracle will always use a work-stealing pool with one worker for each of the provided oracles.
+     * Each oracle is only used by a single worker at a time (so that the oracles do not need to care about
+     * synchronization if they don't share state).
+     *
+     * @param oracles
+     *         the oracle instances to distribute the queries to
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the preconfigured oracle builder
+     */
+    public static <I, D> AdaptiveParallelOracleBuilder<I, D> newAdaptiveParallelOracle(Collection<? extends MembershipOracle<I, D>> oracles) {
+        return new AdaptiveParallelOracleBuilder<>(oracles);
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOmegaOracleBuilder} using the provided {@code sul} as a supplier. This requires
+     * that the sul is {@link SUL#canFork() forkable}.
+     *
+     * @param sul
+     *         the sul instance for spawning new worker-specific omega membership oracle instances
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    public static <I, O> AdaptiveParallelOmegaOracleBuilder<?, I, Word<O>> newAdaptiveParallelOmegaOracle(ObservableSUL<?, I, O> sul) {
+        Preconditions.checkArgument(sul.canFork(), FORKABLE_SUL_ERR);
+        // instantiate inner supplier to resolve generics
+        return new AdaptiveParallelOmegaOracleBuilder<>(toSupplier(sul)::get);
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOmegaOracleBuilder} using the provided supplier.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new worker-specific membership oracle instances
+     * @param <S>
+     *         oracle state type
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    public static <S, I, D> AdaptiveParallelOmegaOracleBuilder<S, I, D> newAdaptiveParallelOmegaOracle(Supplier<? extends OmegaMembershipOracle<S, I, D>> oracleSupplier) {
+        return new AdaptiveParallelOmegaOracleBuilder<>(oracleSupplier);
+    }
+
+    /**
+     * Convenience method for {@link #newAdaptiveParallelOmegaOracle(Collection)}.
+     *
+     * @param firstOracle
+     *         the first (mandatory) oracle
+     * @param otherOracles
+     *         further (optional) oracles to be used by other workers
+     * @param <S>
+     *         oracle state type
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    @SafeVarargs
+    public static <S, I, D> AdaptiveParallelOmegaOracleBuilder<S, I, D> newAdaptiveParallelOmegaOracle(
+            OmegaMembershipOracle<S, I, D> firstOracle,
+            OmegaMembershipOracle<S, I, D>... otherOracles) {
+        return newAdaptiveParallelOmegaOracle(Lists.asList(firstOracle, otherOracles));
+    }
+
+    /**
+     * Creates an {@link AdaptiveParallelOmegaOracleBuilder} using the provided collection of membership oracles. The
+     * resulting parallel oracle will always use a work-stealing pool with one worker for each of the provided oracles.
+     * Each oracle is only used by a single worker at a time (so that the oracles do not need to care about
+     * synchronization if they don't share state).
+     *
+     * @param oracles
+     *         the oracle instances to distribute the queries to
+     * @param <S>
+     *         oracle state type
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the preconfigured oracle builder
+     */
+    public static <S, I, D> AdaptiveParallelOmegaOracleBuilder<S, I, D> newAdaptiveParallelOmegaOracle(Collection<? extends OmegaMembershipOracle<S, I, D>> oracles) {
+        return new AdaptiveParallelOmegaOracleBuilder<>(oracles);
+    }
+
+    /**
+     * Creates a {@link DistributedParallelOracleBuilder} using the provided channels to (remote) workers. The resulting
+     * parallel oracle dynamically dispatches batches of queries to the workers and re-dispatches the batches of
+     * failed workers.
+     *
+     * @param channels
+     *         the channels to the workers
+     * @param codec
+     *         the codec for transferring queries between the oracle and the workers
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the preconfigured oracle builder
+     */
+    public static <I, D> DistributedParallelOracleBuilder<I, D> newDistributedParallelOracle(Collection<? extends WorkerChannel> channels,
+                                                                                          QueryCodec<I, D> codec) {
+        return new DistributedParallelOracleBuilder<>(channels, codec);
+    }
+
     private static <I, O> Supplier<SULOracle<I, O>> toSupplier(SUL<I, O> sul) {
         return () -> new SULOracle<>(sul.fork());
     }
@@ -0,0 +1,402 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+import de.learnlib.api.statistic.StatisticData;
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * Thread-safe statistics about the work distribution of a parallel (batch) processor.
+ * <p>
+ * The statistics are gathered on the granularity of jobs, i.e., chunks of queries that are handed to a single (sub-)
+ * processor. For every job, the processing time is attributed to the executing (sub-) processor (the <i>worker</i>)
+ * and the average per-query latency of the job is recorded in a latency histogram with logarithmic (power of two)
+ * buckets. Additionally, the number of jobs that have been submitted to the executor but not yet started (the
+ * <i>queue depth</i>) is tracked.
+ * <p>
+ * From this data, the statistics derive the throughput and utilization of each worker, as well as the <i>imbalance
+ * ratio</i> of the pool, i.e., the ratio of the maximum and the mean busy time of all workers. An imbalance ratio close
+ * to {@code 1} indicates an evenly utilized pool, whereas larger values indicate that some workers idle while others
+ * are still busy. Together with the queue depth, this allows to size pools (and batches) based on observed data.
+ * <p>
+ * All recording operations are lock-free, so that the statistics can be gathered without noticeably affecting the
+ * measured processor.
+ */
+public class PoolStatistics implements StatisticData {
+
+    private static final int NUM_BUCKETS = Long.SIZE;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final ConcurrentMap<Object, WorkerStatistics> workers;
+    private final AtomicInteger workerIds;
+    private final AtomicLongArray latencyHistogram;
+    private final AtomicInteger queueDepth;
+    private final AtomicInteger maxQueueDepth;
+    private final LongAdder failedJobs;
+    private final LongAdder rejectedJobs;
+    private volatile long startTime;
+
+    public PoolStatistics(String name) {
+        this.name = name;
+        // weak keys use identity comparison and do not prevent the garbage collection of discarded workers
+        this.workers = new MapMaker().weakKeys().makeMap();
+        this.workerIds = new AtomicInteger();
+        this.latencyHistogram = new AtomicLongArray(NUM_BUCKETS);
+        this.queueDepth = new AtomicInteger();
+        this.maxQueueDepth = new AtomicInteger();
+        this.failedJobs = new LongAdder();
+        this.rejectedJobs = new LongAdder();
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Records that a job has been submitted to the executor.
+     */
+    void jobSubmitted() {
+        final int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Records that a previously {@link #jobSubmitted() submitted} job has been started.
+     */
+    void jobStarted() {
+        queueDepth.decrementAndGet();
+    }
+
+    /**
+     * Records that a previously {@link #jobSubmitted() submitted} job has been rejected by the executor, i.e. that it
+     * will never be started.
+     */
+    void jobRejected() {
+        queueDepth.decrementAndGet();
+        rejectedJobs.increment();
+    }
+
+    /**
+     * Records that a previously {@link #jobStarted() started} job has failed before any of its queries could be
+     * processed, e.g. because no (sub-) processor could be obtained.
+     */
+    void jobFailed() {
+        failedJobs.increment();
+    }
+
+    /**
+     * Records the processing of a job.
+     *
+     * @param worker
+     *         the (sub-) processor that processed the job
+     * @param numQueries
+     *         the number of queries processed by the job
+     * @param elapsedNanos
+     *         the time (in nanoseconds) it took to process the job
+     */
+    void recordJob(Object worker, @NonNegative int numQueries, @NonNegative long elapsedNanos) {
+        final WorkerStatistics stats =
+                workers.computeIfAbsent(worker, w -> new WorkerStatistics(workerIds.getAndIncrement()));
+
+        stats.jobs.increment();
+        stats.queries.add(numQueries);
+        stats.busyNanos.add(elapsedNanos);
+
+        if (numQueries > 0) {
+            latencyHistogram.addAndGet(bucketOf(elapsedNanos / numQueries), numQueries);
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Resets all statistics. Workers and jobs that are currently active may still contribute to the reset statistics.
+     */
+    public void reset() {
+        workers.clear();
+        workerIds.set(0);
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            latencyHistogram.set(i, 0);
+        }
+        maxQueueDepth.set(queueDepth.get());
+        failedJobs.reset();
+        rejectedJobs.reset();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Returns the number of jobs that have been submitted to the executor but not yet started.
+     *
+     * @return the current queue depth
+     */
+    public @NonNegative int getQueueDepth() {
+        return Math.max(0, queueDepth.get());
+    }
+
+    /**
+     * Returns the maximum number of jobs that have simultaneously been waiting for execution.
+     *
+     * @return the maximum queue depth
+     */
+    public @NonNegative int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Returns the number of jobs that have failed before any of their queries could be processed, e.g. because no
+     * (sub-) processor could be obtained.
+     *
+     * @return the number of failed jobs
+     */
+    public long getFailedJobs() {
+        return failedJobs.sum();
+    }
+
+    /**
+     * Returns the number of submitted jobs that have been rejected by the executor, e.g. because it has been shut down.
+     *
+     * @return the number of rejected jobs
+     */
+    public long getRejectedJobs() {
+        return rejectedJobs.sum();
+    }
+
+    /**
+     * Returns the latency histogram. The {@code i}-th entry of the returned array contains the number of queries whose
+     * (average) latency was in the range of {@code [2^i, 2^(i+1))} nanoseconds, the {@code 0}-th entry additionally
+     * contains the queries with a latency of less than one nanosecond.
+     *
+     * @return the latency histogram
+     */
+    public long[] getLatencyHistogram() {
+        final long[] result = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            result[i] = latencyHistogram.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns an (upper bound) estimate of the given latency quantile, based on the {@link #getLatencyHistogram()
+     * latency histogram}.
+     *
+     * @param quantile
+     *         the quantile, must be within {@code [0, 1]}
+     *
+     * @return the exclusive upper bound (in nanoseconds) of the histogram bucket containing the given quantile, or
+     * {@code 0} if no queries have been recorded yet
+     */
+    public long getLatencyQuantile(double quantile) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "Quantile must be within [0, 1]");
+
+        final long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == NUM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << (i + 1);
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the statistics of all workers that have processed jobs since the creation (or last {@link #reset()
+     * reset}) of these statistics, in the order in which they were first observed.
+     *
+     * @return the worker statistics
+     */
+    public List<WorkerStatistics> getWorkerStatistics() {
+        final List<WorkerStatistics> result = new ArrayList<>(workers.values());
+        result.sort(Comparator.comparingInt(WorkerStatistics::getId));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the total number of processed queries.
+     *
+     * @return the total number of processed queries
+     */
+    public long getTotalQueries() {
+        long result = 0;
+        for (WorkerStatistics w : workers.values()) {
+            result += w.getQueries();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the imbalance ratio of the pool, i.e., the ratio of the maximum and the mean busy time of all workers.
+     *
+     * @return the imbalance ratio ({@code >= 1}), or {@code 1} if no jobs have been recorded yet
+     */
+    public double getImbalanceRatio() {
+        long max = 0;
+        long sum = 0;
+        int num = 0;
+
+        for (WorkerStatistics w : workers.values()) {
+            final long busy = w.getBusyNanos();
+            max = Math.max(max, busy);
+            sum += busy;
+            num++;
+        }
+
+        if (sum == 0) {
+            return 1;
+        }
+
+        return (double) max * num / sum;
+    }
+
+    private long getElapsedNanos() {
+        return Math.max(1, System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getUnit() {
+        return "queries";
+    }
+
+    @Override
+    public String getSummary() {
+        return String.format("%s [%s]: %d (total), %d (workers), %.2f (imbalance), %d ns (p50), %d ns (p99), " +
+                             "%d (max. queue depth)",
+                             getName(),
+                             getUnit(),
+                             getTotalQueries(),
+                             workers.size(),
+                             getImbalanceRatio(),
+                             getLatencyQuantile(0.5),
+                             getLatencyQuantile(0.99),
+                             getMaxQueueDepth());
+    }
+
+    @Override
+    public String getDetails() {
+        final long elapsed = getElapsedNanos();
+        final StringBuilder sb = new StringBuilder();
+        sb.append(getSummary()).append(System.lineSeparator());
+
+        sb.append("Workers (queries, jobs, queries/s, utilization):").append(System.lineSeparator());
+        for (WorkerStatistics w : getWorkerStatistics()) {
+            sb.append(String.format("\t#%d: %d, %d, %.1f, %.1f%%",
+                                    w.getId(),
+                                    w.getQueries(),
+                                    w.getJobs(),
+                                    w.getThroughput(),
+                                    100 * w.getUtilization(elapsed))).append(System.lineSeparator());
+        }
+
+        sb.append("Latency histogram (ns, queries):").append(System.lineSeparator());
+        final long[] histogram = getLatencyHistogram();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            if (histogram[i] > 0) {
+                sb.append('\t')
+                  .append('<')
+                  .append(i == NUM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << (i + 1))
+                  .append(", ")
+                  .append(histogram[i])
+                  .append(System.lineSeparator());
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getDetails();
+    }
+
+    /**
+     * Statistics of a single worker, i.e., a (sub-) processor.
+     */
+    public static final class WorkerStatistics {
+
+        private final int id;
+        private final LongAdder jobs = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        WorkerStatistics(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns the (consecutive) id of this worker, reflecting the order in which workers were first observed.
+         *
+         * @return the id of this worker
+         */
+        public int getId() {
+            return id;
+        }
+
+        public long getJobs() {
+            return jobs.sum();
+        }
+
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        public long getBusyNanos() {
+            return busyNanos.sum();
+        }
+
+        /**
+         * Returns the throughput of this worker, i.e., the number of processed queries per second of busy time.
+         *
+         * @return the throughput of this worker
+         */
+        public double getThroughput() {
+            final long busy = getBusyNanos();
+            return busy == 0 ? 0 : getQueries() * NANOS_PER_SECOND / busy;
+        }
+
+        double getUtilization(long elapsedNanos) {
+            return Math.min(1, (double) getBusyNanos() / elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+
+import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A queries job that borrows a {@link BatchProcessor} from an {@link OraclePool} for the duration of its execution,
+ * regardless of the executing thread.
+ * <p>
+ * Note: This class assumes that a permit of the respective pool has been {@link OraclePool#reserve() reserved} prior
+ * to the submission of the job.
+ *
+ * @param <Q>
+ *         query type
+ * @param <P>
+ *         (sub-) processor type
+ */
+final class PooledQueriesJob<Q, P extends BatchProcessor<Q>> extends AbstractQueriesJob<Q> {
+
+    private final OraclePool<P> oraclePool;
+
+    PooledQueriesJob(Collection<? extends Q> queries,
+                     OraclePool<P> oraclePool,
+                     @Nullable AbortSignal<Q> abortSignal,
+                     PoolStatistics statistics) {
+        super(queries, abortSignal, statistics);
+        this.oraclePool = oraclePool;
+    }
+
+    @Override
+    protected P getOracle() {
+        return oraclePool.acquire();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the oracle has been obtained via getOracle()
+    protected void releaseOracle(BatchProcessor<Q> oracle) {
+        oraclePool.release((P) oracle);
+    }
+
+    @Override
+    protected void cancelOracle() {
+        oraclePool.cancel();
+    }
+
+}
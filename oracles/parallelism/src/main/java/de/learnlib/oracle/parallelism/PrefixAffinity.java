@@ -0,0 +1,98 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import net.automatalib.words.Word;
+
+/**
+ * Utility class for arranging a batch of queries such that queries with common prefixes are stored next to each other.
+ * If such an arranged batch is split into contiguous partitions (cf. {@link AbstractStaticBatchProcessor}), queries
+ * sharing long common prefixes are likely to be processed by the same (sub-) processor, which increases the
+ * effectiveness of processor-local caches or reuse facilities.
+ * <p>
+ * The arrangement corresponds to a depth-first traversal of the prefix tree (trie) of the batch. Siblings are
+ * traversed in the order of their first occurrence in the original batch, so the arrangement is deterministic and does
+ * not require the input symbols to be comparable.
+ */
+final class PrefixAffinity {
+
+    private PrefixAffinity() {
+        // prevent instantiation
+    }
+
+    /**
+     * Arranges the given queries in depth-first order of their prefix tree.
+     *
+     * @param queries
+     *         the queries to arrange
+     * @param inputExtractor
+     *         the function for extracting the input word of a query
+     * @param <Q>
+     *         query type
+     *
+     * @return the arranged queries
+     */
+    static <Q> List<Q> arrange(Collection<? extends Q> queries, Function<? super Q, ? extends Word<?>> inputExtractor) {
+        final Node<Q> root = new Node<>();
+
+        for (Q q : queries) {
+            Node<Q> curr = root;
+            for (Object sym : inputExtractor.apply(q)) {
+                curr = curr.children.computeIfAbsent(sym, k -> new Node<>());
+            }
+            curr.queries.add(q);
+        }
+
+        final List<Q> result = new ArrayList<>(queries.size());
+        final Deque<Iterator<Node<Q>>> stack = new ArrayDeque<>();
+
+        result.addAll(root.queries);
+        stack.push(root.children.values().iterator());
+
+        // use an explicit stack, because words may be arbitrarily long
+        while (!stack.isEmpty()) {
+            final Iterator<Node<Q>> iter = stack.peek();
+
+            if (iter.hasNext()) {
+                final Node<Q> next = iter.next();
+                result.addAll(next.queries);
+                if (!next.children.isEmpty()) {
+                    stack.push(next.children.values().iterator());
+                }
+            } else {
+                stack.pop();
+            }
+        }
+
+        return result;
+    }
+
+    private static final class Node<Q> {
+
+        final List<Q> queries = new ArrayList<>(1);
+        final Map<Object, Node<Q>> children = new LinkedHashMap<>();
+    }
+}
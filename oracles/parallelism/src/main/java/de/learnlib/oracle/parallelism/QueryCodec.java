@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A codec for transferring input symbols and outputs of queries between a {@link DistributedParallelOracle} and its
+ * {@link DistributedOracleWorker}s. The framing of queries and batches is handled by the oracle and the workers, so
+ * codecs only need to encode single values.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @see QueryCodecs
+ */
+public interface QueryCodec<I, D> {
+
+    void writeSymbol(DataOutput out, I symbol) throws IOException;
+
+    I readSymbol(DataInput in) throws IOException;
+
+    void writeOutput(DataOutput out, D output) throws IOException;
+
+    D readOutput(DataInput in) throws IOException;
+}
@@ -0,0 +1,117 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Factory methods for compact {@link QueryCodec}s. Symbols are encoded by their (variable-length encoded) index in a
+ * given alphabet, so that the master and the workers need to agree on the alphabets, but not on any serialization
+ * format of the symbols themselves.
+ */
+public final class QueryCodecs {
+
+    private QueryCodecs() {
+        // prevent instantiation
+    }
+
+    /**
+     * Returns a codec for queries with acceptance ({@link Boolean}) outputs.
+     *
+     * @param inputs
+     *         the input alphabet
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a codec for DFA queries
+     */
+    public static <I> QueryCodec<I, Boolean> forDFA(Alphabet<I> inputs) {
+        return new AbstractAlphabetCodec<I, Boolean>(inputs) {
+
+            @Override
+            public void writeOutput(DataOutput out, Boolean output) throws IOException {
+                out.writeBoolean(output);
+            }
+
+            @Override
+            public Boolean readOutput(DataInput in) throws IOException {
+                return in.readBoolean();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for queries with transduction ({@link Word}) outputs.
+     *
+     * @param inputs
+     *         the input alphabet
+     * @param outputs
+     *         the output alphabet
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return a codec for Mealy queries
+     */
+    public static <I, O> QueryCodec<I, Word<O>> forMealy(Alphabet<I> inputs, Alphabet<O> outputs) {
+        return new AbstractAlphabetCodec<I, Word<O>>(inputs) {
+
+            @Override
+            public void writeOutput(DataOutput out, Word<O> output) throws IOException {
+                DistributedProtocol.writeVarInt(out, output.length());
+                for (O o : output) {
+                    DistributedProtocol.writeVarInt(out, outputs.getSymbolIndex(o));
+                }
+            }
+
+            @Override
+            public Word<O> readOutput(DataInput in) throws IOException {
+                final int length = DistributedProtocol.readVarInt(in);
+                final WordBuilder<O> wb = new WordBuilder<>(length);
+                for (int i = 0; i < length; i++) {
+                    wb.append(outputs.getSymbol(DistributedProtocol.readVarInt(in)));
+                }
+                return wb.toWord();
+            }
+        };
+    }
+
+    private abstract static class AbstractAlphabetCodec<I, D> implements QueryCodec<I, D> {
+
+        private final Alphabet<I> inputs;
+
+        AbstractAlphabetCodec(Alphabet<I> inputs) {
+            this.inputs = inputs;
+        }
+
+        @Override
+        public void writeSymbol(DataOutput out, I symbol) throws IOException {
+            DistributedProtocol.writeVarInt(out, inputs.getSymbolIndex(symbol));
+        }
+
+        @Override
+        public I readSymbol(DataInput in) throws IOException {
+            return inputs.getSymbol(DistributedProtocol.readVarInt(in));
+        }
+    }
+}
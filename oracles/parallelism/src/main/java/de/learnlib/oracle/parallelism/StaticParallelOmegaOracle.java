@@ -16,6 +16,7 @@
 package de.learnlib.oracle.parallelism;
 
 import java.util.Collection;
+import java.util.List;
 
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.oracle.OmegaMembershipOracle;
@@ -27,6 +28,10 @@ import org.checkerframework.checker.index.qual.NonNegative;
 /**
  * A specialized {@link AbstractStaticBatchProcessor} for {@link OmegaMembershipOracle}s that implements {@link
  * ParallelOmegaOracle}.
+ * <p>
+ * Since the cost of answering omega queries varies with the lengths of their prefixes and loops as well as their
+ * numbers of repetitions, queries are not divided in their original order but such that the estimated costs of all
+ * batches are balanced. Furthermore, queries that only differ in their number of repetitions are only answered once.
  *
  * @param <I>
  *         input symbol type
@@ -43,9 +48,28 @@ public class StaticParallelOmegaOracle<S, I, D>
         super(oracles, minBatchSize, policy);
     }
 
+    public StaticParallelOmegaOracle(Collection<? extends OmegaMembershipOracle<S, I, D>> oracles,
+                                     @NonNegative int minBatchSize,
+                                     PoolPolicy policy,
+                                     boolean prefixAffinity) {
+        super(oracles, minBatchSize, policy, prefixAffinity ? OmegaQuery::getPrefix : null);
+    }
+
     @Override
     public void processQueries(Collection<? extends OmegaQuery<I, D>> omegaQueries) {
-        processBatch(omegaQueries);
+        final OmegaQueryScheduler<I, D> scheduler = new OmegaQueryScheduler<>(omegaQueries);
+        processBatch(scheduler.getScheduledQueries());
+        scheduler.propagateAnswers();
+    }
+
+    @Override
+    protected List<List<OmegaQuery<I, D>>> distribute(Collection<? extends OmegaQuery<I, D>> queries,
+                                                      @NonNegative int numBatches) {
+        // explicitly requested prefix affinity takes precedence over cost-balancing
+        if (hasPrefixAffinity()) {
+            return super.distribute(queries, numBatches);
+        }
+        return OmegaQueryScheduler.distribute(queries, numBatches);
     }
 
     @Override
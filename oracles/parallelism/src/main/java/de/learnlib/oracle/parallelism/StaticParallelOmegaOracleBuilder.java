@@ -44,7 +44,8 @@ public class StaticParallelOmegaOracleBuilder<S, I, D>
     @Override
     protected StaticParallelOmegaOracle<S, I, D> buildOracle(Collection<? extends OmegaMembershipOracle<S, I, D>> oracleInstances,
                                                              int minBatchSize,
-                                                             PoolPolicy poolPolicy) {
-        return new StaticParallelOmegaOracle<>(oracleInstances, minBatchSize, poolPolicy);
+                                                             PoolPolicy poolPolicy,
+                                                             boolean prefixAffinity) {
+        return new StaticParallelOmegaOracle<>(oracleInstances, minBatchSize, poolPolicy, prefixAffinity);
     }
 }
@@ -16,11 +16,13 @@
 package de.learnlib.oracle.parallelism;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.oracle.parallelism.ParallelOracle;
 import de.learnlib.api.query.Query;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A specialized {@link AbstractStaticBatchProcessor} for {@link MembershipOracle}s that implements {@link
@@ -40,8 +42,21 @@ public class StaticParallelOracle<I, D> extends AbstractStaticBatchProcessor<Que
         super(oracles, minBatchSize, policy);
     }
 
+    public StaticParallelOracle(Collection<? extends MembershipOracle<I, D>> oracles,
+                                @NonNegative int minBatchSize,
+                                PoolPolicy policy,
+                                boolean prefixAffinity) {
+        super(oracles, minBatchSize, policy, prefixAffinity ? Query::getInput : null);
+    }
+
     @Override
     public void processQueries(Collection<? extends Query<I, D>> queries) {
         processBatch(queries);
     }
+
+    @Override
+    public <Q extends Query<I, D>> @Nullable Q processQueries(Collection<? extends Q> queries,
+                                                              Predicate<? super Q> abortCondition) {
+        return processBatch(queries, abortCondition);
+    }
 }
@@ -44,7 +44,8 @@ public class StaticParallelOracleBuilder<I, D>
     @Override
     protected StaticParallelOracle<I, D> buildOracle(Collection<? extends MembershipOracle<I, D>> oracleInstances,
                                                      int minBatchSize,
-                                                     PoolPolicy poolPolicy) {
-        return new StaticParallelOracle<>(oracleInstances, minBatchSize, poolPolicy);
+                                                     PoolPolicy poolPolicy,
+                                                     boolean prefixAffinity) {
+        return new StaticParallelOracle<>(oracleInstances, minBatchSize, poolPolicy, prefixAffinity);
     }
 }
@@ -18,6 +18,7 @@ package de.learnlib.oracle.parallelism;
 import java.util.Collection;
 
 import de.learnlib.api.oracle.parallelism.BatchProcessor;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A queries job that maintains a fixed reference to a {@link BatchProcessor}, executes queries using this oracle
@@ -32,8 +33,11 @@ final class StaticQueriesJob<Q> extends AbstractQueriesJob<Q> {
 
     private final BatchProcessor<Q> oracle;
 
-    StaticQueriesJob(Collection<? extends Q> queries, BatchProcessor<Q> oracle) {
-        super(queries);
+    StaticQueriesJob(Collection<? extends Q> queries,
+                     BatchProcessor<Q> oracle,
+                     @Nullable AbortSignal<Q> abortSignal,
+                     PoolStatistics statistics) {
+        super(queries, abortSignal, statistics);
         this.oracle = oracle;
     }
 
@@ -0,0 +1,119 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link WorkerChannel} that exchanges length-prefixed messages via a pair of streams. This allows to connect to
+ * workers via process pipes (cf. {@link #forProcess(ProcessBuilder)}) or sockets (cf. {@link #forSocket(String,
+ * int)}). The counterpart of this channel is {@link DistributedOracleWorker#serve(InputStream, OutputStream)}.
+ */
+public class StreamWorkerChannel implements WorkerChannel {
+
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final @Nullable Closeable resource;
+
+    /**
+     * Constructor.
+     *
+     * @param in
+     *         the stream to read responses from
+     * @param out
+     *         the stream to write requests to
+     * @param resource
+     *         an (optional) resource that should be closed alongside this channel, e.g. the underlying socket
+     */
+    public StreamWorkerChannel(InputStream in, OutputStream out, @Nullable Closeable resource) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.resource = resource;
+    }
+
+    /**
+     * Starts a worker process and connects to it via its standard input and output. The process is expected to run a
+     * {@link DistributedOracleWorker} that serves {@link System#in} and {@link System#out}.
+     *
+     * @param processBuilder
+     *         the builder for the worker process
+     *
+     * @return a channel to the started worker process
+     *
+     * @throws IOException
+     *         if the process could not be started
+     */
+    public static StreamWorkerChannel forProcess(ProcessBuilder processBuilder) throws IOException {
+        final Process process = processBuilder.start();
+        return new StreamWorkerChannel(process.getInputStream(), process.getOutputStream(), process::destroy);
+    }
+
+    /**
+     * Connects to a worker that listens on the given host and port (cf. {@link
+     * DistributedOracleWorker#serve(java.net.ServerSocket)}).
+     *
+     * @param host
+     *         the host name of the worker, or {@code null} for the loopback address
+     * @param port
+     *         the port of the worker
+     *
+     * @return a channel to the worker
+     *
+     * @throws IOException
+     *         if the connection could not be established
+     */
+    public static StreamWorkerChannel forSocket(@Nullable String host, int port) throws IOException {
+        final Socket socket = new Socket(host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host),
+                                         port);
+        socket.setTcpNoDelay(true);
+        return new StreamWorkerChannel(socket.getInputStream(), socket.getOutputStream(), socket);
+    }
+
+    @Override
+    public byte[] exchange(byte[] request) throws IOException {
+        DistributedProtocol.writeFrame(out, request);
+        out.flush();
+
+        final byte[] response = DistributedProtocol.readFrame(in);
+        if (response == null) {
+            throw new IOException("Worker closed the connection");
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+            in.close();
+        } finally {
+            if (resource != null) {
+                resource.close();
+            }
+        }
+    }
+}
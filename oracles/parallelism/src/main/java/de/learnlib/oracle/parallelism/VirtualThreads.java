@@ -0,0 +1,64 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Utility class for constructing executors for the {@link de.learnlib.api.oracle.parallelism.ThreadPool.PoolPolicy#VIRTUAL}
+ * pool policy.
+ * <p>
+ * Since LearnLib still targets Java 8, virtual threads are accessed reflectively. On runtimes without (enabled)
+ * support for virtual threads, a thread-per-task executor backed by a cached pool of platform threads is used
+ * instead.
+ */
+final class VirtualThreads {
+
+    private static final @Nullable Method VIRTUAL_EXECUTOR_FACTORY = lookupFactory();
+
+    private VirtualThreads() {
+        throw new AssertionError("Constructor should not be invoked");
+    }
+
+    /**
+     * Creates a new executor that starts a new (virtual, if supported) thread for each submitted task.
+     *
+     * @return a new thread-per-task executor
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // e.g. virtual threads are a preview feature that has not been enabled, use fallback
+            }
+        }
+
+        return Executors.newCachedThreadPool();
+    }
+
+    private static @Nullable Method lookupFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The transport abstraction of a {@link DistributedParallelOracle}. A channel connects the oracle to a single (remote)
+ * worker, e.g. a {@link DistributedOracleWorker} running in a different process or on a different machine.
+ * <p>
+ * Channels exchange opaque binary messages in a request-response fashion. A channel is only used by a single thread at
+ * a time.
+ *
+ * @see StreamWorkerChannel
+ */
+@FunctionalInterface
+public interface WorkerChannel extends Closeable {
+
+    /**
+     * Sends the given request to the worker and waits for its response.
+     *
+     * @param request
+     *         the encoded request
+     *
+     * @return the encoded response
+     *
+     * @throws IOException
+     *         if the worker could not be reached or failed to respond. The channel is considered to be broken
+     *         afterwards
+     */
+    byte[] exchange(byte[] request) throws IOException;
+
+    @Override
+    default void close() throws IOException {}
+}
@@ -0,0 +1,31 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+/**
+ * Exception that is thrown by a {@link DistributedParallelOracle} if a worker reported that it failed to answer a
+ * batch of queries (as opposed to the worker being unreachable, in which case the batch is re-dispatched to the
+ * remaining workers). The message of the exception is the error message reported by the worker.
+ */
+public class WorkerException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WorkerException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,156 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.AnswerOnceQuery;
+import de.learnlib.oracle.parallelism.PoolStatistics.WorkerStatistics;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public abstract class AbstractAdaptiveParallelOracleTest<D> {
+
+    @Test
+    public void testEmpty() {
+        ParallelOracle<Void, D> oracle = getBuilder().withPoolSize(2).create();
+
+        try {
+            oracle.processQueries(Collections.emptyList());
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDistinctQueries() {
+        ParallelOracle<Void, D> oracle = getBuilder().withPoolSize(4).create();
+
+        try {
+            List<AnswerOnceQuery<D>> queries = AbstractDynamicParallelOracleTest.createQueries(1000);
+
+            oracle.processQueries(queries);
+
+            for (AnswerOnceQuery<D> query : queries) {
+                Assert.assertTrue(query.isAnswered());
+            }
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testDuplicateQueries() {
+        ParallelOracle<Void, D> oracle = getBuilder().withMaxBatchSize(3).withPoolSize(4).create();
+        try {
+            List<AnswerOnceQuery<D>> queries = new ArrayList<>(AbstractDynamicParallelOracleTest.createQueries(100));
+            queries.add(queries.get(0));
+
+            oracle.processQueries(queries);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureSettlesAllChunks() {
+        final AtomicInteger running = new AtomicInteger();
+        final AdaptiveParallelOracle<Void, D> oracle = getBuilder().withMaxBatchSize(1).withPoolSize(4).create();
+
+        try {
+            final List<SlowQuery<D>> queries = new ArrayList<>();
+            queries.add(new SlowQuery<>(running, true));
+            for (int i = 0; i < 200; i++) {
+                queries.add(new SlowQuery<>(running, false));
+            }
+
+            Assert.assertThrows(IllegalStateException.class, () -> oracle.processQueries(queries));
+
+            // the failure must only be reported once all other chunks have settled
+            Assert.assertEquals(running.get(), 0);
+            Assert.assertEquals(oracle.getStatisticalData().getQueueDepth(), 0);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        final AdaptiveParallelOracle<Void, D> oracle = getBuilder().withMaxBatchSize(10).withPoolSize(4).create();
+
+        try {
+            oracle.processQueries(AbstractDynamicParallelOracleTest.createQueries(1000));
+
+            final PoolStatistics statistics = oracle.getStatisticalData();
+            Assert.assertEquals(statistics.getTotalQueries(), 1000);
+            Assert.assertEquals(statistics.getQueueDepth(), 0);
+            Assert.assertEquals(statistics.getFailedJobs(), 0);
+
+            // chunks never exceed the maximum batch size and there is at most one processor per worker
+            long jobs = 0;
+            for (WorkerStatistics w : statistics.getWorkerStatistics()) {
+                jobs += w.getJobs();
+            }
+            Assert.assertTrue(jobs >= 1000 / 10);
+            Assert.assertTrue(statistics.getWorkerStatistics().size() <= 4);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    protected abstract AdaptiveParallelOracleBuilder<Void, D> getBuilder();
+
+    private static final class SlowQuery<D> extends Query<Void, D> {
+
+        private final AtomicInteger running;
+        private final boolean fail;
+
+        SlowQuery(AtomicInteger running, boolean fail) {
+            this.running = running;
+            this.fail = fail;
+        }
+
+        @Override
+        public void answer(D output) {
+            if (fail) {
+                throw new IllegalStateException("Query could not be answered");
+            }
+
+            running.incrementAndGet();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            running.decrementAndGet();
+        }
+
+        @Override
+        public Word<Void> getPrefix() {
+            return Word.epsilon();
+        }
+
+        @Override
+        public Word<Void> getSuffix() {
+            return Word.epsilon();
+        }
+    }
+}
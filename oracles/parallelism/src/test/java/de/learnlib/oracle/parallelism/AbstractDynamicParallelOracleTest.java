@@ -138,6 +138,10 @@ public abstract class AbstractDynamicParallelOracleTest<D> {
             }
         }
 
+        boolean isAnswered() {
+            return answered.get();
+        }
+
         @Override
         public Word<Void> getPrefix() {
             return Word.epsilon();
@@ -0,0 +1,123 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.AnswerOnceQuery;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.NullOracle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AdaptiveParallelOracleTest extends AbstractAdaptiveParallelOracleTest<Void> {
+
+    @Override
+    protected AdaptiveParallelOracleBuilder<Void, Void> getBuilder() {
+        return ParallelOracleBuilders.newAdaptiveParallelOracle(Arrays.asList(new NullOracle(),
+                                                                              new NullOracle(),
+                                                                              new NullOracle()));
+    }
+
+    @Test(timeOut = 2000)
+    public void testWorkerUtilization() {
+
+        final List<AnswerOnceQuery<Void>> queries = AbstractDynamicParallelOracleTest.createQueries(10);
+        final int expectedWorkers = 4;
+
+        final CountDownLatch latch = new CountDownLatch(expectedWorkers);
+        final NullOracle[] oracles = new NullOracle[expectedWorkers];
+
+        for (int i = 0; i < expectedWorkers; i++) {
+            oracles[i] = new NullOracle() {
+
+                @Override
+                public void processQueries(Collection<? extends Query<Void, Void>> queries) {
+                    try {
+                        latch.countDown();
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    super.processQueries(queries);
+                }
+            };
+        }
+
+        final AdaptiveParallelOracle<Void, Void> oracle =
+                ParallelOracleBuilders.newAdaptiveParallelOracle(oracles[0],
+                                                                 Arrays.copyOfRange(oracles, 1, oracles.length))
+                                      .create();
+
+        try {
+            // this method only returns, if all oracles are used concurrently, which all decrease the shared latch
+            oracle.processQueries(queries);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchSizeAdaptation() {
+        final int maxBatchSize = 64;
+        final int numQueries = 10000;
+
+        final AdaptiveParallelOracle<Void, Void> fastOracle = ParallelOracleBuilders.newAdaptiveParallelOracle(
+                NullOracle::new).withPoolSize(2).withMaxBatchSize(maxBatchSize).create();
+
+        try {
+            // without any observations, queries are distributed as fine-grained as possible
+            Assert.assertEquals(fastOracle.getBatchSize(numQueries), AbstractAdaptiveBatchProcessor.MIN_BATCH_SIZE);
+            fastOracle.processQueries(AbstractDynamicParallelOracleTest.createQueries(numQueries));
+            Assert.assertTrue(fastOracle.getBatchSize(numQueries) > AbstractAdaptiveBatchProcessor.MIN_BATCH_SIZE);
+            Assert.assertTrue(fastOracle.getBatchSize(numQueries) <= maxBatchSize);
+            // every worker should receive some queries
+            Assert.assertTrue(fastOracle.getBatchSize(10) <= 5);
+        } finally {
+            fastOracle.shutdown();
+        }
+
+        final AdaptiveParallelOracle<Void, Void> slowOracle =
+                ParallelOracleBuilders.newAdaptiveParallelOracle(SlowOracle::new)
+                                      .withPoolSize(2)
+                                      .withTargetBatchTime(1, TimeUnit.MILLISECONDS)
+                                      .create();
+
+        try {
+            slowOracle.processQueries(AbstractDynamicParallelOracleTest.createQueries(10));
+            Assert.assertEquals(slowOracle.getBatchSize(numQueries), AbstractAdaptiveBatchProcessor.MIN_BATCH_SIZE);
+        } finally {
+            slowOracle.shutdown();
+        }
+    }
+
+    static class SlowOracle extends NullOracle {
+
+        @Override
+        public void processQueries(Collection<? extends Query<Void, Void>> queries) {
+            try {
+                Thread.sleep(5L * queries.size());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            super.processQueries(queries);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import de.learnlib.api.oracle.AsyncMembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.AnswerOnceQuery;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.NullOracle;
+import de.learnlib.oracle.parallelism.AbstractDynamicParallelOracleTest.NullSUL;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class AsyncOraclesTest {
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(timeOut = 2000)
+    public void testNonBlocking() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AsyncMembershipOracle<Void, Void> oracle = AsyncOracles.asAsync(new NullOracle() {
+
+            @Override
+            public void processQueries(Collection<? extends Query<Void, Void>> queries) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                super.processQueries(queries);
+            }
+        }, executor);
+
+        final List<AnswerOnceQuery<Void>> queries = AbstractDynamicParallelOracleTest.createQueries(10);
+        final CompletableFuture<Void> future = oracle.processQueriesAsync(queries);
+
+        // the oracle blocks until we release it, so the future cannot be done yet
+        Assert.assertFalse(future.isDone());
+        latch.countDown();
+        future.join();
+
+        for (AnswerOnceQuery<Void> query : queries) {
+            Assert.assertTrue(query.isAnswered());
+        }
+    }
+
+    @Test
+    public void testSUL() {
+        final AsyncMembershipOracle<Void, Word<Void>> oracle = AsyncOracles.asAsync(new NullSUL(), executor);
+        final Word<Void> input = Word.fromList(Collections.nCopies(3, null));
+
+        Assert.assertEquals(oracle.answerQueryAsync(input).join().length(), input.length());
+        Assert.assertEquals(oracle.answerQueryAsync(input, input).join().length(), input.length());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testSyncExceptionPropagation() {
+        final MembershipOracle<Void, Void> oracle =
+                AsyncOracles.asSync(AsyncOracles.asAsync(NullOracle::new, executor));
+
+        final List<AnswerOnceQuery<Void>> queries = AbstractDynamicParallelOracleTest.createQueries(10);
+        // answering the first query twice triggers an exception
+        oracle.processQueries(Arrays.asList(queries.get(0), queries.get(1), queries.get(0)));
+    }
+
+    @Test
+    public void testDynamicParallelOracle() {
+        final DynamicParallelOracle<Void, Void> oracle =
+                ParallelOracleBuilders.newDynamicParallelOracle(NullOracle::new).withPoolSize(2).create();
+
+        try {
+            final List<AnswerOnceQuery<Void>> queries = AbstractDynamicParallelOracleTest.createQueries(100);
+            final MembershipOracle<Void, Void> syncOracle = AsyncOracles.asSync(oracle);
+
+            syncOracle.processQueries(queries);
+
+            for (AnswerOnceQuery<Void> query : queries) {
+                Assert.assertTrue(query.isAnswered());
+            }
+        } finally {
+            oracle.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DeduplicatingOracleTest {
+
+    @Test
+    public void testExactDeduplication() {
+        final CountingMealyOracle delegate = new CountingMealyOracle();
+        final DeduplicatingOracle<Integer, Word<Integer>> oracle = new DeduplicatingOracle<>(delegate);
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries =
+                Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1), Word.fromSymbols(2, 3)),
+                              new DefaultQuery<>(Word.fromSymbols(1), Word.fromSymbols(2, 3)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2), Word.fromSymbols(3)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2), Word.fromSymbols(3)));
+
+        oracle.processQueries(queries);
+
+        // identical splits are merged, different splits are not
+        Assert.assertEquals(delegate.numQueries, 2);
+        checkAnswers(queries);
+    }
+
+    @Test
+    public void testDFADeduplication() {
+        final List<Query<Integer, Boolean>> forwarded = new ArrayList<>();
+        final MembershipOracle<Integer, Boolean> delegate = queries -> {
+            for (Query<Integer, Boolean> q : queries) {
+                forwarded.add(q);
+                q.answer(q.getInput().size() % 2 == 0);
+            }
+        };
+        final DFADeduplicatingOracle<Integer> oracle = new DFADeduplicatingOracle<>(delegate);
+
+        final List<DefaultQuery<Integer, Boolean>> queries =
+                Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1, 2)),
+                              new DefaultQuery<>(Word.fromSymbols(1), Word.fromSymbols(2)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2), Word.epsilon()),
+                              new DefaultQuery<>(Word.fromSymbols(1)),
+                              new DefaultQuery<>(Word.epsilon()));
+
+        oracle.processQueries(queries);
+
+        // prefixes of accepted words are not necessarily accepted, so only identical words are merged
+        Assert.assertEquals(forwarded.size(), 3);
+        for (DefaultQuery<Integer, Boolean> q : queries) {
+            Assert.assertEquals(q.getOutput(), Boolean.valueOf(q.getInput().size() % 2 == 0));
+        }
+    }
+
+    @Test
+    public void testMealyPrefixMerging() {
+        final CountingMealyOracle delegate = new CountingMealyOracle();
+        final MealyDeduplicatingOracle<Integer, Integer> oracle = new MealyDeduplicatingOracle<>(delegate);
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries =
+                Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1), Word.fromSymbols(2)),
+                              new DefaultQuery<>(Word.epsilon(), Word.fromSymbols(1, 2, 3)),
+                              new DefaultQuery<>(Word.fromSymbols(1, 2), Word.fromSymbols(3)),
+                              new DefaultQuery<>(Word.epsilon(), Word.fromSymbols(1, 2, 3)),
+                              new DefaultQuery<>(Word.fromSymbols(2), Word.fromSymbols(1)),
+                              new DefaultQuery<>(Word.epsilon(), Word.fromSymbols(2)),
+                              new DefaultQuery<>(Word.epsilon(), Word.epsilon()),
+                              new DefaultQuery<>(Word.fromSymbols(1), Word.epsilon()));
+
+        oracle.processQueries(queries);
+
+        // only the maximal words 123 and 21 need to be queried
+        Assert.assertEquals(delegate.numQueries, 2);
+        checkAnswers(queries);
+    }
+
+    @Test
+    public void testParallelDelegate() {
+        final List<CountingMealyOracle> delegates = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            delegates.add(new CountingMealyOracle());
+        }
+
+        final StaticParallelOracle<Integer, Word<Integer>> parallelOracle =
+                ParallelOracleBuilders.newStaticParallelOracle(delegates).withMinBatchSize(1).create();
+
+        try {
+            final MealyDeduplicatingOracle<Integer, Integer> oracle = new MealyDeduplicatingOracle<>(parallelOracle);
+            final List<DefaultQuery<Integer, Word<Integer>>> queries = new ArrayList<>();
+
+            for (int i = 0; i < 10; i++) {
+                final WordBuilder<Integer> wb = new WordBuilder<>();
+                for (int j = 0; j < 5; j++) {
+                    wb.append(i);
+                    queries.add(new DefaultQuery<>(wb.toWord()));
+                    queries.add(new DefaultQuery<>(wb.toWord()));
+                }
+            }
+
+            oracle.processQueries(queries);
+
+            int numQueries = 0;
+            for (CountingMealyOracle d : delegates) {
+                numQueries += d.numQueries;
+            }
+
+            Assert.assertEquals(numQueries, 10);
+            checkAnswers(queries);
+        } finally {
+            parallelOracle.shutdownNow();
+        }
+    }
+
+    private static void checkAnswers(Collection<DefaultQuery<Integer, Word<Integer>>> queries) {
+        for (DefaultQuery<Integer, Word<Integer>> q : queries) {
+            final Word<Integer> expected = CountingMealyOracle.computeOutput(q.getInput()).suffix(q.getSuffix().size());
+            Assert.assertEquals(q.getOutput(), expected, q.toString());
+        }
+    }
+
+    /**
+     * A Mealy oracle that outputs the running sum of the input symbols and counts the number of processed queries.
+     */
+    private static final class CountingMealyOracle implements MembershipOracle.MealyMembershipOracle<Integer, Integer> {
+
+        private int numQueries;
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Word<Integer>>> queries) {
+            for (Query<Integer, Word<Integer>> q : queries) {
+                numQueries++;
+                q.answer(computeOutput(q.getInput()).suffix(q.getSuffix().size()));
+            }
+        }
+
+        static Word<Integer> computeOutput(Word<Integer> input) {
+            final WordBuilder<Integer> wb = new WordBuilder<>(input.size());
+            int sum = 0;
+            for (Integer i : input) {
+                sum += i;
+                wb.append(sum);
+            }
+            return wb.toWord();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.learnlib.api.oracle.MembershipOracle.MealyMembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the {@link DistributedParallelOracle} and its {@link DistributedOracleWorker}s.
+ */
+public class DistributedParallelOracleTest {
+
+    private static final int NUM_QUERIES = 200;
+    private static final int MAX_WORD_LEN = 10;
+    private static final int BATCH_SIZE = 7;
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 4);
+    private static final QueryCodec<Integer, Word<Integer>> CODEC = QueryCodecs.forMealy(ALPHABET, ALPHABET);
+
+    @Test
+    public void testInMemoryChannels() {
+        final List<WorkerChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            channels.add(new DistributedOracleWorker<>(new SuccessorOracle(), CODEC)::process);
+        }
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(channels, CODEC).withBatchSize(BATCH_SIZE).create();
+
+        try {
+            checkAnswers(oracle);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testStreamChannels() throws IOException {
+        final List<WorkerChannel> channels = new ArrayList<>();
+        final List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            final PipedOutputStream requestOut = new PipedOutputStream();
+            final PipedInputStream requestIn = new PipedInputStream(requestOut);
+            final PipedOutputStream responseOut = new PipedOutputStream();
+            final PipedInputStream responseIn = new PipedInputStream(responseOut);
+
+            final DistributedOracleWorker<Integer, Word<Integer>> worker =
+                    new DistributedOracleWorker<>(new SuccessorOracle(), CODEC);
+            final Thread t = new Thread(() -> {
+                try {
+                    worker.serve(requestIn, responseOut);
+                    responseOut.close();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+
+            workers.add(t);
+            channels.add(new StreamWorkerChannel(responseIn, requestOut, null));
+        }
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(channels, CODEC).withBatchSize(BATCH_SIZE).create();
+
+        checkAnswers(oracle);
+        oracle.shutdown();
+
+        // closing the channels terminates the workers
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testRedispatch() {
+        final DistributedOracleWorker<Integer, Word<Integer>> worker =
+                new DistributedOracleWorker<>(new SuccessorOracle(), CODEC);
+        final AtomicInteger exchanges = new AtomicInteger();
+
+        final WorkerChannel failing = request -> {
+            if (exchanges.incrementAndGet() > 2) {
+                throw new IOException("Worker crashed");
+            }
+            return worker.process(request);
+        };
+        final WorkerChannel healthy = new DistributedOracleWorker<>(new SuccessorOracle(), CODEC)::process;
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(Arrays.asList(failing, healthy), CODEC)
+                                      .withBatchSize(BATCH_SIZE)
+                                      .create();
+
+        try {
+            checkAnswers(oracle);
+            Assert.assertEquals(oracle.getNumAvailableWorkers(), 1);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testAllWorkersFailed() {
+        final WorkerChannel failing = request -> {
+            throw new IOException("Worker crashed");
+        };
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(Arrays.asList(failing, failing), CODEC).create();
+
+        try {
+            oracle.processQueries(createQueries(new Random(42)));
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = WorkerException.class)
+    public void testWorkerError() {
+        final MealyMembershipOracle<Integer, Integer> failingOracle = queries -> {
+            throw new IllegalStateException("SUL failed");
+        };
+        final WorkerChannel channel = new DistributedOracleWorker<>(failingOracle, CODEC)::process;
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(Collections.singleton(channel), CODEC).create();
+
+        try {
+            oracle.processQueries(createQueries(new Random(42)));
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLargeWorkerError() {
+        // exceeds the 64 KiB limit of DataOutput#writeUTF, including multi-byte characters
+        final String message = String.join("", Collections.nCopies(50_000, "\u00e4\u20ac"));
+        final MealyMembershipOracle<Integer, Integer> failingOracle = queries -> {
+            throw new IllegalStateException(message);
+        };
+        final WorkerChannel channel = new DistributedOracleWorker<>(failingOracle, CODEC)::process;
+
+        final DistributedParallelOracle<Integer, Word<Integer>> oracle =
+                ParallelOracleBuilders.newDistributedParallelOracle(Collections.singleton(channel), CODEC).create();
+
+        try {
+            final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries(new Random(42));
+            final WorkerException e = Assert.expectThrows(WorkerException.class, () -> oracle.processQueries(queries));
+            Assert.assertTrue(e.getMessage().endsWith(message));
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    private static void checkAnswers(DistributedParallelOracle<Integer, Word<Integer>> oracle) {
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries(new Random(42));
+
+        oracle.processQueries(queries);
+
+        for (DefaultQuery<Integer, Word<Integer>> q : queries) {
+            Assert.assertEquals(q.getOutput(), successors(q.getSuffix()));
+        }
+    }
+
+    private static List<DefaultQuery<Integer, Word<Integer>>> createQueries(Random random) {
+        final List<DefaultQuery<Integer, Word<Integer>>> result = new ArrayList<>(NUM_QUERIES);
+
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            result.add(new DefaultQuery<>(createWord(random), createWord(random)));
+        }
+
+        return result;
+    }
+
+    private static Word<Integer> createWord(Random random) {
+        final int length = random.nextInt(MAX_WORD_LEN);
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+
+        for (int i = 0; i < length; i++) {
+            wb.append(ALPHABET.getSymbol(random.nextInt(ALPHABET.size())));
+        }
+
+        return wb.toWord();
+    }
+
+    private static Word<Integer> successors(Word<Integer> word) {
+        return word.transform(i -> (i + 1) % ALPHABET.size());
+    }
+
+    private static final class SuccessorOracle implements MealyMembershipOracle<Integer, Integer> {
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Word<Integer>>> queries) {
+            for (Query<Integer, Word<Integer>> q : queries) {
+                q.answer(successors(q.getSuffix()));
+            }
+        }
+    }
+}
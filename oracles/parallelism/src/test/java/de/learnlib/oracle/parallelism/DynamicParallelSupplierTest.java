@@ -15,10 +15,95 @@
  */
 package de.learnlib.oracle.parallelism;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
+import de.learnlib.api.oracle.parallelism.ThreadPool.PoolPolicy;
+import de.learnlib.api.query.Query;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
 public class DynamicParallelSupplierTest extends AbstractDynamicParallelOracleTest<Void> {
 
     @Override
     protected DynamicParallelOracleBuilder<Void, Void> getBuilder() {
         return ParallelOracleBuilders.newDynamicParallelOracle(NullOracle::new);
     }
+
+    @Test(timeOut = 2000)
+    public void testVirtualConcurrency() {
+
+        final int poolSize = 8;
+        final CountDownLatch latch = new CountDownLatch(poolSize);
+        final AtomicInteger instances = new AtomicInteger();
+
+        final ParallelOracle<Void, Void> oracle = ParallelOracleBuilders.newDynamicParallelOracle(() -> {
+            instances.incrementAndGet();
+            return new NullOracle() {
+
+                @Override
+                public void processQueries(Collection<? extends Query<Void, Void>> queries) {
+                    try {
+                        latch.countDown();
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    super.processQueries(queries);
+                }
+            };
+        }).withBatchSize(1).withPoolSize(poolSize).withPoolPolicy(PoolPolicy.VIRTUAL).create();
+
+        try {
+            final List<AnswerOnceQuery<Void>> queries = createQueries(100);
+
+            // this method only returns, if 'poolSize' queries are processed concurrently
+            oracle.processQueries(queries);
+
+            for (AnswerOnceQuery<Void> query : queries) {
+                Assert.assertTrue(query.isAnswered());
+            }
+
+            // oracles are re-used across jobs and threads
+            Assert.assertEquals(instances.get(), poolSize);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test(timeOut = 2000)
+    public void testFailingSupplier() {
+
+        final int poolSize = 2;
+        final int numFailures = 3 * poolSize;
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final DynamicParallelOracle<Void, Void> oracle = ParallelOracleBuilders.newDynamicParallelOracle(() -> {
+            if (attempts.incrementAndGet() <= numFailures) {
+                throw new IllegalStateException("Oracle could not be created");
+            }
+            return new NullOracle();
+        }).withBatchSize(1).withPoolSize(poolSize).withPoolPolicy(PoolPolicy.VIRTUAL).create();
+
+        try {
+            // every failure must give back its permit, otherwise subsequent batches would block forever
+            while (attempts.get() < numFailures) {
+                Assert.assertThrows(IllegalStateException.class, () -> oracle.processQueries(createQueries(1)));
+            }
+
+            final List<AnswerOnceQuery<Void>> queries = createQueries(10);
+            oracle.processQueries(queries);
+
+            for (AnswerOnceQuery<Void> query : queries) {
+                Assert.assertTrue(query.isAnswered());
+            }
+
+            Assert.assertEquals(oracle.getStatisticalData().getQueueDepth(), 0);
+        } finally {
+            oracle.shutdown();
+        }
+    }
 }
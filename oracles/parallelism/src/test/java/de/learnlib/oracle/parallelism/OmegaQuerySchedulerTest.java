@@ -0,0 +1,116 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.api.query.OmegaQuery;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the {@link OmegaQueryScheduler}.
+ */
+public class OmegaQuerySchedulerTest {
+
+    @Test
+    public void testSiblings() {
+        final Word<Character> prefix = Word.fromCharSequence("ab");
+        final Word<Character> loop = Word.fromCharSequence("c");
+
+        final OmegaQuery<Character, String> q1 = new OmegaQuery<>(prefix, loop, 1);
+        final OmegaQuery<Character, String> q3 = new OmegaQuery<>(prefix, loop, 3);
+        final OmegaQuery<Character, String> q5 = new OmegaQuery<>(prefix, loop, 5);
+        final OmegaQuery<Character, String> q4 = new OmegaQuery<>(prefix, loop, 4);
+        final OmegaQuery<Character, String> other = new OmegaQuery<>(loop, prefix, 2);
+
+        final OmegaQueryScheduler<Character, String> scheduler =
+                new OmegaQueryScheduler<>(Arrays.asList(q1, q3, q5, q4, other));
+        final List<OmegaQuery<Character, String>> scheduled = scheduler.getScheduledQueries();
+
+        Assert.assertEquals(scheduled.size(), 2);
+        Assert.assertSame(scheduled.get(0), q5);
+        Assert.assertSame(scheduled.get(1), other);
+
+        // a periodicity is detected after three repetitions
+        q5.answer("out", 3);
+        other.answer("other", -1);
+        scheduler.propagateAnswers();
+
+        Assert.assertNull(q1.getOutput());
+        Assert.assertEquals(q1.getPeriodicity(), -1);
+        Assert.assertEquals(q3.getOutput(), "out");
+        Assert.assertEquals(q3.getPeriodicity(), 3);
+        Assert.assertEquals(q4.getOutput(), "out");
+        Assert.assertEquals(q4.getPeriodicity(), 3);
+    }
+
+    @Test
+    public void testIdenticalQueries() {
+        final OmegaQuery<Character, String> q1 = new OmegaQuery<>(Word.epsilon(), Word.fromLetter('a'), 2);
+        final OmegaQuery<Character, String> q2 = new OmegaQuery<>(Word.epsilon(), Word.fromLetter('a'), 2);
+
+        final OmegaQueryScheduler<Character, String> scheduler = new OmegaQueryScheduler<>(Arrays.asList(q1, q2));
+
+        Assert.assertEquals(scheduler.getScheduledQueries().size(), 2);
+    }
+
+    @Test
+    public void testDistribute() {
+        final Random random = new Random(42);
+        final List<OmegaQuery<Integer, Void>> queries = new ArrayList<>();
+
+        // a skewed workload, in which few queries are much more expensive than the others
+        for (int i = 0; i < 100; i++) {
+            final int repeat = i < 12 ? 100 : 1;
+            queries.add(new OmegaQuery<>(Word.epsilon(), Word.fromList(Collections.nCopies(5, i)), repeat));
+        }
+        Collections.shuffle(queries, random);
+
+        final int numBatches = 4;
+        final List<List<OmegaQuery<Integer, Void>>> batches = OmegaQueryScheduler.distribute(queries, numBatches);
+
+        Assert.assertEquals(batches.size(), numBatches);
+
+        int minSize = Integer.MAX_VALUE;
+        int maxSize = 0;
+        long minCost = Long.MAX_VALUE;
+        long maxCost = 0;
+        int total = 0;
+
+        for (List<OmegaQuery<Integer, Void>> batch : batches) {
+            long cost = 0;
+            for (OmegaQuery<Integer, Void> q : batch) {
+                cost += OmegaQueryScheduler.estimateCost(q);
+            }
+            minSize = Math.min(minSize, batch.size());
+            maxSize = Math.max(maxSize, batch.size());
+            minCost = Math.min(minCost, cost);
+            maxCost = Math.max(maxCost, cost);
+            total += batch.size();
+        }
+
+        Assert.assertEquals(total, queries.size());
+        Assert.assertTrue(maxSize - minSize <= 1);
+        // every batch receives the same number of expensive and cheap queries
+        Assert.assertEquals(maxCost, minCost);
+    }
+}
@@ -0,0 +1,150 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
+import de.learnlib.api.oracle.parallelism.ParallelOracle;
+import de.learnlib.api.oracle.parallelism.ThreadPool.PoolPolicy;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the early abortion of parallel oracles via {@link ParallelOracle#processQueries(Collection,
+ * java.util.function.Predicate)}.
+ */
+public class ParallelOracleAbortTest {
+
+    private static final int NUM_QUERIES = 1000;
+    private static final int NUM_ORACLES = 4;
+    private static final int BATCH_SIZE = 5;
+    private static final int CE_INDEX = 10;
+
+    @Test(dataProvider = "policies", dataProviderClass = Utils.class)
+    public void testStaticAbort(PoolPolicy policy) {
+        final AtomicInteger counter = new AtomicInteger();
+        final StaticParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newStaticParallelOracle(createOracles(counter, CE_INDEX))
+                                      .withMinBatchSize(BATCH_SIZE)
+                                      .withPoolPolicy(policy)
+                                      .create();
+
+        try {
+            checkAbort(oracle, counter);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(dataProvider = "policies", dataProviderClass = Utils.class)
+    public void testDynamicAbort(PoolPolicy policy) {
+        final AtomicInteger counter = new AtomicInteger();
+        final DynamicParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newDynamicParallelOracle(createOracles(counter, CE_INDEX))
+                                      .withBatchSize(BATCH_SIZE)
+                                      .withPoolSize(NUM_ORACLES)
+                                      .withPoolPolicy(policy)
+                                      .create();
+
+        try {
+            checkAbort(oracle, counter);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNoAbort() {
+        final AtomicInteger counter = new AtomicInteger();
+        final StaticParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newStaticParallelOracle(createOracles(counter, -1))
+                                      .withMinBatchSize(BATCH_SIZE)
+                                      .create();
+
+        try {
+            final List<DefaultQuery<Integer, Boolean>> queries = createQueries();
+            final DefaultQuery<Integer, Boolean> ce = oracle.processQueries(queries, q -> !q.getOutput());
+
+            Assert.assertNull(ce);
+            Assert.assertEquals(counter.get(), NUM_QUERIES);
+            for (DefaultQuery<Integer, Boolean> q : queries) {
+                Assert.assertEquals(q.getOutput(), Boolean.TRUE);
+            }
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    private static void checkAbort(ParallelOracle<Integer, Boolean> oracle, AtomicInteger counter) {
+        final DefaultQuery<Integer, Boolean> ce = oracle.processQueries(createQueries(), q -> !q.getOutput());
+
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput().firstSymbol().intValue(), CE_INDEX);
+        Assert.assertEquals(ce.getOutput(), Boolean.FALSE);
+        Assert.assertTrue(counter.get() < NUM_QUERIES / 2, "Processed " + counter.get() + " queries");
+    }
+
+    private static List<DefaultQuery<Integer, Boolean>> createQueries() {
+        final List<DefaultQuery<Integer, Boolean>> result = new ArrayList<>(NUM_QUERIES);
+
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            result.add(new DefaultQuery<>(Word.fromLetter(i)));
+        }
+
+        return result;
+    }
+
+    private static List<SlowOracle> createOracles(AtomicInteger counter, int ceIndex) {
+        final List<SlowOracle> result = new ArrayList<>(NUM_ORACLES);
+
+        for (int i = 0; i < NUM_ORACLES; i++) {
+            result.add(new SlowOracle(counter, ceIndex));
+        }
+
+        return result;
+    }
+
+    private static final class SlowOracle implements DFAMembershipOracle<Integer> {
+
+        private final AtomicInteger counter;
+        private final int ceIndex;
+
+        SlowOracle(AtomicInteger counter, int ceIndex) {
+            this.counter = counter;
+            this.ceIndex = ceIndex;
+        }
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Boolean>> queries) {
+            for (Query<Integer, Boolean> q : queries) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                counter.incrementAndGet();
+                q.answer(q.getInput().firstSymbol() != ceIndex);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
+import de.learnlib.api.oracle.parallelism.ThreadPool.PoolPolicy;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.PoolStatistics.WorkerStatistics;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PoolStatisticsTest {
+
+    private static final int NUM_QUERIES = 400;
+    private static final int NUM_ORACLES = 4;
+    private static final int BATCH_SIZE = 10;
+
+    @Test(dataProvider = "policies", dataProviderClass = Utils.class)
+    public void testStaticStatistics(PoolPolicy policy) {
+        final StaticParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newStaticParallelOracle(createOracles())
+                                      .withMinBatchSize(BATCH_SIZE)
+                                      .withPoolPolicy(policy)
+                                      .create();
+
+        try {
+            oracle.processQueries(createQueries());
+
+            final PoolStatistics statistics = oracle.getStatisticalData();
+            checkStatistics(statistics);
+
+            // the static oracle distributes the queries evenly among all oracles
+            final List<WorkerStatistics> workers = statistics.getWorkerStatistics();
+            Assert.assertEquals(workers.size(), NUM_ORACLES);
+            for (WorkerStatistics w : workers) {
+                Assert.assertEquals(w.getQueries(), NUM_QUERIES / NUM_ORACLES);
+                Assert.assertEquals(w.getJobs(), 1);
+            }
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test(dataProvider = "policies", dataProviderClass = Utils.class)
+    public void testDynamicStatistics(PoolPolicy policy) {
+        final DynamicParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newDynamicParallelOracle(createOracles())
+                                      .withBatchSize(BATCH_SIZE)
+                                      .withPoolSize(NUM_ORACLES)
+                                      .withPoolPolicy(policy)
+                                      .create();
+
+        try {
+            oracle.processQueries(createQueries());
+
+            final PoolStatistics statistics = oracle.getStatisticalData();
+            checkStatistics(statistics);
+
+            long jobs = 0;
+            for (WorkerStatistics w : statistics.getWorkerStatistics()) {
+                jobs += w.getJobs();
+            }
+            Assert.assertEquals(jobs, NUM_QUERIES / BATCH_SIZE);
+            Assert.assertTrue(statistics.getMaxQueueDepth() >= 1);
+
+            statistics.reset();
+            Assert.assertEquals(statistics.getTotalQueries(), 0);
+            Assert.assertTrue(statistics.getWorkerStatistics().isEmpty());
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedJobs() {
+        final DynamicParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.<Integer, Boolean>newDynamicParallelOracle(() -> {
+                    throw new IllegalStateException("Oracle could not be created");
+                }).withBatchSize(BATCH_SIZE).withPoolSize(1).withPoolPolicy(PoolPolicy.FIXED).create();
+
+        try {
+            final List<DefaultQuery<Integer, Boolean>> queries = createQueries().subList(0, BATCH_SIZE);
+            Assert.assertThrows(IllegalStateException.class, () -> oracle.processQueries(queries));
+
+            final PoolStatistics statistics = oracle.getStatisticalData();
+            Assert.assertEquals(statistics.getFailedJobs(), 1);
+            Assert.assertEquals(statistics.getQueueDepth(), 0);
+            Assert.assertEquals(statistics.getTotalQueries(), 0);
+
+            statistics.reset();
+            Assert.assertEquals(statistics.getFailedJobs(), 0);
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedJobs() {
+        final DynamicParallelOracle<Integer, Boolean> oracle =
+                ParallelOracleBuilders.newDynamicParallelOracle(createOracles())
+                                      .withBatchSize(BATCH_SIZE)
+                                      .withPoolSize(NUM_ORACLES)
+                                      .withPoolPolicy(PoolPolicy.FIXED)
+                                      .create();
+
+        oracle.shutdown();
+
+        final List<DefaultQuery<Integer, Boolean>> queries = createQueries();
+        Assert.assertThrows(RejectedExecutionException.class, () -> oracle.processQueries(queries));
+
+        // rejected jobs are neither pending nor started
+        final PoolStatistics statistics = oracle.getStatisticalData();
+        Assert.assertEquals(statistics.getRejectedJobs(), 1);
+        Assert.assertEquals(statistics.getQueueDepth(), 0);
+        Assert.assertEquals(statistics.getTotalQueries(), 0);
+        Assert.assertEquals(statistics.getFailedJobs(), 0);
+
+        statistics.reset();
+        Assert.assertEquals(statistics.getRejectedJobs(), 0);
+    }
+
+    @Test
+    public void testDerivedValues() {
+        final PoolStatistics statistics = new PoolStatistics("test");
+        final Object w1 = new Object();
+        final Object w2 = new Object();
+
+        Assert.assertEquals(statistics.getImbalanceRatio(), 1.0);
+        Assert.assertEquals(statistics.getLatencyQuantile(0.5), 0);
+
+        // 10 queries with 10ns latency each and 10 queries with 30ns latency each
+        statistics.recordJob(w1, 10, 100);
+        statistics.recordJob(w2, 5, 150);
+        statistics.recordJob(w2, 5, 150);
+
+        Assert.assertEquals(statistics.getTotalQueries(), 20);
+        Assert.assertEquals(statistics.getImbalanceRatio(), 1.5, 1e-9);
+        Assert.assertEquals(statistics.getLatencyQuantile(0.5), 16);
+        Assert.assertEquals(statistics.getLatencyQuantile(0.99), 32);
+
+        final long[] histogram = statistics.getLatencyHistogram();
+        Assert.assertEquals(histogram[3], 10);
+        Assert.assertEquals(histogram[4], 10);
+
+        final List<WorkerStatistics> workers = statistics.getWorkerStatistics();
+        Assert.assertEquals(workers.size(), 2);
+        Assert.assertEquals(workers.get(0).getQueries(), 10);
+        Assert.assertEquals(workers.get(1).getJobs(), 2);
+        Assert.assertEquals(workers.get(1).getThroughput(), 1e9 / 30, 1e-3);
+
+        statistics.jobSubmitted();
+        statistics.jobSubmitted();
+        statistics.jobStarted();
+        Assert.assertEquals(statistics.getQueueDepth(), 1);
+        Assert.assertEquals(statistics.getMaxQueueDepth(), 2);
+    }
+
+    private static void checkStatistics(PoolStatistics statistics) {
+        Assert.assertEquals(statistics.getTotalQueries(), NUM_QUERIES);
+        Assert.assertEquals(statistics.getQueueDepth(), 0);
+        Assert.assertTrue(statistics.getImbalanceRatio() >= 1.0);
+
+        long histogramSum = 0;
+        for (long count : statistics.getLatencyHistogram()) {
+            histogramSum += count;
+        }
+        Assert.assertEquals(histogramSum, NUM_QUERIES);
+
+        long workerSum = 0;
+        for (WorkerStatistics w : statistics.getWorkerStatistics()) {
+            workerSum += w.getQueries();
+        }
+        Assert.assertEquals(workerSum, NUM_QUERIES);
+        Assert.assertTrue(statistics.getDetails().startsWith(statistics.getSummary()));
+    }
+
+    private static List<DefaultQuery<Integer, Boolean>> createQueries() {
+        final List<DefaultQuery<Integer, Boolean>> result = new ArrayList<>(NUM_QUERIES);
+
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            result.add(new DefaultQuery<>(Word.fromLetter(i)));
+        }
+
+        return result;
+    }
+
+    private static List<EvenOracle> createOracles() {
+        final List<EvenOracle> result = new ArrayList<>(NUM_ORACLES);
+
+        for (int i = 0; i < NUM_ORACLES; i++) {
+            result.add(new EvenOracle());
+        }
+
+        return result;
+    }
+
+    private static final class EvenOracle implements DFAMembershipOracle<Integer> {
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Boolean>> queries) {
+            for (Query<Integer, Boolean> q : queries) {
+                q.answer(q.getInput().firstSymbol() % 2 == 0);
+            }
+        }
+    }
+}
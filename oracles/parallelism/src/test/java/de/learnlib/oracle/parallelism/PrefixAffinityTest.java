@@ -0,0 +1,132 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the prefix affinity of {@link AbstractStaticBatchProcessor}s.
+ */
+public class PrefixAffinityTest {
+
+    private static final int NUM_GROUPS = 4;
+    private static final int GROUP_SIZE = 25;
+    private static final int WORD_LENGTH = 5;
+
+    @Test
+    public void testArrangement() {
+        final List<Word<Integer>> words = createWords(new Random(42));
+        final List<Word<Integer>> arranged = PrefixAffinity.arrange(words, w -> w);
+
+        Assert.assertEquals(arranged.size(), words.size());
+        Assert.assertEquals(new HashSet<>(arranged), new HashSet<>(words));
+
+        // for every prefix, all words with this prefix have to be located in a contiguous range
+        final Map<Word<Integer>, Integer> first = new HashMap<>();
+        final Map<Word<Integer>, Integer> last = new HashMap<>();
+        final Map<Word<Integer>, Integer> count = new HashMap<>();
+
+        for (int i = 0; i < arranged.size(); i++) {
+            for (Word<Integer> prefix : arranged.get(i).prefixes(false)) {
+                first.putIfAbsent(prefix, i);
+                last.put(prefix, i);
+                count.merge(prefix, 1, Integer::sum);
+            }
+        }
+
+        for (Map.Entry<Word<Integer>, Integer> e : count.entrySet()) {
+            final Word<Integer> prefix = e.getKey();
+            Assert.assertEquals(last.get(prefix) - first.get(prefix) + 1, e.getValue().intValue(), prefix.toString());
+        }
+    }
+
+    @Test
+    public void testRouting() {
+        final List<RecordingOracle> oracles = new ArrayList<>(NUM_GROUPS);
+        for (int i = 0; i < NUM_GROUPS; i++) {
+            oracles.add(new RecordingOracle());
+        }
+
+        final StaticParallelOracle<Integer, Void> oracle = ParallelOracleBuilders.newStaticParallelOracle(oracles)
+                                                                                 .withMinBatchSize(1)
+                                                                                 .withPrefixAffinity(true)
+                                                                                 .create();
+
+        try {
+            final List<DefaultQuery<Integer, Void>> queries = new ArrayList<>();
+            for (Word<Integer> w : createWords(new Random(42))) {
+                queries.add(new DefaultQuery<>(w));
+            }
+
+            oracle.processQueries(queries);
+
+            // every group of queries (identified by the first symbol) is processed by a single oracle
+            final Set<Integer> seenGroups = new HashSet<>();
+            for (RecordingOracle o : oracles) {
+                Assert.assertEquals(o.firstSymbols.size(), 1);
+                Assert.assertTrue(seenGroups.addAll(o.firstSymbols));
+            }
+        } finally {
+            oracle.shutdownNow();
+        }
+    }
+
+    private static List<Word<Integer>> createWords(Random random) {
+        final List<Word<Integer>> result = new ArrayList<>(NUM_GROUPS * GROUP_SIZE);
+
+        for (int g = 0; g < NUM_GROUPS; g++) {
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                final Integer[] symbols = new Integer[WORD_LENGTH];
+                symbols[0] = g;
+                for (int j = 1; j < WORD_LENGTH; j++) {
+                    symbols[j] = random.nextInt(3);
+                }
+                result.add(Word.fromSymbols(symbols));
+            }
+        }
+
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    private static final class RecordingOracle implements MembershipOracle<Integer, Void> {
+
+        private final Set<Integer> firstSymbols = new HashSet<>();
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Void>> queries) {
+            for (Query<Integer, Void> q : queries) {
+                firstSymbols.add(q.getInput().firstSymbol());
+                q.answer(null);
+            }
+        }
+    }
+}
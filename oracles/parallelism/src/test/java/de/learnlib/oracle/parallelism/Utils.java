@@ -37,7 +37,9 @@ final class Utils {
 
     @DataProvider(name = "policies")
     static Object[][] createPolicies() {
-        return new Object[][] {new Object[] {PoolPolicy.CACHED}, new Object[] {PoolPolicy.FIXED}};
+        return new Object[][] {new Object[] {PoolPolicy.CACHED},
+                               new Object[] {PoolPolicy.FIXED},
+                               new Object[] {PoolPolicy.VIRTUAL}};
     }
 
     static Word<Integer> createWord(int minLength) {